@@ -15,9 +15,16 @@
  */
 package org.kie.workbench.common.dmn.backend;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -27,7 +34,6 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -150,19 +156,22 @@ public class DMNMarshaller implements DiagramMarshaller<Graph, Metadata, Diagram
     @Override
     public Graph unmarshall(final Metadata metadata,
                             final InputStream input) throws IOException {
-        org.kie.dmn.model.v1_1.Definitions dmnXml = marshaller.unmarshal(new InputStreamReader(input));
+        //The model is read incrementally from the stream, never buffered as a whole String
+        org.kie.dmn.model.v1_1.Definitions dmnXml = marshaller.unmarshal(new BufferedReader(new InputStreamReader(input,
+                                                                                                                  StandardCharsets.UTF_8)));
 
         Map<String, Entry<org.kie.dmn.model.v1_1.DRGElement, Node>> elems = dmnXml.getDrgElement().stream().collect(Collectors.toMap(org.kie.dmn.model.v1_1.DRGElement::getId,
                                                                                                                                      dmn -> new SimpleEntry<>(dmn,
                                                                                                                                                               dmnToStunner(dmn))));
 
         Optional<org.kie.workbench.common.dmn.backend.definition.v1_1.dd.DMNDiagram> dmnDDDiagram = findDMNDiagram(dmnXml);
+        Map<String, DMNShape> dmnShapes = indexDMNShapes(dmnDDDiagram);
 
         for (Entry<org.kie.dmn.model.v1_1.DRGElement, Node> kv : elems.values()) {
             org.kie.dmn.model.v1_1.DRGElement elem = kv.getKey();
             Node currentNode = kv.getValue();
 
-            ddExtAugmentStunner(dmnDDDiagram, currentNode);
+            ddExtAugmentStunner(dmnShapes, currentNode);
 
             // DMN spec table 2: Requirements connection rules
             if (elem instanceof org.kie.dmn.model.v1_1.Decision) {
@@ -270,7 +279,7 @@ public class DMNMarshaller implements DiagramMarshaller<Graph, Metadata, Diagram
 
         Map<String, Node<View<TextAnnotation>, ?>> textAnnotations = dmnXml.getArtifact().stream().filter(org.kie.dmn.model.v1_1.TextAnnotation.class::isInstance).map(org.kie.dmn.model.v1_1.TextAnnotation.class::cast).collect(Collectors.toMap(org.kie.dmn.model.v1_1.TextAnnotation::getId,
                                                                                                                                                                                                                                                    textAnnotationConverter::nodeFromDMN));
-        textAnnotations.values().forEach(n -> ddExtAugmentStunner(dmnDDDiagram, n));
+        textAnnotations.values().forEach(n -> ddExtAugmentStunner(dmnShapes, n));
 
         List<org.kie.dmn.model.v1_1.Association> associations = dmnXml.getArtifact().stream().filter(org.kie.dmn.model.v1_1.Association.class::isInstance).map(org.kie.dmn.model.v1_1.Association.class::cast).collect(Collectors.toList());
         for (org.kie.dmn.model.v1_1.Association a : associations) {
@@ -376,6 +385,29 @@ public class DMNMarshaller implements DiagramMarshaller<Graph, Metadata, Diagram
 
     @Override
     public String marshall(final Diagram<Graph, Metadata> diagram) throws IOException {
+        StringWriter writer = new StringWriter();
+        marshall(diagram,
+                 writer);
+        return writer.toString();
+    }
+
+    /**
+     * Marshalls the diagram as DMN XML, encoded in UTF-8, to the given stream. Only the final String copy of the XML is
+     * avoided: the whole DMN model, decision table rules included, is still built in memory before being written. The
+     * stream is flushed but not closed.
+     */
+    @Override
+    public void marshall(final Diagram<Graph, Metadata> diagram,
+                         final OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output,
+                                                                  StandardCharsets.UTF_8));
+        marshall(diagram,
+                 writer);
+        writer.flush();
+    }
+
+    private void marshall(final Diagram<Graph, Metadata> diagram,
+                          final Writer writer) throws IOException {
         Graph<?, Node<View, ?>> g = diagram.getGraph();
 
         Map<String, org.kie.dmn.model.v1_1.DRGElement> nodes = new HashMap<>();
@@ -414,43 +446,57 @@ public class DMNMarshaller implements DiagramMarshaller<Graph, Metadata, Diagram
         nodes.values().forEach(definitions.getDrgElement()::add);
         textAnnotations.values().forEach(definitions.getArtifact()::add);
 
-        String marshalled = marshaller.marshal(definitions);
-
-        return marshalled;
+        marshaller.marshal(definitions,
+                           writer);
     }
 
-    private void ddExtAugmentStunner(Optional<org.kie.workbench.common.dmn.backend.definition.v1_1.dd.DMNDiagram> dmnDDDiagram, Node currentNode) {
+    /**
+     * Indexes the shapes of the diagram by the id of the DMN element they represent, in a single pass, the first shape of
+     * an element winning.
+     */
+    static Map<String, DMNShape> indexDMNShapes(Optional<org.kie.workbench.common.dmn.backend.definition.v1_1.dd.DMNDiagram> dmnDDDiagram) {
+        Map<String, DMNShape> dmnShapes = new HashMap<>();
         if (!dmnDDDiagram.isPresent()) {
-            return;
+            return dmnShapes;
+        }
+        for (DMNShape shape : dmnDDDiagram.get().getAny()) {
+            if (shape.getDmnElementRef() != null) {
+                dmnShapes.putIfAbsent(shape.getDmnElementRef(),
+                                      shape);
+            }
         }
+        return dmnShapes;
+    }
 
-        Stream<DMNShape> drgShapeStream = dmnDDDiagram.get().getAny().stream().filter(DMNShape.class::isInstance).map(DMNShape.class::cast);
+    private void ddExtAugmentStunner(Map<String, DMNShape> dmnShapes, Node currentNode) {
+        if (dmnShapes.isEmpty()) {
+            return;
+        }
 
         View content = (View) currentNode.getContent();
         if (content.getDefinition() instanceof Decision) {
             Decision d = (Decision) content.getDefinition();
-            internalAugment(drgShapeStream, d.getId(), content.getBounds().getUpperLeft(), d.getDimensionsSet(), content.getBounds().getLowerRight(), d.getBackgroundSet(), d::setFontSet);
+            internalAugment(dmnShapes, d.getId(), content.getBounds().getUpperLeft(), d.getDimensionsSet(), content.getBounds().getLowerRight(), d.getBackgroundSet(), d::setFontSet);
         } else if (content.getDefinition() instanceof InputData) {
             InputData d = (InputData) content.getDefinition();
-            internalAugment(drgShapeStream, d.getId(), content.getBounds().getUpperLeft(), d.getDimensionsSet(), content.getBounds().getLowerRight(), d.getBackgroundSet(), d::setFontSet);
+            internalAugment(dmnShapes, d.getId(), content.getBounds().getUpperLeft(), d.getDimensionsSet(), content.getBounds().getLowerRight(), d.getBackgroundSet(), d::setFontSet);
         } else if (content.getDefinition() instanceof BusinessKnowledgeModel) {
             BusinessKnowledgeModel d = (BusinessKnowledgeModel) content.getDefinition();
-            internalAugment(drgShapeStream, d.getId(), content.getBounds().getUpperLeft(), d.getDimensionsSet(), content.getBounds().getLowerRight(), d.getBackgroundSet(), d::setFontSet);
+            internalAugment(dmnShapes, d.getId(), content.getBounds().getUpperLeft(), d.getDimensionsSet(), content.getBounds().getLowerRight(), d.getBackgroundSet(), d::setFontSet);
         } else if (content.getDefinition() instanceof KnowledgeSource) {
             KnowledgeSource d = (KnowledgeSource) content.getDefinition();
-            internalAugment(drgShapeStream, d.getId(), content.getBounds().getUpperLeft(), d.getDimensionsSet(), content.getBounds().getLowerRight(), d.getBackgroundSet(), d::setFontSet);
+            internalAugment(dmnShapes, d.getId(), content.getBounds().getUpperLeft(), d.getDimensionsSet(), content.getBounds().getLowerRight(), d.getBackgroundSet(), d::setFontSet);
         } else if (content.getDefinition() instanceof TextAnnotation) {
             TextAnnotation d = (TextAnnotation) content.getDefinition();
-            internalAugment(drgShapeStream, d.getId(), content.getBounds().getUpperLeft(), d.getDimensionsSet(), content.getBounds().getLowerRight(), d.getBackgroundSet(), d::setFontSet);
+            internalAugment(dmnShapes, d.getId(), content.getBounds().getUpperLeft(), d.getDimensionsSet(), content.getBounds().getLowerRight(), d.getBackgroundSet(), d::setFontSet);
         }
     }
 
-    private void internalAugment(Stream<DMNShape> drgShapeStream, Id id, Bound ul, RectangleDimensionsSet dimensionsSet, Bound lr, BackgroundSet bgset, Consumer<FontSet> fontSetSetter) {
-        Optional<DMNShape> drgShapeOpt = drgShapeStream.filter(shape -> shape.getDmnElementRef().equals(id.getValue())).findFirst();
-        if (!drgShapeOpt.isPresent()) {
+    private void internalAugment(Map<String, DMNShape> dmnShapes, Id id, Bound ul, RectangleDimensionsSet dimensionsSet, Bound lr, BackgroundSet bgset, Consumer<FontSet> fontSetSetter) {
+        DMNShape drgShape = dmnShapes.get(id.getValue());
+        if (drgShape == null) {
             return;
         }
-        DMNShape drgShape = drgShapeOpt.get();
 
         ((BoundImpl) ul).setX(drgShape.getBounds().getX());
         ((BoundImpl) ul).setY(drgShape.getBounds().getY());
@@ -16,10 +16,13 @@
 
 package org.kie.workbench.common.dmn.backend;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.AbstractMap;
 import java.util.Arrays;
 import java.util.Collection;
@@ -32,6 +35,7 @@ import java.util.Scanner;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.function.Consumer;
+import java.util.logging.Logger;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -45,6 +49,7 @@ import javax.xml.xpath.XPathFactory;
 import org.apache.tools.ant.filters.StringInputStream;
 import org.jboss.errai.marshalling.server.MappingContextSingleton;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -130,6 +135,8 @@ import static org.mockito.Mockito.when;
 @RunWith(MockitoJUnitRunner.class)
 public class DMNMarshallerTest {
 
+    private static final Logger LOGGER = Logger.getLogger(DMNMarshallerTest.class.getName());
+
     private static final String DMN_DEF_SET_ID = BindableAdapterUtils.getDefinitionSetId(DMNDefinitionSet.class);
 
     @Mock
@@ -292,6 +299,30 @@ public class DMNMarshallerTest {
         assertFalse(dmnResult.getMessages().toString(), dmnResult.hasErrors());
     }
 
+    @Test
+    public void testMarshallToOutputStream() throws IOException {
+        DMNMarshaller m = new DMNMarshaller(new XMLEncoderDiagramMetadataMarshaller(),
+                                            applicationFactoryManager);
+        Graph<?, ?> g = m.unmarshall(null,
+                                     this.getClass().getResourceAsStream("/diamond.dmn"));
+        DiagramImpl diagram = new DiagramImpl("",
+                                              null);
+        diagram.setGraph(g);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        m.marshall(diagram,
+                   output);
+
+        assertEquals(m.marshall(diagram),
+                     new String(output.toByteArray(),
+                                StandardCharsets.UTF_8));
+
+        @SuppressWarnings("unchecked")
+        Graph<?, Node<?, ?>> g2 = m.unmarshall(null,
+                                               new ByteArrayInputStream(output.toByteArray()));
+        checkDiamongGraph(g2);
+    }
+
     @Test
     public void test_diamond() throws IOException {
         // round trip test
@@ -1120,4 +1151,120 @@ public class DMNMarshallerTest {
         InputSource actual = new InputSource(new StringReader(actualXml));
         assertEquals(expression.evaluate(expected), expression.evaluate(actual));
     }
+
+    @Test
+    public void testIndexDMNShapes() {
+        org.kie.workbench.common.dmn.backend.definition.v1_1.dd.DMNDiagram dmnDDDiagram = new org.kie.workbench.common.dmn.backend.definition.v1_1.dd.DMNDiagram();
+        DMNShape first = newDMNShape("element",
+                                     10.0);
+        DMNShape duplicate = newDMNShape("element",
+                                         20.0);
+        DMNShape other = newDMNShape("other",
+                                     30.0);
+        dmnDDDiagram.getAny().addAll(Arrays.asList(first,
+                                                   duplicate,
+                                                   newDMNShape(null,
+                                                               40.0),
+                                                   other));
+
+        Map<String, DMNShape> dmnShapes = DMNMarshaller.indexDMNShapes(Optional.of(dmnDDDiagram));
+
+        assertEquals(2,
+                     dmnShapes.size());
+        assertEquals(first,
+                     dmnShapes.get("element"));
+        assertEquals(other,
+                     dmnShapes.get("other"));
+        assertTrue(DMNMarshaller.indexDMNShapes(Optional.empty()).isEmpty());
+    }
+
+    /**
+     * Measures the unmarshalling and marshalling of generated diagrams. Only runs when the number of DRG elements of
+     * the diagrams is set by the <code>org.kie.dmn.benchmark.sizes</code> system property, e.g. 100,1000,5000.
+     */
+    @Test
+    public void benchmarkMarshallUnmarshall() throws IOException {
+        final String sizes = System.getProperty("org.kie.dmn.benchmark.sizes");
+        Assume.assumeNotNull(sizes);
+        final DMNMarshaller m = new DMNMarshaller(new XMLEncoderDiagramMetadataMarshaller(),
+                                                  applicationFactoryManager);
+        for (String size : sizes.split(",")) {
+            final int elements = Integer.parseInt(size.trim());
+            final String dmnXml = generateDMN(elements);
+
+            long start = System.nanoTime();
+            @SuppressWarnings("unchecked")
+            final Graph<?, Node<View, ?>> g = m.unmarshall(null,
+                                                           new StringInputStream(dmnXml));
+            final long unmarshallNanos = System.nanoTime() - start;
+
+            final DiagramImpl diagram = new DiagramImpl("",
+                                                        null);
+            diagram.setGraph(g);
+            start = System.nanoTime();
+            final String marshalled = m.marshall(diagram);
+            final long marshallNanos = System.nanoTime() - start;
+
+            LOGGER.info("DMN elements: " + elements +
+                                ", unmarshall: " + unmarshallNanos / 1000000 + " ms" +
+                                ", marshall: " + marshallNanos / 1000000 + " ms");
+
+            //All elements, plus the root of the diagram
+            assertEquals(elements + 1,
+                         StreamSupport.stream(g.nodes().spliterator(),
+                                              false).count());
+            final Node<View, ?> last = g.getNode(generatedId(elements - 1));
+            assertEquals(elements - 1,
+                         last.getContent().getBounds().getUpperLeft().getX(),
+                         0.0);
+            assertTrue(marshalled.contains("dmnElementRef=\"" + generatedId(elements - 1) + "\""));
+        }
+    }
+
+    private static DMNShape newDMNShape(String dmnElementRef,
+                                        double x) {
+        DMNShape shape = new DMNShape();
+        shape.setDmnElementRef(dmnElementRef);
+        Bounds bounds = new Bounds();
+        bounds.setX(x);
+        shape.setBounds(bounds);
+        return shape;
+    }
+
+    private static String generatedId(int index) {
+        return (index % 2 == 0 ? "_input-" : "_decision-") + index;
+    }
+
+    //Pairs of an input data and a decision requiring it, each with its shape
+    private static String generateDMN(int elements) {
+        StringBuilder shapes = new StringBuilder();
+        StringBuilder drgElements = new StringBuilder();
+        for (int i = 0; i < elements; i++) {
+            String id = generatedId(i);
+            shapes.append("<dmndi:DMNShape id=\"dmnshape-").append(id).append("\" dmnElementRef=\"").append(id).append("\">")
+                    .append("<dc:Bounds x=\"").append(i).append(".0\" y=\"").append(i).append(".0\" width=\"100.0\" height=\"50.0\"/>")
+                    .append("</dmndi:DMNShape>");
+            if (i % 2 == 0) {
+                drgElements.append("<semantic:inputData id=\"").append(id).append("\" name=\"Input ").append(i).append("\">")
+                        .append("<semantic:variable id=\"").append(id).append("-variable\" name=\"Input ").append(i).append("\" typeRef=\"feel:string\"/>")
+                        .append("</semantic:inputData>");
+            } else {
+                drgElements.append("<semantic:decision id=\"").append(id).append("\" name=\"Decision ").append(i).append("\">")
+                        .append("<semantic:variable id=\"").append(id).append("-variable\" name=\"Decision ").append(i).append("\" typeRef=\"feel:string\"/>")
+                        .append("<semantic:informationRequirement><semantic:requiredInput href=\"#").append(generatedId(i - 1)).append("\"/></semantic:informationRequirement>")
+                        .append("<semantic:literalExpression id=\"").append(id).append("-expression\"><semantic:text>\"Decision ").append(i).append("\"</semantic:text></semantic:literalExpression>")
+                        .append("</semantic:decision>");
+            }
+        }
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>" +
+                "<semantic:definitions xmlns:semantic=\"http://www.omg.org/spec/DMN/20151101/dmn.xsd\"" +
+                " xmlns:dmndi=\"java://org.kie.workbench.common.dmn.backend.definition.v1_1.dd\"" +
+                " xmlns:di=\"http://www.omg.org/spec/CMMN/20151109/DI\"" +
+                " xmlns:feel=\"http://www.omg.org/spec/FEEL/20140401\"" +
+                " xmlns:dc=\"http://www.omg.org/spec/CMMN/20151109/DC\"" +
+                " id=\"_benchmark\" name=\"benchmark\" namespace=\"https://github.com/kiegroup/benchmark\">" +
+                "<semantic:extensionElements><dmndi:DMNDiagram>" + shapes + "</dmndi:DMNDiagram></semantic:extensionElements>" +
+                drgElements +
+                "</semantic:definitions>";
+    }
 }
\ No newline at end of file
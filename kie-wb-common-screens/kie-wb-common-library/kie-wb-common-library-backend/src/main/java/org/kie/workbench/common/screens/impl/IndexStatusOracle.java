@@ -18,12 +18,14 @@ package org.kie.workbench.common.screens.impl;
 import static java.lang.String.format;
 
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import javax.enterprise.context.Dependent;
 import javax.inject.Inject;
 
 import org.guvnor.common.services.project.model.WorkspaceProject;
 import org.kie.workbench.common.screens.library.api.index.Constants;
+import org.kie.workbench.common.services.refactoring.backend.server.indexing.BulkIndexer;
 import org.slf4j.Logger;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.ext.metadata.MetadataConfig;
@@ -36,18 +38,30 @@ import org.uberfire.java.nio.file.Path;
 @Dependent
 public class IndexStatusOracle {
 
+    /**
+     * Longest time, in milliseconds, to wait for a project being indexed before reporting it as not indexed; by
+     * default the current state is reported without waiting.
+     */
+    public static final String INDEX_WAIT_PROPERTY = "org.kie.library.index.wait";
+
+    private static final long POLL_INTERVAL = 100;
+
     private final Logger logger;
     private final MetaIndexEngine indexEngine;
+    private final BulkIndexer bulkIndexer;
+    private final long indexWait;
 
     // Proxying
     public IndexStatusOracle() {
-        this(null, null);
+        this(null, null, null);
     }
 
     @Inject
-    public IndexStatusOracle(MetadataConfig config, Logger logger) {
+    public IndexStatusOracle(MetadataConfig config, BulkIndexer bulkIndexer, Logger logger) {
         this.logger = logger;
         this.indexEngine = config.getIndexEngine();
+        this.bulkIndexer = bulkIndexer;
+        this.indexWait = Long.getLong(INDEX_WAIT_PROPERTY, 0);
     }
 
     public boolean isIndexed(WorkspaceProject project) {
@@ -57,6 +71,36 @@ public class IndexStatusOracle {
                         .orElse(false);
     }
 
+    /**
+     * Waits, up to the time set by the <code>org.kie.library.index.wait</code> system property (0 by default), for a
+     * project to be indexed: for its pending bulk indexing if any, then for the index to be ready.
+     */
+    public boolean awaitIndexed(WorkspaceProject project) {
+        Optional<KCluster> clusterOf = kClusterOf(project);
+        if (!clusterOf.isPresent()) {
+            return false;
+        }
+
+        KCluster cluster = clusterOf.get();
+        long deadline = System.currentTimeMillis() + indexWait;
+        if (!bulkIndexer.awaitCompletion(cluster, indexWait, TimeUnit.MILLISECONDS)) {
+            return false;
+        }
+        while (!indexEngine.isIndexReady(cluster, Constants.INDEXER_ID)) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            try {
+                Thread.sleep(Math.min(POLL_INTERVAL, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
     private Optional<KCluster> kClusterOf(WorkspaceProject project) {
         try {
             Path rootPath = Paths.convert(project.getRootPath());
@@ -334,7 +334,7 @@ public class LibraryServiceImpl implements LibraryService {
             log.info("Asset lookup result: project [{}] does not exist.",
                      projectIdentifierFrom(query));
             return AssetQueryResult.nonexistent();
-        } else if (!indexOracle.isIndexed(query.getProject())) {
+        } else if (!indexOracle.awaitIndexed(query.getProject())) {
             log.info("Asset lookup result: project [{}] is not indexed.",
                      projectIdentifierFrom(query));
             return AssetQueryResult.unindexed();
@@ -16,10 +16,7 @@
 package org.kie.workbench.common.screens.impl;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 
 import org.junit.After;
@@ -33,8 +30,7 @@ import org.kie.workbench.common.services.refactoring.model.index.terms.valueterm
 import org.kie.workbench.common.services.refactoring.model.index.terms.valueterms.ValueIndexTerm.TermSearchType;
 import org.kie.workbench.common.services.refactoring.model.query.RefactoringPageRequest;
 import org.kie.workbench.common.services.refactoring.model.query.RefactoringPageRow;
-import org.uberfire.ext.metadata.model.KObject;
-import org.uberfire.ext.metadata.model.impl.KObjectImpl;
+import org.uberfire.java.nio.file.Path;
 import org.uberfire.paging.PageResponse;
 
 import static org.junit.Assert.assertEquals;
@@ -104,34 +100,35 @@ public class FindAllLibraryAssetsQueryTest
     }
 
     @Test
-    public void cleanupLibraryResults() {
-        //This is a temporary way to cleanup index results
-        //for library assets list and count.
-        //In cluster environment library index each file more than once.
-        //The index should be revised on next release (7.6).
-        KObject k1 = new KObjectImpl("",
-                                     "",
-                                     "clusterId1",
-                                     "",
-                                     "key1",
-                                     new ArrayList<>(),
-                                     false);
-        KObject k2 = new KObjectImpl("",
-                                     "",
-                                     "clusterId2",
-                                     "",
-                                     "key2",
-                                     new ArrayList<>(),
-                                     false);
-        List<KObject> kObjects = service.distinct(Arrays.asList(k1,
-                                                                k1,
-                                                                k2));
-        assertEquals(2,
-                     kObjects.size());
-        assertEquals(k1,
-                     kObjects.get(0));
-        assertEquals(k2,
-                     kObjects.get(1));
+    public void reindexedAssetsAreListedOnce() throws IOException, InterruptedException {
+
+        //Add a test file and change it, so that it is indexed twice
+        addTestFile(TEST_MODULE_ROOT,
+                    "drl1.drl");
+
+        Thread.sleep(5000); //wait for events to be consumed from jgit -> (notify changes -> watcher -> index) -> lucene index
+
+        final Path path = basePath.resolve(TEST_MODULE_ROOT + "/drl1.drl");
+        ioService().write(path,
+                          loadText("drl1.drl") + "//changed");
+
+        Thread.sleep(5000); //wait for events to be consumed from jgit -> (notify changes -> watcher -> index) -> lucene index
+
+        {
+            final RefactoringPageRequest request = new RefactoringPageRequest(FindAllLibraryAssetsQuery.NAME,
+                                                                              new HashSet<ValueIndexTerm>() {{
+                                                                                  add(new LibraryValueRepositoryRootIndexTerm(getRepositoryRootPath(),
+                                                                                                                              TermSearchType.NORMAL));
+                                                                              }},
+                                                                              0,
+                                                                              10,
+                                                                              false);
+
+            assertEquals(1,
+                         service.queryHitCount(request));
+            assertEquals(1,
+                         service.query(request).getPageRowList().size());
+        }
     }
 
     @Test
@@ -187,7 +187,7 @@ public class LibraryServiceImplTest {
         when(ou2.getRepositories()).thenReturn(Arrays.asList(repo1,
                                                              repo2Default));
 
-        when(indexOracle.isIndexed(any())).thenReturn(true);
+        when(indexOracle.awaitIndexed(any())).thenReturn(true);
 
         modulesMock = new HashSet<>();
         modulesMock.add(mock(Module.class));
@@ -220,7 +220,7 @@ public class LibraryServiceImplTest {
     public void queryingUnindexedProjectGivesUnindexedResult() throws Exception {
         Branch branch = new Branch("fake-branch", mockPath("default:///a/b/c"));
         final WorkspaceProject project = new WorkspaceProject(ou1, repo1, branch, mock(Module.class));
-        when(indexOracle.isIndexed(project)).thenReturn(false);
+        when(indexOracle.awaitIndexed(project)).thenReturn(false);
         when(ioService.exists(any())).thenReturn(true);
 
         final ProjectAssetsQuery query = new ProjectAssetsQuery(project,
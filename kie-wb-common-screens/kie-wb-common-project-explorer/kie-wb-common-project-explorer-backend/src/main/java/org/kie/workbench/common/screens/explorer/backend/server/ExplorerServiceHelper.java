@@ -19,21 +19,20 @@ package org.kie.workbench.common.screens.explorer.backend.server;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import javax.inject.Inject;
 import javax.inject.Named;
 
 import com.google.common.collect.Lists;
-import com.thoughtworks.xstream.XStream;
 import org.guvnor.common.services.backend.file.LinkedDotFileFilter;
-import org.guvnor.common.services.backend.file.LinkedRegularFileFilter;
 import org.guvnor.common.services.project.model.Module;
 import org.guvnor.common.services.project.model.Package;
 import org.guvnor.common.services.project.model.WorkspaceProject;
 import org.guvnor.common.services.shared.metadata.MetadataService;
-import org.kie.soup.commons.xstream.XStreamUtils;
 import org.kie.workbench.common.screens.explorer.model.FolderItem;
 import org.kie.workbench.common.screens.explorer.model.FolderItemOperation;
 import org.kie.workbench.common.screens.explorer.model.FolderItemType;
@@ -65,13 +64,10 @@ public class ExplorerServiceHelper {
     private ExecutorService executorService;
 
     private LinkedDotFileFilter dotFileFilter = new LinkedDotFileFilter();
-    private LinkedRegularFileFilter regularFileFilter = new LinkedRegularFileFilter(dotFileFilter);
-    private XStream xs;
 
     private KieModuleService moduleService;
     private FolderListingResolver folderListingResolver;
     private IOService ioService;
-    private IOService ioServiceConfig;
     private VFSLockServiceImpl lockService;
     private MetadataService metadataService;
     private UserServicesImpl userServices;
@@ -79,35 +75,38 @@ public class ExplorerServiceHelper {
     private DeleteService deleteService;
     private RenameService renameService;
     private CopyService copyService;
+    private FolderListingCache folderListingCache;
+    private UserExplorerDataStore userExplorerDataStore;
 
     public ExplorerServiceHelper() {
         //WELD proxy support
-        xs = XStreamUtils.createTrustingXStream();
     }
 
     @Inject
     public ExplorerServiceHelper(final KieModuleService moduleService,
                                  final FolderListingResolver folderListingResolver,
                                  @Named("ioStrategy") final IOService ioService,
-                                 @Named("configIO") final IOService ioServiceConfig,
                                  final VFSLockServiceImpl lockService,
                                  final MetadataService metadataService,
                                  final UserServicesImpl userServices,
                                  final DeleteService deleteService,
                                  final RenameService renameService,
                                  final CopyService copyService,
+                                 final FolderListingCache folderListingCache,
+                                 final UserExplorerDataStore userExplorerDataStore,
                                  @Managed final ExecutorService executorService) {
         this();
         this.moduleService = moduleService;
         this.folderListingResolver = folderListingResolver;
         this.ioService = ioService;
-        this.ioServiceConfig = ioServiceConfig;
         this.lockService = lockService;
         this.metadataService = metadataService;
         this.userServices = userServices;
         this.deleteService = deleteService;
         this.renameService = renameService;
         this.copyService = copyService;
+        this.folderListingCache = folderListingCache;
+        this.userExplorerDataStore = userExplorerDataStore;
         this.executorService = executorService;
     }
 
@@ -191,50 +190,43 @@ public class ExplorerServiceHelper {
     public FolderListing getFolderListing(final Path path,
                                           final ActiveOptions options
     ) {
-        //Get list of files and folders contained in the path
-        final List<FolderItem> folderItems = new ArrayList<FolderItem>();
-        final boolean includeTags = options.contains(Option.SHOW_TAG_FILTER);
-
         //Scan upwards until the path exists (as the current path could have been deleted)
         org.uberfire.java.nio.file.Path nioPath = Paths.convert(path);
         while (!Files.exists(nioPath)) {
             nioPath = nioPath.getParent();
         }
         final Path basePath = Paths.convert(nioPath);
-        final DirectoryStream<org.uberfire.java.nio.file.Path> nioPaths = ioService.newDirectoryStream(nioPath,
-                                                                                                       dotFileFilter);
-        for (org.uberfire.java.nio.file.Path np : nioPaths) {
-            if (Files.isRegularFile(np)) {
-                final org.uberfire.backend.vfs.Path p = Paths.convert(np);
-                final String lockedBy = Paths.readLockedBy(p);
-                final FolderItem folderItem = new FolderItem(p,
-                                                             p.getFileName(),
-                                                             FolderItemType.FILE,
-                                                             false,
-                                                             lockedBy,
-                                                             includeTags ? metadataService.getTags(p) : Collections.<String>emptyList(),
-                                                             getRestrictedOperations(p));
-                folderItems.add(folderItem);
-            } else if (Files.isDirectory(np)) {
-                final org.uberfire.backend.vfs.Path p = Paths.convert(np);
-                boolean lockedItems = !lockService.retrieveLockInfos(Paths.convert(np),
-                                                                     true).isEmpty();
-                final FolderItem folderItem = new FolderItem(p,
-                                                             p.getFileName(),
-                                                             FolderItemType.FOLDER,
-                                                             lockedItems,
-                                                             null,
-                                                             Collections.<String>emptyList(),
-                                                             getRestrictedOperations(p));
-                folderItems.add(folderItem);
-            }
+
+        //Get list of files and folders contained in the path
+        final Map<Path, FolderLocks> locks = new HashMap<>();
+        final FolderLocks folderLocks = new FolderLocks(lockService,
+                                                        basePath);
+        final List<FolderItem> folderItems = new ArrayList<FolderItem>();
+        final FolderListingCache.FolderEntries entries = getEntries(nioPath);
+        for (org.uberfire.java.nio.file.Path np : entries.getFiles()) {
+            final Path p = Paths.convert(np);
+            folderItems.add(new FolderItem(p,
+                                           p.getFileName(),
+                                           FolderItemType.FILE));
+            locks.put(p,
+                      folderLocks);
+        }
+        for (org.uberfire.java.nio.file.Path np : entries.getFolders()) {
+            final Path p = Paths.convert(np);
+            folderItems.add(new FolderItem(p,
+                                           p.getFileName(),
+                                           FolderItemType.FOLDER));
+            locks.put(p,
+                      folderLocks);
         }
 
         Collections.sort(folderItems,
                          Sorters.ITEM_SORTER);
 
         return new FolderListing(toFolderItem(nioPath),
-                                 folderItems,
+                                 toFolderItems(folderItems,
+                                               locks,
+                                               options),
                                  getPathSegments(basePath));
     }
 
@@ -265,11 +257,7 @@ public class ExplorerServiceHelper {
         final org.uberfire.java.nio.file.Path nioPackagePath = Paths.convert(packagePath);
 
         if (Files.exists(nioPackagePath)) {
-            final DirectoryStream<org.uberfire.java.nio.file.Path> nioPaths = ioService.newDirectoryStream(nioPackagePath,
-                                                                                                           regularFileFilter);
-            for (org.uberfire.java.nio.file.Path nioPath : nioPaths) {
-                return true;
-            }
+            return !getEntries(nioPackagePath).getFiles().isEmpty();
         }
 
         return false;
@@ -277,29 +265,15 @@ public class ExplorerServiceHelper {
 
     public List<FolderItem> getItems(final Package pkg,
                                      final ActiveOptions options) {
-        final List<FolderItem> folderItems = new ArrayList<FolderItem>();
         if (pkg == null) {
             return emptyList();
         }
 
-        final Set<Package> childPackages = moduleService.resolvePackages(pkg);
-        for (final Package childPackage : childPackages) {
-            folderItems.add(toFolderItem(childPackage));
-        }
-
-        folderItems.addAll(getItems(pkg.getPackageMainSrcPath(),
-                                    options));
-        folderItems.addAll(getItems(pkg.getPackageTestSrcPath(),
-                                    options));
-        folderItems.addAll(getItems(pkg.getPackageMainResourcesPath(),
-                                    options));
-        folderItems.addAll(getItems(pkg.getPackageTestResourcesPath(),
-                                    options));
-
-        Collections.sort(folderItems,
-                         Sorters.ITEM_SORTER);
-
-        return folderItems;
+        final Map<Path, FolderLocks> locks = new HashMap<>();
+        return toFolderItems(getSortedItems(pkg,
+                                            locks),
+                             locks,
+                             options);
     }
 
     List<FolderItem> getPathSegments(final Path path) {
@@ -319,32 +293,115 @@ public class ExplorerServiceHelper {
         return Arrays.asList(segments);
     }
 
-    private List<FolderItem> getItems(final Path packagePath,
-                                      final ActiveOptions options) {
+    /**
+     * @return the files and folders of a folder, from the cache of the folder listings when possible.
+     */
+    FolderListingCache.FolderEntries getEntries(final org.uberfire.java.nio.file.Path nioPath) {
+        return folderListingCache.getEntries(nioPath,
+                                             () -> readEntries(nioPath));
+    }
+
+    private FolderListingCache.FolderEntries readEntries(final org.uberfire.java.nio.file.Path nioPath) {
+        final List<org.uberfire.java.nio.file.Path> files = new ArrayList<>();
+        final List<org.uberfire.java.nio.file.Path> folders = new ArrayList<>();
+        final DirectoryStream<org.uberfire.java.nio.file.Path> nioPaths = ioService.newDirectoryStream(nioPath,
+                                                                                                       dotFileFilter);
+        for (org.uberfire.java.nio.file.Path np : nioPaths) {
+            if (Files.isRegularFile(np)) {
+                files.add(np);
+            } else if (Files.isDirectory(np)) {
+                folders.add(np);
+            }
+        }
+        return new FolderListingCache.FolderEntries(files,
+                                                    folders);
+    }
+
+    //Child packages and files of a package, sorted and without details
+    private List<FolderItem> getSortedItems(final Package pkg,
+                                            final Map<Path, FolderLocks> locks) {
         final List<FolderItem> folderItems = new ArrayList<FolderItem>();
-        final boolean includeTags = options.contains(Option.SHOW_TAG_FILTER);
+        if (pkg == null) {
+            return folderItems;
+        }
+
+        final Set<Package> childPackages = moduleService.resolvePackages(pkg);
+        for (final Package childPackage : childPackages) {
+            folderItems.add(toFolderItem(childPackage));
+        }
+
+        addFiles(pkg.getPackageMainSrcPath(),
+                 folderItems,
+                 locks);
+        addFiles(pkg.getPackageTestSrcPath(),
+                 folderItems,
+                 locks);
+        addFiles(pkg.getPackageMainResourcesPath(),
+                 folderItems,
+                 locks);
+        addFiles(pkg.getPackageTestResourcesPath(),
+                 folderItems,
+                 locks);
+
+        Collections.sort(folderItems,
+                         Sorters.ITEM_SORTER);
+
+        return folderItems;
+    }
+
+    private void addFiles(final Path packagePath,
+                          final List<FolderItem> folderItems,
+                          final Map<Path, FolderLocks> locks) {
         final org.uberfire.java.nio.file.Path nioPackagePath = Paths.convert(packagePath);
         if (Files.exists(nioPackagePath)) {
-            final DirectoryStream<org.uberfire.java.nio.file.Path> nioPaths = ioService.newDirectoryStream(nioPackagePath,
-                                                                                                           regularFileFilter);
-            for (org.uberfire.java.nio.file.Path nioPath : nioPaths) {
+            final FolderLocks folderLocks = new FolderLocks(lockService,
+                                                            packagePath);
+            for (org.uberfire.java.nio.file.Path nioPath : getEntries(nioPackagePath).getFiles()) {
                 final org.uberfire.backend.vfs.Path path = Paths.convert(nioPath);
                 if (Paths.isLock(path)) {
                     continue;
                 }
 
-                final String lockedBy = Paths.readLockedBy(path);
-                final FolderItem folderItem = new FolderItem(path,
-                                                             path.getFileName(),
-                                                             FolderItemType.FILE,
-                                                             false,
-                                                             lockedBy,
-                                                             includeTags ? metadataService.getTags(path) : Collections.<String>emptyList(),
-                                                             getRestrictedOperations(path));
-                folderItems.add(folderItem);
+                folderItems.add(new FolderItem(path,
+                                               path.getFileName(),
+                                               FolderItemType.FILE));
+                locks.put(path,
+                          folderLocks);
             }
         }
+    }
 
+    //Reads the locks, tags and restrictions of the files and folders listed
+    private List<FolderItem> toFolderItems(final List<FolderItem> items,
+                                           final Map<Path, FolderLocks> locks,
+                                           final ActiveOptions options) {
+        final boolean includeTags = options.contains(Option.SHOW_TAG_FILTER);
+        final List<FolderItem> folderItems = new ArrayList<FolderItem>(items.size());
+        for (FolderItem item : items) {
+            if (!(item.getItem() instanceof Path)) {
+                folderItems.add(item);
+                continue;
+            }
+
+            final Path p = (Path) item.getItem();
+            if (item.getType() == FolderItemType.FILE) {
+                folderItems.add(new FolderItem(p,
+                                               p.getFileName(),
+                                               FolderItemType.FILE,
+                                               false,
+                                               locks.get(p).getLockedBy(p),
+                                               includeTags ? metadataService.getTags(p) : Collections.<String>emptyList(),
+                                               getRestrictedOperations(p)));
+            } else {
+                folderItems.add(new FolderItem(p,
+                                               p.getFileName(),
+                                               FolderItemType.FOLDER,
+                                               locks.get(p).hasLockedItems(p),
+                                               null,
+                                               Collections.<String>emptyList(),
+                                               getRestrictedOperations(p)));
+            }
+        }
         return folderItems;
     }
 
@@ -441,27 +498,22 @@ public class ExplorerServiceHelper {
             lastContent.setOptions(options);
         }
         if (!content.isEmpty()) {
-            try {
-                ioServiceConfig.startBatch(userNav.getFileSystem());
-                ioServiceConfig.write(userNav,
-                                      xs.toXML(content));
-                ioServiceConfig.write(lastUserNav,
-                                      xs.toXML(lastContent));
-            } finally {
-                ioServiceConfig.endBatch();
-            }
+            userExplorerDataStore.store(userNav,
+                                        lastUserNav,
+                                        content,
+                                        lastContent);
         }
     }
 
+    /**
+     * Writes the navigation state of all the users not written yet.
+     */
+    public void flushUserContent() {
+        userExplorerDataStore.flush();
+    }
+
     public UserExplorerData loadUserContent(final org.uberfire.java.nio.file.Path path) {
-        try {
-            if (ioServiceConfig.exists(path)) {
-                final String xml = ioServiceConfig.readAllString(path);
-                return (UserExplorerData) xs.fromXML(xml);
-            }
-        } catch (final Exception ignored) {
-        }
-        return null;
+        return userExplorerDataStore.loadUserContent(path);
     }
 
     public UserExplorerData loadUserContent() {
@@ -486,14 +538,7 @@ public class ExplorerServiceHelper {
     }
 
     public UserExplorerLastData getLastContent(final org.uberfire.java.nio.file.Path path) {
-        try {
-            if (ioServiceConfig.exists(path)) {
-                final String xml = ioServiceConfig.readAllString(path);
-                return (UserExplorerLastData) xs.fromXML(xml);
-            }
-        } catch (final Exception ignored) {
-        }
-        return null;
+        return userExplorerDataStore.getLastContent(path);
     }
 
     public List<FolderItemOperation> getRestrictedOperations(final Path path) {
@@ -330,6 +330,9 @@ public class ExplorerServiceImpl
         final Collection<org.uberfire.java.nio.file.Path> userNavs = userServicesBackend.getAllUsersData("explorer",
                                                                                                          "user.nav");
 
+        //Pending navigation state would otherwise restore the module afterwards
+        helper.flushUserContent();
+
         try {
             ioServiceConfig.startBatch(fileSystem);
 
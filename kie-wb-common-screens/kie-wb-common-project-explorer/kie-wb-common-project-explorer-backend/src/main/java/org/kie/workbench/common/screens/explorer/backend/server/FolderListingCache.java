@@ -0,0 +1,182 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.screens.explorer.backend.server;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.workbench.events.ResourceAddedEvent;
+import org.uberfire.workbench.events.ResourceBatchChangesEvent;
+import org.uberfire.workbench.events.ResourceCopiedEvent;
+import org.uberfire.workbench.events.ResourceDeletedEvent;
+import org.uberfire.workbench.events.ResourceRenamedEvent;
+
+import static org.kie.soup.commons.validation.PortablePreconditions.checkNotNull;
+
+/**
+ * Cache of the files and folders contained in the folders listed by the Project Explorer. A folder is evicted when one
+ * of its children is added, deleted, copied or renamed, as notified by the events raised on VFS changes; batches of
+ * changes clear the whole cache. The number of folders cached is bounded by the system property
+ * <code>org.kie.explorer.listing.cache.size</code>.
+ */
+@ApplicationScoped
+public class FolderListingCache {
+
+    public static final String CACHE_SIZE_PROPERTY = "org.kie.explorer.listing.cache.size";
+
+    private final Map<String, FolderEntries> entries;
+
+    //Incremented on every invalidation, so that listings read concurrently with a change are not cached
+    private long generation = 0;
+
+    public FolderListingCache() {
+        this(Integer.getInteger(CACHE_SIZE_PROPERTY,
+                                1000));
+    }
+
+    public FolderListingCache(final int maxSize) {
+        this.entries = new LinkedHashMap<String, FolderEntries>(16,
+                                                                0.75f,
+                                                                true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, FolderEntries> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param folder the folder listed.
+     * @param loader reads the content of the folder when it is not cached.
+     * @return the content of the folder.
+     */
+    public FolderEntries getEntries(final Path folder,
+                                    final Supplier<FolderEntries> loader) {
+        final String key = toKey(folder.toUri().toString());
+        final long loadedGeneration;
+        synchronized (this) {
+            final FolderEntries cached = entries.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            loadedGeneration = generation;
+        }
+        final FolderEntries loaded = loader.get();
+        synchronized (this) {
+            if (loadedGeneration == generation) {
+                entries.put(key,
+                            loaded);
+            }
+        }
+        return loaded;
+    }
+
+    public synchronized void invalidate(final org.uberfire.backend.vfs.Path path) {
+        generation++;
+        final String key = toKey(path.toURI());
+        final int parentEnd = key.lastIndexOf('/');
+        if (parentEnd > 0) {
+            entries.remove(toKey(key.substring(0,
+                                               parentEnd)));
+        }
+        //A deleted or renamed folder takes its sub folders along
+        final Iterator<String> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            final String cachedKey = keys.next();
+            if (cachedKey.equals(key) || cachedKey.startsWith(key + "/")) {
+                keys.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public void onResourceAdded(@Observes final ResourceAddedEvent event) {
+        checkNotNull("event",
+                     event);
+        invalidate(event.getPath());
+    }
+
+    public void onResourceDeleted(@Observes final ResourceDeletedEvent event) {
+        checkNotNull("event",
+                     event);
+        invalidate(event.getPath());
+    }
+
+    public void onResourceCopied(@Observes final ResourceCopiedEvent event) {
+        checkNotNull("event",
+                     event);
+        invalidate(event.getDestinationPath());
+    }
+
+    public void onResourceRenamed(@Observes final ResourceRenamedEvent event) {
+        checkNotNull("event",
+                     event);
+        invalidate(event.getPath());
+        invalidate(event.getDestinationPath());
+    }
+
+    public void onBatchChanges(@Observes final ResourceBatchChangesEvent event) {
+        checkNotNull("event",
+                     event);
+        clear();
+    }
+
+    private static String toKey(final String uri) {
+        if (uri.endsWith("/")) {
+            return uri.substring(0,
+                                 uri.length() - 1);
+        }
+        return uri;
+    }
+
+    /**
+     * Files and folders contained in a folder, dot files excluded.
+     */
+    public static class FolderEntries {
+
+        private final List<Path> files;
+        private final List<Path> folders;
+
+        public FolderEntries(final List<Path> files,
+                             final List<Path> folders) {
+            this.files = Collections.unmodifiableList(files);
+            this.folders = Collections.unmodifiableList(folders);
+        }
+
+        public List<Path> getFiles() {
+            return files;
+        }
+
+        public List<Path> getFolders() {
+            return folders;
+        }
+    }
+}
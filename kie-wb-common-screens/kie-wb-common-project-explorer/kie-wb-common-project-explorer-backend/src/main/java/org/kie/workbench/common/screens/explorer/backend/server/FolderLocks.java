@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.screens.explorer.backend.server;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.uberfire.backend.server.VFSLockServiceImpl;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.backend.vfs.impl.LockInfo;
+
+/**
+ * The locks of the files under a folder, retrieved with one query per kind of lock when the first item of the folder is
+ * listed rather than once per item.
+ */
+class FolderLocks {
+
+    private final VFSLockServiceImpl lockService;
+    private final Path folder;
+
+    //File URI -> user holding the lock, all users included
+    private Map<String, String> lockedBy;
+
+    //URIs of the files locked by other users
+    private List<String> lockedByOthers;
+
+    FolderLocks(final VFSLockServiceImpl lockService,
+                final Path folder) {
+        this.lockService = lockService;
+        this.folder = folder;
+    }
+
+    /**
+     * @return the user holding the lock of a file of the folder, null when the file is not locked.
+     */
+    String getLockedBy(final Path file) {
+        if (lockedBy == null) {
+            lockedBy = new HashMap<>();
+            for (LockInfo lockInfo : lockService.retrieveLockInfos(folder,
+                                                                   false)) {
+                if (lockInfo.isLocked()) {
+                    lockedBy.put(lockInfo.getFile().toURI(),
+                                 lockInfo.lockedBy());
+                }
+            }
+        }
+        return lockedBy.get(file.toURI());
+    }
+
+    /**
+     * @return true when other users hold locks on files under a sub folder of the folder.
+     */
+    boolean hasLockedItems(final Path subFolder) {
+        if (lockedByOthers == null) {
+            lockedByOthers = new ArrayList<>();
+            for (LockInfo lockInfo : lockService.retrieveLockInfos(folder,
+                                                                   true)) {
+                lockedByOthers.add(lockInfo.getFile().toURI());
+            }
+        }
+        final String prefix = subFolder.toURI().endsWith("/") ? subFolder.toURI() : subFolder.toURI() + "/";
+        for (String uri : lockedByOthers) {
+            if (uri.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
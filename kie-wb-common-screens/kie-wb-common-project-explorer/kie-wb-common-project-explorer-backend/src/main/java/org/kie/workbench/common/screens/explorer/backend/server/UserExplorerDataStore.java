@@ -0,0 +1,290 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.screens.explorer.backend.server;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import com.thoughtworks.xstream.XStream;
+import org.kie.soup.commons.xstream.XStreamUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.file.Path;
+
+/**
+ * Write-behind store of the Project Explorer navigation state of the users. The updates of a user are kept in memory
+ * and written with a single commit once the flush window, configured in milliseconds by the system property
+ * <code>org.kie.explorer.navigation.flush.window</code>, elapses; reads see the pending state. A window of 0 writes
+ * every update immediately. Pending updates are flushed on shutdown and by {@link #flush(Path)}, e.g. when the user
+ * logs out.
+ */
+@ApplicationScoped
+public class UserExplorerDataStore {
+
+    public static final String FLUSH_WINDOW_PROPERTY = "org.kie.explorer.navigation.flush.window";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserExplorerDataStore.class);
+
+    private IOService ioServiceConfig;
+    private long flushWindow;
+    private ScheduledExecutorService scheduler;
+    private XStream xs = XStreamUtils.createTrustingXStream();
+
+    //User navigation path -> state not written yet
+    private final Map<String, PendingState> pending = new HashMap<>();
+
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+
+    public UserExplorerDataStore() {
+        //Make proxyable
+    }
+
+    @Inject
+    public UserExplorerDataStore(@Named("configIO") final IOService ioServiceConfig) {
+        this(ioServiceConfig,
+             Long.getLong(FLUSH_WINDOW_PROPERTY,
+                          5000));
+    }
+
+    public UserExplorerDataStore(final IOService ioServiceConfig,
+                                 final long flushWindow) {
+        this.ioServiceConfig = ioServiceConfig;
+        this.flushWindow = flushWindow;
+        if (flushWindow > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable,
+                                                 "kie-explorer-navigation-store");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void dispose() {
+        flush();
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public UserExplorerData loadUserContent(final Path userNav) {
+        try {
+            final PendingState state = getPending(userNav);
+            if (state != null) {
+                return (UserExplorerData) xs.fromXML(state.content);
+            }
+            if (ioServiceConfig.exists(userNav)) {
+                final String xml = ioServiceConfig.readAllString(userNav);
+                return (UserExplorerData) xs.fromXML(xml);
+            }
+        } catch (final Exception ignored) {
+        }
+        return null;
+    }
+
+    public UserExplorerLastData getLastContent(final Path lastUserNav) {
+        try {
+            final PendingState state = getPendingByLastUserNav(lastUserNav);
+            if (state != null) {
+                return (UserExplorerLastData) xs.fromXML(state.lastContent);
+            }
+            if (ioServiceConfig.exists(lastUserNav)) {
+                final String xml = ioServiceConfig.readAllString(lastUserNav);
+                return (UserExplorerLastData) xs.fromXML(xml);
+            }
+        } catch (final Exception ignored) {
+        }
+        return null;
+    }
+
+    /**
+     * Stores the navigation state of a user, replacing the state pending for the user if any.
+     */
+    public void store(final Path userNav,
+                      final Path lastUserNav,
+                      final UserExplorerData content,
+                      final UserExplorerLastData lastContent) {
+        updates.incrementAndGet();
+        final PendingState state = new PendingState(userNav,
+                                                    lastUserNav,
+                                                    xs.toXML(content),
+                                                    xs.toXML(lastContent));
+        if (scheduler == null) {
+            write(state);
+            return;
+        }
+        final boolean schedule;
+        synchronized (this) {
+            schedule = pending.put(key(userNav),
+                                   state) == null;
+        }
+        if (schedule) {
+            schedule(userNav);
+        }
+    }
+
+    /**
+     * Writes the pending navigation state of a user.
+     */
+    public void flush(final Path userNav) {
+        final String key = key(userNav);
+        final PendingState state;
+        synchronized (this) {
+            state = pending.get(key);
+        }
+        if (state == null) {
+            return;
+        }
+        try {
+            write(state);
+        } finally {
+            final boolean updated;
+            synchronized (this) {
+                //Kept pending while written, so that reads never miss it
+                updated = !pending.remove(key,
+                                          state) && pending.containsKey(key);
+            }
+            if (updated && scheduler != null) {
+                schedule(userNav);
+            }
+        }
+    }
+
+    /**
+     * Writes the pending navigation state of all the users.
+     */
+    public void flush() {
+        final List<PendingState> states;
+        synchronized (this) {
+            states = new ArrayList<>(pending.values());
+        }
+        for (PendingState state : states) {
+            try {
+                flush(state.userNav);
+            } catch (final Exception e) {
+                LOGGER.error("Can't serialize user's state navigation",
+                             e);
+            }
+        }
+    }
+
+    /**
+     * @return the updates that did not need a commit of their own.
+     */
+    public long getCommitsAvoided() {
+        final int pendingCount;
+        synchronized (this) {
+            pendingCount = pending.size();
+        }
+        return Math.max(0,
+                        updates.get() - flushes.get() - pendingCount);
+    }
+
+    public long getFlushes() {
+        return flushes.get();
+    }
+
+    public double getAverageFlushMillis() {
+        final long count = flushes.get();
+        return count == 0 ? 0 : (double) TimeUnit.NANOSECONDS.toMicros(totalFlushNanos.get()) / count / 1000;
+    }
+
+    public double getMaxFlushMillis() {
+        return (double) TimeUnit.NANOSECONDS.toMicros(maxFlushNanos.get()) / 1000;
+    }
+
+    private void schedule(final Path userNav) {
+        scheduler.schedule(() -> {
+                               try {
+                                   flush(userNav);
+                               } catch (final Exception e) {
+                                   LOGGER.error("Can't serialize user's state navigation",
+                                                e);
+                               }
+                           },
+                           flushWindow,
+                           TimeUnit.MILLISECONDS);
+    }
+
+    private void write(final PendingState state) {
+        final long start = System.nanoTime();
+        try {
+            ioServiceConfig.startBatch(state.userNav.getFileSystem());
+            ioServiceConfig.write(state.userNav,
+                                  state.content);
+            ioServiceConfig.write(state.lastUserNav,
+                                  state.lastContent);
+        } finally {
+            ioServiceConfig.endBatch();
+        }
+        final long elapsed = System.nanoTime() - start;
+        flushes.incrementAndGet();
+        totalFlushNanos.addAndGet(elapsed);
+        maxFlushNanos.accumulateAndGet(elapsed,
+                                       Math::max);
+    }
+
+    private synchronized PendingState getPending(final Path userNav) {
+        return pending.get(key(userNav));
+    }
+
+    private synchronized PendingState getPendingByLastUserNav(final Path lastUserNav) {
+        final String lastKey = key(lastUserNav);
+        for (PendingState state : pending.values()) {
+            if (key(state.lastUserNav).equals(lastKey)) {
+                return state;
+            }
+        }
+        return null;
+    }
+
+    private static String key(final Path path) {
+        return path.toUri().toString();
+    }
+
+    private static class PendingState {
+
+        private final Path userNav;
+        private final Path lastUserNav;
+        private final String content;
+        private final String lastContent;
+
+        private PendingState(final Path userNav,
+                             final Path lastUserNav,
+                             final String content,
+                             final String lastContent) {
+            this.userNav = userNav;
+            this.lastUserNav = lastUserNav;
+            this.content = content;
+            this.lastContent = lastContent;
+        }
+    }
+}
@@ -15,7 +15,10 @@
  */
 package org.kie.workbench.common.screens.explorer.backend.server;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -27,11 +30,14 @@ import org.guvnor.common.services.backend.metadata.attribute.OtherMetaView;
 import org.guvnor.common.services.project.model.Package;
 import org.guvnor.common.services.shared.metadata.MetadataService;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.kie.workbench.common.screens.explorer.model.FolderItem;
 import org.kie.workbench.common.screens.explorer.model.FolderItemOperation;
 import org.kie.workbench.common.screens.explorer.model.FolderItemType;
+import org.kie.workbench.common.screens.explorer.model.FolderListing;
 import org.kie.workbench.common.screens.explorer.service.ActiveOptions;
 import org.kie.workbench.common.screens.explorer.service.Option;
 import org.kie.workbench.common.services.shared.project.KieModuleService;
@@ -42,6 +48,7 @@ import org.uberfire.backend.server.VFSLockServiceImpl;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.backend.vfs.PathFactory;
+import org.uberfire.backend.vfs.impl.LockInfo;
 import org.uberfire.commons.async.DescriptiveThreadFactory;
 import org.uberfire.ext.editor.commons.service.CopyService;
 import org.uberfire.ext.editor.commons.service.DeleteService;
@@ -63,7 +70,7 @@ public class ExplorerServiceHelperTest {
     @Mock
     private IOService ioService;
     @Mock
-    private IOService ioServiceConfig;
+    private UserExplorerDataStore userExplorerDataStore;
     @Mock
     private OtherMetaView otherMetaView;
     @Mock
@@ -90,7 +97,12 @@ public class ExplorerServiceHelperTest {
     private Path srcResourcesPath;
     @Mock
     private Path testResourcesPath;
+    @Mock
+    private LockInfo lockInfo;
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
     private org.uberfire.java.nio.file.Path path;
+    private FolderListingCache folderListingCache;
     private ExplorerServiceHelper helper;
 
     private final List<String> tags = new ArrayList<String>() {{
@@ -132,17 +144,19 @@ public class ExplorerServiceHelperTest {
         });
 
         ExecutorService executorService = Executors.newCachedThreadPool(new DescriptiveThreadFactory());
+        folderListingCache = new FolderListingCache();
 
         helper = spy(new ExplorerServiceHelper(moduleService,
                                                folderListingResolver,
                                                ioService,
-                                               ioServiceConfig,
                                                lockService,
                                                metadataService,
                                                userServices,
                                                deleteService,
                                                renameService,
                                                copyService,
+                                               folderListingCache,
+                                               userExplorerDataStore,
                                                executorService));
     }
 
@@ -398,6 +412,73 @@ public class ExplorerServiceHelperTest {
                      pathSegments.get(4).getFileName());
     }
 
+    @Test
+    public void folderListingReadsLocksOncePerFolderTest() throws Exception {
+        final List<org.uberfire.java.nio.file.Path> files = givenFolderWithFiles(5);
+        when(lockInfo.isLocked()).thenReturn(true);
+        when(lockInfo.lockedBy()).thenReturn("admin");
+        when(lockInfo.getFile()).thenReturn(Paths.convert(files.get(2)));
+        when(lockService.retrieveLockInfos(any(Path.class),
+                                           eq(false))).thenReturn(Collections.singletonList(lockInfo));
+
+        final FolderListing listing = helper.getFolderListing(Paths.convert(files.get(0).getParent()),
+                                                              new ActiveOptions(Option.TECHNICAL_CONTENT));
+
+        assertEquals(5,
+                     listing.getContent().size());
+        for (FolderItem item : listing.getContent()) {
+            assertEquals("file2.txt".equals(item.getFileName()) ? "admin" : null,
+                         item.getLockedBy());
+        }
+        verify(lockService,
+               times(1)).retrieveLockInfos(any(Path.class),
+                                           eq(false));
+        verify(lockService,
+               never()).retrieveLockInfos(any(Path.class),
+                                          eq(true));
+    }
+
+    @Test
+    public void folderListingIsCachedUntilFolderChangesTest() throws Exception {
+        final List<org.uberfire.java.nio.file.Path> files = givenFolderWithFiles(3);
+        final Path folder = Paths.convert(files.get(0).getParent());
+        final ActiveOptions options = new ActiveOptions(Option.TECHNICAL_CONTENT);
+
+        helper.getFolderListing(folder,
+                                options);
+        helper.getFolderListing(folder,
+                                options);
+        verify(ioService,
+               times(1)).newDirectoryStream(any(org.uberfire.java.nio.file.Path.class),
+                                            any(LinkedFilter.class));
+
+        folderListingCache.invalidate(Paths.convert(files.get(1)));
+        helper.getFolderListing(folder,
+                                options);
+        verify(ioService,
+               times(2)).newDirectoryStream(any(org.uberfire.java.nio.file.Path.class),
+                                            any(LinkedFilter.class));
+    }
+
+    private List<org.uberfire.java.nio.file.Path> givenFolderWithFiles(final int count) throws IOException {
+        final File folder = temporaryFolder.newFolder();
+        final List<org.uberfire.java.nio.file.Path> files = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final File file = new File(folder,
+                                       "file" + i + ".txt");
+            assertTrue(file.createNewFile());
+            files.add(fileSystemProvider.getPath(file.toURI()));
+        }
+        when(ioService.newDirectoryStream(any(org.uberfire.java.nio.file.Path.class),
+                                          any(LinkedFilter.class))).thenReturn(new DirectoryStreamMock() {
+            @Override
+            public Iterator<org.uberfire.java.nio.file.Path> iterator() {
+                return files.iterator();
+            }
+        });
+        return files;
+    }
+
     private void givenThatOperationHasRestrictions(FolderItemOperation operation) {
         mockOperationRestrictions(operation,
                                   true);
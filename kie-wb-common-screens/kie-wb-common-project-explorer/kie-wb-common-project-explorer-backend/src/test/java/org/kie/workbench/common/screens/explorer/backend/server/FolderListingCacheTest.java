@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.screens.explorer.backend.server;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.uberfire.backend.vfs.PathFactory;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.workbench.events.ResourceBatchChangesEvent;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class FolderListingCacheTest {
+
+    private FolderListingCache cache;
+
+    private AtomicInteger loads;
+
+    @Before
+    public void setUp() {
+        cache = new FolderListingCache(2);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void testEntriesAreLoadedOnce() {
+        final Path folder = folder("default://master@repo/src/main");
+
+        final FolderListingCache.FolderEntries entries = get(folder);
+
+        assertSame(entries,
+                   get(folder));
+        assertEquals(1,
+                     loads.get());
+    }
+
+    @Test
+    public void testChangeOfChildInvalidatesFolder() {
+        final Path folder = folder("default://master@repo/src/main");
+        final Path other = folder("default://master@repo/src/test");
+        get(folder);
+        get(other);
+
+        cache.invalidate(PathFactory.newPath("file.txt",
+                                             "default://master@repo/src/main/file.txt"));
+
+        assertEquals(1,
+                     cache.size());
+        get(folder);
+        assertEquals(3,
+                     loads.get());
+    }
+
+    @Test
+    public void testChangeOfFolderInvalidatesSubFolders() {
+        get(folder("default://master@repo/src/main"));
+        get(folder("default://master@repo/src/main/java"));
+
+        cache.invalidate(PathFactory.newPath("main",
+                                             "default://master@repo/src/main"));
+
+        assertEquals(0,
+                     cache.size());
+    }
+
+    @Test
+    public void testChangeAtRootInvalidatesRoot() {
+        get(folder("default://master@repo/"));
+
+        cache.invalidate(PathFactory.newPath("pom.xml",
+                                             "default://master@repo/pom.xml"));
+
+        assertEquals(0,
+                     cache.size());
+    }
+
+    @Test
+    public void testBatchChangesClearCache() {
+        get(folder("default://master@repo/src/main"));
+
+        cache.onBatchChanges(mock(ResourceBatchChangesEvent.class));
+
+        assertEquals(0,
+                     cache.size());
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        get(folder("default://master@repo/a"));
+        get(folder("default://master@repo/b"));
+        get(folder("default://master@repo/c"));
+
+        assertEquals(2,
+                     cache.size());
+    }
+
+    private FolderListingCache.FolderEntries get(final Path folder) {
+        return cache.getEntries(folder,
+                                () -> {
+                                    loads.incrementAndGet();
+                                    return new FolderListingCache.FolderEntries(Collections.emptyList(),
+                                                                                Collections.emptyList());
+                                });
+    }
+
+    private static Path folder(final String uri) {
+        final Path folder = mock(Path.class);
+        when(folder.toUri()).thenReturn(URI.create(uri));
+        return folder;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.screens.explorer.backend.server;
+
+import java.net.URI;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.workbench.common.screens.explorer.service.ActiveOptions;
+import org.kie.workbench.common.screens.explorer.service.Option;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.file.Path;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UserExplorerDataStoreTest {
+
+    @Mock
+    private IOService ioServiceConfig;
+
+    @Mock
+    private Path userNav;
+
+    @Mock
+    private Path lastUserNav;
+
+    private UserExplorerDataStore store;
+
+    @Before
+    public void setUp() {
+        when(userNav.toUri()).thenReturn(URI.create("default://master@config/explorer/user.nav"));
+        when(lastUserNav.toUri()).thenReturn(URI.create("default://master@config/explorer/last.user.nav"));
+    }
+
+    @After
+    public void tearDown() {
+        if (store != null) {
+            store.dispose();
+        }
+    }
+
+    @Test
+    public void testUpdatesAreCoalesced() {
+        store = new UserExplorerDataStore(ioServiceConfig,
+                                          60000);
+
+        store.store(userNav,
+                    lastUserNav,
+                    new UserExplorerData(),
+                    lastData(Option.BUSINESS_CONTENT));
+        store.store(userNav,
+                    lastUserNav,
+                    new UserExplorerData(),
+                    lastData(Option.TECHNICAL_CONTENT));
+
+        verify(ioServiceConfig,
+               never()).write(any(Path.class),
+                              anyString());
+        assertNotNull(store.loadUserContent(userNav));
+        assertTrue(store.getLastContent(lastUserNav).getOptions().contains(Option.TECHNICAL_CONTENT));
+
+        store.flush(userNav);
+
+        verify(ioServiceConfig,
+               times(1)).write(eq(userNav),
+                               anyString());
+        verify(ioServiceConfig,
+               times(1)).write(eq(lastUserNav),
+                               anyString());
+        verify(ioServiceConfig).endBatch();
+        assertEquals(1,
+                     store.getFlushes());
+        assertEquals(1,
+                     store.getCommitsAvoided());
+    }
+
+    @Test
+    public void testPendingUpdatesAreWrittenAfterWindow() {
+        store = new UserExplorerDataStore(ioServiceConfig,
+                                          10);
+
+        store.store(userNav,
+                    lastUserNav,
+                    new UserExplorerData(),
+                    lastData(Option.TECHNICAL_CONTENT));
+
+        verify(ioServiceConfig,
+               timeout(5000)).write(eq(lastUserNav),
+                                    anyString());
+    }
+
+    @Test
+    public void testPendingUpdatesAreWrittenOnDispose() {
+        store = new UserExplorerDataStore(ioServiceConfig,
+                                          60000);
+
+        store.store(userNav,
+                    lastUserNav,
+                    new UserExplorerData(),
+                    lastData(Option.TECHNICAL_CONTENT));
+        store.dispose();
+
+        verify(ioServiceConfig).write(eq(userNav),
+                                      anyString());
+        store = null;
+    }
+
+    @Test
+    public void testNoWindowWritesEveryUpdate() {
+        store = new UserExplorerDataStore(ioServiceConfig,
+                                          0);
+
+        store.store(userNav,
+                    lastUserNav,
+                    new UserExplorerData(),
+                    lastData(Option.BUSINESS_CONTENT));
+        store.store(userNav,
+                    lastUserNav,
+                    new UserExplorerData(),
+                    lastData(Option.TECHNICAL_CONTENT));
+
+        verify(ioServiceConfig,
+               times(2)).write(eq(userNav),
+                               anyString());
+        assertEquals(0,
+                     store.getCommitsAvoided());
+    }
+
+    private static UserExplorerLastData lastData(final Option option) {
+        final UserExplorerLastData lastData = new UserExplorerLastData();
+        lastData.setOptions(new ActiveOptions(option));
+        return lastData;
+    }
+}
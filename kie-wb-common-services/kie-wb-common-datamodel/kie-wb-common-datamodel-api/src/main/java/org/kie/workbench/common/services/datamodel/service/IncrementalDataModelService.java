@@ -15,6 +15,8 @@
  */
 package org.kie.workbench.common.services.datamodel.service;
 
+import java.util.List;
+
 import org.jboss.errai.bus.server.annotations.Remote;
 import org.kie.soup.project.datamodel.imports.Imports;
 import org.kie.workbench.common.services.datamodel.model.PackageDataModelOracleIncrementalPayload;
@@ -29,4 +31,11 @@ public interface IncrementalDataModelService {
     PackageDataModelOracleIncrementalPayload getUpdates(final Path resourcePath,
                                                         final Imports imports,
                                                         final String factType);
+
+    /**
+     * Loads the fields and methods of several fact types in a single request
+     */
+    PackageDataModelOracleIncrementalPayload getBatchUpdates(final Path resourcePath,
+                                                             final Imports imports,
+                                                             final List<String> factTypes);
 }
@@ -233,6 +233,7 @@ public class DataModelOracleUtilities {
                                                            oracle.getModuleTypeAnnotations()));
         dataModel.setTypeFieldsAnnotations(filterTypeFieldsAnnotations(usedFullyQualifiedClassNames,
                                                                        oracle.getModuleTypeFieldsAnnotations()));
+        //Enumerations of every type are sent, since the client looks them up synchronously
         dataModel.setJavaEnumDefinitions(oracle.getModuleJavaEnumDefinitions());
         dataModel.setWorkbenchEnumDefinitions(oracle.getPackageWorkbenchDefinitions());
         dataModel.setMethodInformation(filterMethodInformation(usedFullyQualifiedClassNames,
@@ -249,6 +250,14 @@ public class DataModelOracleUtilities {
                                          final String usedFullyQualifiedClassName) {
         final Set<String> usedFullyQualifiedClassNames = new HashSet<String>();
         usedFullyQualifiedClassNames.add(usedFullyQualifiedClassName);
+        populateDataModel(oracle,
+                          dataModel,
+                          usedFullyQualifiedClassNames);
+    }
+
+    public static void populateDataModel(final PackageDataModelOracle oracle,
+                                         final PackageDataModelOracleIncrementalPayload dataModel,
+                                         final Set<String> usedFullyQualifiedClassNames) {
         dataModel.setModelFields(filterModelFields(usedFullyQualifiedClassNames,
                                                    oracle.getModuleModelFields()));
         dataModel.setFieldParametersType(filterFieldParametersTypes(usedFullyQualifiedClassNames,
@@ -269,6 +278,22 @@ public class DataModelOracleUtilities {
                                                            oracle.getModuleCollectionTypes()));
     }
 
+    /**
+     * Convenience method to estimate the size of an incremental payload, as the number of fields and methods it carries
+     * @param dataModel The payload
+     * @return
+     */
+    public static int getPayloadSize(final PackageDataModelOracleIncrementalPayload dataModel) {
+        int size = 0;
+        for (ModelField[] modelFields : dataModel.getModelFields().values()) {
+            size += modelFields == null ? 0 : modelFields.length;
+        }
+        for (List<MethodInfo> methodInformation : dataModel.getMethodInformation().values()) {
+            size += methodInformation == null ? 0 : methodInformation.size();
+        }
+        return size;
+    }
+
     //Setup Model Fields for lazy loading client-side
     private static Map<String, ModelField[]> setupModelFields(final Set<String> usedFullyQualifiedClassNames,
                                                               final Map<String, ModelField[]> moduleModelFields,
@@ -15,6 +15,10 @@
  */
 package org.kie.workbench.common.services.datamodel.backend.server;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -44,6 +48,8 @@ public class IncrementalDataModelServiceImpl implements IncrementalDataModelServ
 
     private KieModuleService moduleService;
 
+    private final IncrementalDataModelStatistics statistics = new IncrementalDataModelStatistics();
+
     @Inject
     public IncrementalDataModelServiceImpl(@Named("PackageDataModelOracleCache") final LRUDataModelOracleCache cachePackages,
                                            final KieModuleService moduleService) {
@@ -60,12 +66,23 @@ public class IncrementalDataModelServiceImpl implements IncrementalDataModelServ
     public PackageDataModelOracleIncrementalPayload getUpdates(final Path resourcePath,
                                                                final Imports imports,
                                                                final String factType) {
+        PortablePreconditions.checkNotNull("factType",
+                                           factType);
+        return getBatchUpdates(resourcePath,
+                               imports,
+                               Collections.singletonList(factType));
+    }
+
+    @Override
+    public PackageDataModelOracleIncrementalPayload getBatchUpdates(final Path resourcePath,
+                                                                    final Imports imports,
+                                                                    final List<String> factTypes) {
         PortablePreconditions.checkNotNull("resourcePath",
                                            resourcePath);
         PortablePreconditions.checkNotNull("imports",
                                            imports);
-        PortablePreconditions.checkNotNull("factType",
-                                           factType);
+        PortablePreconditions.checkNotNull("factTypes",
+                                           factTypes);
 
         final PackageDataModelOracleIncrementalPayload dataModel = new PackageDataModelOracleIncrementalPayload();
 
@@ -81,42 +98,67 @@ public class IncrementalDataModelServiceImpl implements IncrementalDataModelServ
                 return dataModel;
             }
 
-            //Get the fully qualified class name of the fact type
-            String fullyQualifiedClassName = factType;
-
             //Retrieve (or build) oracle and populate incremental content
             final PackageDataModelOracle oracle = cachePackages.assertPackageDataModelOracle(project,
                                                                                              pkg);
 
-            // Check if the FactType is already known to the DataModelOracle, otherwise we need to find the FQCN
-            if (oracle.getModuleModelFields().get(fullyQualifiedClassName) == null) {
-                for (Import imp : imports.getImports()) {
-                    if (imp.getType().endsWith(factType)) {
-                        fullyQualifiedClassName = imp.getType();
-                        break;
-                    }
+            //Fact Types that aren't recognised are left out of the payload
+            final Set<String> fullyQualifiedClassNames = new HashSet<String>();
+            for (String factType : factTypes) {
+                final String fullyQualifiedClassName = getFullyQualifiedClassName(oracle,
+                                                                                  pkg,
+                                                                                  imports,
+                                                                                  factType);
+                if (fullyQualifiedClassName != null) {
+                    fullyQualifiedClassNames.add(fullyQualifiedClassName);
                 }
             }
-
-            //If the FactType isn't recognised try using the Package Name
-            if (oracle.getModuleModelFields().get(fullyQualifiedClassName) == null) {
-                fullyQualifiedClassName = pkg.getPackageName() + "." + factType;
-            }
-
-            //If the FactType still isn't recognised return an empty payload
-            if (oracle.getModuleModelFields().get(fullyQualifiedClassName) == null) {
-                return dataModel;
+            if (!fullyQualifiedClassNames.isEmpty()) {
+                DataModelOracleUtilities.populateDataModel(oracle,
+                                                           dataModel,
+                                                           fullyQualifiedClassNames);
             }
-
-            DataModelOracleUtilities.populateDataModel(oracle,
-                                                       dataModel,
-                                                       fullyQualifiedClassName);
+            statistics.recordRequest(factTypes.size(),
+                                     DataModelOracleUtilities.getPayloadSize(dataModel));
             return dataModel;
         } catch (Exception e) {
             throw ExceptionUtilities.handleException(e);
         }
     }
 
+    public IncrementalDataModelStatistics getStatistics() {
+        return statistics;
+    }
+
+    private String getFullyQualifiedClassName(final PackageDataModelOracle oracle,
+                                              final Package pkg,
+                                              final Imports imports,
+                                              final String factType) {
+        //Get the fully qualified class name of the fact type
+        String fullyQualifiedClassName = factType;
+
+        // Check if the FactType is already known to the DataModelOracle, otherwise we need to find the FQCN
+        if (oracle.getModuleModelFields().get(fullyQualifiedClassName) == null) {
+            for (Import imp : imports.getImports()) {
+                if (imp.getType().endsWith(factType)) {
+                    fullyQualifiedClassName = imp.getType();
+                    break;
+                }
+            }
+        }
+
+        //If the FactType isn't recognised try using the Package Name
+        if (oracle.getModuleModelFields().get(fullyQualifiedClassName) == null) {
+            fullyQualifiedClassName = pkg.getPackageName() + "." + factType;
+        }
+
+        //If the FactType still isn't recognised return nothing
+        if (oracle.getModuleModelFields().get(fullyQualifiedClassName) == null) {
+            return null;
+        }
+        return fullyQualifiedClassName;
+    }
+
     private KieModule resolveModule(final Path resourcePath) {
         return moduleService.resolveModule(resourcePath);
     }
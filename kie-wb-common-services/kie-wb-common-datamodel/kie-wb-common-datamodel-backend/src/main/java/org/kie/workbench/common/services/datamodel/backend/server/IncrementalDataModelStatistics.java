@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.datamodel.backend.server;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Request and payload-size counters of {@link IncrementalDataModelServiceImpl}. Payload sizes are the number of fields
+ * and methods sent to the client.
+ */
+public class IncrementalDataModelStatistics {
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong batchRequests = new AtomicLong();
+    private final AtomicLong factTypes = new AtomicLong();
+    private final AtomicLong payloadSize = new AtomicLong();
+    private final AtomicLong maxPayloadSize = new AtomicLong();
+
+    void recordRequest(final int requestedFactTypes,
+                       final int size) {
+        requests.incrementAndGet();
+        if (requestedFactTypes > 1) {
+            batchRequests.incrementAndGet();
+        }
+        factTypes.addAndGet(requestedFactTypes);
+        payloadSize.addAndGet(size);
+        maxPayloadSize.accumulateAndGet(size,
+                                        Math::max);
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getBatchRequestCount() {
+        return batchRequests.get();
+    }
+
+    public long getFactTypeCount() {
+        return factTypes.get();
+    }
+
+    public long getTotalPayloadSize() {
+        return payloadSize.get();
+    }
+
+    public long getMaxPayloadSize() {
+        return maxPayloadSize.get();
+    }
+
+    public double getAveragePayloadSize() {
+        final long count = getRequestCount();
+        return count == 0 ? 0 : (double) getTotalPayloadSize() / count;
+    }
+
+    @Override
+    public String toString() {
+        return "IncrementalDataModelStatistics{" +
+                "requests=" + getRequestCount() +
+                ", batchRequests=" + getBatchRequestCount() +
+                ", factTypes=" + getFactTypeCount() +
+                ", totalPayloadSize=" + getTotalPayloadSize() +
+                ", maxPayloadSize=" + getMaxPayloadSize() +
+                '}';
+    }
+}
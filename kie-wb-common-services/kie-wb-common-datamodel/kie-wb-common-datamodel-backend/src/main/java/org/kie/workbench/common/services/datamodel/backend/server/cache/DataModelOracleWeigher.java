@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.workbench.common.services.datamodel.backend.server.cache;
+
+import java.util.List;
+import java.util.Map;
+
+import org.kie.soup.project.datamodel.oracle.MethodInfo;
+import org.kie.soup.project.datamodel.oracle.ModelField;
+import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
+import org.kie.soup.project.datamodel.oracle.PackageDataModelOracle;
+
+/**
+ * Rough estimates, in bytes, of the heap retained by DataModelOracles. Only the number of entries is considered.
+ */
+class DataModelOracleWeigher {
+
+    static final long ORACLE_WEIGHT = 1024;
+    static final long TYPE_WEIGHT = 256;
+    static final long MEMBER_WEIGHT = 128;
+
+    private DataModelOracleWeigher() {
+    }
+
+    static long weigh(final ModuleDataModelOracle oracle) {
+        long weight = ORACLE_WEIGHT;
+        for (Map.Entry<String, ModelField[]> e : oracle.getModuleModelFields().entrySet()) {
+            weight += TYPE_WEIGHT + (e.getValue() == null ? 0 : e.getValue().length * MEMBER_WEIGHT);
+        }
+        for (Map.Entry<String, List<MethodInfo>> e : oracle.getModuleMethodInformation().entrySet()) {
+            weight += e.getValue() == null ? 0 : e.getValue().size() * MEMBER_WEIGHT;
+        }
+        weight += weighArrays(oracle.getModuleJavaEnumDefinitions());
+        return weight;
+    }
+
+    static long weighPackage(final PackageDataModelOracle oracle) {
+        return ORACLE_WEIGHT
+                + weighArrays(oracle.getPackageWorkbenchDefinitions())
+                + oracle.getPackageGlobals().size() * MEMBER_WEIGHT;
+    }
+
+    private static long weighArrays(final Map<String, String[]> definitions) {
+        long weight = 0;
+        for (Map.Entry<String, String[]> e : definitions.entrySet()) {
+            weight += MEMBER_WEIGHT + (e.getValue() == null ? 0 : e.getValue().length * MEMBER_WEIGHT);
+        }
+        return weight;
+    }
+}
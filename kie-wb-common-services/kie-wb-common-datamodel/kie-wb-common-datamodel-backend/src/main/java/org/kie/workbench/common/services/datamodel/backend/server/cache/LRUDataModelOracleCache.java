@@ -15,16 +15,18 @@
 
 package org.kie.workbench.common.services.datamodel.backend.server.cache;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.guvnor.common.services.backend.cache.LRUCache;
 import org.guvnor.common.services.backend.file.FileDiscoveryService;
 import org.guvnor.common.services.project.builder.events.InvalidateDMOModuleCacheEvent;
 import org.guvnor.common.services.project.builder.events.InvalidateDMOPackageCacheEvent;
@@ -35,6 +37,7 @@ import org.kie.soup.project.datamodel.commons.util.MVELEvaluator;
 import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
 import org.kie.soup.project.datamodel.oracle.PackageDataModelOracle;
 import org.kie.workbench.common.services.backend.builder.service.BuildInfoService;
+import org.kie.workbench.common.services.backend.cache.WeightedLRUCache;
 import org.kie.workbench.common.services.backend.file.EnumerationsFileFilter;
 import org.kie.workbench.common.services.backend.file.GlobalsFileFilter;
 import org.kie.workbench.common.services.datamodel.backend.server.builder.packages.PackageDataModelOracleBuilder;
@@ -51,11 +54,15 @@ import static java.util.stream.Collectors.toList;
 import static java.util.stream.StreamSupport.stream;
 
 /**
- * A simple LRU cache for Package DataModelOracles
+ * A simple LRU cache for Package DataModelOracles. The enumerations, DSLs and globals read for a Package are retained
+ * with its DataModelOracle, so saving one of them patches the DataModelOracle without reading the others again and
+ * changes to the Module only re-link the DataModelOracles of its Packages to the new ModuleDataModelOracle.
  */
 @ApplicationScoped
 @Named("PackageDataModelOracleCache")
-public class LRUDataModelOracleCache extends LRUCache<Package, PackageDataModelOracle> {
+public class LRUDataModelOracleCache extends WeightedLRUCache<Package, PackageDataModelOracle> {
+
+    public static final String NAME = "PackageDataModelOracleCache";
 
     private static final DirectoryStream.Filter<org.uberfire.java.nio.file.Path> FILTER_ENUMERATIONS = new EnumerationsFileFilter();
 
@@ -75,8 +82,18 @@ public class LRUDataModelOracleCache extends LRUCache<Package, PackageDataModelO
 
     private MVELEvaluator evaluator;
 
+    //Sources of the cached Package DataModelOracles
+    private final Map<Package, PackageSources> packageSources = new ConcurrentHashMap<>();
+
+    //Module root URI to the cached Packages of the Module
+    private final Map<String, Set<Package>> modulePackages = new ConcurrentHashMap<>();
+
+    //Packages whose Module changed since their DataModelOracle was built
+    private final Set<Package> stalePackages = ConcurrentHashMap.newKeySet();
+
     public LRUDataModelOracleCache() {
         //CDI proxy
+        super(NAME);
     }
 
     @Inject
@@ -87,6 +104,7 @@ public class LRUDataModelOracleCache extends LRUCache<Package, PackageDataModelO
                                    final BuildInfoService buildInfoService,
                                    final Instance<DataModelExtension> dataModelExtensionsProvider,
                                    final MVELEvaluator evaluator) {
+        super(NAME);
         this.ioService = ioService;
         this.fileDiscoveryService = fileDiscoveryService;
         this.cacheModules = cacheModules;
@@ -103,7 +121,8 @@ public class LRUDataModelOracleCache extends LRUCache<Package, PackageDataModelO
         final Package pkg = moduleService.resolvePackage(resourcePath);
 
         //If resource was not within a Package there's nothing to invalidate
-        if (pkg != null) {
+        if (pkg != null && !patchPackageDataModelOracle(pkg,
+                                                         resourcePath)) {
             invalidateCache(pkg);
         }
     }
@@ -119,108 +138,226 @@ public class LRUDataModelOracleCache extends LRUCache<Package, PackageDataModelO
             return;
         }
 
+        //Nested Modules are affected too. Their Packages keep their sources and are re-linked to the Module when used
         final String moduleUri = module.getRootPath().toURI();
-        final List<Package> cacheEntriesToInvalidate = new ArrayList<Package>();
-        for (final Package pkg : getKeys()) {
-            final Path packageMainSrcPath = pkg.getPackageMainSrcPath();
-            final Path packageTestSrcPath = pkg.getPackageTestSrcPath();
-            final Path packageMainResourcesPath = pkg.getPackageMainResourcesPath();
-            final Path packageTestResourcesPath = pkg.getPackageTestResourcesPath();
-            if (packageMainSrcPath != null && packageMainSrcPath.toURI().startsWith(moduleUri)) {
-                cacheEntriesToInvalidate.add(pkg);
-            } else if (packageTestSrcPath != null && packageTestSrcPath.toURI().startsWith(moduleUri)) {
-                cacheEntriesToInvalidate.add(pkg);
-            } else if (packageMainResourcesPath != null && packageMainResourcesPath.toURI().startsWith(moduleUri)) {
-                cacheEntriesToInvalidate.add(pkg);
-            } else if (packageTestResourcesPath != null && packageTestResourcesPath.toURI().startsWith(moduleUri)) {
-                cacheEntriesToInvalidate.add(pkg);
+        for (final Map.Entry<String, Set<Package>> entry : modulePackages.entrySet()) {
+            if (entry.getKey().startsWith(moduleUri)) {
+                stalePackages.addAll(entry.getValue());
             }
         }
-        for (final Package pkg : cacheEntriesToInvalidate) {
-            invalidateCache(pkg);
-        }
     }
 
     //Check the DataModelOracle for the Package has been created, otherwise create one!
     public PackageDataModelOracle assertPackageDataModelOracle(final KieModule module,
                                                                final Package pkg) {
-        PackageDataModelOracle oracle = getEntry(pkg);
-        if (oracle == null) {
-            oracle = makePackageDataModelOracle(module,
-                                                pkg);
-            setEntry(pkg,
-                     oracle);
+        if (stalePackages.remove(pkg)) {
+            final PackageSources sources = packageSources.get(pkg);
+            if (sources != null && getEntry(pkg) != null) {
+                final PackageSources relinked = new PackageSources(sources.moduleUri,
+                                                                   getClassLoader(module),
+                                                                   cacheModules.assertModuleDataModelOracle(module),
+                                                                   sources.enums,
+                                                                   sources.globals,
+                                                                   sources.extensions);
+                return cachePackageDataModelOracle(pkg,
+                                                   relinked,
+                                                   true);
+            }
+            invalidateCache(pkg);
+        }
+        return getOrLoad(pkg,
+                         key -> makePackageDataModelOracle(module,
+                                                           key));
+    }
+
+    Set<Package> getModulePackages(final String moduleUri) {
+        final Set<Package> packages = modulePackages.get(moduleUri);
+        return packages == null ? Collections.emptySet() : Collections.unmodifiableSet(packages);
+    }
+
+    //The Module part of a Package DataModelOracle is shared with LRUModuleDataModelOracleCache and weighed there
+    @Override
+    protected long weigh(final Package pkg,
+                         final PackageDataModelOracle oracle) {
+        return DataModelOracleWeigher.weighPackage(oracle);
+    }
+
+    @Override
+    protected void onRemoval(final Package pkg,
+                             final PackageDataModelOracle oracle) {
+        //Replacing an entry registers the sources of the new DataModelOracle first, they must be kept
+        final PackageSources sources = packageSources.get(pkg);
+        if (sources == null || sources.oracle != oracle) {
+            return;
         }
-        return oracle;
+        packageSources.remove(pkg);
+        stalePackages.remove(pkg);
+        modulePackages.computeIfPresent(sources.moduleUri,
+                                        (uri, packages) -> {
+                                            packages.remove(pkg);
+                                            return packages.isEmpty() ? null : packages;
+                                        });
+    }
+
+    protected ClassLoader getClassLoader(final KieModule module) {
+        final org.kie.api.builder.KieModule kieModule = buildInfoService.getBuildInfo(module).getKieModuleIgnoringErrors();
+        return KieModuleMetaData.Factory.newKieModuleMetaData(kieModule).getClassLoader();
     }
 
     private PackageDataModelOracle makePackageDataModelOracle(final KieModule module,
                                                               final Package pkg) {
-        final String packageName = pkg.getPackageName();
-        final PackageDataModelOracleBuilder dmoBuilder = PackageDataModelOracleBuilder.newPackageOracleBuilder(evaluator,
-                                                                                                               packageName);
-        final ModuleDataModelOracle moduleOracle = cacheModules.assertModuleDataModelOracle(module);
-        dmoBuilder.setModuleOracle(moduleOracle);
+        final org.uberfire.java.nio.file.Path nioPackagePath = Paths.convert(pkg.getPackageMainResourcesPath());
+        final PackageSources sources = new PackageSources(module.getRootPath().toURI(),
+                                                          getClassLoader(module),
+                                                          cacheModules.assertModuleDataModelOracle(module),
+                                                          new LinkedHashMap<>(),
+                                                          new LinkedHashMap<>(),
+                                                          new LinkedHashMap<>());
 
         //Add Guvnor enumerations
-        loadEnumsForPackage(dmoBuilder,
-                            module,
-                            pkg);
+        for (final org.uberfire.java.nio.file.Path path : fileDiscoveryService.discoverFiles(nioPackagePath,
+                                                                                              FILTER_ENUMERATIONS)) {
+            sources.enums.put(path.toUri().toString(),
+                              ioService.readAllString(path));
+        }
 
         //Add DSLs
-        loadExtensionsForPackage(dmoBuilder,
-                                 pkg);
+        for (final DataModelExtension extension : getExtensions()) {
+            final Filter<org.uberfire.java.nio.file.Path> filter = extension.getFilter();
+            for (final org.uberfire.java.nio.file.Path path : fileDiscoveryService.discoverFiles(nioPackagePath,
+                                                                                                  filter)) {
+                sources.extensions.put(path.toUri().toString(),
+                                       extension.getExtensions(path,
+                                                               ioService.readAllString(path)));
+            }
+        }
 
         //Add Globals
-        loadGlobalsForPackage(dmoBuilder,
-                              pkg);
+        for (final org.uberfire.java.nio.file.Path path : fileDiscoveryService.discoverFiles(nioPackagePath,
+                                                                                              FILTER_GLOBALS)) {
+            sources.globals.put(path.toUri().toString(),
+                                ioService.readAllString(path));
+        }
 
-        return dmoBuilder.build();
+        return cachePackageDataModelOracle(pkg,
+                                           sources,
+                                           false);
     }
 
-    private void loadEnumsForPackage(final PackageDataModelOracleBuilder dmoBuilder,
-                                     final KieModule module,
-                                     final Package pkg) {
-        final org.kie.api.builder.KieModule kieModule = buildInfoService.getBuildInfo(module).getKieModuleIgnoringErrors();
-        final ClassLoader classLoader = KieModuleMetaData.Factory.newKieModuleMetaData(kieModule).getClassLoader();
-        final org.uberfire.java.nio.file.Path nioPackagePath = Paths.convert(pkg.getPackageMainResourcesPath());
-        final Collection<org.uberfire.java.nio.file.Path> enumFiles = fileDiscoveryService.discoverFiles(nioPackagePath,
-                                                                                                         FILTER_ENUMERATIONS);
-        for (final org.uberfire.java.nio.file.Path path : enumFiles) {
-            final String enumDefinition = ioService.readAllString(path);
-            dmoBuilder.addEnum(enumDefinition,
-                               classLoader);
+    /**
+     * Re-reads a single enumeration, DSL or globals file of a cached Package and rebuilds its DataModelOracle from the
+     * retained sources.
+     * @return false when the DataModelOracle cannot be patched and has to be invalidated instead.
+     */
+    private boolean patchPackageDataModelOracle(final Package pkg,
+                                                final Path resourcePath) {
+        final PackageSources sources = packageSources.get(pkg);
+        if (sources == null || stalePackages.contains(pkg) || getEntry(pkg) == null || pkg.getPackageMainResourcesPath() == null) {
+            return false;
+        }
+        final org.uberfire.java.nio.file.Path path = Paths.convert(resourcePath);
+        if (path.getParent() == null || !path.getParent().equals(Paths.convert(pkg.getPackageMainResourcesPath()))) {
+            return false;
+        }
+        final String uri = path.toUri().toString();
+        final String content = ioService.exists(path) ? ioService.readAllString(path) : null;
+
+        final Map<String, String> enums = new LinkedHashMap<>(sources.enums);
+        final Map<String, String> globals = new LinkedHashMap<>(sources.globals);
+        final Map<String, List<DataModelExtension.ExtensionMapping<?>>> extensions = new LinkedHashMap<>(sources.extensions);
+        if (FILTER_ENUMERATIONS.accept(path)) {
+            update(enums,
+                   uri,
+                   content);
+        } else if (FILTER_GLOBALS.accept(path)) {
+            update(globals,
+                   uri,
+                   content);
+        } else {
+            final DataModelExtension extension = getExtensions().stream().filter(e -> e.getFilter().accept(path)).findFirst().orElse(null);
+            if (extension == null) {
+                return false;
+            }
+            update(extensions,
+                   uri,
+                   content == null ? null : extension.getExtensions(path,
+                                                                    content));
+        }
+
+        cachePackageDataModelOracle(pkg,
+                                    new PackageSources(sources.moduleUri,
+                                                       sources.classLoader,
+                                                       sources.moduleOracle,
+                                                       enums,
+                                                       globals,
+                                                       extensions),
+                                    true);
+        return true;
+    }
+
+    private PackageDataModelOracle cachePackageDataModelOracle(final Package pkg,
+                                                               final PackageSources sources,
+                                                               final boolean replace) {
+        final PackageDataModelOracleBuilder dmoBuilder = PackageDataModelOracleBuilder.newPackageOracleBuilder(evaluator,
+                                                                                                               pkg.getPackageName());
+        dmoBuilder.setModuleOracle(sources.moduleOracle);
+        sources.enums.values().forEach(enumDefinition -> dmoBuilder.addEnum(enumDefinition,
+                                                                            sources.classLoader));
+        sources.extensions.values().forEach(mappings -> mappings.forEach(mapping -> dmoBuilder.addExtension(mapping.getKind(),
+                                                                                                            mapping.getValues())));
+        sources.globals.values().forEach(dmoBuilder::addGlobals);
+        sources.oracle = dmoBuilder.build();
+
+        packageSources.put(pkg,
+                           sources);
+        modulePackages.computeIfAbsent(sources.moduleUri,
+                                       uri -> ConcurrentHashMap.newKeySet()).add(pkg);
+        if (replace) {
+            setEntry(pkg,
+                     sources.oracle);
         }
+        return sources.oracle;
     }
 
-    private void loadExtensionsForPackage(final PackageDataModelOracleBuilder dmoBuilder,
-                                          final Package pkg) {
-        final org.uberfire.java.nio.file.Path nioPackagePath = Paths.convert(pkg.getPackageMainResourcesPath());
-        List<DataModelExtension> extensions = stream(dataModelExtensionsProvider.spliterator(),
-                                                     false)
+    private List<DataModelExtension> getExtensions() {
+        return stream(dataModelExtensionsProvider.spliterator(),
+                      false)
                 .collect(toList());
+    }
 
-        for (final DataModelExtension extension : extensions) {
-            Filter<org.uberfire.java.nio.file.Path> filter = extension.getFilter();
-            final Collection<org.uberfire.java.nio.file.Path> extensionFiles = fileDiscoveryService.discoverFiles(nioPackagePath,
-                                                                                                                  filter);
-            extensionFiles
-                    .stream()
-                    .map(file -> extension.getExtensions(file,
-                                                         ioService.readAllString(file)))
-                    .forEach(mappings -> mappings.forEach(mapping -> dmoBuilder.addExtension(mapping.getKind(),
-                                                                                             mapping.getValues())));
+    private static <T> void update(final Map<String, T> sources,
+                                   final String uri,
+                                   final T content) {
+        if (content == null) {
+            sources.remove(uri);
+        } else {
+            sources.put(uri,
+                        content);
         }
     }
 
-    private void loadGlobalsForPackage(final PackageDataModelOracleBuilder dmoBuilder,
-                                       final Package pkg) {
-        final org.uberfire.java.nio.file.Path nioPackagePath = Paths.convert(pkg.getPackageMainResourcesPath());
-        final Collection<org.uberfire.java.nio.file.Path> globalFiles = fileDiscoveryService.discoverFiles(nioPackagePath,
-                                                                                                           FILTER_GLOBALS);
-        for (final org.uberfire.java.nio.file.Path path : globalFiles) {
-            final String definition = ioService.readAllString(path);
-            dmoBuilder.addGlobals(definition);
+    private static class PackageSources {
+
+        private final String moduleUri;
+        private final ClassLoader classLoader;
+        private final ModuleDataModelOracle moduleOracle;
+        private final Map<String, String> enums;
+        private final Map<String, String> globals;
+        private final Map<String, List<DataModelExtension.ExtensionMapping<?>>> extensions;
+        private volatile PackageDataModelOracle oracle;
+
+        private PackageSources(final String moduleUri,
+                               final ClassLoader classLoader,
+                               final ModuleDataModelOracle moduleOracle,
+                               final Map<String, String> enums,
+                               final Map<String, String> globals,
+                               final Map<String, List<DataModelExtension.ExtensionMapping<?>>> extensions) {
+            this.moduleUri = moduleUri;
+            this.classLoader = classLoader;
+            this.moduleOracle = moduleOracle;
+            this.enums = enums;
+            this.globals = globals;
+            this.extensions = extensions;
         }
     }
 }
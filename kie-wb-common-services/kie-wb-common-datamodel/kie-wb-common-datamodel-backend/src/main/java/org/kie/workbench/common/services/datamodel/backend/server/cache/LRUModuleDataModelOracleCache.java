@@ -20,11 +20,11 @@ import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.guvnor.common.services.backend.cache.LRUCache;
 import org.guvnor.common.services.project.builder.events.InvalidateDMOModuleCacheEvent;
 import org.kie.soup.commons.validation.PortablePreconditions;
 import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
 import org.kie.workbench.common.services.backend.builder.service.BuildInfoService;
+import org.kie.workbench.common.services.backend.cache.WeightedLRUCache;
 import org.kie.workbench.common.services.shared.project.KieModule;
 import org.kie.workbench.common.services.shared.project.KieModuleService;
 import org.uberfire.backend.vfs.Path;
@@ -35,19 +35,23 @@ import org.uberfire.backend.vfs.Path;
 @ApplicationScoped
 @Named("ModuleDataModelOracleCache")
 public class LRUModuleDataModelOracleCache
-        extends LRUCache<KieModule, ModuleDataModelOracle> {
+        extends WeightedLRUCache<KieModule, ModuleDataModelOracle> {
+
+    public static final String NAME = "ModuleDataModelOracleCache";
 
     private ModuleDataModelOracleBuilderProvider builderProvider;
     private KieModuleService moduleService;
     private BuildInfoService buildInfoService;
 
     public LRUModuleDataModelOracleCache() {
+        super(NAME);
     }
 
     @Inject
     public LRUModuleDataModelOracleCache(final ModuleDataModelOracleBuilderProvider builderProvider,
                                          final KieModuleService moduleService,
                                          final BuildInfoService buildInfoService) {
+        super(NAME);
         this.builderProvider = builderProvider;
         this.moduleService = moduleService;
         this.buildInfoService = buildInfoService;
@@ -67,13 +71,14 @@ public class LRUModuleDataModelOracleCache
 
     //Check the ModuleOracle for the Module has been created, otherwise create one!
     public ModuleDataModelOracle assertModuleDataModelOracle(final KieModule module) {
-        ModuleDataModelOracle moduleOracle = getEntry(module);
-        if (moduleOracle == null) {
-            moduleOracle = makeModuleOracle(module);
-            setEntry(module,
-                     moduleOracle);
-        }
-        return moduleOracle;
+        return getOrLoad(module,
+                         this::makeModuleOracle);
+    }
+
+    @Override
+    protected long weigh(final KieModule module,
+                         final ModuleDataModelOracle oracle) {
+        return DataModelOracleWeigher.weigh(oracle);
     }
 
     private ModuleDataModelOracle makeModuleOracle(final KieModule module) {
@@ -61,6 +61,7 @@ import org.jboss.errai.security.shared.api.Group;
 import org.jboss.errai.security.shared.api.Role;
 import org.jboss.errai.security.shared.api.identity.User;
 import org.jboss.errai.security.shared.api.identity.UserImpl;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -75,11 +76,13 @@ import org.kie.workbench.common.services.backend.builder.ala.LocalModuleConfigEx
 import org.kie.workbench.common.services.backend.builder.ala.LocalSourceConfigExecutor;
 import org.kie.workbench.common.services.backend.builder.core.BuildHelper;
 import org.kie.workbench.common.services.backend.builder.core.DeploymentVerifier;
+import org.kie.workbench.common.services.backend.builder.core.KieModuleSnapshotStore;
 import org.kie.workbench.common.services.backend.builder.core.LRUBuilderCache;
 import org.kie.workbench.common.services.backend.builder.core.LRUModuleDependenciesClassLoaderCache;
 import org.kie.workbench.common.services.backend.builder.core.LRUPomModelCache;
 import org.kie.workbench.common.services.backend.builder.service.BuildInfoService;
 import org.kie.workbench.common.services.backend.builder.service.BuildServiceHelper;
+import org.kie.workbench.common.services.backend.builder.service.BuildScheduler;
 import org.kie.workbench.common.services.backend.builder.service.BuildServiceImpl;
 import org.kie.workbench.common.services.backend.dependencies.DependencyServiceImpl;
 import org.kie.workbench.common.services.backend.kmodule.KModuleContentHandler;
@@ -138,11 +141,20 @@ public class DataModelServiceConstructorTest {
     @Mock
     private Instance<DataModelExtension> dataModelExtensionProvider;
 
+    private BuildScheduler buildScheduler;
+
     @Before
     public void setup() {
         when(dataModelExtensionProvider.iterator()).thenReturn(Collections.emptyListIterator());
     }
 
+    @After
+    public void tearDown() {
+        if (buildScheduler != null) {
+            buildScheduler.destroy();
+        }
+    }
+
     @Test
     public void testConstructor()
             throws IllegalArgumentException, FileSystemNotFoundException, SecurityException, URISyntaxException {
@@ -290,7 +302,8 @@ public class DataModelServiceConstructorTest {
                                                            dependenciesClassLoaderCache,
                                                            pomModelCache,
                                                            packageNameWhiteListService,
-                                                           classFilterBeans
+                                                           classFilterBeans,
+                                                           new KieModuleSnapshotStore(null)
         );
 
         Instance<PostBuildHandler> handlerInstance = mock(Instance.class);
@@ -316,9 +329,12 @@ public class DataModelServiceConstructorTest {
 
         BuildServiceHelper buildServiceHelper = new BuildServiceHelper(pipelineInvoker,
                                                                        deploymentVerifier);
+        buildScheduler = new BuildScheduler(buildServiceHelper);
+        buildScheduler.init();
         BuildService buildService = new BuildServiceImpl(moduleService,
                                                          buildServiceHelper,
-                                                         builderCache);
+                                                         builderCache,
+                                                         buildScheduler);
         BuildInfoService buildInfoService = new BuildInfoService(buildService,
                                                                  builderCache);
 
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.workbench.common.services.datamodel.backend.server.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.enterprise.inject.Instance;
+
+import org.guvnor.common.services.backend.file.FileDiscoveryService;
+import org.guvnor.common.services.project.builder.events.InvalidateDMOModuleCacheEvent;
+import org.guvnor.common.services.project.builder.events.InvalidateDMOPackageCacheEvent;
+import org.guvnor.common.services.project.model.Package;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.kie.soup.project.datamodel.commons.oracle.ModuleDataModelOracleImpl;
+import org.kie.soup.project.datamodel.commons.util.RawMVELEvaluator;
+import org.kie.soup.project.datamodel.oracle.PackageDataModelOracle;
+import org.kie.workbench.common.services.backend.builder.service.BuildInfoService;
+import org.kie.workbench.common.services.datamodel.spi.DataModelExtension;
+import org.kie.workbench.common.services.shared.project.KieModule;
+import org.kie.workbench.common.services.shared.project.KieModuleService;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.file.DirectoryStream;
+import org.uberfire.java.nio.fs.file.SimpleFileSystemProvider;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LRUDataModelOracleCacheTest {
+
+    private static final String MODULE_URI = "file:///module";
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Mock
+    private IOService ioService;
+
+    @Mock
+    private FileDiscoveryService fileDiscoveryService;
+
+    @Mock
+    private LRUModuleDataModelOracleCache cacheModules;
+
+    @Mock
+    private KieModuleService moduleService;
+
+    @Mock
+    private BuildInfoService buildInfoService;
+
+    @Mock
+    private Instance<DataModelExtension> dataModelExtensionsProvider;
+
+    @Mock
+    private KieModule module;
+
+    @Mock
+    private Package pkg;
+
+    private final Map<org.uberfire.java.nio.file.Path, String> files = new HashMap<>();
+
+    private org.uberfire.java.nio.file.Path enumFile;
+
+    private LRUDataModelOracleCache cache;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        final org.uberfire.java.nio.file.Path packagePath = new SimpleFileSystemProvider().getPath(temp.newFolder("org").toURI());
+        enumFile = packagePath.resolve("Fruit.enumeration");
+        files.put(enumFile,
+                  "'Fruit.type' : ['apple', 'banana']");
+
+        final Path rootPath = mock(Path.class);
+        when(rootPath.toURI()).thenReturn(MODULE_URI);
+        when(module.getRootPath()).thenReturn(rootPath);
+        when(pkg.getPackageName()).thenReturn("org");
+        when(pkg.getPackageMainResourcesPath()).thenReturn(Paths.convert(packagePath));
+        when(moduleService.resolvePackage(any(Path.class))).thenReturn(pkg);
+        when(moduleService.resolveModule(any(Path.class))).thenReturn(module);
+        when(cacheModules.assertModuleDataModelOracle(module)).thenReturn(new ModuleDataModelOracleImpl());
+        when(dataModelExtensionsProvider.spliterator()).thenAnswer(invocation -> Collections.<DataModelExtension>emptyList().spliterator());
+        when(fileDiscoveryService.discoverFiles(any(org.uberfire.java.nio.file.Path.class),
+                                                any(DirectoryStream.Filter.class))).thenAnswer(invocation -> {
+            final DirectoryStream.Filter<org.uberfire.java.nio.file.Path> filter = (DirectoryStream.Filter<org.uberfire.java.nio.file.Path>) invocation.getArguments()[1];
+            return files.keySet().stream().filter(filter::accept).collect(Collectors.toList());
+        });
+        when(ioService.exists(any(org.uberfire.java.nio.file.Path.class))).thenAnswer(invocation -> files.containsKey(invocation.getArguments()[0]));
+        when(ioService.readAllString(any(org.uberfire.java.nio.file.Path.class))).thenAnswer(invocation -> files.get(invocation.getArguments()[0]));
+
+        cache = new LRUDataModelOracleCache(ioService,
+                                            fileDiscoveryService,
+                                            cacheModules,
+                                            moduleService,
+                                            buildInfoService,
+                                            dataModelExtensionsProvider,
+                                            new RawMVELEvaluator()) {
+            @Override
+            protected ClassLoader getClassLoader(final KieModule module) {
+                return getClass().getClassLoader();
+            }
+        };
+    }
+
+    @Test
+    public void testSavedEnumerationPatchesOracle() {
+        final PackageDataModelOracle oracle = cache.assertPackageDataModelOracle(module,
+                                                                                 pkg);
+        assertArrayEquals(new String[]{"apple", "banana"},
+                          oracle.getPackageWorkbenchDefinitions().get("Fruit#type"));
+
+        files.put(enumFile,
+                  "'Fruit.type' : ['cherry']");
+        cache.invalidatePackageCache(new InvalidateDMOPackageCacheEvent(Paths.convert(enumFile)));
+
+        final PackageDataModelOracle patched = cache.assertPackageDataModelOracle(module,
+                                                                                  pkg);
+        assertNotSame(oracle,
+                      patched);
+        assertArrayEquals(new String[]{"cherry"},
+                          patched.getPackageWorkbenchDefinitions().get("Fruit#type"));
+
+        //Only the saved file was read again
+        verify(fileDiscoveryService,
+               times(2)).discoverFiles(any(org.uberfire.java.nio.file.Path.class),
+                                       any(DirectoryStream.Filter.class));
+        verify(ioService,
+               times(2)).readAllString(enumFile);
+    }
+
+    @Test
+    public void testDeletedEnumerationIsRemovedFromOracle() {
+        cache.assertPackageDataModelOracle(module,
+                                           pkg);
+
+        files.remove(enumFile);
+        cache.invalidatePackageCache(new InvalidateDMOPackageCacheEvent(Paths.convert(enumFile)));
+
+        assertFalse(cache.assertPackageDataModelOracle(module,
+                                                       pkg).getPackageWorkbenchDefinitions().containsKey("Fruit#type"));
+    }
+
+    @Test
+    public void testModuleChangeRelinksPackagesWithoutReadingThem() {
+        final PackageDataModelOracle oracle = cache.assertPackageDataModelOracle(module,
+                                                                                 pkg);
+        assertTrue(cache.getModulePackages(MODULE_URI).contains(pkg));
+
+        cache.invalidateProjectPackagesCache(new InvalidateDMOModuleCacheEvent(null,
+                                                                               module,
+                                                                               mock(Path.class)));
+
+        final PackageDataModelOracle relinked = cache.assertPackageDataModelOracle(module,
+                                                                                   pkg);
+        assertNotSame(oracle,
+                      relinked);
+        assertArrayEquals(new String[]{"apple", "banana"},
+                          relinked.getPackageWorkbenchDefinitions().get("Fruit#type"));
+        verify(cacheModules,
+               times(2)).assertModuleDataModelOracle(module);
+        verify(ioService,
+               times(1)).readAllString(enumFile);
+    }
+
+    @Test
+    public void testInvalidatedPackageIsRemovedFromModuleIndex() {
+        cache.assertPackageDataModelOracle(module,
+                                           pkg);
+
+        cache.invalidateCache(pkg);
+
+        final Collection<Package> packages = cache.getModulePackages(MODULE_URI);
+        assertTrue(packages.isEmpty());
+    }
+}
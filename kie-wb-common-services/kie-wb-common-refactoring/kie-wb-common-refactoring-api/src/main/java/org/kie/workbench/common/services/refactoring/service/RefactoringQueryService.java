@@ -17,6 +17,7 @@ package org.kie.workbench.common.services.refactoring.service;
 
 import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import org.jboss.errai.bus.server.annotations.Remote;
 import org.kie.workbench.common.services.refactoring.model.index.terms.valueterms.ValueIndexTerm;
@@ -35,6 +36,16 @@ public interface RefactoringQueryService {
     List<RefactoringPageRow> query(final String queryName,
                                    final Set<ValueIndexTerm> queryTerms);
 
+    /**
+     * Streams the rows of a query page by page, without building the list of all the hits. Hits are loaded in windows
+     * doubling in size, so a consumer stopping early only loads the hits up to the pages it received. The consumer runs
+     * where the service does, so this is meant for server side callers.
+     * @param request the query, the start row and the size of the pages, 100 rows when it has none.
+     * @param pageConsumer receives the successive pages, returns false to stop.
+     */
+    void queryPages(final RefactoringPageRequest request,
+                    final Predicate<List<RefactoringPageRow>> pageConsumer);
+
     PageResponse<RefactoringPageRow> queryToPageResponse(final QueryOperationRequest request);
 
     List<RefactoringPageRow> queryToList(final QueryOperationRequest request);
@@ -0,0 +1,410 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.refactoring.backend.server.indexing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Any;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.kie.soup.commons.validation.PortablePreconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.ext.metadata.MetadataConfig;
+import org.uberfire.ext.metadata.engine.Indexer;
+import org.uberfire.ext.metadata.engine.MetaIndexEngine;
+import org.uberfire.ext.metadata.model.KCluster;
+import org.uberfire.ext.metadata.model.KObject;
+import org.uberfire.java.nio.file.DirectoryStream;
+import org.uberfire.java.nio.file.Files;
+import org.uberfire.java.nio.file.Path;
+
+/**
+ * Bulk indexing mode, for files that all need indexing at once outside of the metadata engine. The engine already
+ * batch indexes the file systems it creates, e.g. on a clone or a project import, so they must not be submitted here
+ * as well: both would write the same cluster at the same time.
+ * Every {@link Indexer} parses its files with {@link Indexer#toKObject(Path)} on a worker thread of its own, as indexers
+ * are not required to be thread safe, so the indexers run in parallel with each other but each one sees a single
+ * thread. A single writer stores the documents of each indexer in batches and then commits its index, which makes it
+ * ready for that indexer. Runs are queued and executed one at a time; {@link #awaitCompletion(KCluster, long, TimeUnit)}
+ * lets callers wait for the pending run of a cluster rather than reporting it as not indexed. Configured with the
+ * system properties <code>org.kie.indexing.bulk.threads</code> (indexers parsing at the same time, the number of
+ * processors by default) and <code>org.kie.indexing.bulk.batchSize</code> (documents per batch).
+ */
+@ApplicationScoped
+public class BulkIndexer {
+
+    public static final String THREADS_PROPERTY = "org.kie.indexing.bulk.threads";
+    public static final String BATCH_SIZE_PROPERTY = "org.kie.indexing.bulk.batchSize";
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkIndexer.class);
+
+    //Batches parsed ahead of the writer by every indexer
+    private static final int PARSED_BATCHES = 2;
+
+    private MetadataConfig config;
+    private Iterable<? extends Indexer> indexers;
+    private int batchSize;
+    private ExecutorService workers;
+    private ExecutorService writer;
+
+    private final Map<String, CompletableFuture<Void>> runs = new ConcurrentHashMap<>();
+    private final Map<String, BulkIndexingStatistics> statistics = new ConcurrentHashMap<>();
+
+    public BulkIndexer() {
+        //Make proxyable
+    }
+
+    @Inject
+    public BulkIndexer(@Named("luceneConfig") final MetadataConfig config,
+                       @Any final Instance<Indexer> indexers) {
+        this(config,
+             indexers,
+             Integer.getInteger(THREADS_PROPERTY,
+                                Runtime.getRuntime().availableProcessors()),
+             Integer.getInteger(BATCH_SIZE_PROPERTY,
+                                100));
+    }
+
+    public BulkIndexer(final MetadataConfig config,
+                       final Iterable<? extends Indexer> indexers,
+                       final int threads,
+                       final int batchSize) {
+        this.config = PortablePreconditions.checkNotNull("config",
+                                                         config);
+        this.indexers = PortablePreconditions.checkNotNull("indexers",
+                                                           indexers);
+        this.batchSize = Math.max(1,
+                                  batchSize);
+        this.workers = Executors.newFixedThreadPool(Math.max(1,
+                                                             threads),
+                                                    threadFactory("kie-bulk-indexer-worker"));
+        this.writer = Executors.newSingleThreadExecutor(threadFactory("kie-bulk-indexer"));
+    }
+
+    @PreDestroy
+    public void dispose() {
+        if (writer != null) {
+            writer.shutdownNow();
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Indexes all the files of a file system with every available indexer.
+     * @param cluster the cluster of the file system.
+     * @param root the root of the file system.
+     * @return completed once the index of every indexer is committed.
+     */
+    public CompletableFuture<Void> index(final KCluster cluster,
+                                         final Path root) {
+        final List<Indexer> all = new ArrayList<>();
+        indexers.forEach(all::add);
+        return index(cluster,
+                     root,
+                     all);
+    }
+
+    /**
+     * Indexes all the files of a file system.
+     * @param cluster the cluster of the file system.
+     * @param root the root of the file system.
+     * @param indexers the indexers to run, in order.
+     * @return completed once the index of every indexer is committed.
+     */
+    public CompletableFuture<Void> index(final KCluster cluster,
+                                         final Path root,
+                                         final Collection<? extends Indexer> indexers) {
+        PortablePreconditions.checkNotNull("root",
+                                           root);
+        return submit(cluster,
+                      () -> listFiles(root),
+                      indexers);
+    }
+
+    /**
+     * Indexes the given files.
+     * @param cluster the cluster of the files.
+     * @param files the files to index; each indexer only gets the ones it supports.
+     * @param indexers the indexers to run, in order.
+     * @return completed once the index of every indexer is committed.
+     */
+    public CompletableFuture<Void> index(final KCluster cluster,
+                                         final Collection<Path> files,
+                                         final Collection<? extends Indexer> indexers) {
+        PortablePreconditions.checkNotNull("files",
+                                           files);
+        return submit(cluster,
+                      () -> files,
+                      indexers);
+    }
+
+    public boolean isIndexing(final KCluster cluster) {
+        return runs.containsKey(cluster.getClusterId());
+    }
+
+    /**
+     * Waits for the bulk indexing of a cluster.
+     * @return true when no bulk indexing of the cluster is pending anymore, false on timeout.
+     */
+    public boolean awaitCompletion(final KCluster cluster,
+                                   final long timeout,
+                                   final TimeUnit unit) {
+        final CompletableFuture<Void> run = runs.get(cluster.getClusterId());
+        if (run == null) {
+            return true;
+        }
+        try {
+            run.get(timeout,
+                    unit);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            //The failure was logged by the run, the index engine tells whether the index is usable
+            return true;
+        }
+    }
+
+    /**
+     * @return the statistics of the bulk indexing runs of an indexer, updated while they progress.
+     */
+    public BulkIndexingStatistics getStatistics(final String indexerId) {
+        return statistics.computeIfAbsent(indexerId,
+                                          BulkIndexingStatistics::new);
+    }
+
+    public Collection<BulkIndexingStatistics> getStatistics() {
+        return new ArrayList<>(statistics.values());
+    }
+
+    private CompletableFuture<Void> submit(final KCluster cluster,
+                                           final Supplier<Collection<Path>> files,
+                                           final Collection<? extends Indexer> indexers) {
+        PortablePreconditions.checkNotNull("cluster",
+                                           cluster);
+        PortablePreconditions.checkNotNull("indexers",
+                                           indexers);
+        final String clusterId = cluster.getClusterId();
+        final CompletableFuture<Void> run = new CompletableFuture<>();
+        //Runs are executed one at a time, so the latest run of a cluster is the last one to complete
+        runs.put(clusterId,
+                 run);
+        writer.execute(() -> {
+            try {
+                index(cluster,
+                      files.get(),
+                      indexers);
+                runs.remove(clusterId,
+                            run);
+                run.complete(null);
+            } catch (Throwable t) {
+                logger.error("Bulk indexing of cluster '" + clusterId + "' failed.",
+                             t);
+                runs.remove(clusterId,
+                            run);
+                run.completeExceptionally(t);
+            }
+        });
+        return run;
+    }
+
+    private void index(final KCluster cluster,
+                       final Collection<Path> files,
+                       final Collection<? extends Indexer> indexers) throws InterruptedException {
+        final long start = System.nanoTime();
+        final List<Parser> parsers = new ArrayList<>(indexers.size());
+        for (Indexer indexer : indexers) {
+            final List<Path> supported = files.stream().filter(indexer::supportsPath).collect(Collectors.toList());
+            final Parser parser = new Parser(indexer,
+                                             supported,
+                                             getStatistics(indexer.getIndexerId()),
+                                             batchSize);
+            parser.indexerStatistics.recordRun(supported.size());
+            //Submitted in order, so the parser of the indexer being written always has a worker
+            parser.future = workers.submit(parser);
+            parsers.add(parser);
+        }
+        try {
+            for (Parser parser : parsers) {
+                write(cluster,
+                      parser,
+                      start);
+            }
+        } finally {
+            for (Parser parser : parsers) {
+                parser.future.cancel(true);
+            }
+        }
+    }
+
+    private void write(final KCluster cluster,
+                       final Parser parser,
+                       final long start) throws InterruptedException {
+        final MetaIndexEngine indexEngine = config.getIndexEngine();
+        indexEngine.startBatch(cluster);
+        try {
+            List<KObject> batch;
+            while (!(batch = parser.parsed.take()).isEmpty()) {
+                indexEngine.index(batch.toArray(new KObject[batch.size()]));
+                parser.indexerStatistics.recordBatch();
+            }
+            if (parser.failure != null) {
+                throw new IllegalStateException("Indexer '" + parser.indexer.getIndexerId() + "' failed.",
+                                                parser.failure);
+            }
+            indexEngine.commit(cluster,
+                               parser.indexer.getIndexerId());
+        } catch (InterruptedException | RuntimeException e) {
+            indexEngine.abort(cluster);
+            throw e;
+        } finally {
+            parser.indexerStatistics.recordElapsed(System.nanoTime() - start);
+        }
+        logger.debug("Bulk indexing of cluster '{}': {}",
+                     cluster.getClusterId(),
+                     parser.indexerStatistics);
+    }
+
+    /**
+     * Turns the files of an indexer into batches of documents, ending with an empty batch, even when the indexer fails.
+     */
+    private static class Parser implements Runnable {
+
+        private final Indexer indexer;
+        private final List<Path> files;
+        private final BulkIndexingStatistics indexerStatistics;
+        private final int batchSize;
+        private final BlockingQueue<List<KObject>> parsed = new ArrayBlockingQueue<>(PARSED_BATCHES + 1);
+        private volatile Throwable failure;
+        private Future<?> future;
+
+        private Parser(final Indexer indexer,
+                       final List<Path> files,
+                       final BulkIndexingStatistics indexerStatistics,
+                       final int batchSize) {
+            this.indexer = indexer;
+            this.files = files;
+            this.indexerStatistics = indexerStatistics;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public void run() {
+            try {
+                List<KObject> batch = new ArrayList<>(batchSize);
+                for (Path path : files) {
+                    final KObject kObject = parse(path);
+                    if (kObject != null) {
+                        batch.add(kObject);
+                    }
+                    if (batch.size() >= batchSize) {
+                        parsed.put(batch);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    parsed.put(batch);
+                }
+            } catch (InterruptedException e) {
+                //The run was aborted
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException | Error e) {
+                failure = e;
+                throw e;
+            } finally {
+                //The writer waits for the end of the batches unless the run was aborted
+                if (!Thread.currentThread().isInterrupted()) {
+                    try {
+                        parsed.put(Collections.emptyList());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        }
+
+        private KObject parse(final Path path) {
+            final long start = System.nanoTime();
+            KObject kObject = null;
+            try {
+                kObject = indexer.toKObject(path);
+            } catch (Exception e) {
+                logger.warn("Unable to index '" + path.toUri() + "': " + e.getMessage());
+            }
+            if (kObject != null) {
+                indexerStatistics.recordIndexed(System.nanoTime() - start);
+            } else {
+                indexerStatistics.recordFailed(System.nanoTime() - start);
+            }
+            return kObject;
+        }
+    }
+
+    private static List<Path> listFiles(final Path root) {
+        final List<Path> files = new ArrayList<>();
+        final Deque<Path> directories = new ArrayDeque<>();
+        directories.push(root);
+        while (!directories.isEmpty()) {
+            try (final DirectoryStream<Path> children = Files.newDirectoryStream(directories.pop())) {
+                for (Path child : children) {
+                    if (Files.isDirectory(child)) {
+                        directories.push(child);
+                    } else {
+                        files.add(child);
+                    }
+                }
+            }
+        }
+        return files;
+    }
+
+    private static ThreadFactory threadFactory(final String name) {
+        final AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable,
+                                             name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.refactoring.backend.server.indexing;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress and throughput of the bulk indexing runs of an {@link org.uberfire.ext.metadata.engine.Indexer}, see
+ * {@link BulkIndexer}.
+ */
+public class BulkIndexingStatistics {
+
+    private final String indexerId;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong indexed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong parseNanos = new AtomicLong();
+    private final AtomicLong elapsedNanos = new AtomicLong();
+
+    public BulkIndexingStatistics(final String indexerId) {
+        this.indexerId = indexerId;
+    }
+
+    void recordRun(final int files) {
+        runs.incrementAndGet();
+        pending.addAndGet(files);
+    }
+
+    void recordIndexed(final long nanos) {
+        pending.decrementAndGet();
+        indexed.incrementAndGet();
+        parseNanos.addAndGet(nanos);
+    }
+
+    void recordFailed(final long nanos) {
+        pending.decrementAndGet();
+        failed.incrementAndGet();
+        parseNanos.addAndGet(nanos);
+    }
+
+    void recordBatch() {
+        batches.incrementAndGet();
+    }
+
+    void recordElapsed(final long nanos) {
+        elapsedNanos.addAndGet(nanos);
+    }
+
+    public String getIndexerId() {
+        return indexerId;
+    }
+
+    public long getRuns() {
+        return runs.get();
+    }
+
+    /**
+     * Files of the running bulk indexing runs that are not processed yet.
+     */
+    public long getPendingFiles() {
+        return pending.get();
+    }
+
+    public long getIndexedFiles() {
+        return indexed.get();
+    }
+
+    /**
+     * Files the indexer could not turn into a document.
+     */
+    public long getFailedFiles() {
+        return failed.get();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    /**
+     * Processed files out of all the files submitted, between 0 and 1.
+     */
+    public double getProgress() {
+        final long processed = indexed.get() + failed.get();
+        final long total = processed + pending.get();
+        return total == 0 ? 1 : (double) processed / total;
+    }
+
+    /**
+     * Time spent by the workers parsing files, summed over all of them.
+     */
+    public long getParseTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(parseNanos.get());
+    }
+
+    /**
+     * Files processed per second of the completed bulk indexing runs.
+     */
+    public double getThroughput() {
+        final long nanos = elapsedNanos.get();
+        return nanos == 0 ? 0 : (indexed.get() + failed.get()) * 1_000_000_000d / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkIndexingStatistics{" +
+                "indexerId='" + indexerId + '\'' +
+                ", runs=" + getRuns() +
+                ", pendingFiles=" + getPendingFiles() +
+                ", indexedFiles=" + getIndexedFiles() +
+                ", failedFiles=" + getFailedFiles() +
+                ", batches=" + getBatches() +
+                ", progress=" + getProgress() +
+                ", throughput=" + getThroughput() +
+                '}';
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.refactoring.backend.server.indexing;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.kie.soup.commons.validation.PortablePreconditions;
+import org.kie.soup.project.datamodel.oracle.ModelField;
+import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
+
+/**
+ * Type and field lookups of a {@link ModuleDataModelOracle}, resolved once and shared by the indexing of all the DRL
+ * files of its module. A session is bound to a single oracle: a new oracle, e.g. after the module changed, needs a new
+ * session. Safe for concurrent use.
+ */
+public class DrlIndexingSession {
+
+    private final ModuleDataModelOracle dmo;
+
+    //Fully qualified class name -> field name -> field
+    private final Map<String, Map<String, ModelField>> fields = new ConcurrentHashMap<>();
+
+    //Simple type name -> fully qualified class name guessed from the fields of the module
+    private final Map<String, Optional<String>> guessedTypes = new ConcurrentHashMap<>();
+
+    private final DrlIndexingStatistics statistics;
+
+    public DrlIndexingSession(final ModuleDataModelOracle dmo) {
+        this(dmo,
+             new DrlIndexingStatistics());
+    }
+
+    /**
+     * @param statistics receives the cache hits and misses of the lookups.
+     */
+    public DrlIndexingSession(final ModuleDataModelOracle dmo,
+                              final DrlIndexingStatistics statistics) {
+        this.dmo = PortablePreconditions.checkNotNull("dmo",
+                                                      dmo);
+        this.statistics = PortablePreconditions.checkNotNull("statistics",
+                                                             statistics);
+    }
+
+    public ModuleDataModelOracle getModuleDataModelOracle() {
+        return dmo;
+    }
+
+    /**
+     * @return the field of a class, null when the class or the field is unknown.
+     */
+    public ModelField getField(final String fullyQualifiedClassName,
+                               final String fieldName) {
+        if (fullyQualifiedClassName == null) {
+            return null;
+        }
+        Map<String, ModelField> classFields = fields.get(fullyQualifiedClassName);
+        if (classFields != null) {
+            statistics.recordHit();
+        } else {
+            statistics.recordMiss();
+            classFields = fields.computeIfAbsent(fullyQualifiedClassName,
+                                                 this::indexFields);
+        }
+        return classFields.get(fieldName);
+    }
+
+    /**
+     * Guesses the fully qualified class name of a type from the field types of the module.
+     * @return the first class of the module named as the type, if any.
+     */
+    public Optional<String> guessFullyQualifiedClassName(final String typeName) {
+        Optional<String> guessed = guessedTypes.get(typeName);
+        if (guessed != null) {
+            statistics.recordHit();
+        } else {
+            statistics.recordMiss();
+            guessed = guessedTypes.computeIfAbsent(typeName,
+                                                   this::guess);
+        }
+        return guessed;
+    }
+
+    private Map<String, ModelField> indexFields(final String fullyQualifiedClassName) {
+        final ModelField[] mfs = dmo.getModuleModelFields().get(fullyQualifiedClassName);
+        if (mfs == null) {
+            return Collections.emptyMap();
+        }
+        final Map<String, ModelField> classFields = new HashMap<>();
+        for (ModelField mf : mfs) {
+            //The first field of a name wins, as when scanning the fields
+            classFields.putIfAbsent(mf.getName(),
+                                    mf);
+        }
+        return classFields;
+    }
+
+    private Optional<String> guess(final String typeName) {
+        for (Entry<String, ModelField[]> entry : dmo.getModuleModelFields().entrySet()) {
+            for (ModelField mf : entry.getValue()) {
+                if (mf.getClassType().equals(ModelField.FIELD_CLASS_TYPE.REGULAR_CLASS)) {
+                    if (mf.getClassName().endsWith("." + typeName)) {
+                        return Optional.of(mf.getClassName());
+                    } else if (mf.getType().endsWith("." + typeName)) {
+                        return Optional.of(mf.getType());
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.refactoring.backend.server.indexing;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache hit rate of the type and field lookups of {@link DrlIndexingSession}s and latency of the DRL files indexed.
+ */
+public class DrlIndexingStatistics {
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong sessions = new AtomicLong();
+    private final AtomicLong files = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    public void recordSession() {
+        sessions.incrementAndGet();
+    }
+
+    public void recordFile(final long nanos) {
+        files.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos,
+                                  Math::max);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public double getHitRate() {
+        final long lookups = hits.get() + misses.get();
+        return lookups == 0 ? 0 : (double) hits.get() / lookups;
+    }
+
+    /**
+     * Sessions created, one per module data model oracle.
+     */
+    public long getSessions() {
+        return sessions.get();
+    }
+
+    public long getIndexedFiles() {
+        return files.get();
+    }
+
+    public double getAverageFileMillis() {
+        final long count = files.get();
+        return count == 0 ? 0 : (double) TimeUnit.NANOSECONDS.toMicros(totalNanos.get()) / count / 1000;
+    }
+
+    public double getMaxFileMillis() {
+        return (double) TimeUnit.NANOSECONDS.toMicros(maxNanos.get()) / 1000;
+    }
+
+    @Override
+    public String toString() {
+        return "DrlIndexingStatistics{" +
+                "hits=" + getHits() +
+                ", misses=" + getMisses() +
+                ", hitRate=" + getHitRate() +
+                ", sessions=" + getSessions() +
+                ", indexedFiles=" + getIndexedFiles() +
+                ", averageFileMillis=" + getAverageFileMillis() +
+                ", maxFileMillis=" + getMaxFileMillis() +
+                '}';
+    }
+}
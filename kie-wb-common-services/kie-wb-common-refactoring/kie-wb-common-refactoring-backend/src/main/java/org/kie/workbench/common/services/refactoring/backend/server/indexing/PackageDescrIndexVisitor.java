@@ -19,7 +19,6 @@ import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 
 import org.drools.compiler.compiler.DrlExprParser;
@@ -96,7 +95,7 @@ public class PackageDescrIndexVisitor extends ResourceReferenceCollector {
 
     private static final Logger logger = LoggerFactory.getLogger(PackageDescrIndexVisitor.class);
 
-    private final ModuleDataModelOracle dmo;
+    private final DrlIndexingSession session;
     private final DefaultIndexBuilder builder;
     private final PackageDescr packageDescr;
     private final PackageDescrIndexVisitorContext context = new PackageDescrIndexVisitorContext();
@@ -136,8 +135,20 @@ public class PackageDescrIndexVisitor extends ResourceReferenceCollector {
     public PackageDescrIndexVisitor(final ModuleDataModelOracle dmo,
                                     final DefaultIndexBuilder builder,
                                     final PackageDescr packageDescr) {
-        this.dmo = PortablePreconditions.checkNotNull("dmo",
-                                                      dmo);
+        this(new DrlIndexingSession(PortablePreconditions.checkNotNull("dmo",
+                                                                       dmo)),
+             builder,
+             packageDescr);
+    }
+
+    /**
+     * @param session the type and field lookups of the module, shared with the visitors of its other files.
+     */
+    public PackageDescrIndexVisitor(final DrlIndexingSession session,
+                                    final DefaultIndexBuilder builder,
+                                    final PackageDescr packageDescr) {
+        this.session = PortablePreconditions.checkNotNull("session",
+                                                          session);
         this.builder = PortablePreconditions.checkNotNull("builder",
                                                           builder);
         this.packageDescr = PortablePreconditions.checkNotNull("packageDescr",
@@ -713,21 +724,18 @@ public class PackageDescrIndexVisitor extends ResourceReferenceCollector {
 
     private String addField(final String fieldName,
                             final String fullyQualifiedClassName) {
-        final ModelField[] mfs = dmo.getModuleModelFields().get(fullyQualifiedClassName);
-        if (mfs != null) {
-            for (ModelField mf : mfs) {
-                if (mf.getName().equals(fieldName)) {
-                    // add the type of the field owner and the field reference
-                    ResourceReference resRef = addResourceReference(fullyQualifiedClassName,
-                                                                    ResourceType.JAVA);
-                    resRef.addPartReference(fieldName,
-                                            PartType.FIELD);
-                    // add the type of the field
-                    addResourceReference(mf.getClassName(),
-                                         ResourceType.JAVA);
-                    return mf.getClassName();
-                }
-            }
+        final ModelField mf = session.getField(fullyQualifiedClassName,
+                                               fieldName);
+        if (mf != null) {
+            // add the type of the field owner and the field reference
+            ResourceReference resRef = addResourceReference(fullyQualifiedClassName,
+                                                            ResourceType.JAVA);
+            resRef.addPartReference(fieldName,
+                                    PartType.FIELD);
+            // add the type of the field
+            addResourceReference(mf.getClassName(),
+                                 ResourceType.JAVA);
+            return mf.getClassName();
         }
         return null;
     }
@@ -743,20 +751,8 @@ public class PackageDescrIndexVisitor extends ResourceReferenceCollector {
         }
 
         // We are guessing, like a blindman playing blackjack... there has to be a better way..
-        for (Entry<String, ModelField[]> entry : dmo.getModuleModelFields().entrySet()) {
-            ModelField[] mfs = entry.getValue();
-            String key = entry.getKey();
-            for (ModelField mf : mfs) {
-                if (mf.getClassType().equals(ModelField.FIELD_CLASS_TYPE.REGULAR_CLASS)) {
-                    if (mf.getClassName().endsWith("." + typeName)) {
-                        return mf.getClassName();
-                    } else if (mf.getType().endsWith("." + typeName)) {
-                        return mf.getType();
-                    }
-                }
-            }
-        }
-        return packageDescr.getName() + "." + typeName;
+        return session.guessFullyQualifiedClassName(typeName)
+                .orElseGet(() -> packageDescr.getName() + "." + typeName);
     }
 
     private String getPackagePrefix() {
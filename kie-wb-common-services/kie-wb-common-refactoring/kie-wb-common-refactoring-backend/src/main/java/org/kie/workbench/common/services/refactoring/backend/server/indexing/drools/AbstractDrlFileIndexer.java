@@ -15,6 +15,8 @@
  */
 package org.kie.workbench.common.services.refactoring.backend.server.indexing.drools;
 
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 
 import org.drools.compiler.compiler.DrlParser;
@@ -24,6 +26,8 @@ import org.kie.api.io.ResourceType;
 import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.AbstractFileIndexer;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.DefaultIndexBuilder;
+import org.kie.workbench.common.services.refactoring.backend.server.indexing.DrlIndexingSession;
+import org.kie.workbench.common.services.refactoring.backend.server.indexing.DrlIndexingStatistics;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.ErrorMessageUtilities;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.IndexBuilder;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.PackageDescrIndexVisitor;
@@ -35,11 +39,25 @@ import org.uberfire.java.nio.file.Path;
 
 /**
  * All Drools-related {@link Indexer} implemenations should implement this class in order to avoid duplicate code.
+ * </p>
+ * The type and field lookups against a {@link ModuleDataModelOracle} are shared by all the files of its module through
+ * a {@link DrlIndexingSession}; the sessions of the most recently used oracles, as many as set by the
+ * <code>org.kie.indexing.drl.sessions</code> system property, are kept.
  */
 public abstract class AbstractDrlFileIndexer extends AbstractFileIndexer {
 
+    public static final String SESSIONS_PROPERTY = "org.kie.indexing.drl.sessions";
+
     private static final Logger logger = LoggerFactory.getLogger(AbstractDrlFileIndexer.class);
 
+    private static final int MAX_SESSIONS = Integer.getInteger(SESSIONS_PROPERTY,
+                                                               4);
+
+    private final DrlIndexingStatistics statistics = new DrlIndexingStatistics();
+
+    //Most recently used first; a new oracle of a module starts a new session
+    private final LinkedList<DrlIndexingSession> sessions = new LinkedList<>();
+
     /**
      * All Drools-related {@link Indexer} implementations end up extracting the DRL from the related Rule representation
      * (see {@link ResourceType}).
@@ -52,7 +70,17 @@ public abstract class AbstractDrlFileIndexer extends AbstractFileIndexer {
      */
     public IndexBuilder fillDrlIndexBuilder(final Path path,
                                                    final String drl) throws Exception {
+        final long start = System.nanoTime();
+        try {
+            return doFillDrlIndexBuilder(path,
+                                         drl);
+        } finally {
+            statistics.recordFile(System.nanoTime() - start);
+        }
+    }
 
+    private IndexBuilder doFillDrlIndexBuilder(final Path path,
+                                               final String drl) throws Exception {
         final DrlParser drlParser = new DrlParser();
         final PackageDescr packageDescr = drlParser.parse(true,
                                                           drl);
@@ -78,7 +106,7 @@ public abstract class AbstractDrlFileIndexer extends AbstractFileIndexer {
         builder.setPackageName(packageDescr.getName());
 
         // Retrieves info from the parsed syntac tree (PackageDescr)
-        final PackageDescrIndexVisitor visitor = new PackageDescrIndexVisitor(dmo,
+        final PackageDescrIndexVisitor visitor = new PackageDescrIndexVisitor(getSession(dmo),
                                                                               builder,
                                                                               packageDescr);
         visitor.visit();
@@ -88,6 +116,35 @@ public abstract class AbstractDrlFileIndexer extends AbstractFileIndexer {
         return builder;
     }
 
+    /**
+     * @return the cache hit rate of the type and field lookups and the latency of the files indexed.
+     */
+    public DrlIndexingStatistics getIndexingStatistics() {
+        return statistics;
+    }
+
+    private DrlIndexingSession getSession(final ModuleDataModelOracle dmo) {
+        synchronized (sessions) {
+            final Iterator<DrlIndexingSession> iterator = sessions.iterator();
+            while (iterator.hasNext()) {
+                final DrlIndexingSession session = iterator.next();
+                if (session.getModuleDataModelOracle() == dmo) {
+                    iterator.remove();
+                    sessions.addFirst(session);
+                    return session;
+                }
+            }
+            final DrlIndexingSession session = new DrlIndexingSession(dmo,
+                                                                      statistics);
+            sessions.addFirst(session);
+            if (sessions.size() > MAX_SESSIONS) {
+                sessions.removeLast();
+            }
+            statistics.recordSession();
+            return session;
+        }
+    }
+
     /**
      * Delegate resolution of package name to method to assist testing
      * @param path The {@link Path} of the file being indexed
@@ -21,8 +21,6 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Function;
 import java.util.function.IntFunction;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -34,8 +32,6 @@ import javax.inject.Named;
 
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Sort;
-import org.apache.lucene.search.TopFieldDocs;
-import org.apache.lucene.search.TotalHitCountCollector;
 import org.jboss.errai.bus.server.annotations.Service;
 import org.kie.soup.commons.validation.PortablePreconditions;
 import org.kie.workbench.common.services.refactoring.backend.server.query.response.ResponseBuilder;
@@ -57,6 +53,8 @@ import org.uberfire.paging.PageResponse;
 @ApplicationScoped
 public class RefactoringQueryServiceImpl implements RefactoringQueryService {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
     private MetadataConfig config;
     private NamedQueries namedQueries;
     private PageResponse<RefactoringPageRow> emptyResponse;
@@ -100,45 +98,18 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
         namedQuery.validateTerms(request.getQueryTerms());
 
         final Query query = namedQuery.toQuery(request.getQueryTerms());
-        final Sort sort = namedQuery.getSortOrder();
 
         try {
-            List<KObject> found = config.getIndexProvider().findByQuery(Collections.EMPTY_LIST,
-                                                                        query,
-                                                                        sort,
-                                                                        0);
-
-            if (request.distinctResults()) {
-                found = distinct(found);
-            }
-
-            return found.size();
+            //Only counts the matching documents, none of them is loaded. A resource has a single document, whichever
+            //node indexed it, so there are no duplicates to filter.
+            return (int) config.getIndexProvider().findHitsByQuery(Collections.EMPTY_LIST,
+                                                                   query);
         } catch (final Exception ex) {
             throw new RuntimeException("Error during Query!",
                                        ex);
         }
     }
 
-    public List<KObject> distinct(List<KObject> found) {
-        //This is a temporary way to cleanup index results
-        //for library assets list and count.
-        //In cluster environment library index each file more than once.
-        //The index should be revised on next release (7.6).
-        return found
-                .stream()
-                .filter(distinctByKey(RefactoringQueryServiceImpl::generateUniqueIdentifierForKObject))
-                .collect(Collectors.toList());
-    }
-
-    private static String generateUniqueIdentifierForKObject(final KObject kObject) {
-        return kObject.getClusterId() + kObject.getKey();
-    }
-
-    private static <T> Predicate<T> distinctByKey(Function<? super T, ?> keyExtractor) {
-        Set<Object> seen = ConcurrentHashMap.newKeySet();
-        return t -> seen.add(keyExtractor.apply(t));
-    }
-
     @Override
     public PageResponse<RefactoringPageRow> query(final RefactoringPageRequest request) {
         PortablePreconditions.checkNotNull("request",
@@ -153,7 +124,9 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
         final Query query = namedQuery.toQuery(request.getQueryTerms());
         final Sort sort = namedQuery.getSortOrder();
 
-        final int pageSize = request.getPageSize();
+        //Without a page size every hit from the start row is returned
+        final boolean allHits = request.getPageSize() == null;
+        final int pageSize = allHits ? 0 : request.getPageSize();
         final int startIndex = request.getStartRowIndex();
 
         List<KObject> kObjects
@@ -161,14 +134,14 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
                          sort,
                          () -> (startIndex),
                          // start index of docs to get
-                         (numHits) -> (numHits - startIndex > pageSize ? pageSize : numHits - startIndex),
-                         request.distinctResults()
-                         // num docs to add to response
+                         (numHits) -> (!allHits && numHits - startIndex > pageSize ? pageSize : numHits - startIndex),
+                         () -> (allHits ? 0 : startIndex + pageSize)
+                         // max docs to load, 0 for all
         );
 
         if (!kObjects.isEmpty()) {
             final ResponseBuilder responseBuilder = namedQuery.getResponseBuilder();
-            return responseBuilder.buildResponse(pageSize,
+            return responseBuilder.buildResponse(allHits ? kObjects.size() : pageSize,
                                                  startIndex,
                                                  new ArrayList<>(kObjects));
         } else {
@@ -198,8 +171,8 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
                          () -> (0),
                          // start index of docs to get
                          (numHits) -> (numHits),
-                         false
-                         // num docs to add to response
+                         () -> (0)
+                         // max docs to load, 0 for all
         );
 
         if (!kObjects.isEmpty()) {
@@ -210,11 +183,69 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
         }
     }
 
+    @Override
+    public void queryPages(final RefactoringPageRequest request,
+                           final Predicate<List<RefactoringPageRow>> pageConsumer) {
+        PortablePreconditions.checkNotNull("request",
+                                           request);
+        PortablePreconditions.checkNotNull("pageConsumer",
+                                           pageConsumer);
+        final String queryName = PortablePreconditions.checkNotNull("queryName",
+                                                                    request.getQueryName());
+        final NamedQuery namedQuery = namedQueries.findNamedQuery(queryName);
+
+        //Validate provided terms against those required for the named query
+        namedQuery.validateTerms(request.getQueryTerms());
+
+        final Query query = namedQuery.toQuery(request.getQueryTerms());
+        final Sort sort = namedQuery.getSortOrder();
+        final ResponseBuilder responseBuilder = namedQuery.getResponseBuilder();
+
+        final int pageSize = request.getPageSize() == null ? DEFAULT_PAGE_SIZE : Math.max(1,
+                                                                                          request.getPageSize());
+
+        //The hits before the start row are never loaded
+        int position = request.getStartRowIndex();
+        int limit = position + pageSize;
+        List<KObject> page = new ArrayList<>(pageSize);
+
+        try {
+            while (true) {
+                final List<KObject> found = config.getIndexProvider().findByQuery(Collections.EMPTY_LIST,
+                                                                                  query,
+                                                                                  sort,
+                                                                                  limit);
+                for (int i = position; i < found.size(); i++) {
+                    page.add(found.get(i));
+                    if (page.size() == pageSize) {
+                        if (!pageConsumer.test(responseBuilder.buildResponse(page))) {
+                            return;
+                        }
+                        page = new ArrayList<>(pageSize);
+                    }
+                }
+                if (found.size() < limit || limit == Integer.MAX_VALUE) {
+                    break;
+                }
+                position = found.size();
+                limit = (int) Math.min(Integer.MAX_VALUE,
+                                       2L * limit);
+            }
+        } catch (final Exception ex) {
+            throw new RuntimeException("Error during Query!",
+                                       ex);
+        }
+
+        if (!page.isEmpty()) {
+            pageConsumer.test(responseBuilder.buildResponse(page));
+        }
+    }
+
     private List<KObject> search(final Query query,
                                  final Sort sort,
                                  final Supplier<Integer> startIndexSupplier,
                                  final IntFunction<Integer> numOfHitsToReturnSupplier,
-                                 final boolean distinct,
+                                 final Supplier<Integer> limitSupplier,
                                  final ClusterSegment... clusterSegments) {
 
         try {
@@ -222,15 +253,16 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
                     .map(clusterSegment -> clusterSegment.getClusterId())
                     .collect(Collectors.toList());
 
-            List<KObject> found = config.getIndexProvider().findByQuery(indices,
-                                                                        query,
-                                                                        sort,
-                                                                        0);
+            final int startIndex = startIndexSupplier.get();
 
-            if (distinct) {
-                found = distinct(found);
+            //Only the hits up to the end of the page are loaded
+            final List<KObject> found = config.getIndexProvider().findByQuery(indices,
+                                                                              query,
+                                                                              sort,
+                                                                              limitSupplier.get());
+            if (startIndex >= found.size()) {
+                return Collections.emptyList();
             }
-            final int startIndex = startIndexSupplier.get();
             final int numOfHitsToReturn = numOfHitsToReturnSupplier.apply(found.size());
 
             return found.subList(startIndex,
@@ -48,7 +48,10 @@ public class KObjectUtil {
 
             @Override
             public String getId() {
-                return sha1(getType().getName() + "|" + classifier + "|" + getKey());
+                return toId(getType(),
+                            classifier,
+                            getClusterId(),
+                            getKey());
             }
 
             @Override
@@ -93,7 +96,10 @@ public class KObjectUtil {
 
             @Override
             public String getId() {
-                return sha1(getType().getName() + "|" + classifier + "|" + getKey());
+                return toId(getType(),
+                            classifier,
+                            getClusterId(),
+                            getKey());
             }
 
             @Override
@@ -146,6 +152,17 @@ public class KObjectUtil {
         };
     }
 
+    /**
+     * Builds the id of the document of a resource. It only depends on the resource, never on the node writing it, so
+     * indexing a resource again replaces its document instead of adding another one.
+     */
+    public static String toId(final MetaType type,
+                              final String classifier,
+                              final String clusterId,
+                              final String key) {
+        return sha1(type.getName() + "|" + classifier + "|" + clusterId + "|" + key);
+    }
+
     private static String sha1(final String input) {
         if (input == null || input.trim().length() == 0) {
             return "--";
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.refactoring.backend.server.indexing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.ext.metadata.MetadataConfig;
+import org.uberfire.ext.metadata.engine.Indexer;
+import org.uberfire.ext.metadata.engine.MetaIndexEngine;
+import org.uberfire.ext.metadata.model.KCluster;
+import org.uberfire.ext.metadata.model.KObject;
+import org.uberfire.java.nio.file.Path;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BulkIndexerTest {
+
+    private static final String INDEXER_ID = "test-indexer";
+
+    @Mock
+    private MetadataConfig config;
+
+    @Mock
+    private MetaIndexEngine indexEngine;
+
+    @Mock
+    private Indexer indexer;
+
+    @Mock
+    private KCluster cluster;
+
+    private BulkIndexer bulkIndexer;
+
+    private AtomicInteger written = new AtomicInteger();
+
+    @Before
+    public void setup() {
+        when(config.getIndexEngine()).thenReturn(indexEngine);
+        when(cluster.getClusterId()).thenReturn("cluster");
+        when(indexer.getIndexerId()).thenReturn(INDEXER_ID);
+        when(indexer.supportsPath(any(Path.class))).thenReturn(true);
+        when(indexer.toKObject(any(Path.class))).thenAnswer(invocation -> mock(KObject.class));
+        doAnswer(invocation -> written.addAndGet(invocation.getArguments().length))
+                .when(indexEngine).index(Matchers.<KObject>anyVararg());
+
+        bulkIndexer = new BulkIndexer(config,
+                                      Collections.singletonList(indexer),
+                                      2,
+                                      2);
+    }
+
+    @After
+    public void dispose() {
+        bulkIndexer.dispose();
+    }
+
+    @Test
+    public void testIndexSupportedFilesInBatches() throws Exception {
+        final List<Path> files = paths(6);
+        when(indexer.supportsPath(files.get(5))).thenReturn(false);
+
+        bulkIndexer.index(cluster,
+                          files,
+                          Collections.singletonList(indexer)).get(10,
+                                                                  TimeUnit.SECONDS);
+
+        verify(indexEngine).startBatch(cluster);
+        //Written a batch at a time
+        verify(indexEngine,
+               times(3)).index(Matchers.<KObject>anyVararg());
+        verify(indexEngine,
+               never()).index(any(KObject.class));
+        assertEquals(5,
+                     written.get());
+        verify(indexEngine).commit(cluster,
+                                   INDEXER_ID);
+        verify(indexer,
+               never()).toKObject(files.get(5));
+
+        final BulkIndexingStatistics statistics = bulkIndexer.getStatistics(INDEXER_ID);
+        assertEquals(1,
+                     statistics.getRuns());
+        assertEquals(5,
+                     statistics.getIndexedFiles());
+        assertEquals(0,
+                     statistics.getFailedFiles());
+        assertEquals(0,
+                     statistics.getPendingFiles());
+        assertEquals(3,
+                     statistics.getBatches());
+        assertEquals(1.0,
+                     statistics.getProgress(),
+                     0.0);
+        assertFalse(bulkIndexer.isIndexing(cluster));
+    }
+
+    @Test
+    public void testFilesFailingToParseAreSkipped() throws Exception {
+        final List<Path> files = paths(3);
+        when(indexer.toKObject(files.get(1))).thenThrow(new IllegalStateException("parse error"));
+
+        bulkIndexer.index(cluster,
+                          files,
+                          Collections.singletonList(indexer)).get(10,
+                                                                  TimeUnit.SECONDS);
+
+        assertEquals(2,
+                     written.get());
+        verify(indexEngine).commit(cluster,
+                                   INDEXER_ID);
+
+        final BulkIndexingStatistics statistics = bulkIndexer.getStatistics(INDEXER_ID);
+        assertEquals(2,
+                     statistics.getIndexedFiles());
+        assertEquals(1,
+                     statistics.getFailedFiles());
+    }
+
+    @Test
+    public void testIndexerErrorAbortsTheRun() throws Exception {
+        final List<Path> files = paths(5);
+        when(indexer.toKObject(files.get(3))).thenThrow(new NoClassDefFoundError("missing"));
+
+        try {
+            bulkIndexer.index(cluster,
+                              files,
+                              Collections.singletonList(indexer)).get(10,
+                                                                      TimeUnit.SECONDS);
+            fail("The run should have failed");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause().getCause() instanceof NoClassDefFoundError);
+        }
+
+        verify(indexEngine).abort(cluster);
+        verify(indexEngine,
+               never()).commit(cluster,
+                               INDEXER_ID);
+        assertFalse(bulkIndexer.isIndexing(cluster));
+    }
+
+    @Test
+    public void testAwaitCompletion() {
+        assertTrue(bulkIndexer.awaitCompletion(cluster,
+                                               0,
+                                               TimeUnit.MILLISECONDS));
+
+        bulkIndexer.index(cluster,
+                          paths(10),
+                          Collections.singletonList(indexer));
+
+        assertTrue(bulkIndexer.awaitCompletion(cluster,
+                                               10,
+                                               TimeUnit.SECONDS));
+        verify(indexEngine).commit(cluster,
+                                   INDEXER_ID);
+    }
+
+    @Test
+    public void testEveryIndexerParsesOnASingleThread() throws Exception {
+        final AtomicInteger parsing = new AtomicInteger();
+        final AtomicInteger maxParsing = new AtomicInteger();
+        when(indexer.toKObject(any(Path.class))).thenAnswer(invocation -> {
+            maxParsing.accumulateAndGet(parsing.incrementAndGet(),
+                                        Math::max);
+            Thread.sleep(5);
+            parsing.decrementAndGet();
+            return mock(KObject.class);
+        });
+        final Indexer other = mock(Indexer.class);
+        when(other.getIndexerId()).thenReturn("other-indexer");
+        when(other.supportsPath(any(Path.class))).thenReturn(true);
+        when(other.toKObject(any(Path.class))).thenAnswer(invocation -> mock(KObject.class));
+
+        bulkIndexer.index(cluster,
+                          paths(20),
+                          Arrays.asList(indexer,
+                                        other)).get(10,
+                                                    TimeUnit.SECONDS);
+
+        assertEquals(1,
+                     maxParsing.get());
+        assertEquals(40,
+                     written.get());
+        final InOrder inOrder = inOrder(indexEngine);
+        inOrder.verify(indexEngine).commit(cluster,
+                                           INDEXER_ID);
+        inOrder.verify(indexEngine).commit(cluster,
+                                           "other-indexer");
+    }
+
+    private static List<Path> paths(final int count) {
+        final List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            paths.add(mock(Path.class));
+        }
+        return paths;
+    }
+}
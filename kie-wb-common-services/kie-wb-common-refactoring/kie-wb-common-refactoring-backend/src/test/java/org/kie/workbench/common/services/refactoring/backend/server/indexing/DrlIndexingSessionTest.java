@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.refactoring.backend.server.indexing;
+
+import java.util.HashMap;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.soup.project.datamodel.commons.oracle.ModuleDataModelOracleImpl;
+import org.kie.soup.project.datamodel.oracle.DataType;
+import org.kie.soup.project.datamodel.oracle.FieldAccessorsAndMutators;
+import org.kie.soup.project.datamodel.oracle.ModelField;
+import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
+
+import static org.junit.Assert.*;
+
+public class DrlIndexingSessionTest {
+
+    private static final String APPLICANT = "org.kie.test.Applicant";
+    private static final String MORTGAGE = "org.kie.test.Mortgage";
+
+    private DrlIndexingStatistics statistics;
+    private DrlIndexingSession session;
+
+    @Before
+    public void setup() {
+        final ModuleDataModelOracle dmo = new ModuleDataModelOracleImpl();
+        dmo.addModuleModelFields(new HashMap<String, ModelField[]>() {{
+            put(APPLICANT,
+                new ModelField[]{new ModelField("age",
+                                                "java.lang.Integer",
+                                                ModelField.FIELD_CLASS_TYPE.REGULAR_CLASS,
+                                                ModelField.FIELD_ORIGIN.DECLARED,
+                                                FieldAccessorsAndMutators.ACCESSOR,
+                                                DataType.TYPE_NUMERIC_INTEGER)});
+            put(MORTGAGE,
+                new ModelField[]{new ModelField("applicant",
+                                                APPLICANT,
+                                                ModelField.FIELD_CLASS_TYPE.REGULAR_CLASS,
+                                                ModelField.FIELD_ORIGIN.DECLARED,
+                                                FieldAccessorsAndMutators.ACCESSOR,
+                                                APPLICANT)});
+        }});
+        statistics = new DrlIndexingStatistics();
+        session = new DrlIndexingSession(dmo,
+                                         statistics);
+    }
+
+    @Test
+    public void testFieldLookupsAreCached() {
+        final ModelField age = session.getField(APPLICANT,
+                                                "age");
+        assertNotNull(age);
+        assertEquals("java.lang.Integer",
+                     age.getClassName());
+        assertNull(session.getField(APPLICANT,
+                                    "name"));
+        assertNull(session.getField("org.kie.test.Unknown",
+                                    "age"));
+
+        assertEquals(1,
+                     statistics.getHits());
+        assertEquals(2,
+                     statistics.getMisses());
+        assertEquals(1.0 / 3,
+                     statistics.getHitRate(),
+                     0.001);
+    }
+
+    @Test
+    public void testGuessedTypesAreCached() {
+        assertEquals(Optional.of(APPLICANT),
+                     session.guessFullyQualifiedClassName("Applicant"));
+        assertEquals(Optional.of(APPLICANT),
+                     session.guessFullyQualifiedClassName("Applicant"));
+        assertFalse(session.guessFullyQualifiedClassName("Unknown").isPresent());
+
+        assertEquals(1,
+                     statistics.getHits());
+        assertEquals(2,
+                     statistics.getMisses());
+    }
+
+    @Test
+    public void testFileLatency() {
+        statistics.recordFile(2000000);
+        statistics.recordFile(4000000);
+
+        assertEquals(2,
+                     statistics.getIndexedFiles());
+        assertEquals(3.0,
+                     statistics.getAverageFileMillis(),
+                     0.001);
+        assertEquals(4.0,
+                     statistics.getMaxFileMillis(),
+                     0.001);
+    }
+}
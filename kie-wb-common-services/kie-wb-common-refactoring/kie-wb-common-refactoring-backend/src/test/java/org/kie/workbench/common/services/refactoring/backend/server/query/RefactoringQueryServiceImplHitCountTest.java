@@ -0,0 +1,285 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.refactoring.backend.server.query;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.services.refactoring.backend.server.BaseIndexingTest;
+import org.kie.workbench.common.services.refactoring.backend.server.TestIndexer;
+import org.kie.workbench.common.services.refactoring.backend.server.drl.TestDrlFileIndexer;
+import org.kie.workbench.common.services.refactoring.backend.server.drl.TestDrlFileTypeDefinition;
+import org.kie.workbench.common.services.refactoring.backend.server.query.response.DefaultResponseBuilder;
+import org.kie.workbench.common.services.refactoring.backend.server.query.response.ResponseBuilder;
+import org.kie.workbench.common.services.refactoring.backend.server.util.KObjectUtil;
+import org.kie.workbench.common.services.refactoring.model.index.terms.IndexTerm;
+import org.kie.workbench.common.services.refactoring.model.index.terms.valueterms.ValueIndexTerm;
+import org.kie.workbench.common.services.refactoring.model.query.RefactoringPageRequest;
+import org.kie.workbench.common.services.refactoring.model.query.RefactoringPageRow;
+import org.uberfire.ext.metadata.model.KObject;
+import org.uberfire.ext.metadata.model.KProperty;
+import org.uberfire.ext.metadata.model.impl.KPropertyImpl;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the count-only and paged query paths with loading all the hits, on an index where some assets were written
+ * twice, as by the nodes of a cluster. The number of assets indexed is set by the
+ * <code>org.kie.refactoring.benchmark.assets</code> system property, e.g. 100000 to benchmark a large index.
+ */
+@NotThreadSafe
+public class RefactoringQueryServiceImplHitCountTest extends BaseIndexingTest<TestDrlFileTypeDefinition> {
+
+    private static final String QUERY_NAME = "HitCountTestQuery";
+    private static final String ASSET_TERM = "hitCountTestAsset";
+    private static final int ASSETS = Integer.getInteger("org.kie.refactoring.benchmark.assets",
+                                                         1000);
+
+    @Before
+    public void indexAssets() {
+        for (int i = 0; i < ASSETS; i++) {
+            getConfig().getIndexProvider().index(toKObject(i));
+            //Every tenth asset is indexed again, its document is replaced
+            if (i % 10 == 0) {
+                getConfig().getIndexProvider().index(toKObject(i));
+            }
+        }
+    }
+
+    @Test
+    public void testQueryHitCount() {
+        assertEquals(ASSETS,
+                     service.queryHitCount(request(false,
+                                                   0,
+                                                   10)));
+        assertEquals(ASSETS,
+                     service.queryHitCount(request(true,
+                                                   0,
+                                                   10)));
+    }
+
+    @Test
+    public void testQueryPage() {
+        final List<RefactoringPageRow> rows = service.query(request(false,
+                                                                    ASSETS - 5,
+                                                                    10)).getPageRowList();
+        assertEquals(10,
+                     rows.size());
+
+        final List<RefactoringPageRow> lastRows = service.query(request(true,
+                                                                        ASSETS - 5,
+                                                                        10)).getPageRowList();
+        assertEquals(5,
+                     lastRows.size());
+    }
+
+    @Test
+    public void testPagesReturnEveryAssetOnce() {
+        final List<String> assets = new ArrayList<>();
+        for (int startRow = 0; startRow < ASSETS; startRow += 7) {
+            for (RefactoringPageRow row : service.query(request(true,
+                                                                startRow,
+                                                                7)).getPageRowList()) {
+                assets.add(((org.uberfire.backend.vfs.Path) row.getValue()).toURI());
+            }
+        }
+
+        //The assets indexed twice would be returned twice, and the last ones never, with a document per write
+        assertEquals(ASSETS,
+                     assets.size());
+        assertEquals(ASSETS,
+                     new HashSet<>(assets).size());
+    }
+
+    @Test
+    public void testQueryPages() {
+        final AtomicInteger pages = new AtomicInteger();
+        final AtomicInteger rows = new AtomicInteger();
+        service.queryPages(request(true,
+                                   0,
+                                   100),
+                           (page) -> {
+                               pages.incrementAndGet();
+                               rows.addAndGet(page.size());
+                               return true;
+                           });
+        assertEquals(ASSETS,
+                     rows.get());
+        assertEquals((ASSETS + 99) / 100,
+                     pages.get());
+
+        final AtomicInteger stopped = new AtomicInteger();
+        service.queryPages(request(false,
+                                   0,
+                                   100),
+                           (page) -> {
+                               stopped.incrementAndGet();
+                               return false;
+                           });
+        assertEquals(1,
+                     stopped.get());
+    }
+
+    @Test
+    public void testWithoutPageSize() {
+        assertEquals(ASSETS,
+                     service.queryHitCount(request(true,
+                                                   0,
+                                                   null)));
+        assertEquals(ASSETS - 5,
+                     service.query(request(true,
+                                           5,
+                                           null)).getPageRowList().size());
+
+        final AtomicInteger rows = new AtomicInteger();
+        service.queryPages(request(true,
+                                   0,
+                                   null),
+                           (page) -> {
+                               rows.addAndGet(page.size());
+                               return true;
+                           });
+        assertEquals(ASSETS,
+                     rows.get());
+    }
+
+    @Test
+    public void benchmarkHitCount() {
+        final RefactoringPageRequest request = request(true,
+                                                       0,
+                                                       10);
+        final Query query = getQuery();
+
+        long start = System.nanoTime();
+        final int loaded = getConfig().getIndexProvider().findByQuery(Collections.emptyList(),
+                                                                      query,
+                                                                      0).size();
+        final long loadAll = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        final int counted = service.queryHitCount(request(false,
+                                                          0,
+                                                          10));
+        final long countOnly = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        final List<RefactoringPageRow> firstPage = new ArrayList<>();
+        service.queryPages(request,
+                           (page) -> {
+                               firstPage.addAll(page);
+                               return false;
+                           });
+        final long firstPageOnly = System.nanoTime() - start;
+
+        logger.info("{} assets: loading all hits {} ms, counting hits {} ms, streaming the first page {} ms",
+                    ASSETS,
+                    loadAll / 1000000,
+                    countOnly / 1000000,
+                    firstPageOnly / 1000000);
+
+        assertEquals(ASSETS,
+                     loaded);
+        assertEquals(ASSETS,
+                     counted);
+        assertEquals(10,
+                     firstPage.size());
+    }
+
+    private RefactoringPageRequest request(final boolean distinct,
+                                           final int startRow,
+                                           final Integer pageSize) {
+        return new RefactoringPageRequest(QUERY_NAME,
+                                          new HashSet<>(),
+                                          startRow,
+                                          pageSize,
+                                          distinct);
+    }
+
+    private KObject toKObject(final int i) {
+        final Set<KProperty<?>> properties = new HashSet<>();
+        properties.add(new KPropertyImpl<>(ASSET_TERM,
+                                           "asset"));
+        return KObjectUtil.toKObject(ioService().get(URI.create("git://" + getRepositoryName() + "/assets/asset" + i + ".drl")),
+                                     IndexTerm.REFACTORING_CLASSIFIER,
+                                     properties);
+    }
+
+    private static Query getQuery() {
+        return new TermQuery(new Term(ASSET_TERM,
+                                      "asset"));
+    }
+
+    @Override
+    protected Set<NamedQuery> getQueries() {
+        return new HashSet<NamedQuery>() {{
+            add(new NamedQuery() {
+                @Override
+                public String getName() {
+                    return QUERY_NAME;
+                }
+
+                @Override
+                public void validateTerms(final Set<ValueIndexTerm> queryTerms) {
+                }
+
+                @Override
+                public Query toQuery(final Set<ValueIndexTerm> terms) {
+                    return getQuery();
+                }
+
+                @Override
+                public ResponseBuilder getResponseBuilder() {
+                    return new DefaultResponseBuilder(ioService());
+                }
+            });
+        }};
+    }
+
+    @Override
+    protected TestIndexer getIndexer() {
+        return new TestDrlFileIndexer();
+    }
+
+    @Override
+    public Map<String, Analyzer> getAnalyzers() {
+        return Collections.<String, Analyzer>emptyMap();
+    }
+
+    @Override
+    protected TestDrlFileTypeDefinition getResourceTypeDefinition() {
+        return new TestDrlFileTypeDefinition();
+    }
+
+    @Override
+    protected String getRepositoryName() {
+        return testName.getMethodName();
+    }
+}
@@ -17,6 +17,8 @@
 package org.kie.workbench.common.services.backend.builder.core;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
 import java.text.MessageFormat;
@@ -24,13 +26,18 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
+import org.apache.commons.io.IOUtils;
 import org.appformer.maven.support.DependencyFilter;
 import org.appformer.maven.support.PomModel;
+import org.drools.compiler.compiler.io.memory.MemoryFileSystem;
 import org.drools.compiler.kie.builder.impl.InternalKieModule;
 import org.drools.compiler.kie.builder.impl.KieBuilderImpl;
 import org.drools.compiler.kie.builder.impl.KieContainerImpl;
@@ -61,6 +68,7 @@ import org.kie.internal.builder.InternalKieBuilder;
 import org.kie.scanner.KieModuleMetaData;
 import org.kie.soup.project.datamodel.imports.Import;
 import org.kie.soup.project.datamodel.imports.Imports;
+import org.kie.workbench.common.services.backend.builder.service.BuildScheduler;
 import org.kie.workbench.common.services.shared.project.KieModule;
 import org.kie.workbench.common.services.shared.project.KieModuleService;
 import org.kie.workbench.common.services.shared.project.ProjectImportsService;
@@ -90,6 +98,14 @@ public class Builder implements Serializable {
     private final static String ERROR_CLASS_NOT_FOUND = "Definition of class \"{0}\" was not found.\n" +
             "Please check the necessary external dependencies for this project are configured correctly.";
 
+    /**
+     * When enabled incremental changes are queued per module and coalesced into a single KieBuilder pass, and reads
+     * of the KieModule do not wait for a running build but get a snapshot of the KieModule of the last completed pass.
+     */
+    public static final String CONCURRENT_BUILD_PROPERTY = "org.kie.build.concurrent.enabled";
+
+    private static final boolean CONCURRENT_BUILD = Boolean.getBoolean(CONCURRENT_BUILD_PROPERTY);
+
     private final GAV projectGAV;
     private final KieServices kieServices;
     private final KieFileSystem kieFileSystem;
@@ -109,6 +125,13 @@ public class Builder implements Serializable {
     private final DirectoryStream.Filter<Path> dotFileFilter = new DotFileFilter();
     private final Set<String> javaResources = new HashSet<String>();
     private final Predicate<String> classFilter;
+    private final ReentrantLock buildLock = new ReentrantLock();
+    private final Map<Path, PendingChange> pendingChanges = new LinkedHashMap<Path, PendingChange>();
+    private final BuilderMetrics metrics = new BuilderMetrics();
+    private final boolean concurrentBuild;
+    private volatile org.kie.api.builder.KieModule publishedKieModule;
+    private volatile long estimatedSize;
+    private KieModuleSnapshotStore snapshotStore;
     private KieBuilder kieBuilder;
     private LRUModuleDependenciesClassLoaderCache dependenciesClassLoaderCache;
     private LRUPomModelCache pomModelCache;
@@ -125,6 +148,32 @@ public class Builder implements Serializable {
                    final Predicate<String> classFilter,
                    final KieBuilder kieBuilder,
                    final KieFileSystem kieFileSystem) {
+        this(project,
+             ioService,
+             moduleService,
+             importsService,
+             buildValidationHelpers,
+             dependenciesClassLoaderCache,
+             pomModelCache,
+             packageNameWhiteListService,
+             classFilter,
+             kieBuilder,
+             kieFileSystem,
+             CONCURRENT_BUILD);
+    }
+
+    public Builder(final Module project,
+                   final IOService ioService,
+                   final KieModuleService moduleService,
+                   final ProjectImportsService importsService,
+                   final List<BuildValidationHelper> buildValidationHelpers,
+                   final LRUModuleDependenciesClassLoaderCache dependenciesClassLoaderCache,
+                   final LRUPomModelCache pomModelCache,
+                   final PackageNameWhiteListService packageNameWhiteListService,
+                   final Predicate<String> classFilter,
+                   final KieBuilder kieBuilder,
+                   final KieFileSystem kieFileSystem,
+                   final boolean concurrentBuild) {
         this.project = project;
         this.ioService = ioService;
         this.moduleService = moduleService;
@@ -141,9 +190,11 @@ public class Builder implements Serializable {
         this.kieFileSystem = kieFileSystem;
         this.dependenciesClassLoaderCache = dependenciesClassLoaderCache;
         this.pomModelCache = pomModelCache;
+        this.concurrentBuild = concurrentBuild;
 
         DirectoryStream<Path> directoryStream = Files.newDirectoryStream(projectRoot);
         visitPaths(directoryStream);
+        updateEstimatedSize(null);
     }
 
     public Builder(final Module project,
@@ -172,17 +223,20 @@ public class Builder implements Serializable {
         final KieFileSystem kieFileSystemClone = kieFileSystemClone();
         final KieBuilderImpl kieBuilder = kieBuilderClone(kieFileSystemClone);
 
-        return new Builder(project,
-                           ioService,
-                           moduleService,
-                           importsService,
-                           buildValidationHelpers,
-                           dependenciesClassLoaderCache,
-                           pomModelCache,
-                           packageNameWhiteListService,
-                           classFilter,
-                           kieBuilder,
-                           kieFileSystemClone);
+        final Builder clone = new Builder(project,
+                                          ioService,
+                                          moduleService,
+                                          importsService,
+                                          buildValidationHelpers,
+                                          dependenciesClassLoaderCache,
+                                          pomModelCache,
+                                          packageNameWhiteListService,
+                                          classFilter,
+                                          kieBuilder,
+                                          kieFileSystemClone,
+                                          concurrentBuild);
+        clone.setSnapshotStore(snapshotStore);
+        return clone;
     }
 
     private KieFileSystem kieFileSystemClone() {
@@ -203,34 +257,46 @@ public class Builder implements Serializable {
 
     public BuildResults build() {
         final BuildResults results = new BuildResults(projectGAV);
-        synchronized (kieFileSystem) {
-            //KieBuilder is not re-usable for successive "full" builds
-            kieBuilder = createKieBuilder(kieFileSystem);
-
-            //Record RTEs from KieBuilder - that can fail if a rule uses an inaccessible class
-            try {
-                final Results kieResults = ((InternalKieBuilder) kieBuilder).buildAll(classFilter).getResults();
-                results.addAllBuildMessages(convertMessages(kieResults.getMessages(),
-                                                            handles));
-            } catch (LinkageError e) {
-                final String msg = MessageFormat.format(ERROR_CLASS_NOT_FOUND,
-                                                        e.getLocalizedMessage());
-                logger.warn(msg);
-                results.addBuildMessage(makeWarningMessage(msg));
-            } catch (Throwable e) {
-                final String msg = e.getLocalizedMessage();
-                logger.error(msg,
-                             e);
-                results.addBuildMessage(makeErrorMessage(msg));
-            } finally {
-                final PomModel pomModel = ((KieBuilderImpl) kieBuilder).getPomModel();
-                if (pomModel != null) {
-                    pomModelCache.setEntry(project,
-                                           pomModel);
-                }
+
+        BuildScheduler.checkCancelled();
+        final boolean snapshotEnabled = snapshotStore != null && snapshotStore.isEnabled();
+        final KieModuleSnapshotStore.KieModuleSnapshot snapshot = snapshotEnabled ? snapshotStore.loadForWarmStart(project) : null;
+
+        Map<String, String> resourceHashes = null;
+        Map<String, byte[]> resources = null;
+        Map<String, byte[]> kieModuleFiles = null;
+        List<Message> kieMessages = null;
+        acquireBuildLock();
+        try {
+            //Queued incremental changes are not folded in here: the threads that queued them build them next, so each
+            //thread gets the messages of its own change
+            //The sources are copied once; they are only hashed holding the build lock when needed to warm-start
+            if (snapshotEnabled) {
+                resources = KieModuleSnapshotStore.getResources(kieFileSystem);
             }
+            //Warm-start from a persisted snapshot of the KieModule when available, otherwise perform a full build
+            if (snapshot != null) {
+                resourceHashes = KieModuleSnapshotStore.hashResources(resources);
+                kieMessages = warmStart(results,
+                                        snapshot,
+                                        resourceHashes);
+            }
+            if (kieMessages == null) {
+                kieMessages = buildAll(results);
+            }
+            final org.kie.api.builder.KieModule kieModule = ((InternalKieBuilder) kieBuilder).getKieModuleIgnoringErrors();
+            if (snapshotEnabled && kieMessages != null && results.getErrorMessages().isEmpty() && kieModule instanceof MemoryKieModule) {
+                kieModuleFiles = KieModuleSnapshotStore.getResources(((MemoryKieModule) kieModule).getMemoryFileSystem());
+            }
+            publishKieModule(kieModule);
+            updateEstimatedSize(kieModule);
+        } finally {
+            buildLock.unlock();
         }
 
+        //A superseded build is only stopped between its phases, never while it performs IO
+        BuildScheduler.checkCancelled();
+
         //Add validate messages from external helpers
         for (Map.Entry<Path, BuildValidationHelper> e : nonKieResourceValidationHelpers.entrySet()) {
             final org.uberfire.backend.vfs.Path vfsPath = Paths.convert(e.getKey());
@@ -259,6 +325,8 @@ public class Builder implements Serializable {
             }
         }
 
+        BuildScheduler.checkCancelled();
+
         //Store the project dependencies ClassLoader for optimization purposes.
         final KieModuleMetaData kieModuleMetaData = KieModuleMetaData.Factory.newKieModuleMetaData(getKieModuleIgnoringErrors(),
                                                                                                    DependencyFilter.COMPILE_FILTER);
@@ -267,22 +335,131 @@ public class Builder implements Serializable {
 
         results.addAllBuildMessages(verifyClasses(kieModuleMetaData));
 
+        //The snapshot jar is written from the files of the KieModule as they were when the build finished
+        if (kieModuleFiles != null) {
+            snapshotStore.save(project,
+                               resourceHashes != null ? resourceHashes : KieModuleSnapshotStore.hashResources(resources),
+                               snapshotStore.getDependencies(kieModuleMetaData),
+                               kieMessages,
+                               kieModuleFiles);
+        }
+
         return results;
     }
 
     public BuildResults build(final Path resource,
                               final InputStream inputStream) {
-        synchronized (kieFileSystem) {
+        acquireBuildLock();
+        try {
             final String destinationPath = destinationPath(resource);
             final Resource inputStreamResource = KieServices.Factory.get().getResources().newInputStreamResource(new BufferedInputStream(inputStream));
 
             kieFileSystem.write(destinationPath,
                                 inputStreamResource);
+        } finally {
+            buildLock.unlock();
         }
 
         return build();
     }
 
+    /**
+     * @return The messages of the KieBuilder, or null when it failed.
+     */
+    private List<Message> buildAll(final BuildResults results) {
+        //KieBuilder is not re-usable for successive "full" builds
+        kieBuilder = createKieBuilder(kieFileSystem);
+
+        //Record RTEs from KieBuilder - that can fail if a rule uses an inaccessible class
+        try {
+            final Results kieResults = ((InternalKieBuilder) kieBuilder).buildAll(classFilter).getResults();
+            results.addAllBuildMessages(convertMessages(kieResults.getMessages(),
+                                                        handles));
+            return kieResults.getMessages();
+        } catch (LinkageError e) {
+            final String msg = MessageFormat.format(ERROR_CLASS_NOT_FOUND,
+                                                    e.getLocalizedMessage());
+            logger.warn(msg);
+            results.addBuildMessage(makeWarningMessage(msg));
+            return null;
+        } catch (Throwable e) {
+            final String msg = e.getLocalizedMessage();
+            logger.error(msg,
+                         e);
+            results.addBuildMessage(makeErrorMessage(msg));
+            return null;
+        } finally {
+            final PomModel pomModel = ((KieBuilderImpl) kieBuilder).getPomModel();
+            if (pomModel != null) {
+                pomModelCache.setEntry(project,
+                                       pomModel);
+            }
+        }
+    }
+
+    /**
+     * Restores the KieModule from a persisted snapshot, recompiling only the resources changed since it was taken.
+     * @return The messages of the KieModule, i.e. those persisted for the unchanged resources and those of the changed
+     * ones, or null when a full build is needed.
+     */
+    private List<Message> warmStart(final BuildResults results,
+                                    final KieModuleSnapshotStore.KieModuleSnapshot snapshot,
+                                    final Map<String, String> resourceHashes) {
+        final Set<String> changedResources = snapshot.getChangedResources(resourceHashes);
+        if (KieModuleSnapshotStore.requiresFullBuild(changedResources)) {
+            return null;
+        }
+
+        try {
+            final MemoryKieModule kieModule = snapshotStore.restore(projectGAV,
+                                                                    snapshot,
+                                                                    getPomModel());
+
+            //Dependency jars can change without the pom.xml changing, e.g. SNAPSHOT dependencies
+            final KieModuleMetaData kieModuleMetaData = KieModuleMetaData.Factory.newKieModuleMetaData(kieModule,
+                                                                                                       DependencyFilter.COMPILE_FILTER);
+            if (!snapshot.getDependencies().equals(snapshotStore.getDependencies(kieModuleMetaData))) {
+                logger.info("Dependencies of '{}' changed since its KieModule snapshot was taken, performing a full build",
+                            projectGAV);
+                return null;
+            }
+
+            final KieBuilderImpl restoredKieBuilder = createKieBuilder(kieFileSystem);
+            restoredKieBuilder.setkModule(kieModule);
+            restoredKieBuilder.setTrgMfs(kieModule.getMemoryFileSystem());
+            kieBuilder = restoredKieBuilder;
+        } catch (Throwable e) {
+            logger.warn("Unable to restore KieModule snapshot for '{}', performing a full build: {}",
+                        projectGAV,
+                        e.getMessage());
+            return null;
+        }
+
+        //Only recompile the resources that changed since the snapshot was taken
+        final List<Message> kieMessages = snapshot.getMessages(changedResources);
+        if (!changedResources.isEmpty()) {
+            final IncrementalResults incrementalResults = buildIncrementally(new IncrementalBuildResults(projectGAV),
+                                                                             changedResources.toArray(new String[changedResources.size()]));
+            if (incrementalResults == null) {
+                return null;
+            }
+            kieMessages.addAll(incrementalResults.getAddedMessages());
+        }
+        results.addAllBuildMessages(convertMessages(kieMessages,
+                                                    handles));
+        return kieMessages;
+    }
+
+    private PomModel getPomModel() {
+        final PomModel pomModel = pomModelCache.getEntry(project);
+        if (pomModel != null) {
+            return pomModel;
+        }
+        final byte[] pomXml = ((KieFileSystemImpl) kieFileSystem).getMfs().getBytes("pom.xml");
+        return pomXml == null ? null : PomModel.Parser.parse("pom.xml",
+                                                             new ByteArrayInputStream(pomXml));
+    }
+
     private List<BuildMessage> verifyClasses(final KieModuleMetaData kieModuleMetaData) {
         //At the end we are interested to ensure that external .jar files referenced as dependencies don't have
         // referential inconsistencies. We will at least provide a basic algorithm to ensure that if an external class
@@ -317,11 +494,11 @@ public class Builder implements Serializable {
 
     public IncrementalBuildResults addResource(final Path resource) {
         return addResource(resource,
-                           ioService.newInputStream(resource));
+                           () -> ioService.newInputStream(resource));
     }
 
     private IncrementalBuildResults addResource(final Path resource,
-                                                final InputStream inputStream) {
+                                                final Supplier<InputStream> inputStream) {
         checkNotNull("resource",
                      resource);
 
@@ -347,11 +524,22 @@ public class Builder implements Serializable {
                                                        addedValidationMessages);
         }
 
-        synchronized (kieFileSystem) {
+        if (concurrentBuild) {
+            buildPendingChanges(queueChange(resource,
+                                            new PendingChange(ResourceChangeType.UPDATE,
+                                                              inputStream)),
+                                results);
+            return results;
+        }
+
+        acquireBuildLock();
+        try {
             addNewResource(resource,
-                           inputStream);
+                           inputStream.get());
             buildIncrementally(results,
                                destinationPath(resource));
+        } finally {
+            buildLock.unlock();
         }
 
         return results;
@@ -383,10 +571,21 @@ public class Builder implements Serializable {
             results.addAllRemovedMessages(convertValidationMessages(nonKieResourceValidationHelperMessages.remove(resource)));
         }
 
-        synchronized (kieFileSystem) {
+        if (concurrentBuild) {
+            buildPendingChanges(queueChange(resource,
+                                            new PendingChange(ResourceChangeType.DELETE,
+                                                              null)),
+                                results);
+            return results;
+        }
+
+        acquireBuildLock();
+        try {
             removeResource(resource);
             buildIncrementally(results,
                                destinationPath(resource));
+        } finally {
+            buildLock.unlock();
         }
 
         return results;
@@ -415,8 +614,24 @@ public class Builder implements Serializable {
 
     public IncrementalBuildResults updateResource(final Path resource,
                                                   final InputStream inputStream) {
+        if (concurrentBuild) {
+            //A queued change can be superseded before it is built, so the caller's stream is read and closed now
+            final byte[] content = readAndClose(inputStream);
+            return addResource(resource,
+                               () -> new ByteArrayInputStream(content));
+        }
         return addResource(resource,
-                           inputStream);
+                           () -> inputStream);
+    }
+
+    private static byte[] readAndClose(final InputStream inputStream) {
+        try {
+            return IOUtils.toByteArray(inputStream);
+        } catch (IOException e) {
+            throw new org.uberfire.java.nio.IOException(e.getMessage());
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
     }
 
     public IncrementalBuildResults applyBatchResourceChanges(final Map<org.uberfire.backend.vfs.Path, Collection<ResourceChange>> changes) {
@@ -431,7 +646,8 @@ public class Builder implements Serializable {
         final List<ValidationMessage> nonKieResourceValidatorRemovedMessages = new ArrayList<ValidationMessage>();
         final IncrementalBuildResults results = new IncrementalBuildResults(projectGAV);
 
-        synchronized (kieFileSystem) {
+        acquireBuildLock();
+        try {
             for (final Map.Entry<org.uberfire.backend.vfs.Path, Collection<ResourceChange>> pathCollectionEntry : changes.entrySet()) {
                 for (final ResourceChange change : pathCollectionEntry.getValue()) {
                     final ResourceChangeType type = change.getType();
@@ -467,6 +683,8 @@ public class Builder implements Serializable {
             //Perform the Incremental build and get messages from incremental build
             buildIncrementally(results,
                                toArray(changedFilesKieBuilderPaths));
+        } finally {
+            buildLock.unlock();
         }
 
         //Copy in BuildMessages for non-KIE resources
@@ -526,8 +744,11 @@ public class Builder implements Serializable {
         removeResource(resource);
     }
 
-    private void buildIncrementally(final IncrementalBuildResults results,
-                                    final String... destinationPath) {
+    /**
+     * @return The results of the KieBuilder, or null when it failed.
+     */
+    private IncrementalResults buildIncrementally(final IncrementalBuildResults results,
+                                                  final String... destinationPath) {
         try {
             final IncrementalResults incrementalResults = ((InternalKieBuilder) kieBuilder).createFileSet(destinationPath).build();
             results.addAllAddedMessages(convertMessages(incrementalResults.getAddedMessages(),
@@ -539,19 +760,129 @@ public class Builder implements Serializable {
             for (Message message : incrementalResults.getRemovedMessages()) {
                 handles.remove(Handles.RESOURCE_PATH + "/" + getBaseFileName(message.getPath()));
             }
+            return incrementalResults;
         } catch (LinkageError e) {
             final String msg = MessageFormat.format(ERROR_CLASS_NOT_FOUND,
                                                     e.getLocalizedMessage());
             logger.warn(msg);
             results.addAddedMessage(makeWarningMessage(msg));
+            return null;
         } catch (Throwable e) {
             final String msg = e.getLocalizedMessage();
             logger.error(msg,
                          e);
             results.addAddedMessage(makeErrorMessage(msg));
+            return null;
+        }
+    }
+
+    private BuildTicket queueChange(final Path resource,
+                                    final PendingChange change) {
+        final BuildTicket ticket = new BuildTicket();
+        synchronized (pendingChanges) {
+            //A newer change to the same resource supersedes the one still waiting to be built, whose caller then
+            //gets the results of the pass that builds the newer change
+            final PendingChange superseded = pendingChanges.remove(resource);
+            if (superseded != null) {
+                change.tickets.addAll(superseded.tickets);
+                metrics.recordCoalescedChanges(1);
+            }
+            change.tickets.add(ticket);
+            pendingChanges.put(resource,
+                               change);
+            metrics.recordQueuedChange();
+            metrics.recordQueueDepth(pendingChanges.size());
+        }
+        return ticket;
+    }
+
+    private Map<Path, PendingChange> drainPendingChanges() {
+        synchronized (pendingChanges) {
+            final Map<Path, PendingChange> changes = new LinkedHashMap<Path, PendingChange>(pendingChanges);
+            pendingChanges.clear();
+            metrics.recordQueueDepth(0);
+            return changes;
+        }
+    }
+
+    private List<String> applyPendingChanges(final Map<Path, PendingChange> changes) {
+        final List<String> destinationPaths = new ArrayList<String>();
+        for (Map.Entry<Path, PendingChange> e : changes.entrySet()) {
+            final Path resource = e.getKey();
+            final PendingChange change = e.getValue();
+            if (change.getType() == ResourceChangeType.DELETE) {
+                removeResource(resource);
+            } else if (Files.isRegularFile(resource)) {
+                addNewResource(resource,
+                               change.getInputStream());
+            }
+            destinationPaths.add(destinationPath(resource));
+        }
+        return destinationPaths;
+    }
+
+    /**
+     * Builds every change queued so far in a single incremental KieBuilder pass, unless the change of the given ticket
+     * has already been built by another thread. Either way the messages of the pass that built the change are added
+     * to the given results.
+     */
+    private void buildPendingChanges(final BuildTicket ticket,
+                                     final IncrementalBuildResults results) {
+        acquireBuildLock();
+        try {
+            if (ticket.passResults == null) {
+                final Map<Path, PendingChange> changes = drainPendingChanges();
+                if (changes.size() > 1) {
+                    metrics.recordCoalescedChanges(changes.size() - 1);
+                }
+
+                final IncrementalBuildResults passResults = new IncrementalBuildResults(projectGAV);
+                buildIncrementally(passResults,
+                                   toArray(applyPendingChanges(changes)));
+                metrics.recordIncrementalBuild();
+                final org.kie.api.builder.KieModule kieModule = ((InternalKieBuilder) kieBuilder).getKieModuleIgnoringErrors();
+                publishKieModule(kieModule);
+                updateEstimatedSize(kieModule);
+
+                //The tickets are only read while holding the build lock
+                for (PendingChange change : changes.values()) {
+                    for (BuildTicket waiting : change.tickets) {
+                        waiting.passResults = passResults;
+                    }
+                }
+            }
+            results.addAllAddedMessages(ticket.passResults.getAddedMessages());
+            results.addAllRemovedMessages(ticket.passResults.getRemovedMessages());
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    /**
+     * Publishes the KieModule built by the pass that just completed, as read by getKieModuleIgnoringErrors() while
+     * holding the build lock. The KieBuilder keeps updating its own KieModule in place on later incremental passes, so
+     * readers that do not wait for the build lock get a copy of its files instead.
+     */
+    private void publishKieModule(final org.kie.api.builder.KieModule kieModule) {
+        if (!concurrentBuild) {
+            return;
+        }
+        if (kieModule instanceof MemoryKieModule) {
+            final MemoryKieModule memoryKieModule = (MemoryKieModule) kieModule;
+            publishedKieModule = memoryKieModule.cloneForIncrementalCompilation(memoryKieModule.getReleaseId(),
+                                                                                memoryKieModule.getKieModuleModel(),
+                                                                                memoryKieModule.getMemoryFileSystem().clone());
+        } else {
+            publishedKieModule = kieModule;
         }
     }
 
+    private void acquireBuildLock() {
+        final long start = System.nanoTime();
+        buildLock.lock();
+        metrics.recordLockWait(System.nanoTime() - start);
+    }
+
     private void checkAFullBuildHasBeenPerformed() {
         if (!isBuilt()) {
             throw new IllegalStateException("A full build needs to be performed before any incremental operations.");
@@ -563,8 +894,11 @@ public class Builder implements Serializable {
         if (!isBuilt()) {
             build();
         }
-        synchronized (kieFileSystem) {
+        acquireBuildLock();
+        try {
             return kieBuilder.getKieModule();
+        } finally {
+            buildLock.unlock();
         }
     }
 
@@ -573,8 +907,17 @@ public class Builder implements Serializable {
         if (!isBuilt()) {
             build();
         }
-        synchronized (kieFileSystem) {
+        //Do not wait for a running build; readers get the snapshot published by the last completed pass, which later
+        //passes do not modify
+        final org.kie.api.builder.KieModule kieModule = publishedKieModule;
+        if (concurrentBuild && kieModule != null) {
+            return kieModule;
+        }
+        acquireBuildLock();
+        try {
             return ((InternalKieBuilder) kieBuilder).getKieModuleIgnoringErrors();
+        } finally {
+            buildLock.unlock();
         }
     }
 
@@ -685,7 +1028,75 @@ public class Builder implements Serializable {
         return null;
     }
 
+    /**
+     * @return Rough estimate, in bytes, of the heap retained by this Builder: the sources held in the KieFileSystem plus
+     * the resources of the last built KieModule.
+     */
+    public long getEstimatedSize() {
+        return estimatedSize;
+    }
+
+    private void updateEstimatedSize(final org.kie.api.builder.KieModule kieModule) {
+        long size = sizeOf(((KieFileSystemImpl) kieFileSystem).getMfs());
+        if (kieModule instanceof MemoryKieModule) {
+            size += sizeOf(((MemoryKieModule) kieModule).getMemoryFileSystem());
+        }
+        estimatedSize = size;
+    }
+
+    private static long sizeOf(final MemoryFileSystem mfs) {
+        long size = 0;
+        for (String fileName : mfs.getFileNames()) {
+            final byte[] bytes = mfs.getBytes(fileName);
+            if (bytes != null) {
+                size += bytes.length;
+            }
+        }
+        return size;
+    }
+
+    void setSnapshotStore(final KieModuleSnapshotStore snapshotStore) {
+        this.snapshotStore = snapshotStore;
+    }
+
+    public boolean isConcurrentBuild() {
+        return concurrentBuild;
+    }
+
+    public BuilderMetrics getMetrics() {
+        return metrics;
+    }
+
     KieFileSystem getKieFileSystem() {
         return kieFileSystem;
     }
+
+    private static class PendingChange implements Serializable {
+
+        private final ResourceChangeType type;
+        private final transient Supplier<InputStream> inputStream;
+        private final transient List<BuildTicket> tickets = new ArrayList<BuildTicket>();
+
+        PendingChange(final ResourceChangeType type,
+                      final Supplier<InputStream> inputStream) {
+            this.type = type;
+            this.inputStream = inputStream;
+        }
+
+        ResourceChangeType getType() {
+            return type;
+        }
+
+        InputStream getInputStream() {
+            return inputStream.get();
+        }
+    }
+
+    /**
+     * The results of the incremental pass that built the change of a caller.
+     */
+    private static class BuildTicket {
+
+        private IncrementalBuildResults passResults;
+    }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder.core;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters describing the incremental build activity of a single {@link Builder}.
+ */
+public class BuilderMetrics implements Serializable {
+
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+    private final AtomicLong queuedChanges = new AtomicLong();
+    private final AtomicLong coalescedChanges = new AtomicLong();
+    private final AtomicLong incrementalBuilds = new AtomicLong();
+    private final AtomicLong lockAcquisitions = new AtomicLong();
+    private final AtomicLong lockWaitNanos = new AtomicLong();
+    private final AtomicLong maxLockWaitNanos = new AtomicLong();
+
+    void recordQueueDepth(final long depth) {
+        queueDepth.set(depth);
+        maxQueueDepth.accumulateAndGet(depth,
+                                       Math::max);
+    }
+
+    void recordQueuedChange() {
+        queuedChanges.incrementAndGet();
+    }
+
+    void recordCoalescedChanges(final long count) {
+        coalescedChanges.addAndGet(count);
+    }
+
+    void recordIncrementalBuild() {
+        incrementalBuilds.incrementAndGet();
+    }
+
+    void recordLockWait(final long nanos) {
+        lockAcquisitions.incrementAndGet();
+        lockWaitNanos.addAndGet(nanos);
+        maxLockWaitNanos.accumulateAndGet(nanos,
+                                          Math::max);
+    }
+
+    /**
+     * @return Number of resource changes waiting for an incremental build.
+     */
+    public long getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    public long getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    public long getQueuedChanges() {
+        return queuedChanges.get();
+    }
+
+    /**
+     * @return Number of resource changes that were folded into another change's incremental build.
+     */
+    public long getCoalescedChanges() {
+        return coalescedChanges.get();
+    }
+
+    public long getIncrementalBuilds() {
+        return incrementalBuilds.get();
+    }
+
+    public long getLockAcquisitions() {
+        return lockAcquisitions.get();
+    }
+
+    public long getTotalLockWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lockWaitNanos.get());
+    }
+
+    public long getMaxLockWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLockWaitNanos.get());
+    }
+
+    @Override
+    public String toString() {
+        return "BuilderMetrics{" +
+                "queueDepth=" + getQueueDepth() +
+                ", maxQueueDepth=" + getMaxQueueDepth() +
+                ", queuedChanges=" + getQueuedChanges() +
+                ", coalescedChanges=" + getCoalescedChanges() +
+                ", incrementalBuilds=" + getIncrementalBuilds() +
+                ", lockAcquisitions=" + getLockAcquisitions() +
+                ", totalLockWaitMillis=" + getTotalLockWaitMillis() +
+                ", maxLockWaitMillis=" + getMaxLockWaitMillis() +
+                '}';
+    }
+}
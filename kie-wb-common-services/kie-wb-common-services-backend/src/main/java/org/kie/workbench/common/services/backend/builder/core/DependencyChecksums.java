@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Identifies a list of dependency jars by their URLs and contents. The checksum of every jar is memoized by its
+ * location, size and modification time, so a jar is only read again once it changes.
+ */
+class DependencyChecksums {
+
+    private static final Logger logger = LoggerFactory.getLogger(DependencyChecksums.class);
+
+    private final Map<String, String> checksums = new ConcurrentHashMap<String, String>();
+
+    /**
+     * @return A SHA-256 digest of the given ordered URLs together with the checksum of every jar among them.
+     */
+    String digest(final URL[] urls) {
+        final MessageDigest digest = newDigest();
+        for (URL url : urls) {
+            digest.update(url.toExternalForm().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '|');
+            digest.update(checksum(url).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return toHex(digest.digest());
+    }
+
+    private String checksum(final URL url) {
+        final File file = toFile(url);
+        if (file == null || !file.isFile()) {
+            //Directories and remote locations are identified by their URL only
+            return "";
+        }
+        final String id = file.getAbsolutePath() + '|' + file.length() + '|' + file.lastModified();
+        return checksums.computeIfAbsent(id,
+                                         k -> checksum(file));
+    }
+
+    private static String checksum(final File file) {
+        final MessageDigest digest = newDigest();
+        try (InputStream is = new DigestInputStream(Files.newInputStream(file.toPath()),
+                                                    digest)) {
+            final byte[] buffer = new byte[8192];
+            while (is.read(buffer) != -1) {
+                //Read through the digest
+            }
+            return toHex(digest.digest());
+        } catch (IOException e) {
+            logger.warn("Unable to calculate checksum of '{}': {}",
+                        file,
+                        e.getMessage());
+            return file.length() + "-" + file.lastModified();
+        }
+    }
+
+    private static File toFile(final URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(final byte[] bytes) {
+        final StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02x",
+                                    b));
+        }
+        return sb.toString();
+    }
+}
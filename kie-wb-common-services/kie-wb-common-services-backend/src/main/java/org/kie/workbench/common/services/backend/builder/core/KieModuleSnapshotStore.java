@@ -0,0 +1,568 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import javax.enterprise.context.ApplicationScoped;
+
+import org.appformer.maven.support.PomModel;
+import org.drools.compiler.compiler.io.memory.MemoryFileSystem;
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.drools.compiler.kie.builder.impl.KieFileSystemImpl;
+import org.drools.compiler.kie.builder.impl.MemoryKieModule;
+import org.drools.compiler.kproject.models.KieModuleModelImpl;
+import org.guvnor.common.services.project.model.GAV;
+import org.guvnor.common.services.project.model.Module;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.Message;
+import org.kie.api.builder.model.KieModuleModel;
+import org.kie.scanner.KieModuleMetaData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists the compiled KieModule of successfully built modules on the local disk so that, after a restart, Builders
+ * can warm-start from it instead of performing a full build. Snapshots are keyed by the module GAV and by the URI of
+ * the module root, which identifies the space, repository and branch holding it, and record a SHA-256 hash of every
+ * source held by the Builder (including pom.xml and kmodule.xml), a digest of the dependency jars and the build
+ * messages; resources whose hash changed since the snapshot was taken are recompiled incrementally, while a changed
+ * pom.xml, kmodule.xml or dependency jar requires a full build. The store is enabled by setting the
+ * <code>org.kie.build.snapshot.dir</code> system property to the directory that should hold the snapshots.
+ */
+@ApplicationScoped
+public class KieModuleSnapshotStore {
+
+    public static final String SNAPSHOT_DIR_PROPERTY = "org.kie.build.snapshot.dir";
+
+    static final String KIE_MODULE_FILE = "kmodule.jar";
+    static final String RESOURCES_FILE = "resources.properties";
+    static final String METADATA_FILE = "metadata.properties";
+
+    private static final String DEPENDENCIES = "dependencies";
+    private static final String MESSAGE = "message.%d.%s";
+
+    private static final Logger logger = LoggerFactory.getLogger(KieModuleSnapshotStore.class);
+
+    private static final Set<String> DESCRIPTORS = Collections.unmodifiableSet(new HashSet<String>() {{
+        add("pom.xml");
+        add(KieModuleModelImpl.KMODULE_SRC_PATH);
+    }});
+
+    private final Path root;
+    private final Set<String> warmedUp = ConcurrentHashMap.newKeySet();
+    private final DependencyChecksums dependencyChecksums = new DependencyChecksums();
+
+    public KieModuleSnapshotStore() {
+        this(System.getProperty(SNAPSHOT_DIR_PROPERTY) == null ? null : Paths.get(System.getProperty(SNAPSHOT_DIR_PROPERTY)));
+    }
+
+    public KieModuleSnapshotStore(final Path root) {
+        this.root = root;
+    }
+
+    public boolean isEnabled() {
+        return root != null;
+    }
+
+    /**
+     * Copies the references to the contents of the files of a KieFileSystem. The contents are replaced, not modified,
+     * when a file is written, so the copy can be read once the caller no longer holds the build lock.
+     */
+    public static Map<String, byte[]> getResources(final KieFileSystem kieFileSystem) {
+        return getResources(((KieFileSystemImpl) kieFileSystem).getMfs());
+    }
+
+    public static Map<String, byte[]> getResources(final MemoryFileSystem mfs) {
+        final Map<String, byte[]> resources = new HashMap<String, byte[]>();
+        for (String fileName : mfs.getFileNames()) {
+            final byte[] bytes = mfs.getBytes(fileName);
+            if (bytes != null) {
+                resources.put(fileName,
+                              bytes);
+            }
+        }
+        return resources;
+    }
+
+    /**
+     * @return The SHA-256 hash of every resource, keyed by its path in the KieFileSystem.
+     */
+    public static Map<String, String> hashResources(final Map<String, byte[]> resources) {
+        final Map<String, String> result = new HashMap<String, String>();
+        for (Map.Entry<String, byte[]> e : resources.entrySet()) {
+            result.put(e.getKey(),
+                       hash(e.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Snapshots are only used for the first build of a module after a restart; later builds, including explicit
+     * user requested builds, are always performed in full.
+     * @return The snapshot of the module, or null if there is none or the module has already been built.
+     */
+    public KieModuleSnapshot loadForWarmStart(final Module module) {
+        if (!isEnabled() || !warmedUp.add(id(module))) {
+            return null;
+        }
+        return load(module);
+    }
+
+    KieModuleSnapshot load(final Module module) {
+        final GAV gav = module.getPom().getGav();
+        final Path directory = directory(module);
+        final Path kieModuleFile = directory.resolve(KIE_MODULE_FILE);
+        final Path resourcesFile = directory.resolve(RESOURCES_FILE);
+        final Path metadataFile = directory.resolve(METADATA_FILE);
+        if (!Files.isRegularFile(kieModuleFile) || !Files.isRegularFile(resourcesFile) || !Files.isRegularFile(metadataFile)) {
+            return null;
+        }
+        try {
+            final Properties resources = read(resourcesFile);
+            final Map<String, String> hashes = new HashMap<String, String>();
+            for (String fileName : resources.stringPropertyNames()) {
+                hashes.put(fileName,
+                           resources.getProperty(fileName));
+            }
+            final Properties metadata = read(metadataFile);
+            return new KieModuleSnapshot(hashes,
+                                         metadata.getProperty(DEPENDENCIES,
+                                                              ""),
+                                         readMessages(metadata),
+                                         Files.readAllBytes(kieModuleFile));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Unable to read KieModule snapshot for '{}': {}",
+                        gav,
+                        e.getMessage());
+            return null;
+        }
+    }
+
+    public void save(final Module module,
+                     final Map<String, String> resourceHashes,
+                     final String dependencies,
+                     final List<Message> messages,
+                     final InternalKieModule kieModule) {
+        if (!isEnabled()) {
+            return;
+        }
+        save(module,
+             resourceHashes,
+             dependencies,
+             messages,
+             kieModule.getBytes());
+    }
+
+    /**
+     * Saves the snapshot of a KieModule given the contents of its files, as returned by
+     * {@link #getResources(MemoryFileSystem)}, so that the jar can be written without holding the build lock.
+     */
+    public void save(final Module module,
+                     final Map<String, String> resourceHashes,
+                     final String dependencies,
+                     final List<Message> messages,
+                     final Map<String, byte[]> kieModuleFiles) {
+        if (!isEnabled()) {
+            return;
+        }
+        final MemoryFileSystem mfs = new MemoryFileSystem();
+        for (Map.Entry<String, byte[]> e : kieModuleFiles.entrySet()) {
+            mfs.write(e.getKey(),
+                      e.getValue(),
+                      true);
+        }
+        save(module,
+             resourceHashes,
+             dependencies,
+             messages,
+             mfs.writeAsBytes());
+    }
+
+    private void save(final Module module,
+                      final Map<String, String> resourceHashes,
+                      final String dependencies,
+                      final List<Message> messages,
+                      final byte[] kieModule) {
+        final GAV gav = module.getPom().getGav();
+        final Path directory = directory(module);
+        try {
+            Files.createDirectories(directory);
+
+            //Write to temporary files first so a concurrent reader never sees a half written snapshot
+            final Path kieModuleFile = Files.createTempFile(directory,
+                                                            KIE_MODULE_FILE,
+                                                            ".tmp");
+            Files.write(kieModuleFile,
+                        kieModule);
+            final Properties resources = new Properties();
+            resources.putAll(resourceHashes);
+            final Path resourcesFile = write(directory,
+                                             RESOURCES_FILE,
+                                             resources,
+                                             gav);
+            final Properties metadata = new Properties();
+            metadata.setProperty(DEPENDENCIES,
+                                 dependencies);
+            writeMessages(metadata,
+                          messages);
+            final Path metadataFile = write(directory,
+                                            METADATA_FILE,
+                                            metadata,
+                                            gav);
+            Files.move(kieModuleFile,
+                       directory.resolve(KIE_MODULE_FILE),
+                       StandardCopyOption.REPLACE_EXISTING);
+            Files.move(resourcesFile,
+                       directory.resolve(RESOURCES_FILE),
+                       StandardCopyOption.REPLACE_EXISTING);
+            Files.move(metadataFile,
+                       directory.resolve(METADATA_FILE),
+                       StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warn("Unable to write KieModule snapshot for '{}': {}",
+                        gav,
+                        e.getMessage());
+        }
+    }
+
+    /**
+     * @return A digest of the dependency jars of a module, as resolved for the given KieModuleMetaData, so that a
+     * snapshot is not used once a dependency jar changes without the pom.xml changing (e.g. a SNAPSHOT dependency).
+     */
+    public String getDependencies(final KieModuleMetaData kieModuleMetaData) {
+        final ClassLoader classLoader = kieModuleMetaData.getClassLoader().getParent();
+        if (!(classLoader instanceof URLClassLoader)) {
+            return "";
+        }
+        return dependencyChecksums.digest(((URLClassLoader) classLoader).getURLs());
+    }
+
+    public void invalidate(final Module module) {
+        if (!isEnabled()) {
+            return;
+        }
+        final Path directory = directory(module);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            logger.warn("Unable to delete KieModule snapshot for '{}': {}",
+                        module.getPom().getGav(),
+                        e.getMessage());
+        }
+    }
+
+    /**
+     * Re-creates the KieModule held by a snapshot.
+     */
+    public MemoryKieModule restore(final GAV gav,
+                                   final KieModuleSnapshot snapshot,
+                                   final PomModel pomModel) {
+        final MemoryFileSystem mfs = MemoryFileSystem.readFromJar(snapshot.getKieModule());
+        final KieModuleModel kieModuleModel = KieModuleModelImpl.fromXML(new ByteArrayInputStream(mfs.getBytes(KieModuleModelImpl.KMODULE_JAR_PATH)));
+        final MemoryKieModule kieModule = new MemoryKieModule(KieServices.Factory.get().newReleaseId(gav.getGroupId(),
+                                                                                                    gav.getArtifactId(),
+                                                                                                    gav.getVersion()),
+                                                              kieModuleModel,
+                                                              mfs);
+        if (pomModel != null) {
+            kieModule.setPomModel(pomModel);
+        }
+        return kieModule;
+    }
+
+    /**
+     * @return Whether the snapshot of a module must be deleted when the given file changes: a full build is needed once
+     * its pom.xml or kmodule.xml changes, while other changes are recompiled incrementally on a warm start.
+     */
+    public static boolean isDescriptor(final String fileName) {
+        return "pom.xml".equals(fileName) || "kmodule.xml".equals(fileName);
+    }
+
+    /**
+     * @return Whether any of the changed resources requires a full build, e.g. the pom.xml or kmodule.xml.
+     */
+    public static boolean requiresFullBuild(final Set<String> changedResources) {
+        for (String resource : changedResources) {
+            if (DESCRIPTORS.contains(resource)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Modules with the same GAV in different repositories or branches have different roots, so they get different
+     * snapshots.
+     */
+    private Path directory(final Module module) {
+        final GAV gav = module.getPom().getGav();
+        return root.resolve(safe(gav.getGroupId())).resolve(safe(gav.getArtifactId())).resolve(safe(gav.getVersion())).resolve(hash(module.getRootPath().toURI().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static Properties read(final Path file) throws IOException {
+        try (InputStream is = Files.newInputStream(file)) {
+            final Properties properties = new Properties();
+            properties.load(is);
+            return properties;
+        }
+    }
+
+    //Written to a temporary file first so a concurrent reader never sees a half written snapshot
+    private static Path write(final Path directory,
+                              final String fileName,
+                              final Properties properties,
+                              final GAV gav) throws IOException {
+        final Path file = Files.createTempFile(directory,
+                                               fileName,
+                                               ".tmp");
+        try (OutputStream os = Files.newOutputStream(file)) {
+            properties.store(os,
+                             gav.toString());
+        }
+        return file;
+    }
+
+    private static void writeMessages(final Properties properties,
+                                      final List<Message> messages) {
+        for (int i = 0; i < messages.size(); i++) {
+            final Message message = messages.get(i);
+            properties.setProperty(String.format(MESSAGE,
+                                                 i,
+                                                 "level"),
+                                   message.getLevel().name());
+            properties.setProperty(String.format(MESSAGE,
+                                                 i,
+                                                 "id"),
+                                   String.valueOf(message.getId()));
+            properties.setProperty(String.format(MESSAGE,
+                                                 i,
+                                                 "line"),
+                                   String.valueOf(message.getLine()));
+            properties.setProperty(String.format(MESSAGE,
+                                                 i,
+                                                 "column"),
+                                   String.valueOf(message.getColumn()));
+            properties.setProperty(String.format(MESSAGE,
+                                                 i,
+                                                 "text"),
+                                   MessageConverter.convertMessageText(message));
+            if (message.getPath() != null) {
+                properties.setProperty(String.format(MESSAGE,
+                                                     i,
+                                                     "path"),
+                                       message.getPath());
+            }
+        }
+    }
+
+    private static List<Message> readMessages(final Properties properties) {
+        final List<Message> messages = new ArrayList<Message>();
+        for (int i = 0; properties.containsKey(String.format(MESSAGE,
+                                                             i,
+                                                             "level")); i++) {
+            messages.add(new SnapshotMessage(Long.parseLong(properties.getProperty(String.format(MESSAGE,
+                                                                                                 i,
+                                                                                                 "id"))),
+                                             Message.Level.valueOf(properties.getProperty(String.format(MESSAGE,
+                                                                                                        i,
+                                                                                                        "level"))),
+                                             properties.getProperty(String.format(MESSAGE,
+                                                                                  i,
+                                                                                  "path")),
+                                             Integer.parseInt(properties.getProperty(String.format(MESSAGE,
+                                                                                                   i,
+                                                                                                   "line"))),
+                                             Integer.parseInt(properties.getProperty(String.format(MESSAGE,
+                                                                                                   i,
+                                                                                                   "column"))),
+                                             properties.getProperty(String.format(MESSAGE,
+                                                                                  i,
+                                                                                  "text"))));
+        }
+        return messages;
+    }
+
+    private static String id(final Module module) {
+        return module.getRootPath().toURI() + "|" + module.getPom().getGav();
+    }
+
+    private static String safe(final String segment) {
+        return segment == null ? "_" : segment.replaceAll("[^A-Za-z0-9._-]",
+                                                          "_");
+    }
+
+    static String hash(final byte[] bytes) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final StringBuilder sb = new StringBuilder();
+            for (byte b : digest.digest(bytes)) {
+                sb.append(String.format("%02x",
+                                        b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class KieModuleSnapshot {
+
+        private final Map<String, String> resourceHashes;
+        private final String dependencies;
+        private final List<Message> messages;
+        private final byte[] kieModule;
+
+        KieModuleSnapshot(final Map<String, String> resourceHashes,
+                          final String dependencies,
+                          final List<Message> messages,
+                          final byte[] kieModule) {
+            this.resourceHashes = resourceHashes;
+            this.dependencies = dependencies;
+            this.messages = messages;
+            this.kieModule = kieModule;
+        }
+
+        public Map<String, String> getResourceHashes() {
+            return resourceHashes;
+        }
+
+        public String getDependencies() {
+            return dependencies;
+        }
+
+        /**
+         * @return The messages of the build the snapshot was taken from, but those of the given changed resources.
+         */
+        public List<Message> getMessages(final Set<String> changedResources) {
+            final List<Message> result = new ArrayList<Message>();
+            for (Message message : messages) {
+                if (message.getPath() == null || !changedResources.contains(message.getPath())) {
+                    result.add(message);
+                }
+            }
+            return result;
+        }
+
+        public byte[] getKieModule() {
+            return kieModule;
+        }
+
+        /**
+         * @return Paths of the resources added, changed or deleted since the snapshot was taken.
+         */
+        public Set<String> getChangedResources(final Map<String, String> currentHashes) {
+            final Set<String> changed = new TreeSet<String>();
+            for (Map.Entry<String, String> e : currentHashes.entrySet()) {
+                if (!e.getValue().equals(resourceHashes.get(e.getKey()))) {
+                    changed.add(e.getKey());
+                }
+            }
+            for (String fileName : resourceHashes.keySet()) {
+                if (!currentHashes.containsKey(fileName)) {
+                    changed.add(fileName);
+                }
+            }
+            return changed;
+        }
+    }
+
+    /**
+     * A build message read back from a snapshot, with the path of its resource in the KieFileSystem.
+     */
+    static class SnapshotMessage implements Message {
+
+        private final long id;
+        private final Level level;
+        private final String path;
+        private final int line;
+        private final int column;
+        private final String text;
+
+        SnapshotMessage(final long id,
+                        final Level level,
+                        final String path,
+                        final int line,
+                        final int column,
+                        final String text) {
+            this.id = id;
+            this.level = level;
+            this.path = path;
+            this.line = line;
+            this.column = column;
+            this.text = text;
+        }
+
+        @Override
+        public long getId() {
+            return id;
+        }
+
+        @Override
+        public Level getLevel() {
+            return level;
+        }
+
+        @Override
+        public String getText() {
+            return text;
+        }
+
+        @Override
+        public String getPath() {
+            return path;
+        }
+
+        @Override
+        public int getLine() {
+            return line;
+        }
+
+        @Override
+        public int getColumn() {
+            return column;
+        }
+    }
+}
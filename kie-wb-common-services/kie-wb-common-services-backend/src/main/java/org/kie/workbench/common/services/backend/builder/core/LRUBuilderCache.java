@@ -27,13 +27,13 @@ import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.guvnor.common.services.backend.cache.LRUCache;
 import org.guvnor.common.services.project.builder.events.InvalidateDMOModuleCacheEvent;
 import org.guvnor.common.services.project.builder.service.BuildValidationHelper;
 import org.guvnor.common.services.project.model.Module;
 import org.guvnor.common.services.project.model.POM;
 import org.kie.soup.commons.validation.PortablePreconditions;
 import org.kie.workbench.common.services.backend.builder.JavaSourceFilter;
+import org.kie.workbench.common.services.backend.cache.WeightedLRUCache;
 import org.kie.workbench.common.services.backend.whitelist.PackageNameWhiteListServiceImpl;
 import org.kie.workbench.common.services.shared.project.KieModuleService;
 import org.kie.workbench.common.services.shared.project.ProjectImportsService;
@@ -44,10 +44,12 @@ import static java.util.stream.Collectors.toCollection;
 import static java.util.stream.StreamSupport.stream;
 
 /**
- * A simple LRU cache for Builders
+ * A simple LRU cache for Builders, weighted by their estimated size
  */
 @ApplicationScoped
-public class LRUBuilderCache extends LRUCache<Module, Builder> {
+public class LRUBuilderCache extends WeightedLRUCache<Module, Builder> {
+
+    public static final String NAME = "BuilderCache";
 
     private final List<BuildValidationHelper> buildValidationHelpers = new ArrayList<>();
     private final List<Predicate<String>> classFilters = new ArrayList<>();
@@ -59,9 +61,11 @@ public class LRUBuilderCache extends LRUCache<Module, Builder> {
     private LRUPomModelCache pomModelCache;
     private PackageNameWhiteListServiceImpl packageNameWhiteListService;
     private Instance<Predicate<String>> classFilterBeans;
+    private KieModuleSnapshotStore snapshotStore;
 
     public LRUBuilderCache() {
         //CDI proxy
+        super(NAME);
     }
 
     @Inject
@@ -72,7 +76,9 @@ public class LRUBuilderCache extends LRUCache<Module, Builder> {
                            final @Named("LRUModuleDependenciesClassLoaderCache") LRUModuleDependenciesClassLoaderCache dependenciesClassLoaderCache,
                            final @Named("LRUPomModelCache") LRUPomModelCache pomModelCache,
                            final PackageNameWhiteListService packageNameWhiteListService,
-                           final @JavaSourceFilter Instance<Predicate<String>> classFilterBeans) {
+                           final @JavaSourceFilter Instance<Predicate<String>> classFilterBeans,
+                           final KieModuleSnapshotStore snapshotStore) {
+        super(NAME);
         this.ioService = ioService;
         this.moduleService = moduleService;
         this.importsService = importsService;
@@ -81,6 +87,7 @@ public class LRUBuilderCache extends LRUCache<Module, Builder> {
         this.pomModelCache = pomModelCache;
         this.packageNameWhiteListService = (PackageNameWhiteListServiceImpl) packageNameWhiteListService;
         this.classFilterBeans = classFilterBeans;
+        this.snapshotStore = snapshotStore;
     }
 
     @PostConstruct
@@ -105,6 +112,12 @@ public class LRUBuilderCache extends LRUCache<Module, Builder> {
         //If resource was not within a Module there's nothing to invalidate
         if (project != null) {
             invalidateCache(project);
+
+            //Ordinary saves are recompiled incrementally from the snapshot on a warm start, while changed dependency
+            //jars are detected by their checksums; only descriptor changes make the snapshot useless
+            if (event.getResourcePath() == null || KieModuleSnapshotStore.isDescriptor(event.getResourcePath().getFileName())) {
+                snapshotStore.invalidate(project);
+            }
         }
     }
 
@@ -126,23 +139,27 @@ public class LRUBuilderCache extends LRUCache<Module, Builder> {
         return getEntry(module);
     }
 
+    @Override
+    protected long weigh(final Module module,
+                         final Builder builder) {
+        return builder.getEstimatedSize();
+    }
+
     private Builder makeBuilder(final Module module) {
-        Builder builder = getEntry(module);
-        if (builder == null) {
-            builder = new Builder(module,
-                                  ioService,
-                                  moduleService,
-                                  importsService,
-                                  buildValidationHelpers,
-                                  dependenciesClassLoaderCache,
-                                  pomModelCache,
-                                  packageNameWhiteListService,
-                                  createSingleClassFilterPredicate());
-
-            setEntry(module,
-                     builder);
-        }
-        return builder;
+        return getOrLoad(module,
+                         key -> {
+                             final Builder builder = new Builder(key,
+                                                                 ioService,
+                                                                 moduleService,
+                                                                 importsService,
+                                                                 buildValidationHelpers,
+                                                                 dependenciesClassLoaderCache,
+                                                                 pomModelCache,
+                                                                 packageNameWhiteListService,
+                                                                 createSingleClassFilterPredicate());
+                             builder.setSnapshotStore(snapshotStore);
+                             return builder;
+                         });
     }
 
     private Predicate<String> createSingleClassFilterPredicate() {
@@ -17,28 +17,35 @@
 package org.kie.workbench.common.services.backend.builder.core;
 
 import java.net.URLClassLoader;
-
+import java.util.List;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.guvnor.common.services.backend.cache.LRUCache;
 import org.kie.scanner.KieModuleMetaData;
+import org.kie.workbench.common.services.backend.builder.core.SharedDependencyClassLoaders.SharedClassLoaderStatistics;
 import org.kie.workbench.common.services.backend.builder.service.BuildInfoService;
+import org.kie.workbench.common.services.backend.cache.WeightedLRUCache;
 import org.kie.workbench.common.services.shared.project.KieModule;
 
 @ApplicationScoped
 @Named("LRUModuleDependenciesClassLoaderCache")
 public class LRUModuleDependenciesClassLoaderCache
-        extends LRUCache<KieModule, ClassLoader> {
+        extends WeightedLRUCache<KieModule, ClassLoader> {
+
+    public static final String NAME = "ModuleDependenciesClassLoaderCache";
 
     private BuildInfoService buildInfoService;
 
+    private final SharedDependencyClassLoaders sharedClassLoaders = new SharedDependencyClassLoaders();
+
     public LRUModuleDependenciesClassLoaderCache() {
+        super(NAME);
     }
 
     @Inject
     public LRUModuleDependenciesClassLoaderCache(BuildInfoService buildInfoService) {
+        super(NAME);
         this.buildInfoService = buildInfoService;
     }
 
@@ -47,13 +54,32 @@ public class LRUModuleDependenciesClassLoaderCache
     }
 
     public ClassLoader assertDependenciesClassLoader(final KieModule module) {
-        ClassLoader classLoader = getEntry(module);
-        if (classLoader == null) {
-            classLoader = buildClassLoader(module);
-            setEntry(module,
-                     classLoader);
-        }
-        return classLoader;
+        return getOrLoad(module,
+                         this::buildClassLoader);
+    }
+
+    /**
+     * Modules with identical dependencies share the same ClassLoader; the reference held by a module is released when
+     * its entry leaves the cache.
+     */
+    @Override
+    protected void onRemoval(final KieModule module,
+                             final ClassLoader classLoader) {
+        sharedClassLoaders.release(classLoader);
+    }
+
+    public List<SharedClassLoaderStatistics> getSharedClassLoaderStatistics() {
+        return sharedClassLoaders.getStatistics();
+    }
+
+    /**
+     * A shared ClassLoader is weighed by the classes loaded through it so far, split between the modules referencing
+     * it, so that it is only counted once in the total weight of the cache.
+     */
+    @Override
+    protected long weigh(final KieModule module,
+                         final ClassLoader classLoader) {
+        return sharedClassLoaders.getRetainedSizePerReference(classLoader);
     }
 
     /**
@@ -82,13 +108,13 @@ public class LRUModuleDependenciesClassLoaderCache
     }
 
     public void setDependenciesClassLoader(final KieModule module,
-                                                        final ClassLoader classLoader) {
+                                           final ClassLoader classLoader) {
         setEntry(module,
-                 classLoader);
+                 sharedClassLoaders.acquire(classLoader));
     }
 
     private ClassLoader buildClassLoader(final KieModule module) {
-        return buildClassLoader(module,
-                                KieModuleMetaData.Factory.newKieModuleMetaData(buildInfoService.getBuildInfo(module).getKieModuleIgnoringErrors()));
+        return sharedClassLoaders.acquire(buildClassLoader(module,
+                                                           KieModuleMetaData.Factory.newKieModuleMetaData(buildInfoService.getBuildInfo(module).getKieModuleIgnoringErrors())));
     }
 }
\ No newline at end of file
@@ -22,10 +22,10 @@ import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.appformer.maven.support.PomModel;
-import org.guvnor.common.services.backend.cache.LRUCache;
 import org.guvnor.common.services.project.builder.events.InvalidateDMOModuleCacheEvent;
 import org.guvnor.common.services.project.model.Module;
 import org.kie.soup.commons.validation.PortablePreconditions;
+import org.kie.workbench.common.services.backend.cache.WeightedLRUCache;
 import org.kie.workbench.common.services.shared.project.KieModule;
 import org.kie.workbench.common.services.shared.project.KieModuleService;
 import org.uberfire.backend.vfs.Path;
@@ -33,19 +33,29 @@ import org.uberfire.backend.vfs.Path;
 @ApplicationScoped
 @Named("LRUPomModelCache")
 public class LRUPomModelCache
-        extends LRUCache<Module, PomModel> {
+        extends WeightedLRUCache<Module, PomModel> {
+
+    public static final String NAME = "PomModelCache";
 
     private KieModuleService moduleService;
 
     public LRUPomModelCache() {
         //CDI proxy
+        super(NAME);
     }
 
     @Inject
     public LRUPomModelCache(final KieModuleService moduleService) {
+        super(NAME);
         this.moduleService = moduleService;
     }
 
+    @Override
+    protected long weigh(final Module module,
+                         final PomModel pomModel) {
+        return 1024L * (1 + pomModel.getDependencies().size());
+    }
+
     public void invalidateProjectCache(@Observes final InvalidateDMOModuleCacheEvent event) {
         PortablePreconditions.checkNotNull("event",
                                            event);
@@ -90,7 +90,7 @@ class MessageConverter {
         return m;
     }
 
-    private static String convertMessageText(final Message message) {
+    static String convertMessageText(final Message message) {
         final StringBuilder sb = new StringBuilder();
         if (message instanceof MessageImpl) {
             final MessageImpl impl = (MessageImpl) message;
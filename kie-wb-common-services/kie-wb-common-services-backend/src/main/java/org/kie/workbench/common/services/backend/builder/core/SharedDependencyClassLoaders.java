@@ -0,0 +1,268 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder.core;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Modules that resolve to the same dependency jars share a single dependencies ClassLoader, so the classes of common
+ * kjars and libraries are only loaded (and held in metaspace) once. Shared ClassLoaders are keyed by their parent
+ * ClassLoader and by the ordered list of jar URLs together with the checksum of every jar, and are reference counted:
+ * a shared ClassLoader is dropped from the registry once no module references it any longer. It is not closed, since
+ * module ClassLoaders, KieContainers and DMOs created while it was cached may still load classes through it; it is
+ * reclaimed by the garbage collector, together with its jar files, once none of them can reach it.
+ */
+public class SharedDependencyClassLoaders {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedDependencyClassLoaders.class);
+
+    private final Map<Key, SharedClassLoader> classLoaders = new HashMap<Key, SharedClassLoader>();
+    private final DependencyChecksums checksums = new DependencyChecksums();
+
+    /**
+     * Returns the shared ClassLoader for the dependencies of a resolved ClassLoader, creating it if needed, and adds a
+     * reference to it. ClassLoaders that are not URLClassLoaders cannot be shared and are returned as is.
+     */
+    public ClassLoader acquire(final ClassLoader resolved) {
+        if (resolved instanceof SharedClassLoader) {
+            synchronized (classLoaders) {
+                final SharedClassLoader shared = (SharedClassLoader) resolved;
+                if (classLoaders.get(shared.key) == shared) {
+                    shared.references.incrementAndGet();
+                    return shared;
+                }
+            }
+        }
+        if (!(resolved instanceof URLClassLoader)) {
+            return resolved;
+        }
+        final URL[] urls = ((URLClassLoader) resolved).getURLs();
+        //Checksums are calculated outside the lock since they may need to read the jars
+        final Key key = new Key(resolved.getParent(),
+                                checksums.digest(urls));
+        synchronized (classLoaders) {
+            SharedClassLoader shared = classLoaders.get(key);
+            if (shared == null) {
+                shared = new SharedClassLoader(key,
+                                               urls,
+                                               resolved.getParent());
+                classLoaders.put(key,
+                                 shared);
+            }
+            shared.references.incrementAndGet();
+            return shared;
+        }
+    }
+
+    /**
+     * Removes a reference to a ClassLoader returned by {@link #acquire(ClassLoader)}, dropping it from the registry when
+     * it was the last one.
+     */
+    public void release(final ClassLoader classLoader) {
+        if (!(classLoader instanceof SharedClassLoader)) {
+            return;
+        }
+        final SharedClassLoader shared = (SharedClassLoader) classLoader;
+        synchronized (classLoaders) {
+            if (shared.references.decrementAndGet() > 0) {
+                return;
+            }
+            if (classLoaders.get(shared.key) == shared) {
+                classLoaders.remove(shared.key);
+            }
+        }
+        logger.debug("Released shared dependencies ClassLoader: {}",
+                     shared.getStatistics());
+    }
+
+    /**
+     * Estimates the size retained by a ClassLoader returned by {@link #acquire(ClassLoader)} from the class files loaded
+     * through it, divided by the number of references to it.
+     */
+    public long getRetainedSizePerReference(final ClassLoader classLoader) {
+        if (!(classLoader instanceof SharedClassLoader)) {
+            return 1;
+        }
+        final SharedClassLoader shared = (SharedClassLoader) classLoader;
+        return Math.max(1,
+                        shared.loadedClassBytes.get() / Math.max(1,
+                                                                 shared.references.get()));
+    }
+
+    public int getSharedClassLoaderCount() {
+        synchronized (classLoaders) {
+            return classLoaders.size();
+        }
+    }
+
+    public List<SharedClassLoaderStatistics> getStatistics() {
+        synchronized (classLoaders) {
+            final List<SharedClassLoaderStatistics> statistics = new ArrayList<SharedClassLoaderStatistics>();
+            for (SharedClassLoader shared : classLoaders.values()) {
+                statistics.add(shared.getStatistics());
+            }
+            return Collections.unmodifiableList(statistics);
+        }
+    }
+
+    /**
+     * Statistics of a shared ClassLoader. Metaspace usage is estimated from the size of the class files loaded through
+     * it, since the JVM does not report metaspace usage per ClassLoader.
+     */
+    public static class SharedClassLoaderStatistics {
+
+        private final String checksum;
+        private final int jarCount;
+        private final int references;
+        private final long loadedClassCount;
+        private final long estimatedMetaspaceBytes;
+
+        SharedClassLoaderStatistics(final String checksum,
+                                    final int jarCount,
+                                    final int references,
+                                    final long loadedClassCount,
+                                    final long estimatedMetaspaceBytes) {
+            this.checksum = checksum;
+            this.jarCount = jarCount;
+            this.references = references;
+            this.loadedClassCount = loadedClassCount;
+            this.estimatedMetaspaceBytes = estimatedMetaspaceBytes;
+        }
+
+        public String getChecksum() {
+            return checksum;
+        }
+
+        public int getJarCount() {
+            return jarCount;
+        }
+
+        public int getReferences() {
+            return references;
+        }
+
+        public long getLoadedClassCount() {
+            return loadedClassCount;
+        }
+
+        public long getEstimatedMetaspaceBytes() {
+            return estimatedMetaspaceBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "SharedClassLoaderStatistics{" +
+                    "checksum='" + checksum + '\'' +
+                    ", jarCount=" + jarCount +
+                    ", references=" + references +
+                    ", loadedClassCount=" + loadedClassCount +
+                    ", estimatedMetaspaceBytes=" + estimatedMetaspaceBytes +
+                    '}';
+        }
+    }
+
+    static class SharedClassLoader extends URLClassLoader {
+
+        static {
+            ClassLoader.registerAsParallelCapable();
+        }
+
+        private final Key key;
+        private final AtomicInteger references = new AtomicInteger();
+        private final AtomicLong loadedClassCount = new AtomicLong();
+        private final AtomicLong loadedClassBytes = new AtomicLong();
+
+        private SharedClassLoader(final Key key,
+                                  final URL[] urls,
+                                  final ClassLoader parent) {
+            super(urls,
+                  parent);
+            this.key = key;
+        }
+
+        @Override
+        protected Class<?> findClass(final String name) throws ClassNotFoundException {
+            final Class<?> clazz = super.findClass(name);
+            loadedClassCount.incrementAndGet();
+            final URL resource = findResource(name.replace('.',
+                                                           '/') + ".class");
+            if (resource != null) {
+                try {
+                    //Jar connections are cached by the JDK, so this does not re-open the jar for every class
+                    final URLConnection connection = resource.openConnection();
+                    loadedClassBytes.addAndGet(Math.max(0,
+                                                        connection.getContentLengthLong()));
+                } catch (IOException e) {
+                    //Only used for the estimate
+                }
+            }
+            return clazz;
+        }
+
+        SharedClassLoaderStatistics getStatistics() {
+            return new SharedClassLoaderStatistics(key.checksum,
+                                                   getURLs().length,
+                                                   references.get(),
+                                                   loadedClassCount.get(),
+                                                   loadedClassBytes.get());
+        }
+    }
+
+    private static class Key {
+
+        private final ClassLoader parent;
+        private final String checksum;
+
+        private Key(final ClassLoader parent,
+                    final String checksum) {
+            this.parent = parent;
+            this.checksum = checksum;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return parent == key.parent && checksum.equals(key.checksum);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(parent),
+                                checksum);
+        }
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.guvnor.common.services.project.builder.model.BuildResults;
+import org.guvnor.common.services.project.model.Module;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Schedules full module builds on a bounded pool of build threads, so independent modules are built in parallel. A build
+ * requested for a module that is already waiting to be built is merged with the waiting one, and a build requested for
+ * a module that is being built supersedes it: callers waiting for the running build receive the results of the newer
+ * one, and the running build is cancelled at the end of its current phase (see {@link #checkCancelled()}). Its thread
+ * is never interrupted, as interrupting NIO channel IO closes the channel, which can invalidate the pack files of the
+ * underlying git repositories. Waiting builds are dispatched round-robin across spaces, so one space cannot starve the
+ * others. Modules are identified by the URI of their root path.
+ * The number of build threads is configured with the <code>org.kie.build.scheduler.threads</code> system property.
+ */
+@ApplicationScoped
+public class BuildScheduler {
+
+    public static final String THREAD_POOL_SIZE_PROPERTY_NAME = "org.kie.build.scheduler.threads";
+
+    private static final Logger logger = LoggerFactory.getLogger(BuildScheduler.class);
+
+    private BuildServiceHelper buildServiceHelper;
+
+    private ExecutorService executor;
+
+    private int threadPoolSize;
+
+    //Waiting builds, per space. Guarded by "this"
+    private final Map<String, Deque<BuildTask>> queues = new LinkedHashMap<>();
+    private final Map<String, BuildTask> waiting = new HashMap<>();
+    private final Map<String, BuildTask> running = new HashMap<>();
+    private final List<String> spaces = new ArrayList<>();
+    private int nextSpace;
+
+    public BuildScheduler() {
+        //Empty constructor for Weld proxying
+    }
+
+    @Inject
+    public BuildScheduler(final BuildServiceHelper buildServiceHelper) {
+        this(buildServiceHelper,
+             Integer.getInteger(THREAD_POOL_SIZE_PROPERTY_NAME,
+                                Runtime.getRuntime().availableProcessors()));
+    }
+
+    BuildScheduler(final BuildServiceHelper buildServiceHelper,
+                   final int threadPoolSize) {
+        this.buildServiceHelper = buildServiceHelper;
+        this.threadPoolSize = threadPoolSize > 0 ? threadPoolSize : 1;
+    }
+
+    @PostConstruct
+    public void init() {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threadPoolSize,
+                                                runnable -> {
+                                                    final Thread thread = new BuildThread(runnable,
+                                                                                          "kie-build-scheduler-" + threadNumber.incrementAndGet());
+                                                    thread.setDaemon(true);
+                                                    return thread;
+                                                });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        final List<BuildTask> cancelled = new ArrayList<>();
+        synchronized (this) {
+            queues.values().forEach(cancelled::addAll);
+            queues.clear();
+            waiting.clear();
+            spaces.clear();
+        }
+        cancelled.forEach(task -> task.future.cancel(false));
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Performs the full build of a module on a build thread and waits for its results. Builds requested from a build
+     * thread are performed on it, so a build never waits for a free build thread.
+     * @param module the module to build.
+     * @return the BuildResults of the module, or of a newer build of the module that superseded this one.
+     */
+    public BuildResults build(final Module module) {
+        if (executor == null || Thread.currentThread() instanceof BuildThread) {
+            return buildServiceHelper.localBuild(module);
+        }
+        try {
+            return schedule(module).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Schedules the full build of a module.
+     * @param module the module to build.
+     * @return a future completed with the BuildResults of the module, or of a newer build of the module that
+     * superseded this one.
+     */
+    public CompletableFuture<BuildResults> schedule(final Module module) {
+        final String key = moduleKey(module);
+        final BuildTask task;
+        synchronized (this) {
+            final BuildTask pending = waiting.get(key);
+            if (pending != null) {
+                return pending.future;
+            }
+            task = new BuildTask(key,
+                                 spaceKey(module),
+                                 module);
+            waiting.put(key,
+                        task);
+            queues.computeIfAbsent(task.space,
+                                   space -> {
+                                       spaces.add(space);
+                                       return new ArrayDeque<>();
+                                   }).add(task);
+
+            //The running build is now out of date; it is cancelled and its callers get the results of the newer build
+            final BuildTask current = running.get(key);
+            if (current != null) {
+                current.supersededBy = task;
+                if (current.thread != null) {
+                    current.thread.cancelled = true;
+                }
+            }
+        }
+        dispatch();
+        return task.future;
+    }
+
+    /**
+     * Called by builds between their phases: stops the build running on the current thread if a newer build of its
+     * module superseded it. Does nothing for builds that are not running on a build thread.
+     * @throws BuildCancelledException if the build was superseded.
+     */
+    public static void checkCancelled() {
+        final Thread thread = Thread.currentThread();
+        if (thread instanceof BuildThread && ((BuildThread) thread).cancelled) {
+            throw new BuildCancelledException();
+        }
+    }
+
+    /**
+     * Cancels the build of a module if it has not started yet.
+     * @return true if a waiting build was cancelled.
+     */
+    public boolean cancel(final Module module) {
+        final BuildTask task;
+        synchronized (this) {
+            task = waiting.remove(moduleKey(module));
+            if (task == null) {
+                return false;
+            }
+            final Deque<BuildTask> queue = queues.get(task.space);
+            queue.remove(task);
+            if (queue.isEmpty()) {
+                final int index = spaces.indexOf(task.space);
+                removeSpace(task.space);
+                if (index < nextSpace) {
+                    nextSpace--;
+                }
+                nextSpace = spaces.isEmpty() ? 0 : nextSpace % spaces.size();
+            }
+        }
+        task.future.cancel(false);
+        return true;
+    }
+
+    public synchronized int getWaitingBuilds() {
+        return waiting.size();
+    }
+
+    public synchronized int getRunningBuilds() {
+        return running.size();
+    }
+
+    private void dispatch() {
+        final List<BuildTask> toRun = new ArrayList<>();
+        synchronized (this) {
+            while (running.size() < threadPoolSize) {
+                final BuildTask task = nextTask();
+                if (task == null) {
+                    break;
+                }
+                waiting.remove(task.key);
+                running.put(task.key,
+                            task);
+                toRun.add(task);
+            }
+        }
+        for (BuildTask task : toRun) {
+            executor.execute(() -> run(task));
+        }
+    }
+
+    //Round-robin across the spaces that have waiting builds. Must be called holding the lock
+    private BuildTask nextTask() {
+        for (int i = 0; i < spaces.size(); i++) {
+            final int index = (nextSpace + i) % spaces.size();
+            final String space = spaces.get(index);
+            final Deque<BuildTask> queue = queues.get(space);
+            for (BuildTask task : queue) {
+                //Never run two builds of the same module at once
+                if (!running.containsKey(task.key)) {
+                    queue.remove(task);
+                    nextSpace = index + 1;
+                    if (queue.isEmpty()) {
+                        removeSpace(space);
+                        nextSpace = index;
+                    }
+                    nextSpace = spaces.isEmpty() ? 0 : nextSpace % spaces.size();
+                    return task;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void removeSpace(final String space) {
+        queues.remove(space);
+        spaces.remove(space);
+    }
+
+    private void run(final BuildTask task) {
+        final boolean superseded;
+        synchronized (this) {
+            superseded = task.supersededBy != null;
+            task.thread = (BuildThread) Thread.currentThread();
+        }
+
+        BuildResults results = null;
+        Throwable error = null;
+        if (!superseded) {
+            try {
+                results = buildServiceHelper.localBuild(task.module);
+            } catch (Throwable e) {
+                error = e;
+            }
+        }
+
+        final BuildTask supersededBy;
+        synchronized (this) {
+            task.thread.cancelled = false;
+            task.thread = null;
+            running.remove(task.key);
+            supersededBy = task.supersededBy;
+        }
+
+        if (supersededBy != null) {
+            logger.debug("Build of module '{}' was superseded by a newer build.",
+                         task.module.getModuleName());
+            supersededBy.future.whenComplete(complete(task));
+        } else if (error != null) {
+            logger.error("Build of module '" + task.module.getModuleName() + "' failed.",
+                         error);
+            task.future.completeExceptionally(error);
+        } else {
+            task.future.complete(results);
+        }
+        dispatch();
+    }
+
+    private static BiConsumer<BuildResults, Throwable> complete(final BuildTask task) {
+        return (results, error) -> {
+            if (error != null) {
+                task.future.completeExceptionally(error);
+            } else {
+                task.future.complete(results);
+            }
+        };
+    }
+
+    static String moduleKey(final Module module) {
+        return module.getRootPath().toURI();
+    }
+
+    /**
+     * The space of a module is the first segment of its root path, ignoring the branch. e.g. for
+     * <code>default://master@space/repository/module</code> it is <code>space</code>.
+     */
+    static String spaceKey(final Module module) {
+        return spaceKey(moduleKey(module));
+    }
+
+    static String spaceKey(final String uri) {
+        String path = uri.substring(uri.indexOf("://") + 3);
+        final int slash = path.indexOf('/');
+        final int at = path.indexOf('@');
+        if (at >= 0 && (slash < 0 || at < slash)) {
+            path = path.substring(at + 1);
+        }
+        final int end = path.indexOf('/');
+        return end < 0 ? path : path.substring(0,
+                                               end);
+    }
+
+    private static class BuildTask {
+
+        private final String key;
+        private final String space;
+        private final Module module;
+        private final CompletableFuture<BuildResults> future = new CompletableFuture<>();
+        private BuildTask supersededBy;
+        private BuildThread thread;
+
+        private BuildTask(final String key,
+                          final String space,
+                          final Module module) {
+            this.key = key;
+            this.space = space;
+            this.module = module;
+        }
+    }
+
+    private static class BuildThread extends Thread {
+
+        //Set, holding the lock of the scheduler, once the build running on the thread is superseded
+        private volatile boolean cancelled;
+
+        private BuildThread(final Runnable runnable,
+                            final String name) {
+            super(runnable,
+                  name);
+        }
+    }
+}
@@ -46,6 +46,8 @@ public class BuildServiceImpl
 
     private LRUBuilderCache cache;
 
+    private BuildScheduler buildScheduler;
+
     public BuildServiceImpl() {
         //Empty constructor for Weld
     }
@@ -53,15 +55,21 @@ public class BuildServiceImpl
     @Inject
     public BuildServiceImpl(final KieModuleService moduleService,
                             final BuildServiceHelper buildServiceHelper,
-                            final LRUBuilderCache cache) {
+                            final LRUBuilderCache cache,
+                            final BuildScheduler buildScheduler) {
         this.moduleService = moduleService;
         this.buildServiceHelper = buildServiceHelper;
         this.cache = cache;
+        this.buildScheduler = buildScheduler;
     }
 
+    /**
+     * Full builds run on the BuildScheduler, so concurrent requests to build a module are merged and the number of
+     * modules built at once is bounded.
+     */
     @Override
     public BuildResults build(final Module module) {
-        return buildServiceHelper.localBuild(module);
+        return buildScheduler.build(module);
     }
 
     public void build(final Module module,
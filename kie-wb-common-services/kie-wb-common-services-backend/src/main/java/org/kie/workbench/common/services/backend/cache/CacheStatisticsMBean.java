@@ -0,0 +1,49 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.cache;
+
+/**
+ * JMX view of the statistics of a {@link WeightedLRUCache}.
+ */
+public interface CacheStatisticsMBean {
+
+    String getName();
+
+    long getHitCount();
+
+    long getMissCount();
+
+    double getHitRate();
+
+    long getEvictionCount();
+
+    long getExpirationCount();
+
+    long getLoadCount();
+
+    long getTotalLoadTimeMillis();
+
+    double getAverageLoadTimeMillis();
+
+    int getEntryCount();
+
+    long getTotalWeight();
+
+    long getMaxWeight();
+
+    long getExpireAfterAccessMillis();
+}
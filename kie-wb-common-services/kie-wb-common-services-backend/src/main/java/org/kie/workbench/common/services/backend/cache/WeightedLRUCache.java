@@ -0,0 +1,346 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.cache;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.guvnor.common.services.backend.cache.LRUCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link LRUCache} that, in addition to the entry-count limit of its parent, evicts the least recently used entries
+ * once the sum of their estimated retained sizes exceeds a maximum weight, and optionally expires entries that have
+ * not been accessed for a while. The limits are configured per cache with the system properties
+ * <code>org.kie.cache.&lt;name&gt;.maxWeight</code> (bytes) and
+ * <code>org.kie.cache.&lt;name&gt;.expireAfterAccessMillis</code>; both are disabled by default.
+ * Statistics are published through JMX as <code>org.kie.workbench.common:type=Cache,name=&lt;name&gt;</code>.
+ */
+public abstract class WeightedLRUCache<K, V> extends LRUCache<K, V> {
+
+    public static final String MAX_WEIGHT_PROPERTY = "org.kie.cache.%s.maxWeight";
+    public static final String EXPIRE_AFTER_ACCESS_PROPERTY = "org.kie.cache.%s.expireAfterAccessMillis";
+
+    private static final Logger logger = LoggerFactory.getLogger(WeightedLRUCache.class);
+
+    private final String name;
+    private final long maxWeight;
+    private final long expireAfterAccessMillis;
+    private final CacheStatistics statistics = new CacheStatistics(this);
+    //Access ordered, so the first entry is always the least recently used one
+    private final Map<K, Weight<V>> weights = new LinkedHashMap<K, Weight<V>>(16,
+                                                                        0.75f,
+                                                                        true);
+    private long totalWeight;
+    private ObjectName objectName;
+
+    protected WeightedLRUCache(final String name) {
+        this(name,
+             Long.getLong(String.format(MAX_WEIGHT_PROPERTY,
+                                        name),
+                          Long.MAX_VALUE),
+             Long.getLong(String.format(EXPIRE_AFTER_ACCESS_PROPERTY,
+                                        name),
+                          0L));
+    }
+
+    protected WeightedLRUCache(final String name,
+                               final long maxWeight,
+                               final long expireAfterAccessMillis) {
+        this.name = name;
+        this.maxWeight = maxWeight;
+        this.expireAfterAccessMillis = expireAfterAccessMillis;
+    }
+
+    /**
+     * Estimates the heap retained by a cache entry, in bytes. Called whenever entries are added or accessed so it must
+     * be cheap.
+     */
+    protected long weigh(final K key,
+                         final V value) {
+        return 1;
+    }
+
+    @PostConstruct
+    public void registerStatistics() {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName candidate = new ObjectName("org.kie.workbench.common:type=Cache,name=" + ObjectName.quote(name));
+            if (!server.isRegistered(candidate)) {
+                server.registerMBean(statistics,
+                                     candidate);
+                objectName = candidate;
+            }
+        } catch (Exception e) {
+            logger.warn("Unable to register statistics for cache '{}': {}",
+                        name,
+                        e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void unregisterStatistics() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (Exception e) {
+            logger.warn("Unable to unregister statistics for cache '{}': {}",
+                        name,
+                        e.getMessage());
+        } finally {
+            objectName = null;
+        }
+    }
+
+    @Override
+    public V getEntry(final K key) {
+        final V value = super.getEntry(key);
+        synchronized (weights) {
+            final Weight<V> weight = weights.get(key);
+            if (value == null) {
+                //Entry was never added or was dropped by the entry-count limit of the parent
+                untrack(key);
+                statistics.recordMiss();
+                return null;
+            }
+            final long now = currentTimeMillis();
+            if (weight != null && isExpired(weight,
+                                            now)) {
+                untrack(key);
+                super.invalidateCache(key);
+                statistics.recordExpiration();
+                statistics.recordMiss();
+                return null;
+            }
+            if (weight != null) {
+                weight.lastAccess = now;
+                //Weights may have grown since the entry was added (e.g. a Builder has since been built)
+                final long size = weigh(key,
+                                        value);
+                totalWeight += size - weight.size;
+                weight.size = size;
+            }
+        }
+        statistics.recordHit();
+        return value;
+    }
+
+    @Override
+    public void setEntry(final K key,
+                         final V value) {
+        super.setEntry(key,
+                       value);
+        synchronized (weights) {
+            final Weight<V> previous = weights.remove(key);
+            if (previous != null) {
+                totalWeight -= previous.size;
+                onRemoval(key,
+                          previous.value);
+            }
+            final Weight<V> weight = new Weight<V>(value,
+                                                   weigh(key,
+                                                         value),
+                                                   currentTimeMillis());
+            weights.put(key,
+                        weight);
+            totalWeight += weight.size;
+            evict(key);
+        }
+    }
+
+    @Override
+    public void invalidateCache() {
+        super.invalidateCache();
+        synchronized (weights) {
+            for (Map.Entry<K, Weight<V>> e : weights.entrySet()) {
+                onRemoval(e.getKey(),
+                          e.getValue().value);
+            }
+            weights.clear();
+            totalWeight = 0;
+        }
+    }
+
+    @Override
+    public void invalidateCache(final K key) {
+        super.invalidateCache(key);
+        synchronized (weights) {
+            untrack(key);
+        }
+    }
+
+    /**
+     * Looks up an entry, creating and caching it with the given loader when missing. Load times are recorded.
+     */
+    protected V getOrLoad(final K key,
+                          final Function<K, V> loader) {
+        V value = getEntry(key);
+        if (value == null) {
+            final long start = System.nanoTime();
+            value = loader.apply(key);
+            statistics.recordLoad(System.nanoTime() - start);
+            setEntry(key,
+                     value);
+        }
+        return value;
+    }
+
+    public CacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public long getExpireAfterAccessMillis() {
+        return expireAfterAccessMillis;
+    }
+
+    public long getTotalWeight() {
+        synchronized (weights) {
+            return totalWeight;
+        }
+    }
+
+    public int getEntryCount() {
+        return getKeys().size();
+    }
+
+    /**
+     * Called, holding the cache lock, once an entry has been invalidated, evicted, expired or replaced. Entries dropped
+     * by the entry-count limit of the parent are only noticed the next time the cache is accessed.
+     */
+    protected void onRemoval(final K key,
+                             final V value) {
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private void evict(final K retainedKey) {
+        removeStaleWeights();
+        expireIdleEntries(retainedKey);
+
+        final Iterator<Map.Entry<K, Weight<V>>> iterator = weights.entrySet().iterator();
+        while (totalWeight > maxWeight && iterator.hasNext()) {
+            final Map.Entry<K, Weight<V>> eldest = iterator.next();
+            //Always keep the entry just added, even if on its own it exceeds the maximum weight
+            if (eldest.getKey().equals(retainedKey)) {
+                continue;
+            }
+            iterator.remove();
+            totalWeight -= eldest.getValue().size;
+            super.invalidateCache(eldest.getKey());
+            statistics.recordEviction();
+            onRemoval(eldest.getKey(),
+                      eldest.getValue().value);
+        }
+    }
+
+    private void removeStaleWeights() {
+        //Every entry of the parent is weighed, so there are stale weights only once the parent has dropped entries
+        if (weights.size() <= getEntryCount()) {
+            return;
+        }
+        //The keys are copied with toArray(), which holds the monitor of the parent's synchronized map
+        final Set<Object> keys = new HashSet<Object>(Arrays.asList(getKeys().toArray()));
+        final Iterator<Map.Entry<K, Weight<V>>> iterator = weights.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<K, Weight<V>> e = iterator.next();
+            if (!keys.contains(e.getKey())) {
+                iterator.remove();
+                totalWeight -= e.getValue().size;
+                onRemoval(e.getKey(),
+                          e.getValue().value);
+            }
+        }
+    }
+
+    private void expireIdleEntries(final K retainedKey) {
+        if (expireAfterAccessMillis <= 0) {
+            return;
+        }
+        final long now = currentTimeMillis();
+        final List<K> expired = new ArrayList<K>();
+        //Weights are in access order, so the idle entries are the first ones
+        for (Map.Entry<K, Weight<V>> e : weights.entrySet()) {
+            if (e.getKey().equals(retainedKey)) {
+                continue;
+            }
+            if (!isExpired(e.getValue(),
+                           now)) {
+                break;
+            }
+            expired.add(e.getKey());
+        }
+        for (K key : expired) {
+            untrack(key);
+            super.invalidateCache(key);
+            statistics.recordExpiration();
+        }
+    }
+
+    private boolean isExpired(final Weight<V> weight,
+                              final long now) {
+        return expireAfterAccessMillis > 0 && now - weight.lastAccess > expireAfterAccessMillis;
+    }
+
+    private void untrack(final K key) {
+        final Weight<V> weight = weights.remove(key);
+        if (weight != null) {
+            totalWeight -= weight.size;
+            onRemoval(key,
+                      weight.value);
+        }
+    }
+
+    private static class Weight<V> {
+
+        private final V value;
+        private long size;
+        private long lastAccess;
+
+        private Weight(final V value,
+                       final long size,
+                       final long lastAccess) {
+            this.value = value;
+            this.size = size;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -142,6 +142,15 @@ public class AFMavenCli {
 
     private PrintStream output;
 
+    //Container kept between invocations when running in warm mode, see doMain(AFCliRequest, ClassWorld, boolean)
+    private PlexusContainer retainedContainer;
+
+    private ClassWorld retainedClassWorld;
+
+    private final HashMap<String, Object> retainedKieMap = new HashMap<String, Object>();
+
+    private boolean retainContainer;
+
     public AFMavenCli() {
         this.output = System.out;
     }
@@ -246,16 +255,38 @@ public class AFMavenCli {
 
     public int doMain(AFCliRequest cliRequest,
                       ClassWorld classWorld) {
+        return doMain(cliRequest,
+                      classWorld,
+                      false);
+    }
+
+    /**
+     * When retainContainer is true the plexus container, and so the components it caches (plugin realms, project
+     * dependencies, etc), is kept after the execution and reused by the next invocation of this instance, ignoring the
+     * ClassWorld passed to it, until {@link #dispose()} is called. Executions of the same instance must not overlap.
+     */
+    public int doMain(AFCliRequest cliRequest,
+                      ClassWorld classWorld,
+                      boolean retainContainer) {
 
         PlexusContainer localContainer = null;
+        this.retainContainer = retainContainer;
         try {
             initialize(cliRequest);
             cli(cliRequest);
             logging(cliRequest);
             version(cliRequest);
             properties(cliRequest);
-            localContainer = container(cliRequest,
-                                       classWorld);
+            if (retainContainer && retainedContainer != null) {
+                localContainer = reuseContainer(cliRequest);
+            } else {
+                localContainer = container(cliRequest,
+                                           classWorld);
+                if (retainContainer) {
+                    retainedContainer = localContainer;
+                    retainedClassWorld = cliRequest.getClassWorld();
+                }
+            }
             commands(cliRequest);
             configure(cliRequest);
             toolchains(cliRequest);
@@ -284,13 +315,45 @@ public class AFMavenCli {
 
             return 1;
         } finally {
-            if (localContainer != null) {
+            if (retainContainer) {
+                //Plugins publish their results in the kieMap bound in the container, hand them to this request
+                cliRequest.getMap().putAll(retainedKieMap);
+                retainedKieMap.clear();
+            } else if (localContainer != null) {
                 localContainer.dispose();
                 localContainer = null;
             }
         }
     }
 
+    /**
+     * Disposes the container retained by warm invocations, if any.
+     */
+    public void dispose() {
+        if (retainedContainer != null) {
+            retainedContainer.dispose();
+            retainedContainer = null;
+            retainedClassWorld = null;
+        }
+    }
+
+    public boolean isContainerRetained() {
+        return retainedContainer != null;
+    }
+
+    protected PlexusContainer reuseContainer(AFCliRequest cliRequest)
+            throws Exception {
+        cliRequest.setClassWorld(retainedClassWorld);
+        retainedKieMap.clear();
+        retainedContainer.getLoggerManager().setThresholds(cliRequest.getRequest().getLoggingLevel());
+        Thread.currentThread().setContextClassLoader(((DefaultPlexusContainer) retainedContainer).getContainerRealm());
+        //Event spies are closed at the end of every execution
+        eventSpies(cliRequest,
+                   retainedContainer);
+        slf4jLogger = slf4jLoggerFactory.getLogger(this.getClass().getName());
+        return retainedContainer;
+    }
+
     protected void initialize(AFCliRequest cliRequest)
             throws ExitException {
 
@@ -493,7 +556,7 @@ public class AFMavenCli {
                                                                       });
 
         //This is used to share informations at runtime between Maven plugins and our compiler
-        container.addComponent(cliRequest.getMap(),
+        container.addComponent(retainContainer ? retainedKieMap : cliRequest.getMap(),
                                HashMap.class,
                                "kieMap");
 
@@ -510,21 +573,8 @@ public class AFMavenCli {
 
         container.getLoggerManager().setThresholds(cliRequest.getRequest().getLoggingLevel());
         Thread.currentThread().setContextClassLoader(container.getContainerRealm());
-        eventSpyDispatcher = container.lookup(EventSpyDispatcher.class);
-        DefaultEventSpyContext eventSpyContext = new DefaultEventSpyContext();
-        Map<String, Object> data = eventSpyContext.getData();
-        data.put("plexus",
-                 container);
-        data.put("workingDirectory",
-                 cliRequest.getWorkingDirectory());
-        data.put("systemProperties",
-                 cliRequest.getSystemProperties());
-        data.put("userProperties",
-                 cliRequest.getUserProperties());
-        data.put("versionProperties",
-                 AFCLIReportingUtils.getBuildProperties());
-
-        eventSpyDispatcher.init(eventSpyContext);
+        eventSpies(cliRequest,
+                   container);
 
         slf4jLogger = slf4jLoggerFactory.getLogger(this.getClass().getName());
 
@@ -543,6 +593,26 @@ public class AFMavenCli {
         return container;
     }
 
+    protected void eventSpies(AFCliRequest cliRequest,
+                              PlexusContainer container)
+            throws Exception {
+        eventSpyDispatcher = container.lookup(EventSpyDispatcher.class);
+        DefaultEventSpyContext eventSpyContext = new DefaultEventSpyContext();
+        Map<String, Object> data = eventSpyContext.getData();
+        data.put("plexus",
+                 container);
+        data.put("workingDirectory",
+                 cliRequest.getWorkingDirectory());
+        data.put("systemProperties",
+                 cliRequest.getSystemProperties());
+        data.put("userProperties",
+                 cliRequest.getUserProperties());
+        data.put("versionProperties",
+                 AFCLIReportingUtils.getBuildProperties());
+
+        eventSpyDispatcher.init(eventSpyContext);
+    }
+
     protected List<CoreExtensionEntry> loadCoreExtensions(AFCliRequest cliRequest,
                                                           ClassRealm containerRealm,
                                                           Set<String> providedArtifacts) {
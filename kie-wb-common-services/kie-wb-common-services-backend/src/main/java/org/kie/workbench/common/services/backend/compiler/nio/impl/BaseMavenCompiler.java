@@ -47,13 +47,23 @@ public abstract class BaseMavenCompiler<T extends CompilationResponse> implement
 
     private static final Logger logger = LoggerFactory.getLogger(BaseMavenCompiler.class);
 
+    //Shared by all the compilers, so warm Maven contexts are reused whatever the decorators in use
+    private static final MavenCliPool SHARED_POOL = MavenCliPool.newSharedPool();
+
     private AFMavenCli cli;
 
     private IncrementalCompilerEnabler enabler;
 
+    private MavenCliPool pool;
+
     public BaseMavenCompiler() {
+        this(SHARED_POOL);
+    }
+
+    protected BaseMavenCompiler(final MavenCliPool pool) {
         cli = new AFMavenCli();
         enabler = new DefaultIncrementalCompilerEnabler(Compilers.JAVAC);
+        this.pool = pool;
     }
 
     /**
@@ -94,9 +104,26 @@ public abstract class BaseMavenCompiler<T extends CompilationResponse> implement
         ClassLoader original = Thread.currentThread().getContextClassLoader();
         ClassWorld kieClassWorld = new ClassWorld("plexus.core",
                                                   getClass().getClassLoader());
-        int exitCode = cli.doMain(req.getKieCliRequest(),
+        int exitCode;
+        if (pool.isEnabled()) {
+            MavenCliPool.PooledCli pooled = pool.borrow(req);
+            //Any unsuccessful compilation may have left the container in a bad state, so it is not reused
+            boolean healthy = false;
+            try {
+                exitCode = pooled.getCli().doMain(req.getKieCliRequest(),
+                                                  kieClassWorld,
+                                                  true);
+                healthy = exitCode == 0;
+            } finally {
+                Thread.currentThread().setContextClassLoader(original);
+                pool.release(pooled,
+                             healthy);
+            }
+        } else {
+            exitCode = cli.doMain(req.getKieCliRequest(),
                                   kieClassWorld);
-        Thread.currentThread().setContextClassLoader(original);
+            Thread.currentThread().setContextClassLoader(original);
+        }
         if (exitCode == 0) {
             return (T) buildDefaultCompilationResponse(Boolean.TRUE);
         } else {
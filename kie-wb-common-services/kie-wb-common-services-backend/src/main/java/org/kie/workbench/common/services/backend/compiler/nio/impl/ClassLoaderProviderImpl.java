@@ -55,6 +55,24 @@ public class ClassLoaderProviderImpl implements AFClassLoaderProvider {
     protected String JAVA_ARCHIVE_RESOURCE_EXT = ".jar";
     protected String FILE_URI = "file://";
 
+    /**
+     * Threads used by Maven to resolve the classpath of the modules of multi-module projects in parallel
+     */
+    public static final String CLASSPATH_THREADS_PROPERTY = "org.kie.compiler.classpath.threads";
+
+    //Shared by all the providers, so classpaths resolved by any of them are reused
+    private static final ClasspathCache SHARED_CLASSPATH_CACHE = new ClasspathCache();
+
+    private final ClasspathCache classpathCache;
+
+    public ClassLoaderProviderImpl() {
+        this(SHARED_CLASSPATH_CACHE);
+    }
+
+    public ClassLoaderProviderImpl(final ClasspathCache classpathCache) {
+        this.classpathCache = classpathCache;
+    }
+
     public static void searchCPFiles(Path file,
                                      List<String> classPathFiles,
                                      String... extensions) {
@@ -72,16 +90,36 @@ public class ClassLoaderProviderImpl implements AFClassLoaderProvider {
     }
 
     /**
-     * Execute a maven run to create the classloaders with the dependencies in the Poms, transitive inclueded
+     * Execute a maven run to create the classloaders with the dependencies in the Poms, transitive inclueded.
+     * The resolved classpath is cached until a pom or the settings change.
      */
     public Optional<ClassLoader> getClassloaderFromAllDependencies(String prjPath,
                                                                    String localRepo) {
+        List<String> poms = new ArrayList<>();
+        MavenUtils.searchPoms(Paths.get(prjPath),
+                              poms);
+        String key = classpathCache.key(poms,
+                                        localRepo);
+        Optional<List<String>> cached = classpathCache.get(key);
+        if (cached.isPresent()) {
+            return buildResult(toURLs(cached.get()));
+        }
+
         AFCompiler compiler = MavenCompilerFactory.getCompiler(Decorator.NONE);
         WorkspaceCompilationInfo info = new WorkspaceCompilationInfo(Paths.get(prjPath));
         StringBuilder sb = new StringBuilder(MavenConfig.MAVEN_DEP_PLUGING_OUTPUT_FILE).append(MavenConfig.CLASSPATH_FILENAME).append(MavenConfig.CLASSPATH_EXT);
+        List<String> args = new ArrayList<>();
+        args.add(MavenConfig.DEPS_BUILD_CLASSPATH);
+        args.add(sb.toString());
+        if (poms.size() > 1) {
+            //The modules are resolved independently, each one writes its own classpath file
+            args.add("-T");
+            args.add(System.getProperty(CLASSPATH_THREADS_PROPERTY,
+                                        "1C"));
+        }
         CompilationRequest req = new DefaultCompilationRequest(localRepo,
                                                                info,
-                                                               new String[]{MavenConfig.DEPS_BUILD_CLASSPATH, sb.toString()},
+                                                               args.toArray(new String[args.size()]),
                                                                new HashMap<>(),
                                                                Boolean.FALSE);
         CompilationResponse res = compiler.compileSync(req);
@@ -90,10 +128,17 @@ public class ClassLoaderProviderImpl implements AFClassLoaderProvider {
              it override each time and at the end only the last writted is present in  the file,
              for this reason we use a relative path and then we read each file present in each module to build a unique classpath file
              * */
-            Optional<ClassLoader> urlClassLoader = createClassloaderFromCpFiles(prjPath);
-            if (urlClassLoader != null) {
-                return urlClassLoader;
+            List<URL> deps = readAllCpFilesAsUrls(prjPath,
+                                                  MavenConfig.CLASSPATH_EXT);
+            if (!deps.isEmpty()) {
+                List<String> classpath = new ArrayList<>(deps.size());
+                for (URL dep : deps) {
+                    classpath.add(dep.toString());
+                }
+                classpathCache.put(key,
+                                   classpath);
             }
+            return buildResult(deps);
         }
         return Optional.empty();
     }
@@ -197,15 +242,16 @@ public class ClassLoaderProviderImpl implements AFClassLoaderProvider {
         }
     }
 
-    private Optional<ClassLoader> createClassloaderFromCpFiles(String prjPath) {
-        List<URL> deps = readAllCpFilesAsUrls(prjPath,
-                                              MavenConfig.CLASSPATH_EXT);
-        if (deps.isEmpty()) {
-            return Optional.empty();
-        } else {
-            URLClassLoader urlClassLoader = new URLClassLoader(deps.toArray(new URL[deps.size()]));
-            return Optional.of(urlClassLoader);
+    private List<URL> toURLs(List<String> classpath) {
+        List<URL> urls = new ArrayList<>(classpath.size());
+        for (String entry : classpath) {
+            try {
+                urls.add(new URL(entry));
+            } catch (MalformedURLException ex) {
+                logger.error(ex.getMessage());
+            }
         }
+        return urls;
     }
 
     private List<URL> readAllCpFilesAsUrls(String prjPath,
@@ -302,7 +348,9 @@ public class ClassLoaderProviderImpl implements AFClassLoaderProvider {
     }
 
     /**
-     * Provides a list of URI of all jar used in the project, dependencies plus jar created in the target folder
+     * Provides a list of URI of all jar used in the project, dependencies plus jar created in the target folder.
+     * When the build did not write the classpath files, the dependencies resolved by a previous build with the same poms
+     * are used.
      */
 
     public Optional<List<URI>> getURISFromAllDependencies(String prjPath) {
@@ -311,26 +359,50 @@ public class ClassLoaderProviderImpl implements AFClassLoaderProvider {
                       classPathFiles,
                       MavenConfig.CLASSPATH_EXT,
                       JAVA_ARCHIVE_RESOURCE_EXT);
-        if (!classPathFiles.isEmpty()) {
-            List<URI> deps = processScannedFiles(classPathFiles);
-            if (!deps.isEmpty()) {
-                return Optional.of(deps);
-            }
+        List<String> poms = new ArrayList<>();
+        MavenUtils.searchPoms(Paths.get(prjPath),
+                              poms);
+        String key = classpathCache.key(poms,
+                                        null);
+        List<URI> deps = processScannedFiles(classPathFiles,
+                                             key);
+        if (!deps.isEmpty()) {
+            return Optional.of(deps);
         }
         return Optional.empty();
     }
 
-    private List<URI> processScannedFiles(List<String> classPathFiles) {
+    private List<URI> processScannedFiles(List<String> classPathFiles,
+                                          String key) {
         List<URI> deps = new ArrayList<>();
+        List<URI> jars = new ArrayList<>();
+        boolean classPathFileFound = false;
         for (String file : classPathFiles) {
             if (file.endsWith(MavenConfig.CLASSPATH_EXT)) {
                 //the .cpath will be processed to extract the deps of each module
                 deps.addAll(readFileAsURI(file));
+                classPathFileFound = true;
             } else if (file.endsWith(JAVA_ARCHIVE_RESOURCE_EXT)) {
                 //the jar is added as is with file:// prefix
-                deps.add(URI.create(FILE_URI + file));
+                jars.add(URI.create(FILE_URI + file));
+            }
+        }
+        if (classPathFileFound) {
+            List<String> classpath = new ArrayList<>(deps.size());
+            for (URI dep : deps) {
+                classpath.add(dep.toString());
+            }
+            classpathCache.put(key,
+                               classpath);
+        } else {
+            Optional<List<String>> cached = classpathCache.get(key);
+            if (cached.isPresent()) {
+                for (String entry : cached.get()) {
+                    deps.add(URI.create(entry));
+                }
             }
         }
+        deps.addAll(jars);
         return deps;
     }
 
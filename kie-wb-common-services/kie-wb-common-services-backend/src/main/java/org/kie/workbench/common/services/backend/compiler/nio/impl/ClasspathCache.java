@@ -0,0 +1,261 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.nio.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolved dependency classpaths, keyed by a hash of the content of every pom.xml of a project, the local Maven
+ * repository and the Maven settings, so a classpath is reused until any of them changes. Classpaths are kept in memory;
+ * to survive restarts they are also stored on disk when the <code>org.kie.compiler.classpath.cache.dir</code> system
+ * property names a directory, which is made accessible by its owner only. A cached classpath referencing a jar that no
+ * longer exists is ignored.
+ */
+public class ClasspathCache {
+
+    public static final String CACHE_DIR_PROPERTY = "org.kie.compiler.classpath.cache.dir";
+
+    private static final Logger logger = LoggerFactory.getLogger(ClasspathCache.class);
+
+    private static final String EXTENSION = ".classpath";
+
+    private final Path root;
+    private final Map<String, List<String>> classpaths = new ConcurrentHashMap<>();
+
+    public ClasspathCache() {
+        this(cacheDirectory(System.getProperty(CACHE_DIR_PROPERTY)));
+    }
+
+    /**
+     * @param root directory holding the classpaths, null to keep them in memory only.
+     */
+    public ClasspathCache(final Path root) {
+        this.root = root;
+    }
+
+    /**
+     * @param poms paths of all the pom.xml of the project.
+     * @param localRepo the local Maven repository, null if not relevant.
+     * @return The key of the classpath of a project.
+     */
+    public String key(final List<String> poms,
+                      final String localRepo) {
+        final MessageDigest digest = newDigest();
+        final List<String> sorted = new ArrayList<>(poms);
+        Collections.sort(sorted);
+        for (String pom : sorted) {
+            update(digest,
+                   pom);
+            update(digest,
+                   Paths.get(pom));
+        }
+        update(digest,
+               localRepo == null ? "" : localRepo);
+        //Mirrors, repositories and profiles of the settings affect the resolution
+        update(digest,
+               Paths.get(System.getProperty("user.home"),
+                         ".m2",
+                         "settings.xml"));
+        final String customSettings = System.getProperty("kie.maven.settings.custom");
+        if (customSettings != null) {
+            update(digest,
+                   Paths.get(customSettings));
+        }
+        return toHex(digest.digest());
+    }
+
+    public Optional<List<String>> get(final String key) {
+        List<String> classpath = classpaths.get(key);
+        if (classpath == null) {
+            classpath = read(key);
+            if (classpath == null) {
+                return Optional.empty();
+            }
+            classpaths.put(key,
+                           classpath);
+        }
+        for (String entry : classpath) {
+            if (!exists(entry)) {
+                logger.debug("Cached classpath {} is stale, {} is missing",
+                             key,
+                             entry);
+                invalidate(key);
+                return Optional.empty();
+            }
+        }
+        return Optional.of(classpath);
+    }
+
+    public void put(final String key,
+                    final List<String> classpath) {
+        final List<String> copy = Collections.unmodifiableList(new ArrayList<>(classpath));
+        classpaths.put(key,
+                       copy);
+        if (root == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(root);
+            final Path tmp = Files.createTempFile(root,
+                                                  key,
+                                                  ".tmp");
+            Files.write(tmp,
+                        copy,
+                        StandardCharsets.UTF_8);
+            Files.move(tmp,
+                       root.resolve(key + EXTENSION),
+                       StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warn("Unable to store classpath {}: {}",
+                        key,
+                        e.getMessage());
+        }
+    }
+
+    public void invalidate(final String key) {
+        classpaths.remove(key);
+        if (root == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(root.resolve(key + EXTENSION));
+        } catch (IOException e) {
+            logger.warn("Unable to delete classpath {}: {}",
+                        key,
+                        e.getMessage());
+        }
+    }
+
+    private List<String> read(final String key) {
+        if (root == null) {
+            return null;
+        }
+        final Path file = root.resolve(key + EXTENSION);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return Collections.unmodifiableList(Files.readAllLines(file,
+                                                                   StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warn("Unable to read classpath {}: {}",
+                        key,
+                        e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @param directory the configured cache directory, may be null.
+     * @return The directory, restricted to its owner, or null to keep the classpaths in memory only.
+     */
+    static Path cacheDirectory(final String directory) {
+        if (directory == null || directory.trim().isEmpty()) {
+            return null;
+        }
+        final Path root = Paths.get(directory);
+        try {
+            Files.createDirectories(root);
+            if (root.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                Files.setPosixFilePermissions(root,
+                                              PosixFilePermissions.fromString("rwx------"));
+            }
+            return root;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Unable to use {} as classpath cache, classpaths are kept in memory only: {}",
+                        directory,
+                        e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @param entry a classpath entry, either a URL, as produced by {@link URL#toString()} or {@link URI#toString()}, or
+     * a file path.
+     */
+    static boolean exists(final String entry) {
+        final URL url;
+        try {
+            url = new URL(entry);
+        } catch (MalformedURLException e) {
+            return new File(entry).exists();
+        }
+        try {
+            return new File(url.toURI()).exists();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            //Not encoded, as the URLs built by appending a path to file://
+            return new File(url.getPath()).exists();
+        }
+    }
+
+    private static void update(final MessageDigest digest,
+                               final Path file) {
+        try {
+            if (Files.isRegularFile(file)) {
+                digest.update(Files.readAllBytes(file));
+            }
+        } catch (IOException e) {
+            //An unreadable file makes the key unique, so nothing is reused for it
+            update(digest,
+                   e.toString() + System.nanoTime());
+        }
+    }
+
+    private static void update(final MessageDigest digest,
+                               final String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(final byte[] bytes) {
+        final StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02x",
+                                    b));
+        }
+        return sb.toString();
+    }
+}
@@ -35,6 +35,14 @@ import org.kie.workbench.common.services.backend.compiler.nio.MavenCompiler;
  */
 public class DefaultMavenCompiler extends BaseMavenCompiler<CompilationResponse> implements MavenCompiler {
 
+    public DefaultMavenCompiler() {
+        super();
+    }
+
+    public DefaultMavenCompiler(final MavenCliPool pool) {
+        super(pool);
+    }
+
     @Override
     public CompilationResponse buildDefaultCompilationResponse(final Boolean value) {
         return new DefaultCompilationResponse(value);
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.nio.impl;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.kie.workbench.common.services.backend.compiler.external339.AFMavenCli;
+import org.kie.workbench.common.services.backend.compiler.nio.CompilationRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of warm {@link AFMavenCli}s. A warm AFMavenCli keeps its plexus container between compilations, so the
+ * following compilations of the same project with the same settings reuse the loaded plugin realms and the resolved
+ * project dependencies instead of bootstrapping Maven again.
+ * Idle AFMavenClis are keyed by Maven repository, project root, Maven arguments and custom settings; a borrowed one is
+ * used by a single compilation at a time. AFMavenClis are recycled after any unsuccessful compilation or after a number
+ * of compilations. The pool is disabled by default; it is configured with the system properties
+ * <code>org.kie.compiler.maven.pool.size</code> (idle AFMavenClis kept, 0 disables the pool) and
+ * <code>org.kie.compiler.maven.pool.maxUses</code>.
+ */
+public class MavenCliPool {
+
+    public static final String POOL_SIZE_PROPERTY = "org.kie.compiler.maven.pool.size";
+    public static final String MAX_USES_PROPERTY = "org.kie.compiler.maven.pool.maxUses";
+    public static final String CUSTOM_SETTINGS_PROPERTY = "kie.maven.settings.custom";
+
+    private static final Logger logger = LoggerFactory.getLogger(MavenCliPool.class);
+
+    private final int size;
+    private final int maxUses;
+    private final Supplier<AFMavenCli> factory;
+
+    //Most recently returned first
+    private final LinkedList<PooledCli> idle = new LinkedList<>();
+
+    private final AtomicLong reuseCount = new AtomicLong();
+
+    public MavenCliPool() {
+        this(Integer.getInteger(POOL_SIZE_PROPERTY,
+                                0),
+             Integer.getInteger(MAX_USES_PROPERTY,
+                                50),
+             AFMavenCli::new);
+    }
+
+    /**
+     * Creates a pool configured with the system properties whose idle AFMavenClis are disposed when the JVM shuts down.
+     */
+    public static MavenCliPool newSharedPool() {
+        final MavenCliPool pool = new MavenCliPool();
+        if (pool.isEnabled()) {
+            Runtime.getRuntime().addShutdownHook(new Thread(pool::clear,
+                                                            "kie-maven-cli-pool-shutdown"));
+        }
+        return pool;
+    }
+
+    public MavenCliPool(final int size,
+                        final int maxUses,
+                        final Supplier<AFMavenCli> factory) {
+        this.size = size;
+        this.maxUses = maxUses;
+        this.factory = factory;
+    }
+
+    public boolean isEnabled() {
+        return size > 0;
+    }
+
+    /**
+     * @return a warm AFMavenCli for the request when available, otherwise a new one. It must be given back with
+     * {@link #release(PooledCli, boolean)} once the compilation finished.
+     */
+    public PooledCli borrow(final CompilationRequest req) {
+        final String key = key(req);
+        synchronized (idle) {
+            final Iterator<PooledCli> iterator = idle.iterator();
+            while (iterator.hasNext()) {
+                final PooledCli pooled = iterator.next();
+                if (pooled.key.equals(key)) {
+                    iterator.remove();
+                    reuseCount.incrementAndGet();
+                    return pooled;
+                }
+            }
+        }
+        return new PooledCli(key,
+                             factory.get());
+    }
+
+    /**
+     * Gives back a borrowed AFMavenCli. Unhealthy or worn out AFMavenClis are disposed, as is the least recently used
+     * idle one when the pool is full.
+     */
+    public void release(final PooledCli pooled,
+                        final boolean healthy) {
+        pooled.uses++;
+        if (!healthy || pooled.uses >= maxUses || !pooled.cli.isContainerRetained()) {
+            logger.debug("Recycling Maven context for {} after {} compilations (healthy: {})",
+                         pooled.key,
+                         pooled.uses,
+                         healthy);
+            pooled.cli.dispose();
+            return;
+        }
+        PooledCli evicted = null;
+        synchronized (idle) {
+            idle.addFirst(pooled);
+            if (idle.size() > size) {
+                evicted = idle.removeLast();
+            }
+        }
+        if (evicted != null) {
+            evicted.cli.dispose();
+        }
+    }
+
+    /**
+     * Disposes all the idle AFMavenClis.
+     */
+    public void clear() {
+        final LinkedList<PooledCli> disposed;
+        synchronized (idle) {
+            disposed = new LinkedList<>(idle);
+            idle.clear();
+        }
+        for (PooledCli pooled : disposed) {
+            pooled.cli.dispose();
+        }
+    }
+
+    public int getIdleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    /**
+     * @return the number of compilations that reused a warm AFMavenCli.
+     */
+    public long getReuseCount() {
+        return reuseCount.get();
+    }
+
+    /**
+     * Every argument may change the settings, profiles or properties the container is configured with, so warm
+     * AFMavenClis are only reused for requests with the very same arguments.
+     */
+    static String key(final CompilationRequest req) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(req.getMavenRepo()).append('|');
+        sb.append(req.getInfo().getPrjPath().toUri()).append('|');
+        sb.append(System.getProperty(CUSTOM_SETTINGS_PROPERTY,
+                                     "")).append('|');
+        final String[] args = req.getOriginalArgs();
+        if (args != null) {
+            for (String arg : args) {
+                sb.append(arg).append(';');
+            }
+        }
+        return sb.toString();
+    }
+
+    public static class PooledCli {
+
+        private final String key;
+        private final AFMavenCli cli;
+        private int uses;
+
+        PooledCli(final String key,
+                  final AFMavenCli cli) {
+            this.key = key;
+            this.cli = cli;
+        }
+
+        public AFMavenCli getCli() {
+            return cli;
+        }
+
+        public int getUses() {
+            return uses;
+        }
+    }
+}
@@ -16,28 +16,41 @@
 
 package org.kie.workbench.common.services.backend.builder.core;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.net.URL;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
 import com.google.common.io.Resources;
+import org.drools.compiler.kie.builder.impl.MemoryKieModule;
 import org.drools.core.rule.TypeMetaInfo;
 import org.guvnor.common.services.project.builder.model.BuildMessage;
 import org.guvnor.common.services.project.builder.model.BuildResults;
+import org.guvnor.common.services.project.builder.model.IncrementalBuildResults;
 import org.guvnor.common.services.project.builder.service.BuildService;
 import org.guvnor.common.services.project.model.Module;
 import org.guvnor.common.services.project.model.POM;
+import org.guvnor.common.services.shared.message.Level;
 import org.guvnor.common.services.shared.validation.model.ValidationMessage;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.kie.api.KieServices;
 import org.kie.api.runtime.KieContainer;
 import org.kie.api.runtime.KieSession;
 import org.kie.scanner.KieModuleMetaData;
@@ -346,6 +359,175 @@ public class BuilderTest
                               new ArrayList<String>());
     }
 
+    @Test
+    public void testBuilderConcurrentIncrementalBuild() throws Exception {
+        final URL url = this.getClass().getResource("/GuvnorM2RepoDependencyExample1");
+        final SimpleFileSystemProvider p = new SimpleFileSystemProvider();
+        final org.uberfire.java.nio.file.Path path = p.getPath(url.toURI());
+
+        final Module module = moduleService.resolveModule(Paths.convert(path));
+
+        final Builder builder = new Builder(module,
+                                            ioService,
+                                            moduleService,
+                                            importsService,
+                                            new ArrayList<>(),
+                                            dependenciesClassLoaderCache,
+                                            pomModelCache,
+                                            getPackageNameWhiteListService(),
+                                            alwaysTrue,
+                                            null,
+                                            KieServices.Factory.get().newKieFileSystem(),
+                                            true);
+
+        assertTrue(builder.isConcurrentBuild());
+        assertTrue(builder.build().getErrorMessages().isEmpty());
+
+        //Readers get a snapshot that later incremental passes do not modify
+        final MemoryKieModule published = (MemoryKieModule) builder.getKieModuleIgnoringErrors();
+        final Map<String, byte[]> publishedFiles = new HashMap<>();
+        for (String fileName : published.getMemoryFileSystem().getFileNames()) {
+            publishedFiles.put(fileName,
+                               published.getMemoryFileSystem().getBytes(fileName));
+        }
+
+        final URL urlToUpdate = this.getClass().getResource("/GuvnorM2RepoDependencyExample1/src/main/resources/rule2.drl");
+        final org.uberfire.java.nio.file.Path pathToUpdate = p.getPath(urlToUpdate.toURI());
+        final IncrementalBuildResults results = builder.updateResource(pathToUpdate);
+
+        assertNotNull(results);
+        assertTrue(results.getAddedMessages().isEmpty());
+        assertNotNull(builder.getKieModuleIgnoringErrors());
+        assertNotSame(published,
+                      builder.getKieModuleIgnoringErrors());
+        assertEquals(publishedFiles.keySet(),
+                     new HashSet<>(published.getMemoryFileSystem().getFileNames()));
+        for (Map.Entry<String, byte[]> file : publishedFiles.entrySet()) {
+            assertSame(file.getKey(),
+                       file.getValue(),
+                       published.getMemoryFileSystem().getBytes(file.getKey()));
+        }
+
+        final BuilderMetrics metrics = builder.getMetrics();
+        assertEquals(1,
+                     metrics.getQueuedChanges());
+        assertEquals(1,
+                     metrics.getIncrementalBuilds());
+        assertEquals(0,
+                     metrics.getQueueDepth());
+        assertTrue(metrics.getLockAcquisitions() > 0);
+    }
+
+    @Test
+    public void testBuilderConcurrentIncrementalBuildFromManyThreads() throws Exception {
+        final URL url = this.getClass().getResource("/GuvnorM2RepoDependencyExample1");
+        final SimpleFileSystemProvider p = new SimpleFileSystemProvider();
+        final org.uberfire.java.nio.file.Path path = p.getPath(url.toURI());
+
+        final Module module = moduleService.resolveModule(Paths.convert(path));
+
+        final Builder builder = new Builder(module,
+                                            ioService,
+                                            moduleService,
+                                            importsService,
+                                            new ArrayList<>(),
+                                            dependenciesClassLoaderCache,
+                                            pomModelCache,
+                                            getPackageNameWhiteListService(),
+                                            alwaysTrue,
+                                            null,
+                                            KieServices.Factory.get().newKieFileSystem(),
+                                            true);
+
+        assertTrue(builder.build().getErrorMessages().isEmpty());
+
+        final org.uberfire.java.nio.file.Path rule1 = p.getPath(this.getClass().getResource("/GuvnorM2RepoDependencyExample1/src/main/resources/rule1.drl").toURI());
+        final org.uberfire.java.nio.file.Path rule2 = p.getPath(this.getClass().getResource("/GuvnorM2RepoDependencyExample1/src/main/resources/rule2.drl").toURI());
+        final String validRule = "package org.kie.workbench.common.services.builder.tests.test1\n" +
+                "rule R2\n" +
+                "when\n" +
+                "Bean()\n" +
+                "then\n" +
+                "end";
+
+        final int updates = 8;
+        final List<ClosingInputStream> inputStreams = new ArrayList<>();
+        final List<Callable<IncrementalBuildResults>> tasks = new ArrayList<>();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ClosingInputStream invalidInputStream = new ClosingInputStream("package org.kie.workbench.common.services.builder.tests.test1\n" +
+                                                                                     "rule R1\n" +
+                                                                                     "when\n" +
+                                                                                     "UnknownBean()\n" +
+                                                                                     "then\n" +
+                                                                                     "end");
+        inputStreams.add(invalidInputStream);
+        tasks.add(() -> {
+            start.await();
+            return builder.updateResource(rule1,
+                                          invalidInputStream);
+        });
+        for (int i = 0; i < updates; i++) {
+            final ClosingInputStream inputStream = new ClosingInputStream(validRule);
+            inputStreams.add(inputStream);
+            tasks.add(() -> {
+                start.await();
+                return builder.updateResource(rule2,
+                                              inputStream);
+            });
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        try {
+            final List<Future<IncrementalBuildResults>> futures = new ArrayList<>();
+            for (Callable<IncrementalBuildResults> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+
+            //The thread that queued the invalid rule gets its error, whichever thread built it
+            final IncrementalBuildResults invalidResults = futures.get(0).get(30,
+                                                                             TimeUnit.SECONDS);
+            assertTrue(invalidResults.getAddedMessages().stream().anyMatch(m -> Level.ERROR.equals(m.getLevel())));
+            for (Future<IncrementalBuildResults> future : futures) {
+                assertNotNull(future.get(30,
+                                         TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        //Every stream is read and closed, even those of superseded changes
+        for (ClosingInputStream inputStream : inputStreams) {
+            assertTrue(inputStream.isClosed());
+        }
+
+        final BuilderMetrics metrics = builder.getMetrics();
+        assertEquals(tasks.size(),
+                     metrics.getQueuedChanges());
+        assertTrue(metrics.getIncrementalBuilds() >= 1);
+        assertTrue(metrics.getIncrementalBuilds() <= tasks.size());
+        assertEquals(0,
+                     metrics.getQueueDepth());
+    }
+
+    private static class ClosingInputStream extends ByteArrayInputStream {
+
+        private volatile boolean closed;
+
+        ClosingInputStream(final String content) {
+            super(content.getBytes(Charset.forName("UTF-8")));
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        boolean isClosed() {
+            return closed;
+        }
+    }
+
     private PackageNameWhiteListService getPackageNameWhiteListService() {
         return new PackageNameWhiteListServiceImpl(ioService,
                                                    mock(KieModuleService.class),
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder.core;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.drools.compiler.compiler.io.memory.MemoryFileSystem;
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.guvnor.common.services.project.model.GAV;
+import org.guvnor.common.services.project.model.Module;
+import org.guvnor.common.services.project.model.POM;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.kie.api.builder.Message;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.backend.vfs.Path;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class KieModuleSnapshotStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private InternalKieModule kieModule;
+
+    private static final String DEPENDENCIES = "dependencies";
+
+    private final GAV gav = new GAV("org.kie",
+                                    "snapshot",
+                                    "1.0-SNAPSHOT");
+
+    private Module module;
+
+    private KieModuleSnapshotStore store;
+
+    private Map<String, String> hashes;
+
+    @Before
+    public void setup() throws Exception {
+        store = new KieModuleSnapshotStore(folder.newFolder().toPath());
+        hashes = new HashMap<>();
+        hashes.put("pom.xml",
+                   "1");
+        hashes.put("src/main/resources/rule.drl",
+                   "2");
+        when(kieModule.getBytes()).thenReturn(new byte[]{1, 2, 3});
+        module = module("default://master@space/repository/snapshot");
+    }
+
+    @Test
+    public void testDisabledWithoutDirectory() {
+        final KieModuleSnapshotStore disabled = new KieModuleSnapshotStore(null);
+
+        assertFalse(disabled.isEnabled());
+        disabled.save(module,
+                      hashes,
+                      DEPENDENCIES,
+                      Collections.emptyList(),
+                      kieModule);
+        assertNull(disabled.loadForWarmStart(module));
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        store.save(module,
+                   hashes,
+                   DEPENDENCIES,
+                   Collections.emptyList(),
+                   kieModule);
+
+        final KieModuleSnapshotStore.KieModuleSnapshot snapshot = store.loadForWarmStart(module);
+
+        assertNotNull(snapshot);
+        assertEquals(hashes,
+                     snapshot.getResourceHashes());
+        assertArrayEquals(new byte[]{1, 2, 3},
+                          snapshot.getKieModule());
+    }
+
+    @Test
+    public void testSnapshotIsOnlyUsedForFirstBuild() {
+        store.save(module,
+                   hashes,
+                   DEPENDENCIES,
+                   Collections.emptyList(),
+                   kieModule);
+
+        assertNotNull(store.loadForWarmStart(module));
+        assertNull(store.loadForWarmStart(module));
+    }
+
+    @Test
+    public void testInvalidate() {
+        store.save(module,
+                   hashes,
+                   DEPENDENCIES,
+                   Collections.emptyList(),
+                   kieModule);
+
+        store.invalidate(module);
+
+        assertNull(store.loadForWarmStart(module));
+    }
+
+    @Test
+    public void testSnapshotsAreKeyedByModuleRoot() {
+        store.save(module,
+                   hashes,
+                   DEPENDENCIES,
+                   Collections.emptyList(),
+                   kieModule);
+
+        assertNull(store.loadForWarmStart(module("default://dev@space/repository/snapshot")));
+        assertNull(store.loadForWarmStart(module("default://master@space/fork/snapshot")));
+        assertNotNull(store.loadForWarmStart(module));
+    }
+
+    @Test
+    public void testSaveFromKieModuleFiles() {
+        final Map<String, byte[]> files = new HashMap<>();
+        files.put("META-INF/kmodule.xml",
+                  "<kmodule/>".getBytes());
+        store.save(module,
+                   hashes,
+                   DEPENDENCIES,
+                   Collections.emptyList(),
+                   files);
+
+        final KieModuleSnapshotStore.KieModuleSnapshot snapshot = store.loadForWarmStart(module);
+
+        assertNotNull(snapshot);
+        assertArrayEquals("<kmodule/>".getBytes(),
+                          MemoryFileSystem.readFromJar(snapshot.getKieModule()).getBytes("META-INF/kmodule.xml"));
+    }
+
+    @Test
+    public void testSaveAndLoadDependenciesAndMessages() {
+        final Message error = new KieModuleSnapshotStore.SnapshotMessage(1,
+                                                                          Message.Level.ERROR,
+                                                                          "src/main/resources/rule.drl",
+                                                                          3,
+                                                                          4,
+                                                                          "Unable to resolve");
+        final Message warning = new KieModuleSnapshotStore.SnapshotMessage(2,
+                                                                            Message.Level.WARNING,
+                                                                            null,
+                                                                            0,
+                                                                            0,
+                                                                            "Deprecated");
+        store.save(module,
+                   hashes,
+                   DEPENDENCIES,
+                   Arrays.asList(error,
+                                 warning),
+                   kieModule);
+
+        final KieModuleSnapshotStore.KieModuleSnapshot snapshot = store.loadForWarmStart(module);
+
+        assertEquals(DEPENDENCIES,
+                     snapshot.getDependencies());
+        final List<Message> messages = snapshot.getMessages(Collections.emptySet());
+        assertEquals(2,
+                     messages.size());
+        assertEquals(Message.Level.ERROR,
+                     messages.get(0).getLevel());
+        assertEquals(1,
+                     messages.get(0).getId());
+        assertEquals("src/main/resources/rule.drl",
+                     messages.get(0).getPath());
+        assertEquals(3,
+                     messages.get(0).getLine());
+        assertEquals(4,
+                     messages.get(0).getColumn());
+        assertEquals("Unable to resolve",
+                     messages.get(0).getText());
+        assertNull(messages.get(1).getPath());
+
+        //The messages of changed resources are replaced by those of their incremental build
+        final List<Message> unchanged = snapshot.getMessages(Collections.singleton("src/main/resources/rule.drl"));
+        assertEquals(1,
+                     unchanged.size());
+        assertEquals("Deprecated",
+                     unchanged.get(0).getText());
+    }
+
+    @Test
+    public void testOnlyDescriptorsInvalidateSnapshots() {
+        assertTrue(KieModuleSnapshotStore.isDescriptor("pom.xml"));
+        assertTrue(KieModuleSnapshotStore.isDescriptor("kmodule.xml"));
+        assertFalse(KieModuleSnapshotStore.isDescriptor("rule.drl"));
+    }
+
+    @Test
+    public void testChangedResources() {
+        final KieModuleSnapshotStore.KieModuleSnapshot snapshot = new KieModuleSnapshotStore.KieModuleSnapshot(hashes,
+                                                                                                                 DEPENDENCIES,
+                                                                                                                 Collections.emptyList(),
+                                                                                                                 new byte[0]);
+        final Map<String, String> current = new HashMap<>(hashes);
+        current.put("src/main/resources/rule.drl",
+                    "3");
+        current.put("src/main/resources/added.drl",
+                    "4");
+
+        final Set<String> changed = snapshot.getChangedResources(current);
+
+        assertEquals(2,
+                     changed.size());
+        assertTrue(changed.contains("src/main/resources/rule.drl"));
+        assertTrue(changed.contains("src/main/resources/added.drl"));
+        assertFalse(KieModuleSnapshotStore.requiresFullBuild(changed));
+
+        current.remove("src/main/resources/added.drl");
+        current.put("pom.xml",
+                    "5");
+        assertTrue(KieModuleSnapshotStore.requiresFullBuild(snapshot.getChangedResources(current)));
+        assertTrue(snapshot.getChangedResources(Collections.emptyMap()).contains("pom.xml"));
+    }
+
+    private Module module(final String root) {
+        final Module module = mock(Module.class);
+        final Path rootPath = mock(Path.class);
+        when(rootPath.toURI()).thenReturn(root);
+        when(module.getRootPath()).thenReturn(rootPath);
+        when(module.getPom()).thenReturn(new POM(gav));
+        return module;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.kie.workbench.common.services.shared.project.KieModule;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LRUModuleDependenciesClassLoaderCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private KieModule module;
+
+    @Test
+    public void testModuleClassLoaderSurvivesEviction() throws Exception {
+        final String className = SharedDependencyClassLoadersTest.Fixture.class.getName();
+        final String entry = className.replace('.',
+                                               '/') + ".class";
+        final File jar = new File(folder.getRoot(),
+                                  "classes.jar");
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream(entry);
+             JarOutputStream jos = new JarOutputStream(new FileOutputStream(jar))) {
+            jos.putNextEntry(new ZipEntry(entry));
+            jos.write(IOUtils.toByteArray(is));
+            jos.closeEntry();
+        }
+        final LRUModuleDependenciesClassLoaderCache cache = new LRUModuleDependenciesClassLoaderCache();
+
+        //No parent, so the class can only be loaded from the jar by the dependencies ClassLoader
+        cache.setDependenciesClassLoader(module,
+                                         new URLClassLoader(new URL[]{jar.toURI().toURL()},
+                                                            null));
+        final ClassLoader moduleClassLoader = new URLClassLoader(new URL[0],
+                                                                 cache.getEntry(module));
+
+        cache.invalidateCache(module);
+
+        assertNull(cache.getEntry(module));
+        assertEquals(className,
+                     moduleClassLoader.loadClass(className).getName());
+    }
+}
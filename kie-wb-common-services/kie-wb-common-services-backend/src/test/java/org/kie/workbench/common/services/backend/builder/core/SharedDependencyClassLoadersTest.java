@@ -0,0 +1,201 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class SharedDependencyClassLoadersTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private SharedDependencyClassLoaders classLoaders;
+
+    private final ClassLoader parent = getClass().getClassLoader();
+
+    @Before
+    public void setup() {
+        classLoaders = new SharedDependencyClassLoaders();
+    }
+
+    @Test
+    public void testIdenticalDependenciesShareClassLoader() throws Exception {
+        final File jar = jar("dependency.jar",
+                             "content");
+
+        final ClassLoader first = classLoaders.acquire(new URLClassLoader(new URL[]{jar.toURI().toURL()},
+                                                                          parent));
+        final ClassLoader second = classLoaders.acquire(new URLClassLoader(new URL[]{jar.toURI().toURL()},
+                                                                           parent));
+
+        assertSame(first,
+                   second);
+        assertEquals(1,
+                     classLoaders.getSharedClassLoaderCount());
+        assertEquals(2,
+                     classLoaders.getStatistics().get(0).getReferences());
+        assertEquals(1,
+                     classLoaders.getStatistics().get(0).getJarCount());
+        assertNotNull(first.getResource("resource.txt"));
+    }
+
+    @Test
+    public void testChangedJarIsNotShared() throws Exception {
+        final File jar = jar("dependency.jar",
+                             "content");
+        final ClassLoader first = classLoaders.acquire(new URLClassLoader(new URL[]{jar.toURI().toURL()},
+                                                                          parent));
+
+        jar("dependency.jar",
+            "changed content");
+        jar.setLastModified(jar.lastModified() + 2000);
+        final ClassLoader second = classLoaders.acquire(new URLClassLoader(new URL[]{jar.toURI().toURL()},
+                                                                           parent));
+
+        assertNotSame(first,
+                      second);
+        assertEquals(2,
+                     classLoaders.getSharedClassLoaderCount());
+    }
+
+    @Test
+    public void testDifferentParentIsNotShared() throws Exception {
+        final File jar = jar("dependency.jar",
+                             "content");
+        final ClassLoader first = classLoaders.acquire(new URLClassLoader(new URL[]{jar.toURI().toURL()},
+                                                                          parent));
+        final ClassLoader second = classLoaders.acquire(new URLClassLoader(new URL[]{jar.toURI().toURL()},
+                                                                           new URLClassLoader(new URL[0],
+                                                                                              parent)));
+
+        assertNotSame(first,
+                      second);
+    }
+
+    @Test
+    public void testReleaseDropsUnreferencedClassLoader() throws Exception {
+        final File jar = jar("dependency.jar",
+                             "content");
+        final ClassLoader first = classLoaders.acquire(new URLClassLoader(new URL[]{jar.toURI().toURL()},
+                                                                          parent));
+        classLoaders.acquire(first);
+
+        classLoaders.release(first);
+        assertEquals(1,
+                     classLoaders.getSharedClassLoaderCount());
+
+        classLoaders.release(first);
+        assertEquals(0,
+                     classLoaders.getSharedClassLoaderCount());
+    }
+
+    @Test
+    public void testReleasedClassLoaderRemainsUsable() throws Exception {
+        final File jar = jar("dependency.jar",
+                             "content");
+        final ClassLoader first = classLoaders.acquire(new URLClassLoader(new URL[]{jar.toURI().toURL()},
+                                                                          parent));
+
+        classLoaders.release(first);
+
+        //Module ClassLoaders created on top of it may outlive the last reference
+        assertNotNull(first.getResource("resource.txt"));
+        //A released ClassLoader is never handed out again
+        assertNotSame(first,
+                      classLoaders.acquire(first));
+    }
+
+    @Test
+    public void testNonURLClassLoaderIsNotShared() {
+        final ClassLoader classLoader = new ClassLoader(parent) {
+        };
+
+        assertSame(classLoader,
+                   classLoaders.acquire(classLoader));
+        assertEquals(0,
+                     classLoaders.getSharedClassLoaderCount());
+    }
+
+    @Test
+    public void testSharedClassLoaderIsWeighedOnce() throws Exception {
+        final String entry = Fixture.class.getName().replace('.',
+                                                             '/') + ".class";
+        final byte[] bytes;
+        try (InputStream is = parent.getResourceAsStream(entry)) {
+            bytes = IOUtils.toByteArray(is);
+        }
+        final File jar = jar("classes.jar",
+                             entry,
+                             bytes);
+
+        //No parent, so the class is defined by the shared ClassLoader itself
+        final ClassLoader first = classLoaders.acquire(new URLClassLoader(new URL[]{jar.toURI().toURL()},
+                                                                          null));
+        assertEquals(1,
+                     classLoaders.getRetainedSizePerReference(first));
+
+        first.loadClass(Fixture.class.getName());
+        assertEquals(bytes.length,
+                     classLoaders.getRetainedSizePerReference(first));
+
+        final ClassLoader second = classLoaders.acquire(new URLClassLoader(new URL[]{jar.toURI().toURL()},
+                                                                           null));
+        assertSame(first,
+                   second);
+        assertEquals(bytes.length / 2,
+                     classLoaders.getRetainedSizePerReference(first));
+    }
+
+    private File jar(final String name,
+                     final String content) throws Exception {
+        return jar(name,
+                   "resource.txt",
+                   content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private File jar(final String name,
+                     final String entry,
+                     final byte[] content) throws Exception {
+        final File file = new File(folder.getRoot(),
+                                   name);
+        try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(file))) {
+            jos.putNextEntry(new ZipEntry(entry));
+            jos.write(content);
+            jos.closeEntry();
+        }
+        return file;
+    }
+
+    public static class Fixture {
+
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.guvnor.common.services.project.builder.model.BuildResults;
+import org.guvnor.common.services.project.model.GAV;
+import org.guvnor.common.services.project.model.Module;
+import org.guvnor.common.services.project.model.POM;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.backend.vfs.Path;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BuildSchedulerTest {
+
+    @Mock
+    private BuildServiceHelper buildServiceHelper;
+
+    private BuildScheduler scheduler;
+
+    @After
+    public void tearDown() {
+        if (scheduler != null) {
+            scheduler.destroy();
+        }
+    }
+
+    @Test
+    public void testSpaceKey() {
+        assertEquals("space",
+                     BuildScheduler.spaceKey("default://master@space/repository/module"));
+        assertEquals("space",
+                     BuildScheduler.spaceKey("default://space/repository/module"));
+        assertEquals("space",
+                     BuildScheduler.spaceKey("default://master@space"));
+    }
+
+    @Test
+    public void testBuildRequestedWhileRunningSupersedesAndIsMerged() throws Exception {
+        final Module module = module("default://master@space/repository/module",
+                                     "module");
+        final BuildResults first = new BuildResults();
+        final BuildResults second = new BuildResults();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(buildServiceHelper.localBuild(module)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return first;
+        }).thenReturn(second);
+        scheduler = scheduler(2);
+
+        final CompletableFuture<BuildResults> running = scheduler.schedule(module);
+        assertTrue(started.await(5,
+                                 TimeUnit.SECONDS));
+        final CompletableFuture<BuildResults> waiting = scheduler.schedule(module);
+        final CompletableFuture<BuildResults> merged = scheduler.schedule(module);
+
+        assertSame(waiting,
+                   merged);
+        assertEquals(1,
+                     scheduler.getRunningBuilds());
+        assertEquals(1,
+                     scheduler.getWaitingBuilds());
+
+        release.countDown();
+
+        assertSame(second,
+                   waiting.get(5,
+                               TimeUnit.SECONDS));
+        assertSame(second,
+                   running.get(5,
+                               TimeUnit.SECONDS));
+        verify(buildServiceHelper,
+               times(2)).localBuild(module);
+    }
+
+    @Test
+    public void testCancelWaitingBuild() throws Exception {
+        final Module busy = module("default://master@space/repository/busy",
+                                   "busy");
+        final Module other = module("default://master@space/repository/other",
+                                    "other");
+        final CountDownLatch release = new CountDownLatch(1);
+        when(buildServiceHelper.localBuild(busy)).thenAnswer(invocation -> {
+            release.await();
+            return new BuildResults();
+        });
+        scheduler = scheduler(1);
+
+        final CompletableFuture<BuildResults> busyFuture = scheduler.schedule(busy);
+        final CompletableFuture<BuildResults> otherFuture = scheduler.schedule(other);
+
+        assertTrue(scheduler.cancel(other));
+        assertFalse(scheduler.cancel(other));
+        assertTrue(otherFuture.isCancelled());
+
+        release.countDown();
+        busyFuture.get(5,
+                       TimeUnit.SECONDS);
+        verify(buildServiceHelper,
+               never()).localBuild(other);
+    }
+
+    @Test
+    public void testSupersededRunningBuildIsCancelled() throws Exception {
+        final Module module = module("default://master@space/repository/module",
+                                     "module");
+        final BuildResults second = new BuildResults();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        when(buildServiceHelper.localBuild(module)).thenAnswer(invocation -> {
+            started.countDown();
+            try {
+                while (true) {
+                    interrupted.compareAndSet(false,
+                                              Thread.currentThread().isInterrupted());
+                    BuildScheduler.checkCancelled();
+                    Thread.sleep(10);
+                }
+            } catch (BuildCancelledException e) {
+                cancelled.countDown();
+                throw e;
+            }
+        }).thenReturn(second);
+        scheduler = scheduler(1);
+
+        final CompletableFuture<BuildResults> running = scheduler.schedule(module);
+        assertTrue(started.await(5,
+                                 TimeUnit.SECONDS));
+        final CompletableFuture<BuildResults> newer = scheduler.schedule(module);
+
+        assertTrue(cancelled.await(5,
+                                   TimeUnit.SECONDS));
+        assertSame(second,
+                   newer.get(5,
+                             TimeUnit.SECONDS));
+        assertSame(second,
+                   running.get(5,
+                               TimeUnit.SECONDS));
+        //The build is cancelled cooperatively, so IO it performs is never interrupted
+        assertFalse(interrupted.get());
+    }
+
+    @Test
+    public void testCheckCancelledOutsideBuildThread() {
+        BuildScheduler.checkCancelled();
+    }
+
+    @Test
+    public void testBuildWaitsForScheduledBuild() {
+        final Module module = module("default://master@space/repository/module",
+                                     "module");
+        final Module nested = module("default://master@space/repository/nested",
+                                     "nested");
+        final BuildResults results = new BuildResults();
+        final BuildResults nestedResults = new BuildResults();
+        scheduler = scheduler(1);
+        //A build requested from the only build thread runs on it instead of waiting for a free build thread
+        when(buildServiceHelper.localBuild(module)).thenAnswer(invocation -> {
+            assertSame(nestedResults,
+                       scheduler.build(nested));
+            return results;
+        });
+        when(buildServiceHelper.localBuild(nested)).thenReturn(nestedResults);
+
+        assertSame(results,
+                   scheduler.build(module));
+    }
+
+    private BuildScheduler scheduler(final int threads) {
+        final BuildScheduler buildScheduler = new BuildScheduler(buildServiceHelper,
+                                                                 threads);
+        buildScheduler.init();
+        return buildScheduler;
+    }
+
+    private Module module(final String uri,
+                          final String artifactId) {
+        final Path rootPath = mock(Path.class);
+        when(rootPath.toURI()).thenReturn(uri);
+        final Module module = mock(Module.class);
+        when(module.getRootPath()).thenReturn(rootPath);
+        when(module.getModuleName()).thenReturn(artifactId);
+        when(module.getPom()).thenReturn(new POM(new GAV("org.kie",
+                                                         artifactId,
+                                                         "1.0")));
+        return module;
+    }
+}
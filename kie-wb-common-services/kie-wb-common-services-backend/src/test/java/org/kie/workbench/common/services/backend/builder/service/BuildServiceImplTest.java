@@ -54,6 +54,9 @@ public class BuildServiceImplTest {
     @Mock
     private BuildServiceHelper buildServiceHelper;
 
+    @Mock
+    private BuildScheduler buildScheduler;
+
     private BuildServiceImpl buildService;
 
     @Mock
@@ -81,12 +84,13 @@ public class BuildServiceImplTest {
     public void setUp() {
         buildService = new BuildServiceImpl(moduleService,
                                             buildServiceHelper,
-                                            cache);
+                                            cache,
+                                            buildScheduler);
     }
 
     @Test
     public void testBuild() {
-        when(buildServiceHelper.localBuild(module)).thenReturn(buildResults);
+        when(buildScheduler.build(module)).thenReturn(buildResults);
         BuildResults result = buildService.build(module);
         assertEquals(buildResults,
                      result);
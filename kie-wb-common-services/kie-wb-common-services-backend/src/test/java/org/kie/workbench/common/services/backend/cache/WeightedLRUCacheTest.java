@@ -0,0 +1,215 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class WeightedLRUCacheTest {
+
+    private TestCache cache;
+
+    @Before
+    public void setup() {
+        cache = new TestCache(10,
+                              1000);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvictedWhenOverweight() {
+        cache.setEntry("a",
+                       "xxxx");
+        cache.setEntry("b",
+                       "xxxx");
+        assertEquals("xxxx",
+                     cache.getEntry("a"));
+
+        cache.setEntry("c",
+                       "xxxx");
+
+        assertNotNull(cache.getEntry("a"));
+        assertNull(cache.getEntry("b"));
+        assertNotNull(cache.getEntry("c"));
+        assertEquals(8,
+                     cache.getTotalWeight());
+        assertEquals(1,
+                     cache.getStatistics().getEvictionCount());
+    }
+
+    @Test
+    public void testOverweightEntryIsRetained() {
+        cache.setEntry("a",
+                       "xx");
+        cache.setEntry("b",
+                       "xxxxxxxxxxxx");
+
+        assertNull(cache.getEntry("a"));
+        assertNotNull(cache.getEntry("b"));
+        assertEquals(12,
+                     cache.getTotalWeight());
+    }
+
+    @Test
+    public void testEntriesAreReweighedWhenAccessed() {
+        cache.setEntry("a",
+                       "xx");
+        cache.setEntry("b",
+                       "xx");
+        cache.sizes.put("a",
+                        9L);
+
+        assertNotNull(cache.getEntry("a"));
+        assertEquals(11,
+                     cache.getTotalWeight());
+
+        cache.setEntry("c",
+                       "x");
+
+        assertNotNull(cache.getEntry("a"));
+        assertNull(cache.getEntry("b"));
+        assertNotNull(cache.getEntry("c"));
+        assertEquals(10,
+                     cache.getTotalWeight());
+    }
+
+    @Test
+    public void testIdleEntriesExpire() {
+        cache.setEntry("a",
+                       "x");
+        cache.now = 500;
+        cache.setEntry("b",
+                       "x");
+        cache.now = 1200;
+
+        assertNull(cache.getEntry("a"));
+        assertNotNull(cache.getEntry("b"));
+        assertEquals(1,
+                     cache.getStatistics().getExpirationCount());
+    }
+
+    @Test
+    public void testInvalidateCacheReleasesWeight() {
+        cache.setEntry("a",
+                       "xxx");
+        cache.invalidateCache("a");
+
+        assertEquals(0,
+                     cache.getTotalWeight());
+        assertNull(cache.getEntry("a"));
+    }
+
+    @Test
+    public void testInvalidateWholeCacheReleasesWeights() {
+        cache.setEntry("a",
+                       "xxx");
+        cache.setEntry("b",
+                       "yyyy");
+        cache.invalidateCache();
+
+        assertEquals(0,
+                     cache.getTotalWeight());
+        assertEquals(2,
+                     cache.removed.size());
+        assertNull(cache.getEntry("a"));
+        assertNull(cache.getEntry("b"));
+    }
+
+    @Test
+    public void testRemovedEntriesAreNotified() {
+        cache = new TestCache(6,
+                              0);
+        cache.setEntry("a",
+                       "xxx");
+        cache.setEntry("a",
+                       "yyy");
+        cache.setEntry("b",
+                       "zzzz");
+        cache.invalidateCache("b");
+
+        assertEquals(3,
+                     cache.removed.size());
+        assertEquals("xxx",
+                     cache.removed.get(0));
+        assertEquals("yyy",
+                     cache.removed.get(1));
+        assertEquals("zzzz",
+                     cache.removed.get(2));
+    }
+
+    @Test
+    public void testStatistics() {
+        assertEquals("loaded",
+                     cache.getOrLoad("a",
+                                     key -> "loaded"));
+        assertEquals("loaded",
+                     cache.getOrLoad("a",
+                                     key -> "reloaded"));
+
+        final CacheStatistics statistics = cache.getStatistics();
+        assertEquals("TestCache",
+                     statistics.getName());
+        assertEquals(1,
+                     statistics.getHitCount());
+        assertEquals(1,
+                     statistics.getMissCount());
+        assertEquals(1,
+                     statistics.getLoadCount());
+        assertEquals(0.5,
+                     statistics.getHitRate(),
+                     0.0);
+        assertEquals(1,
+                     statistics.getEntryCount());
+    }
+
+    private static class TestCache extends WeightedLRUCache<String, String> {
+
+        private long now;
+        private final List<String> removed = new ArrayList<>();
+        private final Map<String, Long> sizes = new HashMap<>();
+
+        private TestCache(final long maxWeight,
+                          final long expireAfterAccessMillis) {
+            super("TestCache",
+                  maxWeight,
+                  expireAfterAccessMillis);
+        }
+
+        @Override
+        protected long weigh(final String key,
+                             final String value) {
+            return sizes.containsKey(key) ? sizes.get(key) : value.length();
+        }
+
+        @Override
+        protected void onRemoval(final String key,
+                                 final String value) {
+            removed.add(value);
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.backend.compiler.nio;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kie.workbench.common.services.backend.compiler.nio.impl.ClasspathCache;
+
+import static org.junit.Assert.*;
+
+public class ClasspathCacheTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private File pom;
+    private File jar;
+
+    @Before
+    public void setUp() throws Exception {
+        pom = temp.newFile("pom.xml");
+        Files.write(pom.toPath(),
+                    "<project/>".getBytes());
+        jar = temp.newFile("dependency.jar");
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(ClasspathCache.CACHE_DIR_PROPERTY);
+    }
+
+    @Test
+    public void testKeyChangesWithPomContent() throws Exception {
+        final ClasspathCache cache = new ClasspathCache(null);
+        final List<String> poms = Collections.singletonList(pom.getAbsolutePath());
+        final String key = cache.key(poms,
+                                     "/repository");
+
+        assertEquals(key,
+                     cache.key(poms,
+                               "/repository"));
+        assertNotEquals(key,
+                        cache.key(poms,
+                                  "/another-repository"));
+
+        Files.write(pom.toPath(),
+                    "<project><dependencies/></project>".getBytes());
+
+        assertNotEquals(key,
+                        cache.key(poms,
+                                  "/repository"));
+    }
+
+    @Test
+    public void testClasspathIsStoredOnDisk() throws Exception {
+        final File root = temp.newFolder("cache");
+        final String key = new ClasspathCache(root.toPath()).key(Collections.singletonList(pom.getAbsolutePath()),
+                                                                 null);
+        final List<String> classpath = Arrays.asList("file://" + jar.getAbsolutePath(),
+                                                     jar.getAbsolutePath());
+        new ClasspathCache(root.toPath()).put(key,
+                                              classpath);
+
+        final Optional<List<String>> cached = new ClasspathCache(root.toPath()).get(key);
+
+        assertTrue(cached.isPresent());
+        assertEquals(classpath,
+                     cached.get());
+    }
+
+    @Test
+    public void testClasspathWithMissingJarIsDiscarded() throws Exception {
+        final File root = temp.newFolder("cache");
+        final ClasspathCache cache = new ClasspathCache(root.toPath());
+        cache.put("key",
+                  Collections.singletonList("file://" + jar.getAbsolutePath()));
+        assertTrue(cache.get("key").isPresent());
+
+        assertTrue(jar.delete());
+
+        assertFalse(cache.get("key").isPresent());
+        assertFalse(new File(root,
+                             "key.classpath").exists());
+    }
+
+    @Test
+    public void testClasspathOfUrlsIsReused() throws Exception {
+        final ClasspathCache cache = new ClasspathCache(null);
+        //As produced by ClassLoaderProviderImpl, from the URLs and URIs of the classpath files
+        final List<String> classpath = Arrays.asList(new URL("file://" + jar.getAbsolutePath()).toString(),
+                                                     jar.toURI().toURL().toString(),
+                                                     jar.toURI().toString());
+        cache.put("key",
+                  classpath);
+
+        final Optional<List<String>> cached = cache.get("key");
+
+        assertTrue(cached.isPresent());
+        assertEquals(classpath,
+                     cached.get());
+
+        assertTrue(jar.delete());
+
+        assertFalse(cache.get("key").isPresent());
+    }
+
+    @Test
+    public void testDiskCacheIsDisabledByDefault() throws Exception {
+        System.clearProperty(ClasspathCache.CACHE_DIR_PROPERTY);
+        new ClasspathCache().put("key",
+                                 Collections.singletonList(jar.getAbsolutePath()));
+
+        assertFalse(new ClasspathCache().get("key").isPresent());
+    }
+
+    @Test
+    public void testDiskCacheIsOwnerOnly() throws Exception {
+        Assume.assumeTrue(temp.getRoot().toPath().getFileSystem().supportedFileAttributeViews().contains("posix"));
+        final File root = new File(temp.getRoot(),
+                                   "cache");
+        System.setProperty(ClasspathCache.CACHE_DIR_PROPERTY,
+                           root.getAbsolutePath());
+        new ClasspathCache().put("key",
+                                 Collections.singletonList(jar.getAbsolutePath()));
+
+        assertEquals("rwx------",
+                     PosixFilePermissions.toString(Files.getPosixFilePermissions(root.toPath())));
+        assertTrue(new ClasspathCache().get("key").isPresent());
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.compiler.nio;
+
+import java.net.URI;
+import java.util.HashMap;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.services.backend.compiler.CompilationResponse;
+import org.kie.workbench.common.services.backend.compiler.TestUtil;
+import org.kie.workbench.common.services.backend.compiler.configuration.MavenCLIArgs;
+import org.kie.workbench.common.services.backend.compiler.external339.AFMavenCli;
+import org.kie.workbench.common.services.backend.compiler.nio.impl.DefaultCompilationRequest;
+import org.kie.workbench.common.services.backend.compiler.nio.impl.DefaultMavenCompiler;
+import org.kie.workbench.common.services.backend.compiler.nio.impl.MavenCliPool;
+import org.uberfire.java.nio.file.Files;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.Paths;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class MavenCliPoolTest {
+
+    private MavenCliPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new MavenCliPool(1,
+                                3,
+                                () -> {
+                                    final AFMavenCli cli = mock(AFMavenCli.class);
+                                    when(cli.isContainerRetained()).thenReturn(true);
+                                    return cli;
+                                });
+    }
+
+    @Test
+    public void testWarmCliIsReusedForSameProject() {
+        final MavenCliPool.PooledCli first = pool.borrow(request("file:///project",
+                                                                 "-s",
+                                                                 "settings.xml"));
+        pool.release(first,
+                     true);
+
+        final MavenCliPool.PooledCli second = pool.borrow(request("file:///project",
+                                                                  "-s",
+                                                                  "settings.xml"));
+
+        assertSame(first,
+                   second);
+        assertEquals(0,
+                     pool.getIdleCount());
+    }
+
+    @Test
+    public void testWarmCliIsNotSharedBetweenProjectsOrSettings() {
+        final MavenCliPool.PooledCli first = pool.borrow(request("file:///project",
+                                                                 "-s",
+                                                                 "settings.xml"));
+        pool.release(first,
+                     true);
+
+        assertNotSame(first,
+                      pool.borrow(request("file:///other")));
+        assertNotSame(first,
+                      pool.borrow(request("file:///project",
+                                          "-s",
+                                          "other-settings.xml")));
+    }
+
+    @Test
+    public void testWarmCliIsNotSharedBetweenArguments() {
+        final MavenCliPool.PooledCli first = pool.borrow(request("file:///project",
+                                                                 "-Pprofile"));
+        pool.release(first,
+                     true);
+
+        assertNotSame(first,
+                      pool.borrow(request("file:///project",
+                                          "-Pother")));
+        assertSame(first,
+                   pool.borrow(request("file:///project",
+                                       "-Pprofile")));
+    }
+
+    @Test
+    public void testWarmCliIsNotSharedBetweenCustomSettings() {
+        final String customSettings = System.getProperty(MavenCliPool.CUSTOM_SETTINGS_PROPERTY);
+        try {
+            System.setProperty(MavenCliPool.CUSTOM_SETTINGS_PROPERTY,
+                               "settings.xml");
+            final MavenCliPool.PooledCli first = pool.borrow(request("file:///project"));
+            pool.release(first,
+                         true);
+
+            System.setProperty(MavenCliPool.CUSTOM_SETTINGS_PROPERTY,
+                               "other-settings.xml");
+            assertNotSame(first,
+                          pool.borrow(request("file:///project")));
+        } finally {
+            if (customSettings == null) {
+                System.clearProperty(MavenCliPool.CUSTOM_SETTINGS_PROPERTY);
+            } else {
+                System.setProperty(MavenCliPool.CUSTOM_SETTINGS_PROPERTY,
+                                   customSettings);
+            }
+        }
+    }
+
+    @Test
+    public void testPoolIsDisabledByDefault() {
+        if (System.getProperty(MavenCliPool.POOL_SIZE_PROPERTY) == null) {
+            assertFalse(new MavenCliPool().isEnabled());
+        }
+    }
+
+    @Test
+    public void testContainerIsReusedBetweenCompilations() throws Exception {
+        final Path mavenRepo = Paths.get(System.getProperty("user.home"),
+                                         "/.m2/repository");
+        Files.createDirectories(mavenRepo);
+        final Path tmpRoot = Files.createTempDirectory("repo");
+        final Path temp = Files.createDirectories(Paths.get(tmpRoot.toString(),
+                                                            "dummy"));
+        TestUtil.copyTree(Paths.get("src/test/projects/dummy"),
+                          temp);
+        final MavenCliPool warmPool = new MavenCliPool(1,
+                                                       10,
+                                                       AFMavenCli::new);
+        try {
+            final DefaultMavenCompiler compiler = new DefaultMavenCompiler(warmPool);
+            final WorkspaceCompilationInfo info = new WorkspaceCompilationInfo(temp);
+            for (int i = 0; i < 2; i++) {
+                final CompilationResponse res = compiler.compileSync(new DefaultCompilationRequest(mavenRepo.toAbsolutePath().toString(),
+                                                                                                   info,
+                                                                                                   new String[]{MavenCLIArgs.COMPILE},
+                                                                                                   new HashMap<>(),
+                                                                                                   Boolean.FALSE));
+                assertTrue(res.isSuccessful());
+            }
+
+            assertEquals(1,
+                         warmPool.getReuseCount());
+            assertEquals(1,
+                         warmPool.getIdleCount());
+        } finally {
+            warmPool.clear();
+            TestUtil.rm(tmpRoot.toFile());
+        }
+    }
+
+    @Test
+    public void testUnhealthyCliIsRecycled() {
+        final MavenCliPool.PooledCli pooled = pool.borrow(request("file:///project"));
+        pool.release(pooled,
+                     false);
+
+        verify(pooled.getCli()).dispose();
+        assertEquals(0,
+                     pool.getIdleCount());
+    }
+
+    @Test
+    public void testCliIsRecycledAfterMaxUses() {
+        MavenCliPool.PooledCli pooled = null;
+        for (int i = 0; i < 3; i++) {
+            pooled = pool.borrow(request("file:///project"));
+            pool.release(pooled,
+                         true);
+        }
+
+        assertEquals(3,
+                     pooled.getUses());
+        verify(pooled.getCli()).dispose();
+        assertEquals(0,
+                     pool.getIdleCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedCliIsDisposedWhenFull() {
+        final MavenCliPool.PooledCli first = pool.borrow(request("file:///first"));
+        final MavenCliPool.PooledCli second = pool.borrow(request("file:///second"));
+        pool.release(first,
+                     true);
+        pool.release(second,
+                     true);
+
+        verify(first.getCli()).dispose();
+        verify(second.getCli(),
+               never()).dispose();
+        assertEquals(1,
+                     pool.getIdleCount());
+
+        pool.clear();
+        verify(second.getCli()).dispose();
+    }
+
+    private CompilationRequest request(final String project,
+                                       final String... args) {
+        final Path path = mock(Path.class);
+        when(path.toUri()).thenReturn(URI.create(project));
+        final CompilationRequest req = mock(CompilationRequest.class);
+        when(req.getMavenRepo()).thenReturn("/m2");
+        when(req.getInfo()).thenReturn(new WorkspaceCompilationInfo(path));
+        when(req.getOriginalArgs()).thenReturn(args);
+        return req;
+    }
+}
@@ -17,6 +17,8 @@ package org.kie.workbench.common.stunner.core.definition.service;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 
 import org.kie.workbench.common.stunner.core.diagram.Diagram;
 import org.kie.workbench.common.stunner.core.diagram.Metadata;
@@ -48,6 +50,21 @@ public interface DiagramMarshaller<G extends Graph, M extends Metadata, D extend
      */
     String marshall(final D diagram) throws IOException;
 
+    /**
+     * Serializes a diagram instance of type <code>D</code>, encoded in UTF-8, into the given output stream.
+     * The stream is flushed but not closed.
+     * By default it writes the value returned by {@link #marshall(Diagram)}, marshallers producing large
+     * documents can override it so the serialized diagram is never held in memory as a whole.
+     * @param diagram The diagram instance to serialize.
+     * @param output The output stream the serialized diagram's raw value is written to.
+     * @throws IOException System I/O error.
+     */
+    default void marshall(final D diagram,
+                          final OutputStream output) throws IOException {
+        output.write(marshall(diagram).getBytes(StandardCharsets.UTF_8));
+        output.flush();
+    }
+
     /**
      * Provides a un/marshaller instance for the Diagram's metadata.
      * @return The diagram's metadata marshaller.
@@ -29,7 +29,8 @@ public interface RuleSet {
     String getName();
 
     /**
-     * Returns the rule instances for this rule set.
+     * Returns the rule instances for this rule set. They must not change once the rule set is evaluated, as rule
+     * managers may index them.
      */
     Iterable<Rule> getRules();
 }
@@ -18,16 +18,22 @@ package org.kie.workbench.common.stunner.core.backend.service;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.Set;
 
 import javax.enterprise.inject.Instance;
 
 import org.kie.workbench.common.stunner.core.api.DefinitionManager;
 import org.kie.workbench.common.stunner.core.api.FactoryManager;
+import org.kie.workbench.common.stunner.core.backend.util.SpooledOutputStream;
 import org.kie.workbench.common.stunner.core.definition.adapter.binding.BindableAdapterUtils;
 import org.kie.workbench.common.stunner.core.definition.property.PropertyMetaTypes;
 import org.kie.workbench.common.stunner.core.definition.service.DefinitionSetService;
@@ -48,9 +54,12 @@ import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.io.IOService;
 import org.uberfire.java.nio.IOException;
+import org.uberfire.java.nio.channels.SeekableByteChannel;
 import org.uberfire.java.nio.file.FileAlreadyExistsException;
 import org.uberfire.java.nio.file.FileVisitResult;
+import org.uberfire.java.nio.file.OpenOption;
 import org.uberfire.java.nio.file.SimpleFileVisitor;
+import org.uberfire.java.nio.file.StandardOpenOption;
 import org.uberfire.java.nio.file.attribute.BasicFileAttributes;
 import org.uberfire.workbench.type.ResourceTypeDefinition;
 
@@ -261,6 +270,41 @@ public abstract class AbstractVFSDiagramService<M extends Metadata, D extends Di
         return new String[]{rawData, metadataRaw};
     }
 
+    @SuppressWarnings("unchecked")
+    protected void serialize(final D diagram,
+                             final OutputStream output) throws java.io.IOException {
+        final String defSetId = diagram.getMetadata().getDefinitionSetId();
+        final DefinitionSetService services = getServiceById(defSetId);
+        // Serialize using the concrete marshalling service.
+        DiagramMarshaller<Graph, Metadata, Diagram<Graph, Metadata>> marshaller = services.getDiagramMarshaller();
+        marshaller.marshall((Diagram<Graph, Metadata>) diagram,
+                            output);
+    }
+
+    /**
+     * Serializes the diagram to the given path without holding the diagram's raw data in memory as a whole.
+     * The document is spooled to a local temporary file first and the path is only written once the marshaller
+     * completes, so a marshalling error leaves the path untouched rather than committing a truncated document.
+     */
+    protected void write(final org.uberfire.java.nio.file.Path path,
+                         final D diagram,
+                         final Map<String, ?> attributes,
+                         final OpenOption... options) throws java.io.IOException {
+        try (final SpooledOutputStream spooled = new SpooledOutputStream()) {
+            serialize(diagram,
+                      spooled);
+            final PathOutputStream output = new PathOutputStream(path,
+                                                                 attributes,
+                                                                 options);
+            try {
+                output.open();
+                spooled.writeTo(output);
+            } finally {
+                output.close();
+            }
+        }
+    }
+
     public boolean contains(final D item) {
         return null != getDiagramByPath(item.getMetadata().getPath());
     }
@@ -374,4 +418,59 @@ public abstract class AbstractVFSDiagramService<M extends Metadata, D extends Di
     protected DiagramRegistry<D> getRegistry() {
         return registry;
     }
+
+    private class PathOutputStream extends OutputStream {
+
+        private final org.uberfire.java.nio.file.Path path;
+        private final Map<String, ?> attributes;
+        private final OpenOption[] options;
+        private SeekableByteChannel channel;
+
+        private PathOutputStream(final org.uberfire.java.nio.file.Path path,
+                                 final Map<String, ?> attributes,
+                                 final OpenOption[] options) {
+            this.path = path;
+            this.attributes = attributes;
+            this.options = options;
+        }
+
+        @Override
+        public void write(final int b) throws java.io.IOException {
+            write(new byte[]{(byte) b},
+                  0,
+                  1);
+        }
+
+        @Override
+        public void write(final byte[] b,
+                          final int off,
+                          final int len) throws java.io.IOException {
+            open();
+            final ByteBuffer buffer = ByteBuffer.wrap(b,
+                                                      off,
+                                                      len);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        @Override
+        public void close() throws java.io.IOException {
+            if (null != channel) {
+                channel.close();
+            }
+        }
+
+        private void open() throws java.io.IOException {
+            if (null == channel) {
+                final Set<OpenOption> openOptions = new HashSet<>(Arrays.asList(options));
+                openOptions.add(StandardOpenOption.CREATE);
+                openOptions.add(StandardOpenOption.TRUNCATE_EXISTING);
+                openOptions.add(StandardOpenOption.WRITE);
+                channel = getIoService().newByteChannel(path,
+                                                        openOptions,
+                                                        getIoService().convert(attributes));
+            }
+        }
+    }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.backend.util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Spools the bytes written through it to a local temporary file, so a document can be built completely before it
+ * is copied to its actual destination, without holding the whole document in memory.
+ * <p>
+ * Closing the stream deletes the temporary file.
+ */
+public class SpooledOutputStream extends OutputStream {
+
+    private final Path file;
+    private final OutputStream output;
+    private boolean closed;
+
+    public SpooledOutputStream() throws IOException {
+        this.file = Files.createTempFile("stunner-",
+                                         ".tmp");
+        this.output = new BufferedOutputStream(Files.newOutputStream(file));
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        output.write(b);
+    }
+
+    @Override
+    public void write(final byte[] b,
+                      final int off,
+                      final int len) throws IOException {
+        output.write(b,
+                     off,
+                     len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        output.flush();
+    }
+
+    /**
+     * Copies all the bytes written so far to the given stream.
+     */
+    public void writeTo(final OutputStream target) throws IOException {
+        output.flush();
+        Files.copy(file,
+                   target);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            try {
+                output.close();
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
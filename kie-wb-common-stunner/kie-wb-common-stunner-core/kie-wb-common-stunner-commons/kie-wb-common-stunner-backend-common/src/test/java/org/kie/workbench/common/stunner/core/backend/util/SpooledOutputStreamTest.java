@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.backend.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SpooledOutputStreamTest {
+
+    private static final String DOCUMENT = "<bpmn2:definitions/>";
+
+    @Test
+    public void testWriteTo() throws IOException {
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (final SpooledOutputStream tested = new SpooledOutputStream()) {
+            tested.write(DOCUMENT.getBytes(StandardCharsets.UTF_8));
+            tested.write('\n');
+
+            assertEquals(0,
+                         target.size());
+
+            tested.writeTo(target);
+        }
+
+        assertEquals(DOCUMENT + "\n",
+                     target.toString("UTF-8"));
+    }
+
+    @Test
+    public void testWriteToEmpty() throws IOException {
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (final SpooledOutputStream tested = new SpooledOutputStream()) {
+            tested.writeTo(target);
+        }
+
+        assertEquals(0,
+                     target.size());
+    }
+}
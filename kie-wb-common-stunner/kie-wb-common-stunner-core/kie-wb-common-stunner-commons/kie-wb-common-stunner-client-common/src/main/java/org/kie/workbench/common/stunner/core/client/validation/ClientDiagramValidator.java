@@ -61,6 +61,8 @@ public class ClientDiagramValidator extends AbstractDiagramValidator {
               treeWalkTraverseProcessor,
               modelValidator);
         this.validationService = validationService;
+        //The same diagrams are validated over and over while being edited
+        setIncrementalGraphValidation(true);
     }
 
     @Override
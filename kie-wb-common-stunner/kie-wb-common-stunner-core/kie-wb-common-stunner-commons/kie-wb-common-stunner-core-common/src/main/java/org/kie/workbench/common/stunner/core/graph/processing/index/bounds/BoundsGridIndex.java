@@ -0,0 +1,162 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.processing.index.bounds;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uniform grid over the absolute bounds of the nodes of a graph, so that a point query only checks the nodes whose
+ * bounds overlap the grid cell of the point rather than every node of the graph. Every entry keeps its traversal order
+ * and a query returns the matching entry added last, same as a full traversal where the last match wins.
+ */
+class BoundsGridIndex<T> {
+
+    static final double CELL_SIZE = 100d;
+
+    //Entries spanning more cells are kept apart and checked on every query
+    static final int MAX_CELLS_PER_ENTRY = 256;
+
+    private final Map<Long, List<Entry<T>>> cells = new HashMap<>();
+    private final List<Entry<T>> largeEntries = new ArrayList<>();
+    private Entry<T> everywhere;
+    private int order = 0;
+
+    /**
+     * Adds an element with the given absolute bounds.
+     */
+    void add(final T element,
+             final double ulX,
+             final double ulY,
+             final double lrX,
+             final double lrY) {
+        final Entry<T> entry = new Entry<>(element,
+                                           ulX,
+                                           ulY,
+                                           lrX,
+                                           lrY,
+                                           order++);
+        final int minCellX = cell(ulX);
+        final int minCellY = cell(ulY);
+        final int maxCellX = cell(lrX);
+        final int maxCellY = cell(lrY);
+        final long cellCount = ((long) maxCellX - minCellX + 1) * ((long) maxCellY - minCellY + 1);
+        if (cellCount > MAX_CELLS_PER_ENTRY) {
+            largeEntries.add(entry);
+            return;
+        }
+        for (int cx = minCellX; cx <= maxCellX; cx++) {
+            for (int cy = minCellY; cy <= maxCellY; cy++) {
+                cells.computeIfAbsent(key(cx,
+                                          cy),
+                                      k -> new ArrayList<>()).add(entry);
+            }
+        }
+    }
+
+    /**
+     * Adds an element that matches any point, e.g. the canvas root.
+     */
+    void addEverywhere(final T element) {
+        everywhere = new Entry<>(element,
+                                 0,
+                                 0,
+                                 0,
+                                 0,
+                                 order++);
+    }
+
+    /**
+     * @return the last added element whose bounds contain the point, bounds included, or null.
+     */
+    T findAt(final double x,
+             final double y) {
+        Entry<T> result = everywhere;
+        final List<Entry<T>> candidates = cells.get(key(cell(x),
+                                                        cell(y)));
+        if (null != candidates) {
+            result = findLast(candidates,
+                              result,
+                              x,
+                              y);
+        }
+        result = findLast(largeEntries,
+                          result,
+                          x,
+                          y);
+        return null != result ? result.element : null;
+    }
+
+    int size() {
+        return order;
+    }
+
+    private static <T> Entry<T> findLast(final List<Entry<T>> entries,
+                                         final Entry<T> current,
+                                         final double x,
+                                         final double y) {
+        Entry<T> result = current;
+        for (Entry<T> entry : entries) {
+            if ((null == result || entry.order > result.order) && entry.contains(x,
+                                                                                 y)) {
+                result = entry;
+            }
+        }
+        return result;
+    }
+
+    private static int cell(final double coordinate) {
+        return (int) Math.floor(coordinate / CELL_SIZE);
+    }
+
+    private static long key(final int cellX,
+                            final int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+
+    private static class Entry<T> {
+
+        private final T element;
+        private final double ulX;
+        private final double ulY;
+        private final double lrX;
+        private final double lrY;
+        private final int order;
+
+        private Entry(final T element,
+                      final double ulX,
+                      final double ulY,
+                      final double lrX,
+                      final double lrY,
+                      final int order) {
+            this.element = element;
+            this.ulX = ulX;
+            this.ulY = ulY;
+            this.lrX = lrX;
+            this.lrY = lrY;
+            this.order = order;
+        }
+
+        private boolean contains(final double x,
+                                 final double y) {
+            return x >= ulX && x <= lrX &&
+                    y >= ulY && y <= lrY;
+        }
+    }
+}
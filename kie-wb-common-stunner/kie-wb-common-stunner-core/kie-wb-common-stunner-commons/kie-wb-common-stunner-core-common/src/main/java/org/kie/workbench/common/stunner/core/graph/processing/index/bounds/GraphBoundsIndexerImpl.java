@@ -40,6 +40,7 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
     ChildrenTraverseProcessor childrenTraverseProcessor;
     private Graph<View, Node<View, Edge>> graph;
     private String rootUUID = null;
+    private BoundsGridIndex<Node<View<?>, Edge>> index;
 
     @Inject
     public GraphBoundsIndexerImpl(final ChildrenTraverseProcessor childrenTraverseProcessor) {
@@ -49,6 +50,7 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
     @Override
     public GraphBoundsIndexerImpl build(final Graph<View, Node<View, Edge>> graph) {
         this.graph = graph;
+        this.index = null;
         return this;
     }
 
@@ -99,6 +101,8 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
 
     @Override
     public double[] getTrimmedBounds() {
+        //The traversal root changes for the next traversals
+        this.index = null;
         final double[] result = new double[]{Double.MAX_VALUE, Double.MAX_VALUE, 0, 0};
         childrenTraverseProcessor
                 .setRootUUID(this.rootUUID)
@@ -138,27 +142,45 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
         return result;
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Looks up the node at the given point in a spatial index of the graph, which is built with a single traversal on
+     * the first lookup after the indexer is built, so the lookups done on every mouse move are not a traversal each.
+     */
     public Node<View<?>, Edge> findElementAt(final double x,
                                              final double y) {
-        final Node[] result = new Node[1];
-        childrenTraverseProcessor.traverse(graph,
-                                           new GraphBoundIndexerTraverseCallback(new NodeBoundsTraverseCallback() {
+        return getIndex().findAt(x,
+                                 y);
+    }
+
+    @SuppressWarnings("unchecked")
+    private BoundsGridIndex<Node<View<?>, Edge>> getIndex() {
+        if (null == index) {
+            final BoundsGridIndex<Node<View<?>, Edge>> gridIndex = new BoundsGridIndex<>();
+            childrenTraverseProcessor.traverse(graph,
+                                               new GraphBoundIndexerTraverseCallback(new NodeBoundsTraverseCallback() {
 
-                                               @Override
-                                               public void onNodeTraverse(final Node<View, Edge> node,
-                                                                          final double parentX,
-                                                                          final double parentY) {
-                                                   if (isNodeAt(node,
-                                                                parentX,
-                                                                parentY,
-                                                                x,
-                                                                y)) {
-                                                       result[0] = node;
+                                                   @Override
+                                                   public void onNodeTraverse(final Node<View, Edge> node,
+                                                                              final double parentX,
+                                                                              final double parentY) {
+                                                       final Node<View<?>, Edge> element = (Node) node;
+                                                       if (null != rootUUID && node.getUUID().equals(rootUUID)) {
+                                                           gridIndex.addEverywhere(element);
+                                                       } else {
+                                                           final double[] absCoords = getNodeAbsoluteCoordinates(node,
+                                                                                                                 parentX,
+                                                                                                                 parentY);
+                                                           gridIndex.add(element,
+                                                                         absCoords[0],
+                                                                         absCoords[1],
+                                                                         absCoords[2],
+                                                                         absCoords[3]);
+                                                       }
                                                    }
-                                               }
-                                           }));
-        return result[0];
+                                               }));
+            index = gridIndex;
+        }
+        return index;
     }
 
     private Point2D getNodeCoordinates(final Node node) {
@@ -186,31 +208,10 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
         return new double[]{ulX, ulY, lrX, lrY};
     }
 
-    private boolean isNodeAt(final Node node,
-                             final double parentX,
-                             final double parentY,
-                             final double mouseX,
-                             final double mouseY) {
-        if (null != rootUUID && node.getUUID().equals(rootUUID)) {
-            return true;
-        }
-        final double[] absoluteCoords = getNodeAbsoluteCoordinates(node,
-                                                                   parentX,
-                                                                   parentY);
-        final double ulX = absoluteCoords[0];
-        final double ulY = absoluteCoords[1];
-        final double lrX = absoluteCoords[2];
-        final double lrY = absoluteCoords[3];
-        if (mouseX >= ulX && mouseX <= lrX &&
-                mouseY >= ulY && mouseY <= lrY) {
-            return true;
-        }
-        return false;
-    }
-
     @Override
     public GraphBoundsIndexer setRootUUID(final String uuid) {
         this.rootUUID = uuid;
+        this.index = null;
         return this;
     }
 
@@ -218,6 +219,7 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
     public void destroy() {
         this.graph = null;
         this.rootUUID = null;
+        this.index = null;
         this.childrenTraverseProcessor = null;
     }
 
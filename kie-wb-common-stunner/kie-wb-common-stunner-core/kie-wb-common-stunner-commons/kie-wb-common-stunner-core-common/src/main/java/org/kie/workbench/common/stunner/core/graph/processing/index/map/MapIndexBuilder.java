@@ -17,8 +17,10 @@
 package org.kie.workbench.common.stunner.core.graph.processing.index.map;
 
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.enterprise.context.Dependent;
 
@@ -27,46 +29,102 @@ import org.kie.workbench.common.stunner.core.graph.Graph;
 import org.kie.workbench.common.stunner.core.graph.Node;
 import org.kie.workbench.common.stunner.core.graph.processing.index.GraphIndexBuilder;
 
+/**
+ * Builds map based indexes of a graph.
+ * <p>
+ * Once built, an index is kept up to date incrementally by the graph commands, which add and remove the nodes and edges
+ * they register or deregister through the {@link org.kie.workbench.common.stunner.core.graph.processing.index.MutableIndex}
+ * API. {@link #update(MapIndex, Graph)} is only needed when the graph is changed by other means; it applies the
+ * differences with the graph to the index in place. {@link #checkConsistency(MapIndex, Graph)} compares an index
+ * against a full rebuild, e.g. to verify in tests that the commands keep it in sync.
+ */
 @Dependent
 public class MapIndexBuilder implements GraphIndexBuilder<MapIndex> {
 
     @Override
     public MapIndex build(final Graph<?, Node> graph) {
         assert graph != null;
-        return doWork(graph,
-                      null);
+        final Map<String, Node> nodes = new HashMap<>();
+        final Map<String, Edge> edges = new HashMap<>();
+        collect(graph,
+                nodes,
+                edges);
+        return new MapIndex(graph,
+                            nodes,
+                            edges);
     }
 
     @Override
     public void update(final MapIndex index,
                        final Graph<?, Node> graph) {
-        doWork(graph,
-               index);
+        final Map<String, Node> nodes = new HashMap<>();
+        final Map<String, Edge> edges = new HashMap<>();
+        collect(graph,
+                nodes,
+                edges);
+        applyDelta(index.nodes,
+                   nodes);
+        applyDelta(index.edges,
+                   edges);
     }
 
-    private MapIndex doWork(final Graph<?, Node> graph,
-                            final MapIndex current) {
+    /**
+     * Compares the index with a full rebuild from the graph.
+     * @return the uuids of the elements missing in the index, no longer in the graph or indexed as another instance;
+     * empty when the index is consistent.
+     */
+    public Set<String> checkConsistency(final MapIndex index,
+                                        final Graph<?, Node> graph) {
         final Map<String, Node> nodes = new HashMap<>();
         final Map<String, Edge> edges = new HashMap<>();
+        collect(graph,
+                nodes,
+                edges);
+        final Set<String> result = new LinkedHashSet<>();
+        collectDifferences(index.nodes,
+                           nodes,
+                           result);
+        collectDifferences(index.edges,
+                           edges,
+                           result);
+        return result;
+    }
+
+    private static <T> void applyDelta(final Map<String, T> current,
+                                       final Map<String, T> expected) {
+        current.keySet().retainAll(expected.keySet());
+        for (Map.Entry<String, T> entry : expected.entrySet()) {
+            if (current.get(entry.getKey()) != entry.getValue()) {
+                current.put(entry.getKey(),
+                            entry.getValue());
+            }
+        }
+    }
+
+    private static <T> void collectDifferences(final Map<String, T> current,
+                                               final Map<String, T> expected,
+                                               final Set<String> differences) {
+        for (Map.Entry<String, T> entry : expected.entrySet()) {
+            if (current.get(entry.getKey()) != entry.getValue()) {
+                differences.add(entry.getKey());
+            }
+        }
+        for (String uuid : current.keySet()) {
+            if (!expected.containsKey(uuid)) {
+                differences.add(uuid);
+            }
+        }
+    }
+
+    private void collect(final Graph<?, Node> graph,
+                         final Map<String, Node> nodes,
+                         final Map<String, Edge> edges) {
         Iterable<Node> nodesIter = graph.nodes();
         for (Node node : nodesIter) {
             processNode(nodes,
                         edges,
                         node);
         }
-        if (null == current) {
-            // Requesting a new index.
-            return new MapIndex(graph,
-                                nodes,
-                                edges);
-        } else {
-            // Updating an existing index.
-            current.nodes.clear();
-            current.nodes.putAll(nodes);
-            current.edges.clear();
-            current.edges.putAll(edges);
-            return current;
-        }
     }
 
     @SuppressWarnings("unchecked")
@@ -84,6 +142,17 @@ public class MapIndexBuilder implements GraphIndexBuilder<MapIndex> {
                                 edge);
                 }
             }
+            // Connectors with no source node are only reachable from their target node.
+            final List<Edge> inEdges = node.getInEdges();
+            if (null != inEdges && !inEdges.isEmpty()) {
+                for (final Edge edge : inEdges) {
+                    if (null == edge.getSourceNode()) {
+                        processEdge(nodes,
+                                    edges,
+                                    edge);
+                    }
+                }
+            }
         }
     }
 
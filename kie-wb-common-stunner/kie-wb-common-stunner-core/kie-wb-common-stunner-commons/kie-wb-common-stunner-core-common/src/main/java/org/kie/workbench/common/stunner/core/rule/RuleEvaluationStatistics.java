@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.rule;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluation count and time of the rules evaluated by a rule manager, per rule set and rule, so the expensive rule
+ * sets can be spotted.
+ */
+public class RuleEvaluationStatistics {
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    synchronized void record(final RuleSet ruleSet,
+                             final Rule rule,
+                             final long nanos) {
+        final String ruleSetName = ruleSet.getName();
+        final String ruleName = rule.getName();
+        final String ruleType = rule.getClass().getName();
+        final String key = ruleSetName + "|" + ruleType + "|" + ruleName;
+        Entry entry = entries.get(key);
+        if (null == entry) {
+            entry = new Entry(ruleSetName,
+                              ruleName,
+                              ruleType);
+            entries.put(key,
+                        entry);
+        }
+        entry.evaluations++;
+        entry.totalNanos += nanos;
+    }
+
+    /**
+     * @return the entries, the most expensive first.
+     */
+    public synchronized List<Entry> getEntries() {
+        final List<Entry> result = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            result.add(entry.copy());
+        }
+        result.sort((e1, e2) -> Long.compare(e2.totalNanos,
+                                             e1.totalNanos));
+        return result;
+    }
+
+    /**
+     * @return the time spent evaluating the rules of the given rule set, in nanoseconds.
+     */
+    public synchronized long getTotalNanos(final String ruleSetName) {
+        long total = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.ruleSetName.equals(ruleSetName)) {
+                total += entry.totalNanos;
+            }
+        }
+        return total;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public static class Entry {
+
+        private final String ruleSetName;
+        private final String ruleName;
+        private final String ruleType;
+        private long evaluations;
+        private long totalNanos;
+
+        private Entry(final String ruleSetName,
+                      final String ruleName,
+                      final String ruleType) {
+            this.ruleSetName = ruleSetName;
+            this.ruleName = ruleName;
+            this.ruleType = ruleType;
+        }
+
+        public String getRuleSetName() {
+            return ruleSetName;
+        }
+
+        public String getRuleName() {
+            return ruleName;
+        }
+
+        public String getRuleType() {
+            return ruleType;
+        }
+
+        public long getEvaluations() {
+            return evaluations;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + ruleSetName + "] " + ruleType + " " + ruleName +
+                    ": " + evaluations + " evaluations, " + totalNanos + " ns";
+        }
+
+        private Entry copy() {
+            final Entry copy = new Entry(ruleSetName,
+                                         ruleName,
+                                         ruleType);
+            copy.evaluations = evaluations;
+            copy.totalNanos = totalNanos;
+            return copy;
+        }
+    }
+}
@@ -17,7 +17,14 @@
 package org.kie.workbench.common.stunner.core.rule;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
@@ -38,7 +45,20 @@ public class RuleManagerImpl implements RuleManager {
 
     private static Logger LOGGER = Logger.getLogger(RuleManagerImpl.class.getName());
 
+    //Rule sets are usually long lived, one per definition set, so only a few indexes are kept
+    private static final int MAX_INDEXED_RULE_SETS = 16;
+
     private final RuleHandlerRegistry registry;
+    private final Map<RuleSet, RuleSetIndex> indexes = new LinkedHashMap<RuleSet, RuleSetIndex>(16,
+                                                                                                  0.75f,
+                                                                                                  true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<RuleSet, RuleSetIndex> eldest) {
+            return size() > MAX_INDEXED_RULE_SETS;
+        }
+    };
+    private final RuleEvaluationStatistics statistics = new RuleEvaluationStatistics();
+    private boolean statisticsEnabled = false;
 
     protected RuleManagerImpl() {
         this(null);
@@ -50,6 +70,7 @@ public class RuleManagerImpl implements RuleManager {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public RuleViolations evaluate(final RuleSet ruleSet,
                                    final RuleEvaluationContext context) {
         checkNotNull("ruleSet",
@@ -65,25 +86,96 @@ public class RuleManagerImpl implements RuleManager {
             - Otherwise return the rule violations produced by the handlers or extensions
          */
         final DefaultRuleViolations results = new DefaultRuleViolations();
-        final boolean hasRules = ruleSet.getRules().iterator().hasNext();
-        if (hasRules) {
-            final boolean[] hasEvaluations = {false};
-            ruleSet.getRules().forEach(rule -> {
-                final Optional<RuleViolations> violations = evaluate(rule,
-                                                                     context);
-                if (violations.isPresent()) {
-                    hasEvaluations[0] = true;
-                    LOGGER.info("Rule Evaluation [" + rule + ", " + violations + "]");
-                    results.addViolations(violations.get());
+        final RuleSetIndex index = getIndex(ruleSet);
+        if (!index.isEmpty()) {
+            boolean hasEvaluations = false;
+            //Only the rules of the types handled for the context type can produce evaluations
+            final Set<Class<?>> ruleTypes = new HashSet<>();
+            for (RuleEvaluationHandler handler : getHandlersByContext(context)) {
+                if (ruleTypes.add(handler.getRuleType())) {
+                    for (Rule rule : index.getRules(handler.getRuleType())) {
+                        hasEvaluations |= evaluate(ruleSet,
+                                                   rule,
+                                                   context,
+                                                   results);
+                    }
+                }
+            }
+            for (Map.Entry<Class<?>, List<RuleExtension>> extensions : index.getExtensions().entrySet()) {
+                if (acceptsContextType(registry.getExtensionHandler((Class) extensions.getKey()),
+                                       context)) {
+                    for (Rule rule : extensions.getValue()) {
+                        hasEvaluations |= evaluate(ruleSet,
+                                                   rule,
+                                                   context,
+                                                   results);
+                    }
                 }
-            });
-            if (!hasEvaluations[0] && context.isDefaultDeny()) {
+            }
+            if (!hasEvaluations && context.isDefaultDeny()) {
                 return getDefaultViolationForContext(context);
             }
         }
         return results;
     }
 
+    /**
+     * Enables the recording of the evaluation count and time of each rule, disabled by default.
+     */
+    public void setStatisticsEnabled(final boolean statisticsEnabled) {
+        this.statisticsEnabled = statisticsEnabled;
+    }
+
+    public RuleEvaluationStatistics getStatistics() {
+        return statistics;
+    }
+
+    private boolean evaluate(final RuleSet ruleSet,
+                             final Rule rule,
+                             final RuleEvaluationContext context,
+                             final DefaultRuleViolations results) {
+        final long start = statisticsEnabled ? System.nanoTime() : 0;
+        final Optional<RuleViolations> violations = evaluate(rule,
+                                                             context);
+        if (statisticsEnabled) {
+            statistics.record(ruleSet,
+                              rule,
+                              System.nanoTime() - start);
+        }
+        if (violations.isPresent()) {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine("Rule Evaluation [" + rule + ", " + violations + "]");
+            }
+            results.addViolations(violations.get());
+            return true;
+        }
+        return false;
+    }
+
+    private RuleSetIndex getIndex(final RuleSet ruleSet) {
+        synchronized (indexes) {
+            RuleSetIndex index = indexes.get(ruleSet);
+            if (null == index || !index.isIndexOf(ruleSet)) {
+                index = new RuleSetIndex(ruleSet);
+                indexes.put(ruleSet,
+                            index);
+            }
+            return index;
+        }
+    }
+
+    private Collection<RuleEvaluationHandler> getHandlersByContext(final RuleEvaluationContext context) {
+        final Collection<RuleEvaluationHandler> handlers = registry.getHandlersByContext(context.getType());
+        return null != handlers ? handlers : Collections.emptyList();
+    }
+
+    private static boolean acceptsContextType(final RuleEvaluationHandler handler,
+                                              final RuleEvaluationContext context) {
+        return null != handler
+                && (handler.getContextType().equals(context.getType())
+                || RuleEvaluationContext.class.equals(handler.getContextType()));
+    }
+
     private RuleViolations getDefaultViolationForContext(final RuleEvaluationContext context) {
         return new DefaultRuleViolations().addViolation(
                 new ContextOperationNotAllowedViolation(context)
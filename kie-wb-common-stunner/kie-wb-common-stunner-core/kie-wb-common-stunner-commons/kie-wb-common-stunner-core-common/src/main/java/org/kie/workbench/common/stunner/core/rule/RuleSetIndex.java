@@ -0,0 +1,78 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.rule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.kie.workbench.common.stunner.core.rule.ext.RuleExtension;
+
+/**
+ * The rules of a rule set grouped by rule type, and the rule extensions grouped by extension handler type, so that an
+ * evaluation only visits the rules that some handler for the context type can evaluate.
+ * <p>
+ * The index is a snapshot of the rules of the rule set instance it was built for: rule sets must not be mutated once
+ * evaluated, as changes to their rules are not seen.
+ */
+class RuleSetIndex {
+
+    private final RuleSet ruleSet;
+    private final int size;
+    private final Map<Class<?>, List<Rule>> rulesByType = new HashMap<>();
+    private final Map<Class<?>, List<RuleExtension>> extensionsByHandlerType = new LinkedHashMap<>();
+
+    RuleSetIndex(final RuleSet ruleSet) {
+        this.ruleSet = ruleSet;
+        int count = 0;
+        for (Rule rule : ruleSet.getRules()) {
+            count++;
+            if (rule instanceof RuleExtension) {
+                final RuleExtension extension = (RuleExtension) rule;
+                extensionsByHandlerType.computeIfAbsent(extension.getHandlerType(),
+                                                        type -> new ArrayList<>()).add(extension);
+            } else {
+                rulesByType.computeIfAbsent(rule.getClass(),
+                                            type -> new ArrayList<>()).add(rule);
+            }
+        }
+        this.size = count;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return true when the index was built for this very rule set instance, rule sets equal to it not included.
+     */
+    boolean isIndexOf(final RuleSet ruleSet) {
+        return this.ruleSet == ruleSet;
+    }
+
+    List<Rule> getRules(final Class<?> ruleType) {
+        final List<Rule> rules = rulesByType.get(ruleType);
+        return null != rules ? rules : Collections.emptyList();
+    }
+
+    Map<Class<?>, List<RuleExtension>> getExtensions() {
+        return extensionsByHandlerType;
+    }
+}
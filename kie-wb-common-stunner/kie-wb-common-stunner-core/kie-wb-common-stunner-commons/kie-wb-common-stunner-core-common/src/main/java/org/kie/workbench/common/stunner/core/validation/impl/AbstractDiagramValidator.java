@@ -57,6 +57,14 @@ public abstract class AbstractDiagramValidator
         this.modelValidator = modelValidator;
     }
 
+    /**
+     * Validates again only the graph elements that changed since the last validation of the same graph.
+     * @see GraphValidatorImpl#setIncremental(boolean)
+     */
+    protected void setIncrementalGraphValidation(final boolean incremental) {
+        graphValidator.setIncremental(incremental);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public void validate(final Diagram diagram,
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.validation.impl;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.kie.workbench.common.stunner.core.rule.RuleSet;
+import org.kie.workbench.common.stunner.core.rule.RuleViolation;
+
+/**
+ * The violations produced by the last validation of a graph, per evaluation, together with the inputs the evaluation
+ * depends on. An evaluation is only performed again when any of its inputs is not the same instance anymore, so an
+ * element not touched since the last validation reuses its violations.
+ */
+class GraphValidationCache {
+
+    private final Graph graph;
+    private final RuleSet ruleSet;
+    private Map<String, Entry> entries = new HashMap<>();
+    private Map<String, Entry> current = new HashMap<>();
+    private int evaluations;
+    private int reused;
+
+    GraphValidationCache(final Graph graph,
+                         final RuleSet ruleSet) {
+        this.graph = graph;
+        this.ruleSet = ruleSet;
+    }
+
+    boolean isFor(final Graph graph,
+                  final RuleSet ruleSet) {
+        return this.graph == graph && this.ruleSet == ruleSet;
+    }
+
+    Collection<RuleViolation> get(final String key,
+                                  final Object[] inputs,
+                                  final Supplier<Collection<RuleViolation>> evaluation) {
+        Entry entry = entries.get(key);
+        if (null == entry || !sameInputs(entry.inputs,
+                                         inputs)) {
+            entry = new Entry(inputs,
+                              evaluation.get());
+            evaluations++;
+        } else {
+            reused++;
+        }
+        current.put(key,
+                    entry);
+        return entry.violations;
+    }
+
+    void startValidation() {
+        current = new HashMap<>();
+        evaluations = 0;
+        reused = 0;
+    }
+
+    /**
+     * Keeps the entries used by the validation just completed, the ones of the elements removed since are dropped.
+     */
+    void endValidation() {
+        entries = current;
+        current = new HashMap<>();
+    }
+
+    /**
+     * @return the evaluations performed by the last validation.
+     */
+    int getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * @return the evaluations the last validation reused from the previous one.
+     */
+    int getReused() {
+        return reused;
+    }
+
+    private static boolean sameInputs(final Object[] cached,
+                                      final Object[] inputs) {
+        if (cached.length != inputs.length) {
+            return false;
+        }
+        for (int i = 0; i < cached.length; i++) {
+            if (cached[i] != inputs[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class Entry {
+
+        private final Object[] inputs;
+        private final Collection<RuleViolation> violations;
+
+        private Entry(final Object[] inputs,
+                      final Collection<RuleViolation> violations) {
+            this.inputs = inputs;
+            this.violations = violations;
+        }
+    }
+}
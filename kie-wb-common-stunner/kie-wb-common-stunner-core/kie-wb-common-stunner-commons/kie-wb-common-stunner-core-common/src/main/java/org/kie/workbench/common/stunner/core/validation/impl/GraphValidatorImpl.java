@@ -16,13 +16,18 @@
 
 package org.kie.workbench.common.stunner.core.validation.impl;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.Stack;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -55,9 +60,24 @@ public class GraphValidatorImpl
 
     private static Logger LOGGER = Logger.getLogger(GraphValidatorImpl.class.getName());
 
+    //Graphs whose last validation results are kept when validating incrementally
+    static final int MAX_CACHED_GRAPHS = 4;
+
+    //Separates the variable length parts of the inputs of an evaluation
+    private static final Object INPUTS_SEPARATOR = new Object();
+
     private final DefinitionManager definitionManager;
     private final TreeWalkTraverseProcessor treeWalkTraverseProcessor;
     private final RuleManager ruleManager;
+    private final Map<String, GraphValidationCache> caches = new LinkedHashMap<String, GraphValidationCache>(MAX_CACHED_GRAPHS,
+                                                                                                             0.75f,
+                                                                                                             true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, GraphValidationCache> eldest) {
+            return size() > MAX_CACHED_GRAPHS;
+        }
+    };
+    private boolean incremental = false;
 
     protected GraphValidatorImpl() {
         this(null,
@@ -74,6 +94,22 @@ public class GraphValidatorImpl
         this.treeWalkTraverseProcessor = treeWalkTraverseProcessor;
     }
 
+    /**
+     * When enabled, the violations of the last validation of a graph are kept, and further validations of the same
+     * graph only evaluate again the rules for the elements that changed since, or whose parent, definition, source or
+     * target node, or sibling connectors changed since. Disabled by default.
+     */
+    public void setIncremental(final boolean incremental) {
+        this.incremental = incremental;
+        if (!incremental) {
+            caches.clear();
+        }
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public void validate(final Graph graph,
@@ -115,6 +151,8 @@ public class GraphValidatorImpl
                   final Optional<BiConsumer<Edge, Collection<RuleViolation>>> edgeValidatorConsumer,
                   Consumer<Collection<RuleViolation>> resultConsumer) {
         final RuleSet ruleSet = aRuleSet.orElse(getRuleSet(graph));
+        final GraphValidationCache cache = getCache(graph,
+                                                    ruleSet);
         final ViolationsSet violations = new ViolationsSet();
         treeWalkTraverseProcessor
                 .traverse(graph,
@@ -128,9 +166,13 @@ public class GraphValidatorImpl
                                   super.startGraphTraversal(graph);
                                   currentParents.clear();
                                   // Evaluate the graph's cardinality rules.
-                                  final Set<RuleViolation> graphCardinalityViolations =
-                                          violations.addViolations(evaluateCardinality(ruleSet,
-                                                                                       graph));
+                                  final Collection<RuleViolation> graphCardinalityViolations =
+                                          evaluate(cache,
+                                                   "graph",
+                                                   () -> getCardinalityInputs(graph),
+                                                   () -> toSet(evaluateCardinality(ruleSet,
+                                                                                   graph)));
+                                  violations.addAll(graphCardinalityViolations);
                                   graphValidatorConsumer.ifPresent(g -> g.accept(graph,
                                                                                  graphCardinalityViolations));
                               }
@@ -144,48 +186,21 @@ public class GraphValidatorImpl
                                   if (content instanceof Child) {
                                       this.currentParents.push(edge.getSourceNode());
                                   } else if (content instanceof View) {
-                                      final Optional<Node<? extends View<?>, ? extends Edge>> sourceOpt =
-                                              Optional.ofNullable(edge.getSourceNode());
-                                      final Optional<Node<? extends View<?>, ? extends Edge>> targetOpt =
-                                              Optional.ofNullable(edge.getTargetNode());
-                                      // Check not empty connections.
-                                      final Optional<RuleViolation> emptyConnectionViolation =
-                                              evaluateNotEmptyConnections(graph,
-                                                                          edge,
-                                                                          sourceOpt,
-                                                                          targetOpt);
-                                      emptyConnectionViolation.ifPresent(edgeViolations::add);
-                                      // Evaluate connection rules.
-                                      edgeViolations.addViolations(
-                                              evaluateConnection(ruleSet,
-                                                                 graph,
-                                                                 edge,
-                                                                 sourceOpt,
-                                                                 targetOpt)
-                                      );
-                                      // Evaluate connector cardinality rules for this edge.
-                                      if (null != edge.getTargetNode()) {
-                                          edgeViolations.addViolations(
-                                                  evaluateIncomingEdgeCardinality(ruleSet,
-                                                                                  graph,
-                                                                                  edge)
-                                          );
-                                      }
-                                      if (null != edge.getSourceNode()) {
-                                          edgeViolations.addViolations(
-                                                  evaluateOutgoingEdgeCardinality(ruleSet,
-                                                                                  graph,
-                                                                                  edge)
-                                          );
-                                      }
+                                      edgeViolations.addAll(evaluate(cache,
+                                                                     "edge:" + edge.getUUID(),
+                                                                     () -> getConnectorInputs(edge),
+                                                                     () -> evaluateConnector(edge)));
                                   } else if (content instanceof Dock) {
                                       final Node parent = edge.getSourceNode();
                                       final Node docked = edge.getTargetNode();
                                       // Evaluate docking rules for the source & target nodes.
-                                      edgeViolations.addViolations(evaluateDocking(ruleSet,
-                                                                                   graph,
-                                                                                   parent,
-                                                                                   docked));
+                                      edgeViolations.addAll(evaluate(cache,
+                                                                     "edge:" + edge.getUUID(),
+                                                                     () -> new Object[]{edge, parent, getDefinition(parent), docked, getDefinition(docked)},
+                                                                     () -> toSet(evaluateDocking(ruleSet,
+                                                                                                 graph,
+                                                                                                 parent,
+                                                                                                 docked))));
                                   }
                                   edgeValidatorConsumer.ifPresent(c -> c.accept(edge,
                                                                                 edgeViolations));
@@ -217,6 +232,9 @@ public class GraphValidatorImpl
                               @Override
                               public void endGraphTraversal() {
                                   super.endGraphTraversal();
+                                  if (null != cache) {
+                                      cache.endValidation();
+                                  }
 
                                   // Finished - feed the consumer instance.
                                   resultConsumer.accept(violations);
@@ -225,14 +243,148 @@ public class GraphValidatorImpl
                               private Collection<RuleViolation> evaluateNode(final Node node,
                                                                              final Node parent) {
                                   // Evaluate containment rules for this node.
-                                  return violations.addViolations(evaluateContainment(ruleSet,
-                                                                                      graph,
-                                                                                      null != parent ? parent : graph,
-                                                                                      node));
+                                  final Element<? extends Definition<?>> container = null != parent ? parent : graph;
+                                  final Collection<RuleViolation> nodeViolations =
+                                          evaluate(cache,
+                                                   "node:" + node.getUUID(),
+                                                   () -> new Object[]{node, getDefinition(node), container, getDefinition(container)},
+                                                   () -> toSet(evaluateContainment(ruleSet,
+                                                                                   graph,
+                                                                                   container,
+                                                                                   node)));
+                                  violations.addAll(nodeViolations);
+                                  return nodeViolations;
+                              }
+
+                              private Collection<RuleViolation> evaluateConnector(final Edge edge) {
+                                  final ViolationsSet edgeViolations = new ViolationsSet();
+                                  final Optional<Node<? extends View<?>, ? extends Edge>> sourceOpt =
+                                          Optional.ofNullable(edge.getSourceNode());
+                                  final Optional<Node<? extends View<?>, ? extends Edge>> targetOpt =
+                                          Optional.ofNullable(edge.getTargetNode());
+                                  // Check not empty connections.
+                                  final Optional<RuleViolation> emptyConnectionViolation =
+                                          evaluateNotEmptyConnections(graph,
+                                                                      edge,
+                                                                      sourceOpt,
+                                                                      targetOpt);
+                                  emptyConnectionViolation.ifPresent(edgeViolations::add);
+                                  // Evaluate connection rules.
+                                  edgeViolations.addViolations(
+                                          evaluateConnection(ruleSet,
+                                                             graph,
+                                                             edge,
+                                                             sourceOpt,
+                                                             targetOpt)
+                                  );
+                                  // Evaluate connector cardinality rules for this edge.
+                                  if (null != edge.getTargetNode()) {
+                                      edgeViolations.addViolations(
+                                              evaluateIncomingEdgeCardinality(ruleSet,
+                                                                              graph,
+                                                                              edge)
+                                      );
+                                  }
+                                  if (null != edge.getSourceNode()) {
+                                      edgeViolations.addViolations(
+                                              evaluateOutgoingEdgeCardinality(ruleSet,
+                                                                              graph,
+                                                                              edge)
+                                      );
+                                  }
+                                  return edgeViolations;
                               }
                           });
     }
 
+    /**
+     * @return the cache for the given graph and rule set when validating incrementally, otherwise null.
+     */
+    GraphValidationCache getCache(final Graph graph,
+                                  final RuleSet ruleSet) {
+        if (!incremental) {
+            return null;
+        }
+        GraphValidationCache cache = caches.get(graph.getUUID());
+        if (null == cache || !cache.isFor(graph,
+                                          ruleSet)) {
+            cache = new GraphValidationCache(graph,
+                                             ruleSet);
+            caches.put(graph.getUUID(),
+                       cache);
+        }
+        cache.startValidation();
+        return cache;
+    }
+
+    private static Collection<RuleViolation> evaluate(final GraphValidationCache cache,
+                                                      final String key,
+                                                      final Supplier<Object[]> inputs,
+                                                      final Supplier<Collection<RuleViolation>> evaluation) {
+        if (null == cache) {
+            return evaluation.get();
+        }
+        return cache.get(key,
+                         inputs.get(),
+                         evaluation);
+    }
+
+    /**
+     * The graph cardinality depends on every node and on its definition.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object[] getCardinalityInputs(final Graph graph) {
+        final List<Object> inputs = new ArrayList<>();
+        inputs.add(graph.getContent());
+        for (Object node : graph.nodes()) {
+            inputs.add(node);
+            inputs.add(getDefinition((Node) node));
+        }
+        return inputs.toArray();
+    }
+
+    /**
+     * A connector depends on its source and target nodes and, because of the edge cardinality rules, on the outgoing
+     * connectors of the source and on the incoming connectors of the target.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object[] getConnectorInputs(final Edge edge) {
+        final Node source = edge.getSourceNode();
+        final Node target = edge.getTargetNode();
+        final List<Object> inputs = new ArrayList<>();
+        inputs.add(edge);
+        inputs.add(getDefinition(edge));
+        inputs.add(source);
+        inputs.add(getDefinition(source));
+        inputs.add(target);
+        inputs.add(getDefinition(target));
+        inputs.add(INPUTS_SEPARATOR);
+        if (null != source) {
+            inputs.addAll(source.getOutEdges());
+        }
+        inputs.add(INPUTS_SEPARATOR);
+        if (null != target) {
+            inputs.addAll(target.getInEdges());
+        }
+        return inputs.toArray();
+    }
+
+    private static Object getDefinition(final Element element) {
+        if (null == element) {
+            return null;
+        }
+        final Object content = element.getContent();
+        return content instanceof Definition ?
+                ((Definition) content).getDefinition() :
+                content;
+    }
+
+    private static Set<RuleViolation> toSet(final RuleViolations items) {
+        final Set<RuleViolation> result = new LinkedHashSet<>();
+        items.violations().forEach(result::add);
+        return result;
+    }
+
     private RuleSet getRuleSet(final Graph<? extends DefinitionSet, ?> graph) {
         final String defSetId = graph.getContent().getDefinition();
         final Object definitionSet = definitionManager.definitionSets().getDefinitionSetById(defSetId);
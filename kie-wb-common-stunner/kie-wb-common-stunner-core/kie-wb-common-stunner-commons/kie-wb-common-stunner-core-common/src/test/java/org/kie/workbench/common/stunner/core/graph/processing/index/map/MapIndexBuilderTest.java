@@ -0,0 +1,214 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.processing.index.map;
+
+import java.util.logging.Logger;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.stunner.core.TestingGraphInstanceBuilder;
+import org.kie.workbench.common.stunner.core.TestingGraphMockHandler;
+import org.kie.workbench.common.stunner.core.command.Command;
+import org.kie.workbench.common.stunner.core.command.CommandResult;
+import org.kie.workbench.common.stunner.core.graph.Edge;
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.command.GraphCommandExecutionContext;
+import org.kie.workbench.common.stunner.core.graph.impl.EdgeImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.GraphImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.NodeImpl;
+import org.kie.workbench.common.stunner.core.graph.store.GraphNodeStoreImpl;
+import org.kie.workbench.common.stunner.core.rule.RuleViolation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+public class MapIndexBuilderTest {
+
+    private static final Logger LOGGER = Logger.getLogger(MapIndexBuilderTest.class.getName());
+
+    private MapIndexBuilder tested;
+
+    @Before
+    public void setup() {
+        tested = new MapIndexBuilder();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testUpdateAppliesDifferencesInPlace() {
+        final Graph graph = new GraphImpl("graph",
+                                          new GraphNodeStoreImpl());
+        final Node node1 = new NodeImpl("node1");
+        final Node node2 = new NodeImpl("node2");
+        graph.addNode(node1);
+        graph.addNode(node2);
+        final MapIndex index = tested.build(graph);
+
+        final Node node3 = new NodeImpl("node3");
+        graph.addNode(node3);
+        graph.removeNode("node1");
+        assertEquals(2,
+                     tested.checkConsistency(index,
+                                             graph).size());
+
+        tested.update(index,
+                      graph);
+
+        assertNull(index.getNode("node1"));
+        assertSame(node2,
+                   index.getNode("node2"));
+        assertSame(node3,
+                   index.getNode("node3"));
+        assertTrue(tested.checkConsistency(index,
+                                           graph).isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testConnectorsWithNoSourceAreIndexed() {
+        final Graph graph = new GraphImpl("graph",
+                                          new GraphNodeStoreImpl());
+        final Node target = new NodeImpl("target");
+        final Edge edge = new EdgeImpl("edge");
+        edge.setTargetNode(target);
+        target.getInEdges().add(edge);
+        graph.addNode(target);
+
+        final MapIndex index = tested.build(graph);
+
+        assertSame(edge,
+                   index.getEdge("edge"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCommandsKeepIndexConsistent() {
+        final TestingGraphMockHandler handler = new TestingGraphMockHandler();
+        final MapIndex index = tested.build(handler.graph);
+        when(handler.graphCommandExecutionContext.getGraphIndex()).thenReturn(index);
+
+        final TestingGraphInstanceBuilder.TestGraph2 graph2 = TestingGraphInstanceBuilder.newGraph2(handler);
+        assertSame(graph2.edge1,
+                   index.getEdge(TestingGraphInstanceBuilder.EDGE1_UUID));
+        assertConsistent(index,
+                         handler.graph);
+
+        final Command<GraphCommandExecutionContext, RuleViolation> deleteConnector = handler.commandFactory.deleteConnector(graph2.edge2);
+        execute(deleteConnector,
+                handler);
+        assertNull(index.getEdge(TestingGraphInstanceBuilder.EDGE2_UUID));
+        assertConsistent(index,
+                         handler.graph);
+
+        final Command<GraphCommandExecutionContext, RuleViolation> deleteNode = handler.commandFactory.deleteNode(graph2.endNode);
+        execute(deleteNode,
+                handler);
+        assertNull(index.getNode(TestingGraphInstanceBuilder.END_NODE_UUID));
+        assertConsistent(index,
+                         handler.graph);
+
+        deleteNode.undo(handler.graphCommandExecutionContext);
+        deleteConnector.undo(handler.graphCommandExecutionContext);
+        assertSame(graph2.edge2,
+                   index.getEdge(TestingGraphInstanceBuilder.EDGE2_UUID));
+        assertConsistent(index,
+                         handler.graph);
+    }
+
+    /**
+     * Compares incremental index updates with full rebuilds. Only runs when the number of nodes of the graphs is set by
+     * the <code>org.kie.stunner.benchmark.sizes</code> system property, e.g. 1000,10000.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void benchmarkIncrementalVersusRebuild() {
+        final String sizes = System.getProperty("org.kie.stunner.benchmark.sizes");
+        Assume.assumeNotNull(sizes);
+        for (String size : sizes.split(",")) {
+            final int nodes = Integer.parseInt(size.trim());
+            final int changes = 100;
+
+            final Graph rebuiltGraph = generateGraph(nodes);
+            final MapIndex rebuilt = tested.build(rebuiltGraph);
+            long start = System.nanoTime();
+            for (int i = 0; i < changes; i++) {
+                rebuiltGraph.addNode(new NodeImpl("added-" + i));
+                tested.update(rebuilt,
+                              rebuiltGraph);
+            }
+            final long rebuildNanos = System.nanoTime() - start;
+
+            final Graph incrementalGraph = generateGraph(nodes);
+            final MapIndex incremental = tested.build(incrementalGraph);
+            start = System.nanoTime();
+            for (int i = 0; i < changes; i++) {
+                final Node node = new NodeImpl("added-" + i);
+                incrementalGraph.addNode(node);
+                incremental.addNode(node);
+            }
+            final long incrementalNanos = System.nanoTime() - start;
+
+            LOGGER.info("Nodes: " + nodes + ", " + changes + " node additions" +
+                                ", full rebuild: " + rebuildNanos / 1000000 + " ms" +
+                                ", incremental: " + incrementalNanos / 1000000 + " ms");
+            assertConsistent(rebuilt,
+                             rebuiltGraph);
+            assertConsistent(incremental,
+                             incrementalGraph);
+        }
+    }
+
+    private void assertConsistent(final MapIndex index,
+                                  final Graph graph) {
+        assertEquals("Index differs from a full rebuild",
+                     0,
+                     tested.checkConsistency(index,
+                                             graph).size());
+    }
+
+    private static void execute(final Command<GraphCommandExecutionContext, RuleViolation> command,
+                                final TestingGraphMockHandler handler) {
+        assertNotEquals(CommandResult.Type.ERROR,
+                        command.execute(handler.graphCommandExecutionContext).getType());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Graph generateGraph(final int nodes) {
+        final Graph graph = new GraphImpl("graph",
+                                          new GraphNodeStoreImpl());
+        Node previous = null;
+        for (int i = 0; i < nodes; i++) {
+            final Node node = new NodeImpl("node-" + i);
+            graph.addNode(node);
+            if (null != previous) {
+                final Edge edge = new EdgeImpl("edge-" + i);
+                edge.setSourceNode(previous);
+                edge.setTargetNode(node);
+                previous.getOutEdges().add(edge);
+                node.getInEdges().add(edge);
+            }
+            previous = node;
+        }
+        return graph;
+    }
+}
@@ -16,29 +16,45 @@
 
 package org.kie.workbench.common.stunner.core.graph.processing.indexing.bounds;
 
+import java.util.Random;
+import java.util.logging.Logger;
+
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.kie.workbench.common.stunner.core.TestingGraphInstanceBuilder;
 import org.kie.workbench.common.stunner.core.TestingGraphMockHandler;
 import org.kie.workbench.common.stunner.core.graph.Edge;
+import org.kie.workbench.common.stunner.core.graph.Graph;
 import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Child;
+import org.kie.workbench.common.stunner.core.graph.content.view.BoundImpl;
+import org.kie.workbench.common.stunner.core.graph.content.view.BoundsImpl;
 import org.kie.workbench.common.stunner.core.graph.content.view.Point2D;
 import org.kie.workbench.common.stunner.core.graph.content.view.View;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.EdgeImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.GraphImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.NodeImpl;
 import org.kie.workbench.common.stunner.core.graph.processing.index.bounds.GraphBoundsIndexerImpl;
 import org.kie.workbench.common.stunner.core.graph.processing.traverse.content.ChildrenTraverseProcessor;
 import org.kie.workbench.common.stunner.core.graph.processing.traverse.content.ChildrenTraverseProcessorImpl;
 import org.kie.workbench.common.stunner.core.graph.processing.traverse.tree.TreeWalkTraverseProcessorImpl;
+import org.kie.workbench.common.stunner.core.graph.store.GraphNodeStoreImpl;
 import org.kie.workbench.common.stunner.core.graph.util.GraphUtils;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 @RunWith(MockitoJUnitRunner.class)
 public class GraphBoundsIndexerImplTest {
 
+    private static final Logger LOGGER = Logger.getLogger(GraphBoundsIndexerImplTest.class.getName());
+
     private TestingGraphMockHandler graphTestHandlerParent;
     private TestingGraphInstanceBuilder.TestGraph2 graphInstanceParent;
 
@@ -127,4 +143,186 @@ public class GraphBoundsIndexerImplTest {
                      size[1],
                      0.001);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetAtReturnsLastTraversedNode() {
+        final Graph graph = new GraphImpl("graph",
+                                          new GraphNodeStoreImpl());
+        final Node root = newNode(graph,
+                                  "root",
+                                  0,
+                                  0,
+                                  2000,
+                                  2000);
+        final Node container = newNode(graph,
+                                        "container",
+                                        500,
+                                        500,
+                                        1000,
+                                        1000);
+        final Node child = newNode(graph,
+                                   "child",
+                                   100,
+                                   100,
+                                   200,
+                                   200);
+        setChild(root,
+                 container);
+        setChild(container,
+                 child);
+        final GraphBoundsIndexerImpl indexer = newIndexer().build(graph);
+
+        //Child bounds are relative to the container
+        assertSame(child,
+                   indexer.getAt(650,
+                                 650));
+        assertSame(container,
+                   indexer.getAt(550,
+                                 550));
+        assertSame(container,
+                   indexer.getAt(1000,
+                                 1000));
+        assertSame(root,
+                   indexer.getAt(100,
+                                 100));
+        assertNull(indexer.getAt(3000,
+                                 3000));
+
+        indexer.setRootUUID("root");
+        assertSame(root,
+                   indexer.getAt(3000,
+                                 3000));
+        assertSame(child,
+                   indexer.getAt(650,
+                                 650));
+    }
+
+    @Test
+    public void testGetAtMatchesFullTraversal() {
+        final Graph graph = generateGraph(300);
+        final GraphBoundsIndexerImpl indexer = newIndexer().build(graph);
+        final GraphBoundsIndexerImpl fullTraversal = newIndexer();
+        final Random random = new Random(1);
+        for (int i = 0; i < 500; i++) {
+            final double x = random.nextDouble() * 3000;
+            final double y = random.nextDouble() * 3000;
+            //Building again discards the index, so the lookup is a traversal of the whole graph
+            assertSame(fullTraversal.build(graph).getAt(x,
+                                                        y),
+                       indexer.getAt(x,
+                                     y));
+        }
+    }
+
+    /**
+     * Compares indexed lookups with full traversals. Only runs when the number of nodes of the graphs is set by the
+     * <code>org.kie.stunner.benchmark.sizes</code> system property, e.g. 1500,10000.
+     */
+    @Test
+    public void benchmarkGetAt() {
+        final String sizes = System.getProperty("org.kie.stunner.benchmark.sizes");
+        Assume.assumeNotNull(sizes);
+        for (String size : sizes.split(",")) {
+            final int nodes = Integer.parseInt(size.trim());
+            final Graph graph = generateGraph(nodes);
+            final int queries = 1000;
+            final Random random = new Random(1);
+            final double[] points = new double[queries * 2];
+            for (int i = 0; i < points.length; i++) {
+                points[i] = random.nextDouble() * Math.sqrt(nodes) * 200;
+            }
+
+            final GraphBoundsIndexerImpl indexer = newIndexer().build(graph);
+            long start = System.nanoTime();
+            int found = 0;
+            for (int i = 0; i < queries; i++) {
+                found += null != indexer.getAt(points[i * 2],
+                                               points[i * 2 + 1]) ? 1 : 0;
+            }
+            final long indexedNanos = System.nanoTime() - start;
+
+            final GraphBoundsIndexerImpl fullTraversal = newIndexer();
+            start = System.nanoTime();
+            int foundByTraversal = 0;
+            for (int i = 0; i < queries; i++) {
+                foundByTraversal += null != fullTraversal.build(graph).getAt(points[i * 2],
+                                                                             points[i * 2 + 1]) ? 1 : 0;
+            }
+            final long traversalNanos = System.nanoTime() - start;
+
+            LOGGER.info("Nodes: " + nodes +
+                                ", " + queries + " lookups, indexed: " + indexedNanos / 1000000 + " ms" +
+                                ", full traversal: " + traversalNanos / 1000000 + " ms");
+            assertEquals(foundByTraversal,
+                         found);
+        }
+    }
+
+    private static GraphBoundsIndexerImpl newIndexer() {
+        return new GraphBoundsIndexerImpl(new ChildrenTraverseProcessorImpl(new TreeWalkTraverseProcessorImpl()));
+    }
+
+    /**
+     * Generates containers laid out in a grid, each holding a few nodes.
+     */
+    private static Graph generateGraph(final int nodes) {
+        final Graph graph = new GraphImpl("graph",
+                                          new GraphNodeStoreImpl());
+        final int perContainer = 5;
+        final int containers = Math.max(1,
+                                        nodes / (perContainer + 1));
+        final int columns = (int) Math.ceil(Math.sqrt(containers));
+        int count = 0;
+        for (int c = 0; c < containers; c++) {
+            final double x = (c % columns) * 500;
+            final double y = (c / columns) * 500;
+            final Node container = newNode(graph,
+                                           "container-" + c,
+                                           x,
+                                           y,
+                                           450,
+                                           450);
+            count++;
+            for (int n = 0; n < perContainer && count < nodes; n++) {
+                final Node node = newNode(graph,
+                                          "node-" + c + "-" + n,
+                                          10 + n * 80,
+                                          10 + n * 80,
+                                          100,
+                                          60);
+                setChild(container,
+                         node);
+                count++;
+            }
+        }
+        return graph;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Node newNode(final Graph graph,
+                                final String uuid,
+                                final double x,
+                                final double y,
+                                final double width,
+                                final double height) {
+        final Node node = new NodeImpl(uuid);
+        node.setContent(new ViewImpl<>(new Object(),
+                                       new BoundsImpl(new BoundImpl(x,
+                                                                    y),
+                                                      new BoundImpl(x + width,
+                                                                    y + height))));
+        graph.addNode(node);
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void setChild(final Node parent,
+                                 final Node child) {
+        final Edge edge = new EdgeImpl(parent.getUUID() + "-" + child.getUUID());
+        edge.setContent(new Child());
+        edge.setSourceNode(parent);
+        edge.setTargetNode(child);
+        parent.getOutEdges().add(edge);
+        child.getInEdges().add(edge);
+    }
+}
@@ -32,6 +32,7 @@ import org.kie.workbench.common.stunner.core.rule.context.ContainmentContext;
 import org.kie.workbench.common.stunner.core.rule.context.impl.RuleContextBuilder;
 import org.kie.workbench.common.stunner.core.rule.ext.RuleExtension;
 import org.kie.workbench.common.stunner.core.rule.ext.RuleExtensionHandler;
+import org.kie.workbench.common.stunner.core.rule.impl.CanConnect;
 import org.kie.workbench.common.stunner.core.rule.impl.CanContain;
 import org.kie.workbench.common.stunner.core.rule.violations.ContextOperationNotAllowedViolation;
 import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolations;
@@ -40,6 +41,7 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
@@ -262,4 +264,93 @@ public class RuleManagerImplTest {
         assertTrue(violations.contains(ruleViolation2));
         assertTrue(violations.contains(ruleViolation3));
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testOnlyRulesOfHandledTypesAreEvaluated() {
+        final Rule connectionRule = new CanConnect("c1",
+                                                   "r1-cId",
+                                                   Collections.emptyList());
+        final RuleSet ruleSet = new RuleSetImpl("rs2",
+                                                new ArrayList<Rule>(2) {{
+                                                    add(rule1);
+                                                    add(connectionRule);
+                                                }});
+        when(registry.getExtensionHandler(any(Class.class))).thenReturn(null);
+        when(handler1.accepts(eq(rule1),
+                              eq(ruleEvaluationContext))).thenReturn(true);
+        when(handler1.evaluate(eq(rule1),
+                               eq(ruleEvaluationContext))).thenReturn(ruleViolations1);
+        tested.setStatisticsEnabled(true);
+        final RuleViolations result = tested.evaluate(ruleSet,
+                                                      ruleEvaluationContext);
+        final Collection<RuleViolation> violations = (Collection<RuleViolation>) result.violations();
+        assertEquals(1,
+                     violations.size());
+        final List<RuleEvaluationStatistics.Entry> entries = tested.getStatistics().getEntries();
+        assertEquals(1,
+                     entries.size());
+        assertEquals("r1",
+                     entries.get(0).getRuleName());
+        assertEquals("rs2",
+                     entries.get(0).getRuleSetName());
+        assertEquals(1,
+                     entries.get(0).getEvaluations());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRuleSetsAreIndexedByIdentity() {
+        //Both rule sets are equal, but each one has rules of its own
+        final RuleSet ruleSet1 = new NamedRuleSet("rs2",
+                                                  Collections.singletonList(rule1));
+        final RuleSet ruleSet2 = new NamedRuleSet("rs2",
+                                                  Collections.singletonList(rule2));
+        assertEquals(ruleSet1,
+                     ruleSet2);
+        when(registry.getExtensionHandler(any(Class.class))).thenReturn(null);
+        when(handler1.accepts(eq(rule1),
+                              eq(ruleEvaluationContext))).thenReturn(true);
+        when(handler1.evaluate(eq(rule1),
+                               eq(ruleEvaluationContext))).thenReturn(ruleViolations1);
+        when(handler2.accepts(eq(rule2),
+                              eq(ruleEvaluationContext))).thenReturn(true);
+        when(handler2.evaluate(eq(rule2),
+                               eq(ruleEvaluationContext))).thenReturn(ruleViolations2);
+        final Collection<RuleViolation> violations1 = (Collection<RuleViolation>) tested.evaluate(ruleSet1,
+                                                                                                  ruleEvaluationContext).violations();
+        assertTrue(violations1.contains(ruleViolation1));
+        assertFalse(violations1.contains(ruleViolation2));
+        final Collection<RuleViolation> violations2 = (Collection<RuleViolation>) tested.evaluate(ruleSet2,
+                                                                                                  ruleEvaluationContext).violations();
+        assertFalse(violations2.contains(ruleViolation1));
+        assertTrue(violations2.contains(ruleViolation2));
+    }
+
+    @Test
+    public void testStatisticsAreDisabledByDefault() {
+        when(registry.getExtensionHandler(any(Class.class))).thenReturn(null);
+        tested.evaluate(ruleSet,
+                        ruleEvaluationContext);
+        assertTrue(tested.getStatistics().getEntries().isEmpty());
+    }
+
+    private static class NamedRuleSet extends RuleSetImpl {
+
+        private NamedRuleSet(final String name,
+                             final Collection<Rule> rules) {
+            super(name,
+                  rules);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof NamedRuleSet && getName().equals(((NamedRuleSet) o).getName());
+        }
+
+        @Override
+        public int hashCode() {
+            return getName().hashCode();
+        }
+    }
 }
@@ -16,7 +16,9 @@
 
 package org.kie.workbench.common.stunner.core.validation.impl;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,6 +36,7 @@ import org.kie.workbench.common.stunner.core.rule.RuleEvaluationContext;
 import org.kie.workbench.common.stunner.core.rule.RuleManager;
 import org.kie.workbench.common.stunner.core.rule.RuleSet;
 import org.kie.workbench.common.stunner.core.rule.RuleViolation;
+import org.kie.workbench.common.stunner.core.rule.RuleViolations;
 import org.kie.workbench.common.stunner.core.rule.context.ConnectorCardinalityContext;
 import org.kie.workbench.common.stunner.core.rule.context.EdgeCardinalityContext;
 import org.kie.workbench.common.stunner.core.rule.context.ElementCardinalityContext;
@@ -54,6 +57,7 @@ import static org.kie.workbench.common.stunner.core.TestingGraphUtils.verifyCard
 import static org.kie.workbench.common.stunner.core.TestingGraphUtils.verifyConnection;
 import static org.kie.workbench.common.stunner.core.TestingGraphUtils.verifyConnectorCardinality;
 import static org.kie.workbench.common.stunner.core.TestingGraphUtils.verifyContainment;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -67,6 +71,12 @@ public class GraphValidatorImplTest {
     @Mock
     private Object defSetBean;
 
+    @Mock
+    private RuleManager validatorRuleManager;
+
+    @Mock
+    private RuleViolations validatorRuleViolations;
+
     private GraphValidatorImpl tested;
     private TestingGraphMockHandler graphTestHandler;
 
@@ -240,6 +250,132 @@ public class GraphValidatorImplTest {
                         });
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testIncrementalValidationReusesUnchangedElements() {
+        final GraphValidatorImpl incrementalValidator = newIncrementalValidator();
+        final RuleSet ruleSet = graphTestHandler.ruleSet;
+        final Graph<DefinitionSet, Node> graph = graphTestHandler.graph;
+        TestingGraphInstanceBuilder.newGraph1(graphTestHandler);
+        incrementalValidator.validate(graph,
+                                      ruleSet,
+                                      this::assertNoError);
+        verify(validatorRuleManager,
+               times(10)).evaluate(eq(ruleSet),
+                                   any(RuleEvaluationContext.class));
+        final GraphValidationCache cache = incrementalValidator.getCache(graph,
+                                                                         ruleSet);
+        incrementalValidator.validate(graph,
+                                      ruleSet,
+                                      this::assertNoError);
+        // No further evaluations for an unchanged graph.
+        verify(validatorRuleManager,
+               times(10)).evaluate(eq(ruleSet),
+                                   any(RuleEvaluationContext.class));
+        assertEquals(0,
+                     cache.getEvaluations());
+        assertEquals(6,
+                     cache.getReused());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testIncrementalValidationEvaluatesChangedElements() {
+        final GraphValidatorImpl incrementalValidator = newIncrementalValidator();
+        final RuleSet ruleSet = graphTestHandler.ruleSet;
+        final Graph<DefinitionSet, Node> graph = graphTestHandler.graph;
+        final TestingGraphInstanceBuilder.TestGraph1 testGraph1 = TestingGraphInstanceBuilder.newGraph1(graphTestHandler);
+        incrementalValidator.validate(graph,
+                                      ruleSet,
+                                      this::assertNoError);
+        graphTestHandler.removeTargetConnection(testGraph1.edge2);
+        final List<Collection<RuleViolation>> edge2Violations = new ArrayList<>();
+        final List<RuleViolation> result = new ArrayList<>();
+        incrementalValidator.validate(graph,
+                                      Optional.of(ruleSet),
+                                      Optional.empty(),
+                                      Optional.empty(),
+                                      Optional.of((edge, violations) -> {
+                                          if (edge == testGraph1.edge2) {
+                                              edge2Violations.add(violations);
+                                          }
+                                      }),
+                                      result::addAll);
+        // Only the connection and the outgoing cardinality for edge2 are evaluated again.
+        final ArgumentCaptor<RuleEvaluationContext> contextCaptor = ArgumentCaptor.forClass(RuleEvaluationContext.class);
+        verify(validatorRuleManager,
+               times(12)).evaluate(eq(ruleSet),
+                                   contextCaptor.capture());
+        final List<RuleEvaluationContext> contexts = contextCaptor.getAllValues();
+        verifyConnection((GraphConnectionContext) contexts.get(10),
+                         testGraph1.edge2,
+                         testGraph1.intermNode,
+                         null);
+        verifyConnectorCardinality((ConnectorCardinalityContext) contexts.get(11),
+                                   graph,
+                                   testGraph1.intermNode,
+                                   testGraph1.edge2,
+                                   EdgeCardinalityContext.Direction.OUTGOING,
+                                   Optional.empty());
+        assertEquals(1,
+                     edge2Violations.size());
+        assertEquals(1,
+                     edge2Violations.get(0).size());
+        assertEquals(1,
+                     result.size());
+        assertTrue(result.get(0) instanceof EmptyConnectionViolation);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testIncrementalValidationEvaluatesAddedAndRemovedElements() {
+        final GraphValidatorImpl incrementalValidator = newIncrementalValidator();
+        final RuleSet ruleSet = graphTestHandler.ruleSet;
+        final Graph<DefinitionSet, Node> graph = graphTestHandler.graph;
+        TestingGraphInstanceBuilder.newGraph1(graphTestHandler);
+        incrementalValidator.validate(graph,
+                                      ruleSet,
+                                      this::assertNoError);
+        final Node node = graphTestHandler.newNode("addedNode",
+                                                   Optional.empty());
+        incrementalValidator.validate(graph,
+                                      ruleSet,
+                                      this::assertNoError);
+        // The graph cardinality and the containment for the new node.
+        verify(validatorRuleManager,
+               times(12)).evaluate(eq(ruleSet),
+                                   any(RuleEvaluationContext.class));
+        graph.removeNode(node.getUUID());
+        incrementalValidator.validate(graph,
+                                      ruleSet,
+                                      this::assertNoError);
+        // The graph cardinality only.
+        verify(validatorRuleManager,
+               times(13)).evaluate(eq(ruleSet),
+                                   any(RuleEvaluationContext.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testIncrementalValidationDisabledByDefault() {
+        final RuleSet ruleSet = graphTestHandler.ruleSet;
+        final Graph<DefinitionSet, Node> graph = graphTestHandler.graph;
+        assertFalse(tested.isIncremental());
+        assertNull(tested.getCache(graph,
+                                   ruleSet));
+    }
+
+    private GraphValidatorImpl newIncrementalValidator() {
+        when(validatorRuleManager.evaluate(any(RuleSet.class),
+                                           any(RuleEvaluationContext.class))).thenReturn(validatorRuleViolations);
+        when(validatorRuleViolations.violations()).thenReturn(Collections.emptyList());
+        final GraphValidatorImpl validator = new GraphValidatorImpl(graphTestHandler.definitionManager,
+                                                                    validatorRuleManager,
+                                                                    new TreeWalkTraverseProcessorImpl());
+        validator.setIncremental(true);
+        return validator;
+    }
+
     private void assertNoError(final Collection<RuleViolation> violations) {
         assertFalse(violations.stream()
                             .filter(v -> Violation.Type.ERROR.equals(v.getViolationType()))
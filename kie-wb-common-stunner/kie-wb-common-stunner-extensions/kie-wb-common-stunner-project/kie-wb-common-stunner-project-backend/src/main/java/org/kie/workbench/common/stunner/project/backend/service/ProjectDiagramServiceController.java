@@ -152,11 +152,10 @@ class ProjectDiagramServiceController extends AbstractVFSDiagramService<ProjectM
                      final Map<String, ?> attributes,
                      final OpenOption... comment) {
         try {
-            String[] raw = serialize(diagram);
-            getIoService().write(Paths.convert(path),
-                                 raw[0],
-                                 attributes,
-                                 comment);
+            write(Paths.convert(path),
+                  diagram,
+                  attributes,
+                  comment);
         } catch (Exception e) {
             LOG.error("Error while saving diagram with UUID [" + diagram.getName() + "].",
                       e);
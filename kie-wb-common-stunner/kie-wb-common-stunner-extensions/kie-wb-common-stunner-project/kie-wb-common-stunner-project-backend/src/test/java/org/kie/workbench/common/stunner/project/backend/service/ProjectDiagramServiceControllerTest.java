@@ -16,9 +16,15 @@
 
 package org.kie.workbench.common.stunner.project.backend.service;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 import org.guvnor.common.services.backend.metadata.MetadataServerSideService;
 import org.guvnor.common.services.project.model.Package;
@@ -35,19 +41,30 @@ import org.kie.workbench.common.stunner.core.diagram.Diagram;
 import org.kie.workbench.common.stunner.core.diagram.Metadata;
 import org.kie.workbench.common.stunner.project.diagram.ProjectDiagram;
 import org.kie.workbench.common.stunner.project.diagram.ProjectMetadata;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.java.nio.base.options.CommentedOption;
+import org.uberfire.java.nio.channels.SeekableByteChannel;
 import org.uberfire.java.nio.file.DeleteOption;
+import org.uberfire.java.nio.file.OpenOption;
+import org.uberfire.java.nio.file.attribute.FileAttribute;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -164,6 +181,100 @@ public class ProjectDiagramServiceControllerTest
                                DIAGRAM_MARSHALLED);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSave() throws IOException {
+        final Path path = mock(Path.class);
+        final Map<String, ?> attributes = Collections.singletonMap("key", "value");
+        final CommentedOption option = mock(CommentedOption.class);
+        final SeekableByteChannel channel = mock(SeekableByteChannel.class);
+        final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        when(path.toURI()).thenReturn(FILE_URI);
+        final org.uberfire.java.nio.file.Path expectedNioPath = Paths.convert(path);
+        doAnswer(i -> {
+            ((OutputStream) i.getArguments()[1]).write(DIAGRAM_MARSHALLED.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(diagramMarshaller).marshall(eq(diagram),
+                                            any(OutputStream.class));
+        when(ioService.convert(attributes)).thenReturn(new FileAttribute<?>[0]);
+        when(ioService.newByteChannel(eq(expectedNioPath),
+                                      anySetOf(OpenOption.class),
+                                      anyVararg())).thenReturn(channel);
+        when(channel.write(any(ByteBuffer.class))).thenAnswer(i -> {
+            final ByteBuffer buffer = (ByteBuffer) i.getArguments()[0];
+            final int count = buffer.remaining();
+            final byte[] bytes = new byte[count];
+            buffer.get(bytes);
+            written.write(bytes);
+            return count;
+        });
+
+        ((ProjectDiagramServiceController) diagramService).save(path,
+                                                                diagram,
+                                                                attributes,
+                                                                option);
+
+        final ArgumentCaptor<Set> options = ArgumentCaptor.forClass(Set.class);
+        verify(ioService).newByteChannel(eq(expectedNioPath),
+                                         options.capture(),
+                                         anyVararg());
+        assertTrue(options.getValue().contains(option));
+        verify(channel).close();
+        assertEquals(DIAGRAM_MARSHALLED,
+                     written.toString("UTF-8"));
+        verify(ioService,
+               never()).write(any(org.uberfire.java.nio.file.Path.class),
+                              anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSaveDoesNotWriteOnMarshallingError() throws IOException {
+        final Path path = mock(Path.class);
+        when(path.toURI()).thenReturn(FILE_URI);
+        doThrow(new NoSuchElementException("Not supported"))
+                .when(diagramMarshaller).marshall(eq(diagram),
+                                                  any(OutputStream.class));
+
+        try {
+            ((ProjectDiagramServiceController) diagramService).save(path,
+                                                                    diagram,
+                                                                    Collections.emptyMap(),
+                                                                    mock(CommentedOption.class));
+            fail("The marshalling error should be thrown");
+        } catch (RuntimeException e) {
+            verify(ioService,
+                   never()).newByteChannel(any(org.uberfire.java.nio.file.Path.class),
+                                           anySetOf(OpenOption.class),
+                                           anyVararg());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSaveDoesNotWriteOnMarshallingErrorOnceWritten() throws IOException {
+        final Path path = mock(Path.class);
+        when(path.toURI()).thenReturn(FILE_URI);
+        doAnswer(i -> {
+            ((OutputStream) i.getArguments()[1]).write(DIAGRAM_MARSHALLED.getBytes(StandardCharsets.UTF_8));
+            throw new IllegalStateException("Failed while writing");
+        }).when(diagramMarshaller).marshall(eq(diagram),
+                                            any(OutputStream.class));
+
+        try {
+            ((ProjectDiagramServiceController) diagramService).save(path,
+                                                                    diagram,
+                                                                    Collections.emptyMap(),
+                                                                    mock(CommentedOption.class));
+            fail("The marshalling error should be thrown");
+        } catch (RuntimeException e) {
+            verify(ioService,
+                   never()).newByteChannel(any(org.uberfire.java.nio.file.Path.class),
+                                           anySetOf(OpenOption.class),
+                                           anyVararg());
+        }
+    }
+
     @Test
     public void testSaveAsXml() {
         final Path path = mock(Path.class);
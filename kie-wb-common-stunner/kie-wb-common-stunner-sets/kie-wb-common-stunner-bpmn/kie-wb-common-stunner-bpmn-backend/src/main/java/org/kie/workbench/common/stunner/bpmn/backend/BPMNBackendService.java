@@ -34,7 +34,7 @@ import org.slf4j.LoggerFactory;
 public class BPMNBackendService extends AbstractDefinitionSetService {
 
     private static final org.slf4j.Logger LOG = LoggerFactory.getLogger(BPMNBackendService.class);
-    private static final String MARSHALLER_EXPERIMENTAL_PROPERTY = "bpmn.marshaller.experimental";
+    static final String MARSHALLER_EXPERIMENTAL_PROPERTY = "bpmn.marshaller.experimental";
 
     private final BPMNDefinitionSetResourceType bpmnResourceType;
 
@@ -55,7 +55,12 @@ public class BPMNBackendService extends AbstractDefinitionSetService {
         this.bpmnResourceType = bpmnResourceType;
     }
 
-    private static DiagramMarshaller<Graph, Metadata, Diagram<Graph, Metadata>> chooseMarshaller(
+    /**
+     * The legacy marshaller is used by default, until the converters reach feature parity with it. The converters
+     * based marshaller, falling back to the legacy one for the documents it cannot handle yet, is used when
+     * <code>bpmn.marshaller.experimental=true</code>.
+     */
+    static DiagramMarshaller<Graph, Metadata, Diagram<Graph, Metadata>> chooseMarshaller(
             final BPMNDiagramMarshaller bpmnDiagramMarshaller,
             final BPMNDirectDiagramMarshaller bpmnDirectDiagramMarshaller) {
 
@@ -67,7 +72,8 @@ public class BPMNBackendService extends AbstractDefinitionSetService {
         LOG.info("{} = {}", MARSHALLER_EXPERIMENTAL_PROPERTY, enableExperimentalBpmnMarshaller);
 
         return (enableExperimentalBpmnMarshaller) ?
-                bpmnDirectDiagramMarshaller :
+                new BPMNFallbackDiagramMarshaller(bpmnDirectDiagramMarshaller,
+                                                  bpmnDiagramMarshaller) :
                 bpmnDiagramMarshaller;
     }
 
@@ -19,6 +19,7 @@ package org.kie.workbench.common.stunner.bpmn.backend;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -27,7 +28,6 @@ import javax.inject.Inject;
 
 import bpsim.impl.BpsimFactoryImpl;
 import bpsim.impl.BpsimPackageImpl;
-import org.apache.commons.lang3.StringEscapeUtils;
 import org.eclipse.bpmn2.Bpmn2Package;
 import org.eclipse.bpmn2.Definitions;
 import org.eclipse.bpmn2.DocumentRoot;
@@ -49,6 +49,7 @@ import org.kie.workbench.common.stunner.bpmn.backend.converters.tostunner.Defini
 import org.kie.workbench.common.stunner.bpmn.backend.converters.tostunner.GraphBuilder;
 import org.kie.workbench.common.stunner.bpmn.backend.legacy.resource.JBPMBpmn2ResourceFactoryImpl;
 import org.kie.workbench.common.stunner.bpmn.backend.legacy.resource.JBPMBpmn2ResourceImpl;
+import org.kie.workbench.common.stunner.bpmn.backend.marshall.Html4UnescapingOutputStream;
 import org.kie.workbench.common.stunner.core.api.DefinitionManager;
 import org.kie.workbench.common.stunner.core.api.FactoryManager;
 import org.kie.workbench.common.stunner.core.backend.service.XMLEncoderDiagramMetadataMarshaller;
@@ -98,8 +99,19 @@ public class BPMNDirectDiagramMarshaller implements DiagramMarshaller<Graph, Met
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public String marshall(final Diagram<Graph, Metadata> diagram) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        marshall(diagram,
+                 outputStream);
+        String outputString = outputStream.toString("UTF-8");
+        LOG.trace(outputString);
+        return outputString;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void marshall(final Diagram<Graph, Metadata> diagram,
+                         final OutputStream output) throws IOException {
         LOG.debug("Starting diagram marshalling...");
 
         Bpmn2Resource resource = createBpmn2Resource();
@@ -114,16 +126,13 @@ public class BPMNDirectDiagramMarshaller implements DiagramMarshaller<Graph, Met
         resource.getContents().add(definitions);
 
         LOG.debug("Diagram marshalling completed successfully.");
-        String outputString = renderToString(resource);
-        LOG.trace(outputString);
-        return outputString;
+        render(resource, output);
     }
 
-    private String renderToString(Bpmn2Resource resource) throws IOException {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    private void render(Bpmn2Resource resource, OutputStream output) throws IOException {
+        Html4UnescapingOutputStream outputStream = new Html4UnescapingOutputStream(output);
         resource.save(outputStream, new HashMap<>());
-        return StringEscapeUtils.unescapeHtml4(
-                outputStream.toString("UTF-8"));
+        outputStream.finish();
     }
 
     @Override
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.bpmn.backend;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.kie.workbench.common.stunner.core.backend.util.SpooledOutputStream;
+import org.kie.workbench.common.stunner.core.definition.service.DiagramMarshaller;
+import org.kie.workbench.common.stunner.core.definition.service.DiagramMetadataMarshaller;
+import org.kie.workbench.common.stunner.core.diagram.Diagram;
+import org.kie.workbench.common.stunner.core.diagram.Metadata;
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.content.definition.DefinitionSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Marshalls through the converters of the direct marshaller and, for the documents
+ * or diagrams holding elements the converters do not support yet, through the
+ * legacy Oryx JSON based marshaller.
+ */
+class BPMNFallbackDiagramMarshaller implements DiagramMarshaller<Graph, Metadata, Diagram<Graph, Metadata>> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BPMNFallbackDiagramMarshaller.class);
+
+    private final DiagramMarshaller<Graph, Metadata, Diagram<Graph, Metadata>> marshaller;
+    private final DiagramMarshaller<Graph, Metadata, Diagram<Graph, Metadata>> fallbackMarshaller;
+
+    BPMNFallbackDiagramMarshaller(final DiagramMarshaller<Graph, Metadata, Diagram<Graph, Metadata>> marshaller,
+                                  final DiagramMarshaller<Graph, Metadata, Diagram<Graph, Metadata>> fallbackMarshaller) {
+        this.marshaller = marshaller;
+        this.fallbackMarshaller = fallbackMarshaller;
+    }
+
+    @Override
+    public String marshall(final Diagram<Graph, Metadata> diagram) throws IOException {
+        try {
+            return marshaller.marshall(diagram);
+        } catch (RuntimeException e) {
+            LOG.warn("Diagram [" + diagram.getName() + "] cannot be marshalled by the converters, " +
+                             "falling back to the legacy marshaller.",
+                     e);
+            return fallbackMarshaller.marshall(diagram);
+        }
+    }
+
+    @Override
+    public void marshall(final Diagram<Graph, Metadata> diagram,
+                         final OutputStream output) throws IOException {
+        // The converters output is spooled, so a failure while writing leaves nothing behind in the given stream.
+        try (final SpooledOutputStream spooled = new SpooledOutputStream()) {
+            try {
+                marshaller.marshall(diagram,
+                                    spooled);
+            } catch (RuntimeException e) {
+                LOG.warn("Diagram [" + diagram.getName() + "] cannot be marshalled by the converters, " +
+                                 "falling back to the legacy marshaller.",
+                         e);
+                fallbackMarshaller.marshall(diagram,
+                                            output);
+                return;
+            }
+            spooled.writeTo(output);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Graph<DefinitionSet, Node> unmarshall(final Metadata metadata,
+                                                 final InputStream input) throws IOException {
+        // The document is kept so it can be read again by the fallback marshaller.
+        final byte[] document = read(input);
+        try {
+            return marshaller.unmarshall(metadata,
+                                         new ByteArrayInputStream(document));
+        } catch (RuntimeException e) {
+            LOG.warn("Document cannot be unmarshalled by the converters, " +
+                             "falling back to the legacy marshaller.",
+                     e);
+            return fallbackMarshaller.unmarshall(metadata,
+                                                 new ByteArrayInputStream(document));
+        }
+    }
+
+    @Override
+    public DiagramMetadataMarshaller<Metadata> getMetadataMarshaller() {
+        return marshaller.getMetadataMarshaller();
+    }
+
+    DiagramMarshaller<Graph, Metadata, Diagram<Graph, Metadata>> getMarshaller() {
+        return marshaller;
+    }
+
+    DiagramMarshaller<Graph, Metadata, Diagram<Graph, Metadata>> getFallbackMarshaller() {
+        return fallbackMarshaller;
+    }
+
+    private static byte[] read(final InputStream input) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int count;
+        while ((count = input.read(buffer)) != -1) {
+            output.write(buffer,
+                         0,
+                         count);
+        }
+        return output.toByteArray();
+    }
+}
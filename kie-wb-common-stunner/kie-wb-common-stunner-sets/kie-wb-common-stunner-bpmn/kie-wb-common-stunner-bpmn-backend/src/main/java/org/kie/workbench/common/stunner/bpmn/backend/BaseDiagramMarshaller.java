@@ -16,8 +16,10 @@
 
 package org.kie.workbench.common.stunner.bpmn.backend;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -97,28 +99,37 @@ public abstract class BaseDiagramMarshaller<D> implements DiagramMarshaller<Grap
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public String marshall(final Diagram diagram) throws IOException {
-        LOG.debug("Starting diagram marshalling...");
-
-        final Bpmn2Marshaller marshaller = new Bpmn2Marshaller(definitionManager,
-                                                               oryxManager);
-        String result = null;
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
         try {
-            // Marshall the diagram definition
-            result = marshaller.marshall(diagram,
-                                         getPreProcessingData(diagram.getMetadata()));
-
-            // Update diagram's settings.
-            updateRootUUID(diagram.getMetadata(),
-                           diagram.getGraph());
+            marshall(diagram,
+                     output);
         } catch (IOException e) {
             LOG.error("Error marshalling file.",
                       e);
+            return null;
         }
+        return output.toString("UTF-8");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void marshall(final Diagram diagram,
+                         final OutputStream output) throws IOException {
+        LOG.debug("Starting diagram marshalling...");
+
+        final Bpmn2Marshaller marshaller = new Bpmn2Marshaller(definitionManager,
+                                                               oryxManager);
+        // Marshall the diagram definition
+        marshaller.marshall(diagram,
+                            getPreProcessingData(diagram.getMetadata()),
+                            output);
+
+        // Update diagram's settings.
+        updateRootUUID(diagram.getMetadata(),
+                       diagram.getGraph());
 
         LOG.debug("Diagram marshalling finished successfully.");
-        return result;
     }
 
     protected abstract String getPreProcessingData(Metadata metadata);
@@ -119,10 +119,10 @@ public class Match<In, Out> {
 
     public Result<Out> apply(In value) {
         return cases.stream()
-                .map(c -> c.match(value))
-                .filter(Result::nonFailure)
+                .filter(c -> c.matches(value))
                 .findFirst()
-                .orElse(applyFallback(value));
+                .map(c -> c.apply(value))
+                .orElseGet(() -> applyFallback(value));
     }
 
     private Result<Out> applyFallback(In value) {
@@ -143,9 +143,12 @@ public class Match<In, Out> {
             this.then = then;
         }
 
-        public Result<R> match(Object value) {
-            return when.isAssignableFrom(value.getClass()) ?
-                    then.apply((T) value) : Result.failure(value.getClass().getName());
+        public boolean matches(Object value) {
+            return when.isAssignableFrom(value.getClass());
+        }
+
+        public Result<R> apply(Object value) {
+            return then.apply((T) value);
         }
     }
 }
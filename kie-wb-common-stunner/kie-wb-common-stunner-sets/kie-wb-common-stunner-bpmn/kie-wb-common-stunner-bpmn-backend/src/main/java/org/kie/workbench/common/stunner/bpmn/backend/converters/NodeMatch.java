@@ -110,10 +110,10 @@ public class NodeMatch<In, Out> {
 
     public Result<Out> apply(Node<? extends View<? extends BPMNViewDefinition>, ?> value) {
         return cases.stream()
-                .map(c -> c.match(value))
-                .filter(Result::nonFailure)
+                .filter(c -> c.matches(value))
                 .findFirst()
-                .orElse(applyFallback(value));
+                .map(c -> c.apply(value))
+                .orElseGet(() -> applyFallback(value));
     }
 
     private Result<Out> applyFallback(Node<? extends View<? extends BPMNViewDefinition>, ?> value) {
@@ -134,10 +134,13 @@ public class NodeMatch<In, Out> {
             this.then = then;
         }
 
-        public Result<R> match(Node<? extends View<? extends BPMNViewDefinition>, ?> value) {
+        public boolean matches(Node<? extends View<? extends BPMNViewDefinition>, ?> value) {
             BPMNViewDefinition definition = value.getContent().getDefinition();
-            return when.isAssignableFrom(definition.getClass()) ?
-                    then.apply((Node) value) : Result.failure(value.getClass().getName());
+            return when.isAssignableFrom(definition.getClass());
+        }
+
+        public Result<R> apply(Node<? extends View<? extends BPMNViewDefinition>, ?> value) {
+            return then.apply((Node) value);
         }
     }
 }
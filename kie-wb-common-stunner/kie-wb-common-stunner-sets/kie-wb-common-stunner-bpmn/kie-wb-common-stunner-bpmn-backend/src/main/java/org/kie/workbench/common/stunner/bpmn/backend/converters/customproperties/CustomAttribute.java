@@ -63,6 +63,7 @@ public class CustomAttribute<T> {
     };
     public static final AttributeDefinition<String> priority = new StringAttribute(droolsns, "priority", null);
     public static final AttributeDefinition<String> dtype = new StringAttribute(droolsns, "dtype", "");
+    public static final AttributeDefinition<String> taskName = new StringAttribute(droolsns, "taskName", "");
 
     public static final AttributeDefinition<String> dg = new StringAttribute(droolsns, "dg", "") {
         @Override
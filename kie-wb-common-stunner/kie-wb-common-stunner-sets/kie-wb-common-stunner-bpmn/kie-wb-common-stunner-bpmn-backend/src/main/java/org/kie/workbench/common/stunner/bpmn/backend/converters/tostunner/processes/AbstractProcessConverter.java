@@ -86,7 +86,8 @@ class AbstractProcessConverter {
         flowElements
                 .stream()
                 .map(converterFactory.flowElementConverter()::convertNode)
-                .filter(Result::isSuccess)
+                // failures are not skipped, the element would be lost
+                .filter(Result::notIgnored)
                 .map(Result::value)
                 .forEach(n -> result.put(n.value().getUUID(), n));
 
@@ -18,6 +18,7 @@ package org.kie.workbench.common.stunner.bpmn.backend.converters.tostunner.prope
 
 import org.eclipse.bpmn2.Task;
 import org.eclipse.bpmn2.di.BPMNPlane;
+import org.kie.workbench.common.stunner.bpmn.backend.converters.customproperties.CustomAttribute;
 import org.kie.workbench.common.stunner.bpmn.backend.converters.tostunner.DefinitionResolver;
 import org.kie.workbench.common.stunner.bpmn.definition.property.simulation.SimulationSet;
 
@@ -37,4 +38,11 @@ public class TaskPropertyReader extends FlowElementPropertyReader {
                 .map(SimulationSets::of)
                 .orElse(new SimulationSet());
     }
+
+    /**
+     * @return true when the task is a work item (custom) task, i.e. a task naming its work item handler.
+     */
+    public boolean isWorkItem() {
+        return !CustomAttribute.taskName.of(task).get().isEmpty();
+    }
 }
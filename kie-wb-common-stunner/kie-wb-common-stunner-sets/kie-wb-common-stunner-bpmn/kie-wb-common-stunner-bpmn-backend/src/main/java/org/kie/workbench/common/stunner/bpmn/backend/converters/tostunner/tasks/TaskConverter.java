@@ -177,8 +177,12 @@ public class TaskConverter {
     }
 
     private BpmnNode noneTask(Task task) {
-        Node<View<NoneTask>, Edge> node = factoryManager.newNode(task.getId(), NoneTask.class);
         TaskPropertyReader p = propertyReaderFactory.of(task);
+        if (p.isWorkItem()) {
+            // reading it as a none task would lose its handler and parameters
+            throw new UnsupportedOperationException("Not yet implemented: work item task " + task.getId());
+        }
+        Node<View<NoneTask>, Edge> node = factoryManager.newNode(task.getId(), NoneTask.class);
 
         NoneTask definition = node.getContent().getDefinition();
 
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.bpmn.backend.marshall;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.lang3.StringEscapeUtils;
+
+/**
+ * Unescapes the HTML 4 entities of the UTF-8 text written through it, giving the same text as
+ * {@link StringEscapeUtils#unescapeHtml4(String)} over the whole text, but without holding the whole text in memory.
+ * <p>
+ * Every entity starts with <code>&amp;</code> and ends with <code>;</code>, so the text is unescaped in chunks, keeping
+ * back the trailing characters that may be the beginning of an entity until the next chunk is written.
+ */
+public class Html4UnescapingOutputStream extends OutputStream {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Writer writer;
+    private final CharsetDecoder decoder;
+    private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private final StringBuilder pending = new StringBuilder();
+    private boolean finished;
+
+    public Html4UnescapingOutputStream(final OutputStream output) {
+        this.writer = new OutputStreamWriter(output,
+                                             StandardCharsets.UTF_8);
+        this.decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        write(new byte[]{(byte) b},
+              0,
+              1);
+    }
+
+    @Override
+    public void write(final byte[] b,
+                      final int off,
+                      final int len) throws IOException {
+        if (finished) {
+            throw new IOException("The stream is already finished.");
+        }
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            final int count = Math.min(remaining,
+                                       bytes.remaining());
+            bytes.put(b,
+                      offset,
+                      count);
+            offset += count;
+            remaining -= count;
+            decode(false);
+        }
+    }
+
+    /**
+     * Flushes the text unescaped so far, the characters that may be the beginning of an entity are kept back.
+     */
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Unescapes and writes the remaining text to the underlying stream, without closing it.
+     */
+    public void finish() throws IOException {
+        if (!finished) {
+            decode(true);
+            CoderResult result;
+            do {
+                result = decoder.flush(chars);
+                unescape(true);
+            } while (result.isOverflow());
+            finished = true;
+        }
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        writer.close();
+    }
+
+    private void decode(final boolean endOfInput) throws IOException {
+        bytes.flip();
+        CoderResult result;
+        do {
+            result = decoder.decode(bytes,
+                                    chars,
+                                    endOfInput);
+            unescape(endOfInput);
+        } while (result.isOverflow());
+        // Keeps the bytes of an incomplete character for the next write.
+        bytes.compact();
+    }
+
+    private void unescape(final boolean endOfInput) throws IOException {
+        chars.flip();
+        pending.append(chars);
+        chars.clear();
+        final int length = endOfInput ? pending.length() : getCompleteLength(pending);
+        if (length > 0) {
+            StringEscapeUtils.UNESCAPE_HTML4.translate(pending.subSequence(0,
+                                                                           length),
+                                                       writer);
+            pending.delete(0,
+                           length);
+        }
+    }
+
+    /**
+     * @return the length of the text that cannot be followed by the rest of an entity, that is, the text up to the
+     * last <code>&amp;</code> when no character but letters, digits or <code>#</code> follows it.
+     */
+    static int getCompleteLength(final CharSequence text) {
+        for (int i = text.length() - 1; i >= 0; i--) {
+            final char c = text.charAt(i);
+            if ('&' == c) {
+                return i;
+            }
+            if (!Character.isLetterOrDigit(c) && '#' != c) {
+                break;
+            }
+        }
+        return text.length();
+    }
+}
@@ -18,13 +18,14 @@ package org.kie.workbench.common.stunner.bpmn.backend.marshall.json;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.HashMap;
 
 import bpsim.impl.BpsimFactoryImpl;
-import org.apache.commons.lang3.StringEscapeUtils;
 import org.jboss.drools.impl.DroolsFactoryImpl;
 import org.kie.workbench.common.stunner.bpmn.backend.legacy.Bpmn2JsonUnmarshaller;
 import org.kie.workbench.common.stunner.bpmn.backend.legacy.resource.JBPMBpmn2ResourceImpl;
+import org.kie.workbench.common.stunner.bpmn.backend.marshall.Html4UnescapingOutputStream;
 import org.kie.workbench.common.stunner.bpmn.backend.marshall.json.oryx.OryxManager;
 import org.kie.workbench.common.stunner.bpmn.backend.marshall.json.parser.BPMN2JsonParser;
 import org.kie.workbench.common.stunner.bpmn.backend.marshall.json.parser.ParsingContext;
@@ -46,11 +47,21 @@ public class Bpmn2Marshaller extends Bpmn2JsonUnmarshaller {
 
     public String marshall(final Diagram<Graph, Metadata> diagram,
                            final String preProcessingData) throws IOException {
-        JBPMBpmn2ResourceImpl res = marshallToBpmn2Resource(diagram, preProcessingData);
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        marshall(diagram,
+                 preProcessingData,
+                 outputStream);
+        return outputStream.toString("UTF-8");
+    }
+
+    public void marshall(final Diagram<Graph, Metadata> diagram,
+                         final String preProcessingData,
+                         final OutputStream output) throws IOException {
+        JBPMBpmn2ResourceImpl res = marshallToBpmn2Resource(diagram, preProcessingData);
+        Html4UnescapingOutputStream outputStream = new Html4UnescapingOutputStream(output);
         res.save(outputStream,
                  new HashMap<>());
-        return StringEscapeUtils.unescapeHtml4(outputStream.toString("UTF-8"));
+        outputStream.finish();
     }
 
     public JBPMBpmn2ResourceImpl marshallToBpmn2Resource(final Diagram<Graph, Metadata> diagram,
@@ -18,11 +18,18 @@ package org.kie.workbench.common.stunner.bpmn.backend.validation;
 
 import java.io.IOException;
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -42,6 +49,7 @@ import org.kie.api.definition.process.Process;
 import org.kie.workbench.common.stunner.bpmn.BPMNDefinitionSet;
 import org.kie.workbench.common.stunner.bpmn.validation.BPMNValidator;
 import org.kie.workbench.common.stunner.bpmn.validation.BPMNViolation;
+import org.kie.workbench.common.stunner.core.api.DefinitionManager;
 import org.kie.workbench.common.stunner.core.definition.adapter.binding.BindableAdapterUtils;
 import org.kie.workbench.common.stunner.core.diagram.Diagram;
 import org.kie.workbench.common.stunner.core.service.DiagramService;
@@ -55,16 +63,33 @@ import org.xml.sax.SAXException;
 public class BPMNValidatorImpl implements BPMNValidator {
 
     private static final Logger LOG = LoggerFactory.getLogger(BPMNValidatorImpl.class);
+
+    //Validation results kept for the diagrams validated last
+    static final int MAX_CACHED_RESULTS = 32;
+
     private final DiagramService diagramService;
+    private final DefinitionManager definitionManager;
+    private final Map<String, Collection<DomainViolation>> results = Collections.synchronizedMap(
+            new LinkedHashMap<String, Collection<DomainViolation>>(MAX_CACHED_RESULTS,
+                                                                   0.75f,
+                                                                   true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, Collection<DomainViolation>> eldest) {
+                    return size() > MAX_CACHED_RESULTS;
+                }
+            });
     private SemanticModules modules;
 
     BPMNValidatorImpl() {
-        this(null);
+        this(null,
+             null);
     }
 
     @Inject
-    public BPMNValidatorImpl(final @Default DiagramService diagramService) {
+    public BPMNValidatorImpl(final @Default DiagramService diagramService,
+                             final DefinitionManager definitionManager) {
         this.diagramService = diagramService;
+        this.definitionManager = definitionManager;
     }
 
     @PostConstruct
@@ -74,31 +99,67 @@ public class BPMNValidatorImpl implements BPMNValidator {
         modules.addSemanticModule(new BPMNDISemanticModule());
     }
 
+    /**
+     * The diagram is marshalled to BPMN2 and parsed back by jBPM, which only builds its process model from the XML.
+     * So the results are kept by the SHA-256 digest of the graph content, see {@link DiagramContentDigest}, and a graph
+     * that was already validated is neither marshalled nor validated again. Diagrams without a graph are keyed by the
+     * digest of their marshalled content.
+     */
     @Override
     public void validate(Diagram diagram, Consumer<Collection<DomainViolation>> resultConsumer) {
+        final long start = System.currentTimeMillis();
+        final Optional<String> graphKey = getCacheKey(diagram);
+        LOG.debug("Diagram [{}] digested for validation in {} ms.", diagram.getName(), System.currentTimeMillis() - start);
+        if (graphKey.isPresent() && reuseResults(diagram, graphKey.get(), resultConsumer)) {
+            return;
+        }
         String rawContent = diagramService.getRawContent(diagram);
+        LOG.debug("Diagram [{}] marshalled for validation in {} ms.", diagram.getName(), System.currentTimeMillis() - start);
         if (Objects.nonNull(rawContent)) {
-            resultConsumer.accept(validate(rawContent).stream().collect(Collectors.toSet()));
+            final String cacheKey = graphKey.orElseGet(() -> getCacheKey(rawContent));
+            if (!graphKey.isPresent() && reuseResults(diagram, cacheKey, resultConsumer)) {
+                return;
+            }
+            final Collection<DomainViolation> violations = validate(rawContent).stream().collect(Collectors.toSet());
+            results.put(cacheKey, new HashSet<>(violations));
+            resultConsumer.accept(violations);
             return;
         }
 
         resultConsumer.accept(Collections.emptyList());
     }
 
+    private boolean reuseResults(final Diagram diagram,
+                                 final String cacheKey,
+                                 final Consumer<Collection<DomainViolation>> resultConsumer) {
+        final Collection<DomainViolation> cached = results.get(cacheKey);
+        if (Objects.isNull(cached)) {
+            return false;
+        }
+        LOG.debug("Diagram [{}] not changed since its last validation, reusing its results.", diagram.getName());
+        resultConsumer.accept(new HashSet<>(cached));
+        return true;
+    }
+
     protected Collection<BPMNViolation> validate(String serializedProcess) {
         try {
+            final long start = System.currentTimeMillis();
             List<Process> processes = parseProcess(serializedProcess);
+            final long parsed = System.currentTimeMillis();
+            LOG.debug("Process parsed for validation in {} ms.", parsed - start);
             if (Objects.isNull(processes) || processes.size() == 0) {
                 return Collections.emptyList();
             }
 
-            return processes.stream()
+            final Collection<BPMNViolation> violations = processes.stream()
                     .distinct()
                     .map(process -> RuleFlowProcessValidator.getInstance().validateProcess(process))
                     .flatMap(processValidationErrors -> Stream.of(processValidationErrors))
                     .filter(Objects::nonNull)
                     .map(error -> new BPMNViolation(error.getMessage(), Violation.Type.WARNING))
                     .collect(Collectors.toSet());
+            LOG.debug("Process validated in {} ms.", System.currentTimeMillis() - parsed);
+            return violations;
         } catch (SAXException | IOException e) {
             LOG.error("Error parsing process", e);
             return getBpmnViolationsFromException(() -> e.getMessage());
@@ -108,6 +169,38 @@ public class BPMNValidatorImpl implements BPMNValidator {
         }
     }
 
+    /**
+     * @return the hex encoded SHA-256 digest of the graph of the diagram, empty when it has none or it cannot be read.
+     */
+    Optional<String> getCacheKey(final Diagram diagram) {
+        if (Objects.isNull(definitionManager)) {
+            return Optional.empty();
+        }
+        try {
+            return DiagramContentDigest.of(diagram, definitionManager);
+        } catch (RuntimeException e) {
+            LOG.warn("Unable to digest the graph of diagram [{}], its marshalled content is digested instead: {}", diagram.getName(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return the hex encoded SHA-256 digest of the marshalled content.
+     */
+    static String getCacheKey(final String rawContent) {
+        final byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(rawContent.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        final StringBuilder key = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            key.append(String.format("%02x", b));
+        }
+        return key.toString();
+    }
+
     private List<BPMNViolation> getBpmnViolationsFromException(Supplier<String> message) {
         return Arrays.asList(new BPMNViolation(message.get(), Violation.Type.WARNING));
     }
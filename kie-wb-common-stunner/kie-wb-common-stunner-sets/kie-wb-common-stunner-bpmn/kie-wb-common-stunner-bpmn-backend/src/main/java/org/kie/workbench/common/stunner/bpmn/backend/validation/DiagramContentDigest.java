@@ -0,0 +1,262 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.bpmn.backend.validation;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.kie.workbench.common.stunner.core.api.DefinitionManager;
+import org.kie.workbench.common.stunner.core.definition.adapter.AdapterManager;
+import org.kie.workbench.common.stunner.core.diagram.Diagram;
+import org.kie.workbench.common.stunner.core.diagram.Metadata;
+import org.kie.workbench.common.stunner.core.graph.Edge;
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.content.Bounds;
+import org.kie.workbench.common.stunner.core.graph.content.HasControlPoints;
+import org.kie.workbench.common.stunner.core.graph.content.definition.Definition;
+import org.kie.workbench.common.stunner.core.graph.content.view.View;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewConnector;
+
+/**
+ * The SHA-256 digest of the content of a diagram graph: its nodes and edges, the properties of their definitions, their
+ * bounds and their connections. Two graphs with the same digest marshall to the same BPMN2 content, so the digest is
+ * computed instead of marshalling the diagram.
+ * <p>
+ * Every value is written with its type and length, so that different contents never write the same bytes. Property
+ * values other than strings, numbers, booleans, enums, collections and maps are written field by field.
+ */
+final class DiagramContentDigest {
+
+    //Nesting of property values followed, deeper values are written as a string
+    private static final int MAX_DEPTH = 16;
+
+    private final AdapterManager adapters;
+    private final MessageDigest digest;
+    private final Map<Object, Boolean> visited = new IdentityHashMap<>();
+
+    private DiagramContentDigest(final DefinitionManager definitionManager) {
+        this.adapters = definitionManager.adapters();
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the hex encoded digest of the graph of the diagram, empty when the diagram has no graph.
+     */
+    @SuppressWarnings("unchecked")
+    static Optional<String> of(final Diagram diagram,
+                               final DefinitionManager definitionManager) {
+        final Graph<?, Node> graph = diagram.getGraph();
+        if (null == graph) {
+            return Optional.empty();
+        }
+        final DiagramContentDigest contentDigest = new DiagramContentDigest(definitionManager);
+        contentDigest.addMetadata(diagram.getMetadata());
+        for (Node node : graph.nodes()) {
+            contentDigest.addNode(node);
+        }
+        return Optional.of(contentDigest.toHex());
+    }
+
+    private void addMetadata(final Metadata metadata) {
+        add("metadata");
+        if (null != metadata) {
+            add(metadata.getDefinitionSetId());
+            add(metadata.getTitle());
+            add(metadata.getCanvasRootUUID());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addNode(final Node<?, Edge> node) {
+        add("node");
+        add(node.getUUID());
+        addContent(node.getContent());
+        for (Edge edge : node.getOutEdges()) {
+            add("edge");
+            add(edge.getUUID());
+            add(null != edge.getTargetNode() ? edge.getTargetNode().getUUID() : null);
+            addContent(edge.getContent());
+        }
+    }
+
+    private void addContent(final Object content) {
+        add(null != content ? content.getClass().getName() : null);
+        if (content instanceof Definition) {
+            addDefinition(((Definition<?>) content).getDefinition());
+        }
+        if (content instanceof View) {
+            addBounds(((View<?>) content).getBounds());
+        }
+        if (content instanceof ViewConnector) {
+            final ViewConnector<?> connector = (ViewConnector<?>) content;
+            addValue(connector.getSourceConnection().orElse(null),
+                     0);
+            addValue(connector.getTargetConnection().orElse(null),
+                     0);
+        }
+        if (content instanceof HasControlPoints) {
+            addValue(((HasControlPoints) content).getControlPoints(),
+                     0);
+        }
+    }
+
+    private void addDefinition(final Object definition) {
+        if (null == definition) {
+            add(null);
+            return;
+        }
+        add(adapters.forDefinition().getId(definition));
+        //Sorted by id, so the order of the property sets does not matter
+        final Map<String, Object> values = new TreeMap<>();
+        for (Object property : adapters.forDefinition().getProperties(definition)) {
+            values.put(adapters.forProperty().getId(property),
+                       adapters.forProperty().getValue(property));
+        }
+        add(values.size());
+        for (Map.Entry<String, Object> value : values.entrySet()) {
+            add(value.getKey());
+            addValue(value.getValue(),
+                     0);
+        }
+    }
+
+    private void addBounds(final Bounds bounds) {
+        add("bounds");
+        if (null != bounds) {
+            addBound(bounds.getUpperLeft());
+            addBound(bounds.getLowerRight());
+        }
+    }
+
+    private void addBound(final Bounds.Bound bound) {
+        addValue(null != bound ? bound.getX() : null,
+                 0);
+        addValue(null != bound ? bound.getY() : null,
+                 0);
+    }
+
+    private void addValue(final Object value,
+                          final int depth) {
+        if (null == value) {
+            add(null);
+            return;
+        }
+        add(value.getClass().getName());
+        if (value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof Enum || depth > MAX_DEPTH) {
+            add(String.valueOf(value));
+        } else if (null != visited.put(value,
+                                       Boolean.TRUE)) {
+            //Already written, e.g. a value shared by two properties
+            add("visited");
+        } else if (value instanceof Collection) {
+            add(((Collection<?>) value).size());
+            for (Object item : (Collection<?>) value) {
+                addValue(item,
+                         depth + 1);
+            }
+        } else if (value instanceof Map) {
+            add(((Map<?, ?>) value).size());
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                addValue(entry.getKey(),
+                         depth + 1);
+                addValue(entry.getValue(),
+                         depth + 1);
+            }
+        } else if (value.getClass().isArray()) {
+            final int length = Array.getLength(value);
+            add(length);
+            for (int i = 0; i < length; i++) {
+                addValue(Array.get(value,
+                                   i),
+                         depth + 1);
+            }
+        } else {
+            for (Field field : getFields(value.getClass())) {
+                add(field.getName());
+                addValue(getFieldValue(field,
+                                       value),
+                         depth + 1);
+            }
+        }
+    }
+
+    private static List<Field> getFields(final Class<?> type) {
+        final List<Field> fields = new ArrayList<>();
+        for (Class<?> c = type; null != c && !Object.class.equals(c); c = c.getSuperclass()) {
+            Arrays.stream(c.getDeclaredFields())
+                    .filter(field -> !Modifier.isStatic(field.getModifiers()) && !field.isSynthetic())
+                    .sorted(Comparator.comparing(Field::getName))
+                    .forEach(fields::add);
+        }
+        return fields;
+    }
+
+    private static Object getFieldValue(final Field field,
+                                        final Object value) {
+        try {
+            field.setAccessible(true);
+            return field.get(value);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalStateException("Unable to read " + field,
+                                            e);
+        }
+    }
+
+    private void add(final int value) {
+        digest.update(ByteBuffer.allocate(4).putInt(value).array());
+    }
+
+    private void add(final String value) {
+        if (null == value) {
+            add(-1);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        add(bytes.length);
+        digest.update(bytes);
+    }
+
+    private String toHex() {
+        final byte[] bytes = digest.digest();
+        final StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(String.format("%02x",
+                                     b));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.bpmn.backend;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.workbench.common.stunner.core.definition.service.DiagramMarshaller;
+import org.kie.workbench.common.stunner.core.diagram.Diagram;
+import org.kie.workbench.common.stunner.core.diagram.Metadata;
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BPMNFallbackDiagramMarshallerTest {
+
+    private static final String DOCUMENT = "<bpmn2:definitions/>";
+
+    @Mock
+    private BPMNDirectDiagramMarshaller directMarshaller;
+
+    @Mock
+    private BPMNDiagramMarshaller legacyMarshaller;
+
+    @Mock
+    private Metadata metadata;
+
+    @Mock
+    private Diagram<Graph, Metadata> diagram;
+
+    @Mock
+    private Graph directGraph;
+
+    @Mock
+    private Graph legacyGraph;
+
+    private BPMNFallbackDiagramMarshaller tested;
+
+    @Before
+    public void setup() {
+        tested = new BPMNFallbackDiagramMarshaller(directMarshaller,
+                                                   legacyMarshaller);
+    }
+
+    @After
+    public void clearProperties() {
+        System.clearProperty(BPMNBackendService.MARSHALLER_EXPERIMENTAL_PROPERTY);
+    }
+
+    @Test
+    public void testUnmarshall() throws Exception {
+        when(directMarshaller.unmarshall(eq(metadata),
+                                         any(InputStream.class))).thenReturn(directGraph);
+
+        assertSame(directGraph,
+                   tested.unmarshall(metadata,
+                                     document()));
+        verify(legacyMarshaller,
+               never()).unmarshall(any(Metadata.class),
+                                   any(InputStream.class));
+    }
+
+    @Test
+    public void testUnmarshallFallsBackWithTheWholeDocument() throws Exception {
+        when(directMarshaller.unmarshall(eq(metadata),
+                                         any(InputStream.class))).thenAnswer(invocation -> {
+            // Consume part of the document before failing.
+            ((InputStream) invocation.getArguments()[1]).read(new byte[4]);
+            throw new NoSuchElementException("Not yet implemented");
+        });
+        final StringBuilder legacyDocument = new StringBuilder();
+        when(legacyMarshaller.unmarshall(eq(metadata),
+                                         any(InputStream.class))).thenAnswer(invocation -> {
+            legacyDocument.append(IOUtils.toString((InputStream) invocation.getArguments()[1],
+                                                   StandardCharsets.UTF_8));
+            return legacyGraph;
+        });
+
+        assertSame(legacyGraph,
+                   tested.unmarshall(metadata,
+                                     document()));
+        assertEquals(DOCUMENT,
+                     legacyDocument.toString());
+    }
+
+    @Test
+    public void testMarshallFallsBack() throws Exception {
+        when(directMarshaller.marshall(diagram)).thenThrow(new NoSuchElementException("Not yet implemented"));
+        when(legacyMarshaller.marshall(diagram)).thenReturn(DOCUMENT);
+
+        assertEquals(DOCUMENT,
+                     tested.marshall(diagram));
+    }
+
+    @Test
+    public void testMarshallToStreamFallsBack() throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        doThrow(new NoSuchElementException("Not yet implemented"))
+                .when(directMarshaller).marshall(eq(diagram),
+                                                 any(OutputStream.class));
+
+        tested.marshall(diagram,
+                        output);
+
+        verify(legacyMarshaller).marshall(diagram,
+                                          output);
+    }
+
+    @Test
+    public void testMarshallToStreamFallsBackOnceWritten() throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        doAnswer(invocation -> {
+            ((OutputStream) invocation.getArguments()[1]).write("<bpmn2:defin".getBytes(StandardCharsets.UTF_8));
+            throw new IllegalStateException("Failed while writing");
+        }).when(directMarshaller).marshall(eq(diagram),
+                                           any(OutputStream.class));
+        doAnswer(invocation -> {
+            ((OutputStream) invocation.getArguments()[1]).write(DOCUMENT.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(legacyMarshaller).marshall(eq(diagram),
+                                           any(OutputStream.class));
+
+        tested.marshall(diagram,
+                        output);
+
+        assertEquals(DOCUMENT,
+                     output.toString("UTF-8"));
+    }
+
+    @Test
+    public void testMarshallToStream() throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        doAnswer(invocation -> {
+            ((OutputStream) invocation.getArguments()[1]).write(DOCUMENT.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(directMarshaller).marshall(eq(diagram),
+                                           any(OutputStream.class));
+
+        tested.marshall(diagram,
+                        output);
+
+        assertEquals(DOCUMENT,
+                     output.toString("UTF-8"));
+        verify(legacyMarshaller,
+               never()).marshall(eq(diagram),
+                                 any(OutputStream.class));
+    }
+
+    @Test
+    public void testLegacyMarshallerIsTheDefault() {
+        assertSame(legacyMarshaller,
+                   BPMNBackendService.chooseMarshaller(legacyMarshaller,
+                                                       directMarshaller));
+    }
+
+    @Test
+    public void testExperimentalMarshallerEnabled() {
+        System.setProperty(BPMNBackendService.MARSHALLER_EXPERIMENTAL_PROPERTY,
+                           "true");
+
+        final DiagramMarshaller<Graph, Metadata, Diagram<Graph, Metadata>> marshaller =
+                BPMNBackendService.chooseMarshaller(legacyMarshaller,
+                                                    directMarshaller);
+
+        assertTrue(marshaller instanceof BPMNFallbackDiagramMarshaller);
+        assertSame(directMarshaller,
+                   ((BPMNFallbackDiagramMarshaller) marshaller).getMarshaller());
+        assertSame(legacyMarshaller,
+                   ((BPMNFallbackDiagramMarshaller) marshaller).getFallbackMarshaller());
+    }
+
+    @Test
+    public void testExperimentalMarshallerDisabled() {
+        System.setProperty(BPMNBackendService.MARSHALLER_EXPERIMENTAL_PROPERTY,
+                           "false");
+
+        assertSame(legacyMarshaller,
+                   BPMNBackendService.chooseMarshaller(legacyMarshaller,
+                                                       directMarshaller));
+    }
+
+    private static InputStream document() {
+        return new ByteArrayInputStream(DOCUMENT.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.bpmn.backend.marshall;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.lang3.StringEscapeUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class Html4UnescapingOutputStreamTest {
+
+    private static final String TEXT = "<task name=\"a &lt; b &amp;&amp; c &gt; d\" " +
+            "script=\"x &#60; y &#x3E; z &thetasym; &euro;\"/>" +
+            "<value>\u00f1and\u00fa &aacute; \u20ac &unknown; & &amp &#; &#12</value>";
+
+    @Test
+    public void testUnescapeAsAWhole() throws IOException {
+        assertEquals(StringEscapeUtils.unescapeHtml4(TEXT),
+                     unescape(TEXT.getBytes(StandardCharsets.UTF_8),
+                              Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testUnescapeInChunks() throws IOException {
+        final byte[] bytes = TEXT.getBytes(StandardCharsets.UTF_8);
+        for (int chunkSize = 1; chunkSize <= 16; chunkSize++) {
+            assertEquals("Chunk size " + chunkSize,
+                         StringEscapeUtils.unescapeHtml4(TEXT),
+                         unescape(bytes,
+                                  chunkSize));
+        }
+    }
+
+    @Test
+    public void testUnescapeLargeText() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        while (text.length() < 100000) {
+            text.append(TEXT);
+        }
+        final byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        assertEquals(StringEscapeUtils.unescapeHtml4(text.toString()),
+                     unescape(bytes,
+                              1000));
+    }
+
+    @Test
+    public void testGetCompleteLength() {
+        assertEquals(5,
+                     Html4UnescapingOutputStream.getCompleteLength("a < b"));
+        assertEquals(2,
+                     Html4UnescapingOutputStream.getCompleteLength("a &lt"));
+        assertEquals(2,
+                     Html4UnescapingOutputStream.getCompleteLength("a &#x3"));
+        assertEquals(6,
+                     Html4UnescapingOutputStream.getCompleteLength("a &lt;"));
+        assertEquals(5,
+                     Html4UnescapingOutputStream.getCompleteLength("a & b"));
+    }
+
+    private static String unescape(final byte[] bytes,
+                                   final int chunkSize) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final Html4UnescapingOutputStream tested = new Html4UnescapingOutputStream(output);
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            tested.write(bytes,
+                         offset,
+                         Math.min(chunkSize,
+                                  bytes.length - offset));
+        }
+        tested.finish();
+        return output.toString("UTF-8");
+    }
+}
@@ -17,6 +17,13 @@
 package org.kie.workbench.common.stunner.bpmn.backend.service.diagram;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -41,6 +48,7 @@ import org.eclipse.bpmn2.RootElement;
 import org.eclipse.emf.ecore.impl.EStructuralFeatureImpl;
 import org.eclipse.emf.ecore.util.FeatureMap;
 import org.jboss.drools.MetaDataType;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -131,6 +139,8 @@ import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolatio
 import org.kie.workbench.common.stunner.core.util.DefinitionUtils;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -145,6 +155,8 @@ import static org.mockito.Mockito.when;
 @RunWith(MockitoJUnitRunner.class)
 public class BPMNDirectDiagramMarshallerTest {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(BPMNDirectDiagramMarshallerTest.class);
+
     static final String BPMN_DEF_SET_ID = BindableAdapterUtils.getDefinitionSetId(BPMNDefinitionSet.class);
 
     private static final String BPMN_BASIC = "org/kie/workbench/common/stunner/bpmn/backend/service/diagram/basic.bpmn";
@@ -189,6 +201,7 @@ public class BPMNDirectDiagramMarshallerTest {
     private static final String BPMN_MAGNETSINLANE = "org/kie/workbench/common/stunner/bpmn/backend/service/diagram/magnetsInLane.bpmn";
     private static final String BPMN_ENDERROR_EVENT = "org/kie/workbench/common/stunner/bpmn/backend/service/diagram/endErrorEvent.bpmn";
     private static final String BPMN_EVENT_DEFINITION_REF = "org/kie/workbench/common/stunner/bpmn/backend/service/diagram/eventDefinitionRef.bpmn";
+    private static final String BPMN_SERVICE_TASKS = "org/kie/workbench/common/stunner/bpmn/backend/service/diagram/serviceTasks.bpmn";
 
     private static final String NEW_LINE = System.lineSeparator();
 
@@ -288,6 +301,12 @@ public class BPMNDirectDiagramMarshallerTest {
         assertTrue(task1.getContent().getDefinition() instanceof NoneTask);
     }
 
+    // Work item tasks must not be read as none tasks, losing their handler and parameters
+    @Test(expected = UnsupportedOperationException.class)
+    public void testUnmarshallWorkItemTasksNotSupported() throws Exception {
+        unmarshall(BPMN_SERVICE_TASKS);
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void testUnmarshallEvaluation() throws Exception {
@@ -1654,6 +1673,58 @@ public class BPMNDirectDiagramMarshallerTest {
                       7);
     }
 
+    @Test
+    public void testMarshallToStream() throws Exception {
+        for (String fileName : new String[]{BPMN_EVALUATION, BPMN_SEQUENCEFLOW, BPMN_SCRIPTTASK}) {
+            Diagram<Graph, Metadata> diagram = unmarshall(fileName);
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            tested.marshall(diagram,
+                            output);
+            assertEquals(fileName,
+                         tested.marshall(diagram),
+                         output.toString("UTF-8"));
+        }
+    }
+
+    /**
+     * Compares the peak heap used while saving a generated process through the String API, as written to the file
+     * system, and through the OutputStream API. Only runs when the process size, in bytes, is set by the
+     * <code>org.kie.stunner.benchmark.processSize</code> system property.
+     */
+    @Test
+    public void benchmarkSavePeakHeap() throws Exception {
+        final String processSizeProperty = System.getProperty("org.kie.stunner.benchmark.processSize");
+        Assume.assumeNotNull(processSizeProperty);
+        final int processSize = Integer.parseInt(processSizeProperty);
+        final String process = generateProcess(processSize);
+        Diagram<Graph, Metadata> diagram = unmarshall(new ByteArrayInputStream(process.getBytes(StandardCharsets.UTF_8)));
+        final java.nio.file.Path file = Files.createTempFile("benchmark",
+                                                             ".bpmn");
+        try {
+            long baseline = resetPeakHeap();
+            try (OutputStream output = Files.newOutputStream(file)) {
+                output.write(tested.marshall(diagram).getBytes(StandardCharsets.UTF_8));
+            }
+            final long stringPeak = getPeakHeap() - baseline;
+            final byte[] expected = Files.readAllBytes(file);
+
+            baseline = resetPeakHeap();
+            try (OutputStream output = Files.newOutputStream(file)) {
+                tested.marshall(diagram,
+                                output);
+            }
+            final long streamPeak = getPeakHeap() - baseline;
+
+            LOGGER.info("Save of a " + expected.length / 1024 + " KB process" +
+                                ", String: " + stringPeak / 1024 + " KB peak heap" +
+                                ", OutputStream: " + streamPeak / 1024 + " KB peak heap");
+            assertTrue(Arrays.equals(expected,
+                                     Files.readAllBytes(file)));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
     @Test
     public void testMarshallNotBoundaryEvents() throws Exception {
         Diagram<Graph, Metadata> diagram = unmarshall(BPMN_NOT_BOUNDARY_EVENTS);
@@ -2742,4 +2813,110 @@ public class BPMNDirectDiagramMarshallerTest {
         }
         return null;
     }
+
+    /**
+     * @return a process of at least the given size, in bytes, as a chain of script tasks.
+     */
+    private static String generateProcess(int size) {
+        StringBuilder script = new StringBuilder();
+        while (script.length() < 1024) {
+            script.append("if (count < limit && !done) { count = count + 1; }").append(NEW_LINE);
+        }
+        StringBuilder process = new StringBuilder();
+        StringBuilder shapes = new StringBuilder();
+        process.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>").append(NEW_LINE)
+                .append("<bpmn2:definitions xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xmlns:bpmn2=\"http://www.omg.org/spec/BPMN/20100524/MODEL\" ")
+                .append("xmlns:bpmndi=\"http://www.omg.org/spec/BPMN/20100524/DI\" xmlns:dc=\"http://www.omg.org/spec/DD/20100524/DC\" ")
+                .append("xmlns:di=\"http://www.omg.org/spec/DD/20100524/DI\" xmlns:drools=\"http://www.jboss.org/drools\" id=\"_benchmark\" ")
+                .append("expressionLanguage=\"http://www.mvel.org/2.0\" targetNamespace=\"http://www.omg.org/bpmn20\" typeLanguage=\"http://www.java.com/javaTypes\">").append(NEW_LINE)
+                .append("  <bpmn2:process id=\"benchmark.Process\" drools:version=\"1.0\" name=\"Process\" isExecutable=\"true\">").append(NEW_LINE)
+                .append("    <bpmn2:startEvent id=\"_start\">").append(NEW_LINE)
+                .append("      <bpmn2:outgoing>_flow0</bpmn2:outgoing>").append(NEW_LINE)
+                .append("    </bpmn2:startEvent>").append(NEW_LINE);
+        appendShape(shapes,
+                    "_start",
+                    0);
+        int tasks = 0;
+        while (process.length() < size) {
+            tasks++;
+            process.append("    <bpmn2:scriptTask id=\"_task").append(tasks).append("\" name=\"Task ").append(tasks).append("\" scriptFormat=\"http://www.java.com/java\">").append(NEW_LINE)
+                    .append("      <bpmn2:incoming>_flow").append(tasks - 1).append("</bpmn2:incoming>").append(NEW_LINE)
+                    .append("      <bpmn2:outgoing>_flow").append(tasks).append("</bpmn2:outgoing>").append(NEW_LINE)
+                    .append("      <bpmn2:script><![CDATA[").append(script).append("]]></bpmn2:script>").append(NEW_LINE)
+                    .append("    </bpmn2:scriptTask>").append(NEW_LINE);
+            appendFlow(process,
+                       shapes,
+                       tasks - 1,
+                       tasks == 1 ? "_start" : "_task" + (tasks - 1),
+                       "_task" + tasks);
+            appendShape(shapes,
+                        "_task" + tasks,
+                        tasks);
+        }
+        process.append("    <bpmn2:endEvent id=\"_end\">").append(NEW_LINE)
+                .append("      <bpmn2:incoming>_flow").append(tasks).append("</bpmn2:incoming>").append(NEW_LINE)
+                .append("    </bpmn2:endEvent>").append(NEW_LINE);
+        appendFlow(process,
+                   shapes,
+                   tasks,
+                   "_task" + tasks,
+                   "_end");
+        appendShape(shapes,
+                    "_end",
+                    tasks + 1);
+        return process.append("  </bpmn2:process>").append(NEW_LINE)
+                .append("  <bpmndi:BPMNDiagram id=\"_diagram\">").append(NEW_LINE)
+                .append("    <bpmndi:BPMNPlane id=\"_plane\" bpmnElement=\"benchmark.Process\">").append(NEW_LINE)
+                .append(shapes)
+                .append("    </bpmndi:BPMNPlane>").append(NEW_LINE)
+                .append("  </bpmndi:BPMNDiagram>").append(NEW_LINE)
+                .append("</bpmn2:definitions>").append(NEW_LINE)
+                .toString();
+    }
+
+    private static void appendFlow(StringBuilder process,
+                                   StringBuilder shapes,
+                                   int index,
+                                   String sourceId,
+                                   String targetId) {
+        process.append("    <bpmn2:sequenceFlow id=\"_flow").append(index).append("\" sourceRef=\"").append(sourceId)
+                .append("\" targetRef=\"").append(targetId).append("\"/>").append(NEW_LINE);
+        shapes.append("      <bpmndi:BPMNEdge id=\"_flow").append(index).append("_edge\" bpmnElement=\"_flow").append(index).append("\">").append(NEW_LINE)
+                .append("        <di:waypoint xsi:type=\"dc:Point\" x=\"").append(index * 150 + 100).append(".0\" y=\"140.0\"/>").append(NEW_LINE)
+                .append("        <di:waypoint xsi:type=\"dc:Point\" x=\"").append(index * 150 + 150).append(".0\" y=\"140.0\"/>").append(NEW_LINE)
+                .append("      </bpmndi:BPMNEdge>").append(NEW_LINE);
+    }
+
+    private static void appendShape(StringBuilder shapes,
+                                    String id,
+                                    int index) {
+        shapes.append("      <bpmndi:BPMNShape id=\"").append(id).append("_shape\" bpmnElement=\"").append(id).append("\">").append(NEW_LINE)
+                .append("        <dc:Bounds height=\"80.0\" width=\"100.0\" x=\"").append(index * 150).append(".0\" y=\"100.0\"/>").append(NEW_LINE)
+                .append("      </bpmndi:BPMNShape>").append(NEW_LINE);
+    }
+
+    /**
+     * @return the heap used once the peak usage of the heap pools is reset.
+     */
+    private static long resetPeakHeap() {
+        System.gc();
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                used += pool.getUsage().getUsed();
+            }
+        }
+        return used;
+    }
+
+    private static long getPeakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
 }
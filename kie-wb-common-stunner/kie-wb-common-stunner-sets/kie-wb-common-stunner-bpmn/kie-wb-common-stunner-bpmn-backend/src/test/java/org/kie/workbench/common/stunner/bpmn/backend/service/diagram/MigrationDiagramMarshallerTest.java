@@ -16,6 +16,8 @@
 
 package org.kie.workbench.common.stunner.bpmn.backend.service.diagram;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
@@ -29,6 +31,7 @@ import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -70,6 +73,7 @@ import org.kie.workbench.common.stunner.core.definition.adapter.AdapterManager;
 import org.kie.workbench.common.stunner.core.definition.adapter.binding.BindableAdapterUtils;
 import org.kie.workbench.common.stunner.core.definition.clone.CloneManager;
 import org.kie.workbench.common.stunner.core.definition.morph.MorphDefinition;
+import org.kie.workbench.common.stunner.core.definition.service.DiagramMarshaller;
 import org.kie.workbench.common.stunner.core.diagram.Diagram;
 import org.kie.workbench.common.stunner.core.diagram.DiagramImpl;
 import org.kie.workbench.common.stunner.core.diagram.Metadata;
@@ -103,6 +107,8 @@ import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolatio
 import org.kie.workbench.common.stunner.core.util.DefinitionUtils;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
@@ -115,6 +121,8 @@ import static org.mockito.Mockito.when;
 @RunWith(MockitoJUnitRunner.class)
 public class MigrationDiagramMarshallerTest {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(MigrationDiagramMarshallerTest.class);
+
     private static final String BPMN_DEF_SET_ID = BindableAdapterUtils.getDefinitionSetId(BPMNDefinitionSet.class);
 
     private static final String BPMN_BASIC = "org/kie/workbench/common/stunner/bpmn/backend/service/diagram/basic.bpmn";
@@ -518,6 +526,78 @@ public class MigrationDiagramMarshallerTest {
         assertDiagramEquals(oldDiagram, newDiagram, BPMN_EVALUATION);
     }
 
+    /**
+     * Compares the legacy (EMF to Oryx JSON to graph) and the converters based (EMF to graph) unmarshalling of the
+     * same processes, by open time and allocated bytes per node. Only runs when the iterations are set by the
+     * <code>org.kie.stunner.benchmark.iterations</code> system property.
+     */
+    @Test
+    public void benchmarkUnmarshall() throws Exception {
+        final String iterationsProperty = System.getProperty("org.kie.stunner.benchmark.iterations");
+        Assume.assumeNotNull(iterationsProperty);
+        final String[] processes = {
+                BPMN_EVALUATION,
+                BPMN_LANES,
+                BPMN_BOUNDARY_EVENTS,
+                BPMN_PROCESSVARIABLES,
+                BPMN_USERTASKASSIGNMENTS,
+                BPMN_EMBEDDED_SUBPROCESS,
+                BPMN_MAGNETSINLANE
+        };
+        final int iterations = Integer.parseInt(iterationsProperty);
+        for (String fileName : processes) {
+            final int nodes = countNodes(Unmarshalling.unmarshall(newMarshaller, fileName));
+            final long[] legacy = benchmarkUnmarshall(oldMarshaller,
+                                                      fileName,
+                                                      iterations);
+            final long[] converters = benchmarkUnmarshall(newMarshaller,
+                                                          fileName,
+                                                          iterations);
+            LOGGER.info(fileName.substring(fileName.lastIndexOf('/') + 1) + " (" + nodes + " nodes)" +
+                                ", legacy: " + legacy[0] / 1000 + " us, " + perNode(legacy[1], nodes) +
+                                ", converters: " + converters[0] / 1000 + " us, " + perNode(converters[1], nodes));
+            assertEquals(fileName,
+                         countNodes(Unmarshalling.unmarshall(oldMarshaller, fileName)),
+                         nodes);
+        }
+    }
+
+    /**
+     * @return the average nanoseconds and allocated bytes, or -1 when not supported, per unmarshalling.
+     */
+    private static long[] benchmarkUnmarshall(DiagramMarshaller marshaller, String fileName, int iterations) throws Exception {
+        // Warm up.
+        Unmarshalling.unmarshall(marshaller, fileName);
+        final long startBytes = allocatedBytes();
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            Unmarshalling.unmarshall(marshaller, fileName);
+        }
+        final long nanos = (System.nanoTime() - start) / iterations;
+        final long bytes = startBytes < 0 ? -1 : (allocatedBytes() - startBytes) / iterations;
+        return new long[]{nanos, bytes};
+    }
+
+    private static long allocatedBytes() {
+        final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static String perNode(long bytes, int nodes) {
+        return bytes < 0 ? "allocation not available" : bytes / nodes + " bytes/node";
+    }
+
+    private static int countNodes(Diagram<Graph, Metadata> diagram) {
+        int count = 0;
+        for (Object node : diagram.getGraph().nodes()) {
+            count++;
+        }
+        return count;
+    }
+
     private void assertNodeEquals(Diagram<Graph, Metadata> oldDiagram, Diagram<Graph, Metadata> newDiagram, String fileName) {
         Map<String, Node<View, ?>> oldNodes = asNodeMap(oldDiagram.getGraph().nodes());
         Map<String, Node<View, ?>> newNodes = asNodeMap(newDiagram.getGraph().nodes());
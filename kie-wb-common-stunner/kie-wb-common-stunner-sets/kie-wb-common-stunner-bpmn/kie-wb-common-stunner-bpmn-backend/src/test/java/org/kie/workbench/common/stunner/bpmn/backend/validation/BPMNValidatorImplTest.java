@@ -19,6 +19,9 @@ package org.kie.workbench.common.stunner.bpmn.backend.validation;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.Before;
@@ -26,16 +29,30 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.kie.workbench.common.stunner.bpmn.BPMNDefinitionSet;
 import org.kie.workbench.common.stunner.bpmn.validation.BPMNViolation;
+import org.kie.workbench.common.stunner.core.api.DefinitionManager;
+import org.kie.workbench.common.stunner.core.definition.adapter.AdapterManager;
+import org.kie.workbench.common.stunner.core.definition.adapter.DefinitionAdapter;
+import org.kie.workbench.common.stunner.core.definition.adapter.PropertyAdapter;
 import org.kie.workbench.common.stunner.core.definition.adapter.binding.BindableAdapterUtils;
 import org.kie.workbench.common.stunner.core.diagram.Diagram;
+import org.kie.workbench.common.stunner.core.graph.Edge;
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.content.view.View;
 import org.kie.workbench.common.stunner.core.service.DiagramService;
 import org.kie.workbench.common.stunner.core.validation.Violation;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -52,9 +69,21 @@ public class BPMNValidatorImplTest {
     @Mock
     private Diagram diagram;
 
+    @Mock
+    private DefinitionManager definitionManager;
+
+    @Mock
+    private AdapterManager adapterManager;
+
+    @Mock
+    private DefinitionAdapter<Object> definitionAdapter;
+
+    @Mock
+    private PropertyAdapter<Object, Object> propertyAdapter;
+
     @Before
     public void setUp() {
-        bpmnValidador = new BPMNValidatorImpl(diagramService);
+        bpmnValidador = new BPMNValidatorImpl(diagramService, definitionManager);
         bpmnValidador.init();
     }
 
@@ -99,4 +128,66 @@ public class BPMNValidatorImplTest {
     public void getDefinitionSetId() {
         assertEquals(bpmnValidador.getDefinitionSetId(), BindableAdapterUtils.getDefinitionId(BPMNDefinitionSet.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void validateUnchangedContentOnce() {
+        final BPMNValidatorImpl validator = spy(bpmnValidador);
+        when(diagramService.getRawContent(diagram)).thenReturn(getSerializedProcess(BPMN_NO_END));
+        validator.validate(diagram, result -> assertEquals(2, result.size()));
+        validator.validate(diagram, result -> assertEquals(2, result.size()));
+        verify(validator, times(1)).validate(anyString());
+
+        when(diagramService.getRawContent(diagram)).thenReturn(getSerializedProcess(BPMN_VALID));
+        validator.validate(diagram, result -> assertTrue(result.isEmpty()));
+        verify(validator, times(2)).validate(anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void validateUnchangedGraphWithoutMarshalling() {
+        final Object task = new Object();
+        final Object nameProperty = new Object();
+        final AtomicReference<String> name = new AtomicReference<>("task1");
+        final View<Object> view = mock(View.class);
+        when(view.getDefinition()).thenReturn(task);
+        final Node<View<Object>, Edge> node = mock(Node.class);
+        when(node.getUUID()).thenReturn("node1");
+        when(node.getContent()).thenReturn(view);
+        when(node.getOutEdges()).thenReturn(Collections.emptyList());
+        final Graph graph = mock(Graph.class);
+        when(graph.nodes()).thenReturn(Collections.singletonList(node));
+        when(diagram.getGraph()).thenReturn(graph);
+        when(definitionManager.adapters()).thenReturn(adapterManager);
+        when(adapterManager.forDefinition()).thenReturn(definitionAdapter);
+        when(adapterManager.forProperty()).thenReturn(propertyAdapter);
+        when(definitionAdapter.getId(task)).thenReturn("Task");
+        when(definitionAdapter.getProperties(task)).thenReturn((Set) Collections.singleton(nameProperty));
+        when(propertyAdapter.getId(nameProperty)).thenReturn("name");
+        when(propertyAdapter.getValue(nameProperty)).thenAnswer(invocation -> name.get());
+        when(diagramService.getRawContent(diagram)).thenReturn(getSerializedProcess(BPMN_NO_END));
+
+        final BPMNValidatorImpl validator = spy(bpmnValidador);
+        validator.validate(diagram, result -> assertEquals(2, result.size()));
+        validator.validate(diagram, result -> assertEquals(2, result.size()));
+        verify(diagramService, times(1)).getRawContent(diagram);
+        verify(validator, times(1)).validate(anyString());
+
+        //A changed property value is a different graph content
+        name.set("task2");
+        validator.validate(diagram, result -> assertEquals(2, result.size()));
+        verify(diagramService, times(2)).getRawContent(diagram);
+        verify(validator, times(2)).validate(anyString());
+    }
+
+    @Test
+    public void getCacheKeyIsContentDigest() {
+        final String content = getSerializedProcess(BPMN_NO_END);
+        final String key = BPMNValidatorImpl.getCacheKey(content);
+        assertEquals(64, key.length());
+        assertEquals(key, BPMNValidatorImpl.getCacheKey(new String(content)));
+        assertNotEquals(key, BPMNValidatorImpl.getCacheKey(content + " "));
+        //Same String.hashCode, different content
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        assertNotEquals(BPMNValidatorImpl.getCacheKey("Aa"), BPMNValidatorImpl.getCacheKey("BB"));
+    }
+}
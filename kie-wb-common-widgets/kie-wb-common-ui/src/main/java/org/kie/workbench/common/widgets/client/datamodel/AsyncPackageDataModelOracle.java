@@ -112,6 +112,15 @@ public interface AsyncPackageDataModelOracle {
                              final FieldAccessorsAndMutators accessor,
                              final Callback<ModelField[]> callback);
 
+    /**
+     * Loads the fields and methods of several Fact Types in a single server round-trip. Fact Types
+     * already loaded are not requested again.
+     * @param factTypes Simple or fully qualified class names of the Fact Types.
+     * @param callback Called once all the Fact Types have been loaded.
+     */
+    void loadFactTypes(final List<String> factTypes,
+                       final Callback<Void> callback);
+
     String getFieldType(final String variableClass,
                         final String fieldName);
 
@@ -21,6 +21,8 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -58,6 +60,9 @@ import org.uberfire.client.callbacks.Callback;
 @Dependent
 public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOracle {
 
+    //Fact Types loaded on demand are unloaded again, least recently used first, beyond this limit
+    public static final int DEFAULT_MAX_LOADED_FACT_TYPES = 500;
+
     private Caller<IncrementalDataModelService> service;
     private Instance<DynamicValidator> validatorInstance;
     private DynamicValidator validator;
@@ -160,6 +165,13 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
     // Keep the link between fact name and the full qualified class name inside the package
     private FactNameToFQCNHandleRegistry factNameToFQCNHandleRegistry = new FactNameToFQCNHandleRegistry();
 
+    // Fact Types loaded on demand, least recently used first, and the place-holders they replaced
+    private final Map<String, ModelField[]> loadedFactTypes = new LinkedHashMap<String, ModelField[]>();
+
+    private int maxLoadedFactTypes = DEFAULT_MAX_LOADED_FACT_TYPES;
+
+    private int incrementalRequestCount = 0;
+
     @Inject
     public AsyncPackageDataModelOracleImpl(final Caller<IncrementalDataModelService> service,
                                            final Instance<DynamicValidator> validatorInstance) {
@@ -323,7 +335,7 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
 
         //Load incremental content
         if (isFactTypeAnEvent == null) {
-            service.call(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
+            loadUpdates(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
 
                 @Override
                 public void callback(final PackageDataModelOracleIncrementalPayload dataModel) {
@@ -357,7 +369,7 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
 
         //Load incremental content
         if (typeSource == null) {
-            service.call(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
+            loadUpdates(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
 
                 @Override
                 public void callback(final PackageDataModelOracleIncrementalPayload dataModel) {
@@ -403,7 +415,7 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
 
         //Load incremental content
         if (superTypes == null) {
-            service.call(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
+            loadUpdates(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
 
                 @Override
                 public void callback(final PackageDataModelOracleIncrementalPayload dataModel) {
@@ -431,7 +443,7 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
 
         //Load incremental content
         if (typeAnnotations == null) {
-            service.call(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
+            loadUpdates(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
 
                 @Override
                 public void callback(final PackageDataModelOracleIncrementalPayload dataModel) {
@@ -465,7 +477,7 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
 
         //Load incremental content
         if (typeFieldsAnnotations == null) {
-            service.call(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
+            loadUpdates(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
 
                 @Override
                 public void callback(final PackageDataModelOracleIncrementalPayload dataModel) {
@@ -553,7 +565,7 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
 
         //Load incremental content
         if (fields == null || fields.length == 0) {
-            service.call(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
+            loadUpdates(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
 
                 @Override
                 public void callback(final PackageDataModelOracleIncrementalPayload dataModel) {
@@ -572,6 +584,7 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
                           imports,
                           fgcnByFactName);
         } else {
+            touchLoadedFactType(fgcnByFactName);
             callback.callback(fields);
         }
     }
@@ -614,6 +627,85 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
                             });
     }
 
+    @Override
+    public void loadFactTypes(final List<String> factTypes,
+                              final Callback<Void> callback) {
+        final List<String> fullyQualifiedClassNames = new ArrayList<String>();
+        for (String factType : factTypes) {
+            final String fullyQualifiedClassName = getFQCNByFactName(factType);
+            final ModelField[] fields = projectModelFields.get(fullyQualifiedClassName);
+            if (fields == null || isLazyProxy(fields)) {
+                fullyQualifiedClassNames.add(fullyQualifiedClassName);
+            } else {
+                touchLoadedFactType(fullyQualifiedClassName);
+            }
+        }
+
+        //Load incremental content
+        if (fullyQualifiedClassNames.isEmpty()) {
+            callback.callback(null);
+        } else {
+            loadUpdates(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
+
+                @Override
+                public void callback(final PackageDataModelOracleIncrementalPayload dataModel) {
+                    AsyncPackageDataModelOracleUtilities.populateDataModelOracle(AsyncPackageDataModelOracleImpl.this,
+                                                                                 dataModel);
+                    callback.callback(null);
+                }
+            }).getBatchUpdates(resourcePath,
+                               imports,
+                               fullyQualifiedClassNames);
+        }
+    }
+
+    /**
+     * Number of requests made to the server for content not present in the baseline.
+     */
+    public int getIncrementalRequestCount() {
+        return incrementalRequestCount;
+    }
+
+    public int getLoadedFactTypeCount() {
+        return loadedFactTypes.size();
+    }
+
+    public void setMaxLoadedFactTypes(final int maxLoadedFactTypes) {
+        //The Fact Type being loaded must always fit
+        this.maxLoadedFactTypes = Math.max(1,
+                                           maxLoadedFactTypes);
+        unloadFactTypes();
+    }
+
+    private IncrementalDataModelService loadUpdates(final RemoteCallback<PackageDataModelOracleIncrementalPayload> callback) {
+        incrementalRequestCount++;
+        return service.call(callback);
+    }
+
+    private void touchLoadedFactType(final String fullyQualifiedClassName) {
+        final ModelField[] placeHolder = loadedFactTypes.remove(fullyQualifiedClassName);
+        if (placeHolder != null) {
+            loadedFactTypes.put(fullyQualifiedClassName,
+                                placeHolder);
+        }
+    }
+
+    //Reverts the least recently used Fact Types loaded on demand to their place-holders, they are loaded again if needed.
+    //Enumerations and field parameter types stay resident, since getEnums(), hasEnums() and getParametricFieldType()
+    //are synchronous and cannot load them again
+    private void unloadFactTypes() {
+        final Iterator<Map.Entry<String, ModelField[]>> iterator = loadedFactTypes.entrySet().iterator();
+        while (loadedFactTypes.size() > maxLoadedFactTypes && iterator.hasNext()) {
+            final Map.Entry<String, ModelField[]> e = iterator.next();
+            final String fullyQualifiedClassName = e.getKey();
+            iterator.remove();
+            projectModelFields.put(fullyQualifiedClassName,
+                                   e.getValue());
+            projectMethodInformation.remove(fullyQualifiedClassName);
+            projectTypeFieldsAnnotations.remove(fullyQualifiedClassName);
+        }
+    }
+
     //Check whether the ModelField[] is a place-holder for more information
     private boolean isLazyProxy(final ModelField[] modelFields) {
         if (modelFields == null) {
@@ -852,7 +944,7 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
 
         //Load incremental content
         if (methodInformation == null) {
-            service.call(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
+            loadUpdates(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
 
                 @Override
                 public void callback(final PackageDataModelOracleIncrementalPayload dataModel) {
@@ -902,7 +994,7 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
 
         //Load incremental content
         if (methodInformation == null) {
-            service.call(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
+            loadUpdates(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
 
                 @Override
                 public void callback(final PackageDataModelOracleIncrementalPayload dataModel) {
@@ -947,7 +1039,7 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
 
         //Load incremental content
         if (methodInformation == null) {
-            service.call(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
+            loadUpdates(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
 
                 @Override
                 public void callback(final PackageDataModelOracleIncrementalPayload dataModel) {
@@ -1018,7 +1110,7 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
 
         //Load incremental content
         if (methodInformation == null) {
-            service.call(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
+            loadUpdates(new RemoteCallback<PackageDataModelOracleIncrementalPayload>() {
 
                 @Override
                 public void callback(final PackageDataModelOracleIncrementalPayload dataModel) {
@@ -1230,14 +1322,24 @@ public class AsyncPackageDataModelOracleImpl implements AsyncPackageDataModelOra
 
     @Override
     public void addModelFields(final Map<String, ModelField[]> modelFields) {
-        for (ModelField[] value : modelFields.values()) {
+        for (Map.Entry<String, ModelField[]> e : modelFields.entrySet()) {
+            final ModelField[] value = e.getValue();
             if (value != null) {
                 Arrays.sort(value,
                             getModelFieldComparator());
             }
+
+            //Remember the place-holder of Fact Types loaded on demand, so they can be unloaded
+            final ModelField[] existing = projectModelFields.get(e.getKey());
+            if (isLazyProxy(existing) && value != null && !isLazyProxy(value)) {
+                loadedFactTypes.remove(e.getKey());
+                loadedFactTypes.put(e.getKey(),
+                                    existing);
+            }
         }
 
         this.projectModelFields.putAll(modelFields);
+        unloadFactTypes();
     }
 
     @Override
@@ -49,6 +49,7 @@ import org.uberfire.client.callbacks.Callback;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyList;
@@ -76,6 +77,7 @@ public class AsyncPackageDataModelOracleImplTest {
     private PackageDataModelOracleIncrementalPayload giantPayload;
     private PackageDataModelOracleIncrementalPayload stringPayload;
     private PackageDataModelOracleIncrementalPayload defaultPayload;
+    private List<List<String>> batchRequests = new ArrayList<List<String>>();
 
     @Mock
     private Instance<DynamicValidator> validatorInstance;
@@ -350,6 +352,86 @@ public class AsyncPackageDataModelOracleImplTest {
         assertFalse(oracle.getAvailableCollectionTypes().contains("SeemsAsCollection"));
     }
 
+    @Test
+    public void testLoadFactTypesInSingleRequest() {
+        final AsyncPackageDataModelOracleImpl oracleImpl = (AsyncPackageDataModelOracleImpl) oracle;
+        final Callback<Void> callback = mock(Callback.class);
+
+        oracle.loadFactTypes(Arrays.asList("Person",
+                                           "Address"),
+                             callback);
+
+        verify(callback).callback(null);
+        assertEquals(1,
+                     oracleImpl.getIncrementalRequestCount());
+        assertEquals(Arrays.asList("org.test.Person",
+                                   "org.Address"),
+                     batchRequests.get(0));
+
+        //Loaded Fact Types are not requested again
+        final Callback<ModelField[]> fieldsCallback = mock(Callback.class);
+        oracle.loadFactTypes(Arrays.asList("Person"),
+                             callback);
+        oracle.getFieldCompletions("Address",
+                                   fieldsCallback);
+
+        verify(fieldsCallback).callback(any(ModelField[].class));
+        assertEquals(1,
+                     oracleImpl.getIncrementalRequestCount());
+    }
+
+    @Test
+    public void testLoadedFactTypesAreBounded() {
+        final AsyncPackageDataModelOracleImpl oracleImpl = (AsyncPackageDataModelOracleImpl) oracle;
+        final Callback<Void> callback = mock(Callback.class);
+        oracleImpl.setMaxLoadedFactTypes(1);
+
+        oracle.loadFactTypes(Arrays.asList("Person"),
+                             callback);
+        oracle.loadFactTypes(Arrays.asList("Address"),
+                             callback);
+
+        assertEquals(1,
+                     oracleImpl.getLoadedFactTypeCount());
+
+        //Person was unloaded to make room for Address
+        oracle.loadFactTypes(Arrays.asList("Person"),
+                             callback);
+
+        assertEquals(3,
+                     oracleImpl.getIncrementalRequestCount());
+        assertEquals(Arrays.asList("org.test.Person"),
+                     batchRequests.get(2));
+    }
+
+    @Test
+    public void testEnumsAndParametersAreNotUnloaded() {
+        final AsyncPackageDataModelOracleImpl oracleImpl = (AsyncPackageDataModelOracleImpl) oracle;
+        final Callback<Void> callback = mock(Callback.class);
+        final Map<String, String[]> enums = new HashMap<String, String[]>();
+        enums.put("org.test.Person#name",
+                  new String[]{"'John'", "'Jane'"});
+        oracleImpl.addJavaEnumDefinitions(enums);
+        final Map<String, String> parametersType = new HashMap<String, String>();
+        parametersType.put("org.test.Person#addresses",
+                           "org.Address");
+        oracleImpl.addFieldParametersType(parametersType);
+        oracleImpl.setMaxLoadedFactTypes(1);
+
+        oracle.loadFactTypes(Arrays.asList("Person"),
+                             callback);
+        oracle.loadFactTypes(Arrays.asList("Address"),
+                             callback);
+
+        //Person was unloaded, but synchronous look-ups of its enumerations and parameter types still work
+        assertEquals(1,
+                     oracleImpl.getLoadedFactTypeCount());
+        assertTrue(oracle.hasEnums("Person",
+                                   "name"));
+        assertNotNull(oracle.getParametricFieldType("Person",
+                                                    "addresses"));
+    }
+
     @Test
     public void testIsFactTypeRecognized() {
         assertTrue(oracle.isFactTypeRecognized("org.Address"));
@@ -826,22 +908,40 @@ public class AsyncPackageDataModelOracleImplTest {
             public PackageDataModelOracleIncrementalPayload getUpdates(Path resourcePath,
                                                                        Imports imports,
                                                                        String factType) {
-                if (factType.equals("org.test.Person")) {
-                    callback.callback(personPayload);
-                } else if (factType.equals("java.lang.String")) {
-                    callback.callback(stringPayload);
-                } else if (factType.equals("org.Address")) {
-                    callback.callback(addressPayload);
-                } else if (factType.equals("org.globals.GiantContainerOfInformation")) {
-                    callback.callback(giantPayload);
-                } else {
-                    callback.callback(defaultPayload);
+                callback.callback(getPayload(factType));
+
+                return null;
+            }
+
+            @Override
+            public PackageDataModelOracleIncrementalPayload getBatchUpdates(Path resourcePath,
+                                                                            Imports imports,
+                                                                            List<String> factTypes) {
+                batchRequests.add(factTypes);
+                final PackageDataModelOracleIncrementalPayload payload = new PackageDataModelOracleIncrementalPayload();
+                for (String factType : factTypes) {
+                    payload.getModelFields().putAll(getPayload(factType).getModelFields());
                 }
+                callback.callback(payload);
 
                 return null;
             }
         };
 
+        private PackageDataModelOracleIncrementalPayload getPayload(String factType) {
+            if (factType.equals("org.test.Person")) {
+                return personPayload;
+            } else if (factType.equals("java.lang.String")) {
+                return stringPayload;
+            } else if (factType.equals("org.Address")) {
+                return addressPayload;
+            } else if (factType.equals("org.globals.GiantContainerOfInformation")) {
+                return giantPayload;
+            } else {
+                return defaultPayload;
+            }
+        }
+
         @Override
         public IncrementalDataModelService call() {
             return service;
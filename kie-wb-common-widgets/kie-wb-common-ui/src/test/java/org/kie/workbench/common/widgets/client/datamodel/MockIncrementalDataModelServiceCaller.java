@@ -15,6 +15,8 @@
 
 package org.kie.workbench.common.widgets.client.datamodel;
 
+import java.util.List;
+
 import org.guvnor.common.services.project.model.Package;
 import org.jboss.errai.common.client.api.Caller;
 import org.jboss.errai.common.client.api.ErrorCallback;
@@ -94,12 +96,12 @@ public class MockIncrementalDataModelServiceCaller implements Caller<Incremental
         }
 
         @Override
-        public PackageDataModelOracleIncrementalPayload getUpdates(final Path resourcePath,
-                                                                   final Imports imports,
-                                                                   final String factType) {
-            final PackageDataModelOracleIncrementalPayload payload = super.getUpdates(resourcePath,
-                                                                                      imports,
-                                                                                      factType);
+        public PackageDataModelOracleIncrementalPayload getBatchUpdates(final Path resourcePath,
+                                                                        final Imports imports,
+                                                                        final List<String> factTypes) {
+            final PackageDataModelOracleIncrementalPayload payload = super.getBatchUpdates(resourcePath,
+                                                                                           imports,
+                                                                                           factTypes);
             final RemoteCallback r = remoteCallback;
             r.callback(payload);
             return payload;